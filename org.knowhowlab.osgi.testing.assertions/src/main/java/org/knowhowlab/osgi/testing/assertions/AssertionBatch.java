@@ -0,0 +1,752 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.assertions;
+
+import org.knowhowlab.osgi.testing.utils.OperationEvent;
+import org.knowhowlab.osgi.testing.utils.OperationProbe;
+import org.osgi.framework.*;
+import org.osgi.service.packageadmin.PackageAdmin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+import static org.knowhowlab.osgi.testing.utils.ServiceUtils.getService;
+import static org.osgi.service.packageadmin.PackageAdmin.BUNDLE_TYPE_FRAGMENT;
+
+/**
+ * Batch of bundle and service assertions that are evaluated together against one snapshot of the framework.
+ * <p/>
+ * Assertions are queued and evaluated by {@link #verify()}. Bundles, their states and service references
+ * are read once per verification and PackageAdmin is looked up once if fragment assertions are queued.
+ * All failed assertions are reported together with one {@link AssertionError}:
+ * <pre>
+ * new AssertionBatch()
+ *         .assertBundleState(Bundle.ACTIVE, "org.example.api")
+ *         .assertBundleState(Bundle.ACTIVE, "org.example.impl")
+ *         .assertServiceAvailable(ExampleService.class)
+ *         .assertServiceUnavailable("org.example.Deprecated")
+ *         .verify();
+ * </pre>
+ * Assertions of the batch do not wait. Symbolic names are resolved to the bundle with the highest version
+ * like {@link BundleAssert} does.
+ * <p/>
+ * Service assertions check ServiceReferences only: services are not got, so service factories are not
+ * activated and a service whose factory returns <code>null</code> is still reported as available.
+ * References are read with <code>BundleContext.getServiceReferences</code>, so like {@link ServiceAssert}
+ * the batch sees only services that are class space compatible with the bundle of its BundleContext.
+ *
+ * @see BundleAssert
+ * @see ServiceAssert
+ * @since 1.3
+ */
+public class AssertionBatch {
+    private static final int STATE = 0;
+    private static final int AVAILABLE = 1;
+    private static final int UNAVAILABLE = 2;
+    private static final int FRAGMENT = 3;
+    private static final int NOT_FRAGMENT = 4;
+
+    private final BundleContext bc;
+    private final List<Check> checks = new ArrayList<Check>();
+
+    /**
+     * Create batch that uses BundleContext of {@link OSGiAssert#getBundleContext()}
+     *
+     * @since 1.3
+     */
+    public AssertionBatch() {
+        this(null);
+    }
+
+    /**
+     * Create batch that uses BundleContext
+     *
+     * @param bc BundleContext. If <code>null</code>, {@link OSGiAssert#getBundleContext()} is used.
+     * @since 1.3
+     */
+    public AssertionBatch(BundleContext bc) {
+        this.bc = bc;
+    }
+
+    /**
+     * Queue assertion that Bundle with bundleId has given state value
+     *
+     * @param state    bundle state value
+     * @param bundleId bundle id
+     * @return this batch
+     * @since 1.3
+     */
+    public AssertionBatch assertBundleState(int state, long bundleId) {
+        return assertBundleState(null, state, bundleId);
+    }
+
+    /**
+     * Queue assertion that Bundle with bundleId has given state value
+     *
+     * @param message  message (could be null)
+     * @param state    bundle state value
+     * @param bundleId bundle id
+     * @return this batch
+     * @since 1.3
+     */
+    public AssertionBatch assertBundleState(String message, int state, long bundleId) {
+        return add(new BundleCheck(STATE, message, state, bundleId, null, null));
+    }
+
+    /**
+     * Queue assertion that Bundle with symbolic name has given state value
+     *
+     * @param state        bundle state value
+     * @param symbolicName symbolic name
+     * @return this batch
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertBundleState(int state, String symbolicName) {
+        return assertBundleState(null, state, symbolicName, null);
+    }
+
+    /**
+     * Queue assertion that Bundle with symbolic name has given state value
+     *
+     * @param message      message (could be null)
+     * @param state        bundle state value
+     * @param symbolicName symbolic name
+     * @return this batch
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertBundleState(String message, int state, String symbolicName) {
+        return assertBundleState(message, state, symbolicName, null);
+    }
+
+    /**
+     * Queue assertion that Bundle with symbolic name and version has given state value
+     *
+     * @param state        bundle state value
+     * @param symbolicName symbolic name
+     * @param version      minimal version (could be null)
+     * @return this batch
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertBundleState(int state, String symbolicName, Version version) {
+        return assertBundleState(null, state, symbolicName, version);
+    }
+
+    /**
+     * Queue assertion that Bundle with symbolic name and version has given state value
+     *
+     * @param message      message (could be null)
+     * @param state        bundle state value
+     * @param symbolicName symbolic name
+     * @param version      minimal version (could be null)
+     * @return this batch
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertBundleState(String message, int state, String symbolicName, Version version) {
+        return add(new BundleCheck(STATE, message, state, -1, symbolicName, version));
+    }
+
+    /**
+     * Queue assertion that Bundle with bundleId is available
+     *
+     * @param bundleId bundle id
+     * @return this batch
+     * @since 1.3
+     */
+    public AssertionBatch assertBundleAvailable(long bundleId) {
+        return assertBundleAvailable(null, bundleId);
+    }
+
+    /**
+     * Queue assertion that Bundle with bundleId is available
+     *
+     * @param message  message (could be null)
+     * @param bundleId bundle id
+     * @return this batch
+     * @since 1.3
+     */
+    public AssertionBatch assertBundleAvailable(String message, long bundleId) {
+        return add(new BundleCheck(AVAILABLE, message, 0, bundleId, null, null));
+    }
+
+    /**
+     * Queue assertion that Bundle with symbolic name and version is available
+     *
+     * @param symbolicName symbolic name
+     * @param version      minimal version (could be null)
+     * @return this batch
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertBundleAvailable(String symbolicName, Version version) {
+        return assertBundleAvailable(null, symbolicName, version);
+    }
+
+    /**
+     * Queue assertion that Bundle with symbolic name and version is available
+     *
+     * @param message      message (could be null)
+     * @param symbolicName symbolic name
+     * @param version      minimal version (could be null)
+     * @return this batch
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertBundleAvailable(String message, String symbolicName, Version version) {
+        return add(new BundleCheck(AVAILABLE, message, 0, -1, symbolicName, version));
+    }
+
+    /**
+     * Queue assertion that Bundle with bundleId is unavailable
+     *
+     * @param bundleId bundle id
+     * @return this batch
+     * @since 1.3
+     */
+    public AssertionBatch assertBundleUnavailable(long bundleId) {
+        return assertBundleUnavailable(null, bundleId);
+    }
+
+    /**
+     * Queue assertion that Bundle with bundleId is unavailable
+     *
+     * @param message  message (could be null)
+     * @param bundleId bundle id
+     * @return this batch
+     * @since 1.3
+     */
+    public AssertionBatch assertBundleUnavailable(String message, long bundleId) {
+        return add(new BundleCheck(UNAVAILABLE, message, 0, bundleId, null, null));
+    }
+
+    /**
+     * Queue assertion that Bundle with symbolic name and version is unavailable
+     *
+     * @param symbolicName symbolic name
+     * @param version      minimal version (could be null)
+     * @return this batch
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertBundleUnavailable(String symbolicName, Version version) {
+        return assertBundleUnavailable(null, symbolicName, version);
+    }
+
+    /**
+     * Queue assertion that Bundle with symbolic name and version is unavailable
+     *
+     * @param message      message (could be null)
+     * @param symbolicName symbolic name
+     * @param version      minimal version (could be null)
+     * @return this batch
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertBundleUnavailable(String message, String symbolicName, Version version) {
+        return add(new BundleCheck(UNAVAILABLE, message, 0, -1, symbolicName, version));
+    }
+
+    /**
+     * Queue assertion that Bundle with bundleId is fragment bundle
+     *
+     * @param bundleId bundle id
+     * @return this batch
+     * @since 1.3
+     */
+    public AssertionBatch assertFragment(long bundleId) {
+        return assertFragment(null, bundleId);
+    }
+
+    /**
+     * Queue assertion that Bundle with bundleId is fragment bundle
+     *
+     * @param message  message (could be null)
+     * @param bundleId bundle id
+     * @return this batch
+     * @since 1.3
+     */
+    public AssertionBatch assertFragment(String message, long bundleId) {
+        return add(new BundleCheck(FRAGMENT, message, 0, bundleId, null, null));
+    }
+
+    /**
+     * Queue assertion that Bundle with symbolic name and version is fragment bundle
+     *
+     * @param symbolicName symbolic name
+     * @param version      minimal version (could be null)
+     * @return this batch
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertFragment(String symbolicName, Version version) {
+        return assertFragment(null, symbolicName, version);
+    }
+
+    /**
+     * Queue assertion that Bundle with symbolic name and version is fragment bundle
+     *
+     * @param message      message (could be null)
+     * @param symbolicName symbolic name
+     * @param version      minimal version (could be null)
+     * @return this batch
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertFragment(String message, String symbolicName, Version version) {
+        return add(new BundleCheck(FRAGMENT, message, 0, -1, symbolicName, version));
+    }
+
+    /**
+     * Queue assertion that Bundle with bundleId is not fragment bundle
+     *
+     * @param bundleId bundle id
+     * @return this batch
+     * @since 1.3
+     */
+    public AssertionBatch assertNotFragment(long bundleId) {
+        return assertNotFragment(null, bundleId);
+    }
+
+    /**
+     * Queue assertion that Bundle with bundleId is not fragment bundle
+     *
+     * @param message  message (could be null)
+     * @param bundleId bundle id
+     * @return this batch
+     * @since 1.3
+     */
+    public AssertionBatch assertNotFragment(String message, long bundleId) {
+        return add(new BundleCheck(NOT_FRAGMENT, message, 0, bundleId, null, null));
+    }
+
+    /**
+     * Queue assertion that Bundle with symbolic name and version is not fragment bundle
+     *
+     * @param symbolicName symbolic name
+     * @param version      minimal version (could be null)
+     * @return this batch
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertNotFragment(String symbolicName, Version version) {
+        return assertNotFragment(null, symbolicName, version);
+    }
+
+    /**
+     * Queue assertion that Bundle with symbolic name and version is not fragment bundle
+     *
+     * @param message      message (could be null)
+     * @param symbolicName symbolic name
+     * @param version      minimal version (could be null)
+     * @return this batch
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertNotFragment(String message, String symbolicName, Version version) {
+        return add(new BundleCheck(NOT_FRAGMENT, message, 0, -1, symbolicName, version));
+    }
+
+    /**
+     * Queue assertion that service with class is available
+     *
+     * @param clazz class
+     * @return this batch
+     * @throws NullPointerException If <code>clazz</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertServiceAvailable(Class clazz) {
+        return assertServiceAvailable(null, clazz.getName());
+    }
+
+    /**
+     * Queue assertion that service with class name is available
+     *
+     * @param className class name
+     * @return this batch
+     * @throws NullPointerException If <code>className</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertServiceAvailable(String className) {
+        return assertServiceAvailable(null, className);
+    }
+
+    /**
+     * Queue assertion that service with class name is available
+     *
+     * @param message   message (could be null)
+     * @param className class name
+     * @return this batch
+     * @throws NullPointerException If <code>className</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertServiceAvailable(String message, String className) {
+        return add(new ServiceCheck(true, message, className, null));
+    }
+
+    /**
+     * Queue assertion that service with filter is available
+     *
+     * @param filter filter
+     * @return this batch
+     * @throws NullPointerException If <code>filter</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertServiceAvailable(Filter filter) {
+        return assertServiceAvailable(null, filter);
+    }
+
+    /**
+     * Queue assertion that service with filter is available
+     *
+     * @param message message (could be null)
+     * @param filter  filter
+     * @return this batch
+     * @throws NullPointerException If <code>filter</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertServiceAvailable(String message, Filter filter) {
+        return add(new ServiceCheck(true, message, null, filter));
+    }
+
+    /**
+     * Queue assertion that service with class is unavailable
+     *
+     * @param clazz class
+     * @return this batch
+     * @throws NullPointerException If <code>clazz</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertServiceUnavailable(Class clazz) {
+        return assertServiceUnavailable(null, clazz.getName());
+    }
+
+    /**
+     * Queue assertion that service with class name is unavailable
+     *
+     * @param className class name
+     * @return this batch
+     * @throws NullPointerException If <code>className</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertServiceUnavailable(String className) {
+        return assertServiceUnavailable(null, className);
+    }
+
+    /**
+     * Queue assertion that service with class name is unavailable
+     *
+     * @param message   message (could be null)
+     * @param className class name
+     * @return this batch
+     * @throws NullPointerException If <code>className</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertServiceUnavailable(String message, String className) {
+        return add(new ServiceCheck(false, message, className, null));
+    }
+
+    /**
+     * Queue assertion that service with filter is unavailable
+     *
+     * @param filter filter
+     * @return this batch
+     * @throws NullPointerException If <code>filter</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertServiceUnavailable(Filter filter) {
+        return assertServiceUnavailable(null, filter);
+    }
+
+    /**
+     * Queue assertion that service with filter is unavailable
+     *
+     * @param message message (could be null)
+     * @param filter  filter
+     * @return this batch
+     * @throws NullPointerException If <code>filter</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionBatch assertServiceUnavailable(String message, Filter filter) {
+        return add(new ServiceCheck(false, message, null, filter));
+    }
+
+    /**
+     * Get number of queued assertions
+     *
+     * @return number of queued assertions
+     * @since 1.3
+     */
+    public int size() {
+        return checks.size();
+    }
+
+    /**
+     * Evaluate all queued assertions against one snapshot of the framework
+     *
+     * @return messages of failed assertions, empty if all assertions passed
+     * @since 1.3
+     */
+    public List<String> evaluate() {
+        Snapshot snapshot = new Snapshot(bc != null ? bc : OSGiAssert.getBundleContext());
+        List<String> failures = new ArrayList<String>();
+        for (Check check : checks) {
+            String failure = check.evaluate(snapshot);
+            if (failure != null) {
+                failures.add(failure);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Evaluate all queued assertions against one snapshot of the framework. If some assertions fail
+     * {@link AssertionError} is thrown with messages of all failed assertions.
+     *
+     * @since 1.3
+     */
+    public void verify() {
+        long start = System.nanoTime();
+        List<String> failures = evaluate();
+        OperationProbe.record(bc, OperationEvent.ASSERT, "AssertionBatch.verify", checks.size() + " assertions", -1, start, failures.isEmpty());
+        if (!failures.isEmpty()) {
+            StringBuilder builder = new StringBuilder(format("%s of %s assertions failed:", failures.size(), checks.size()));
+            for (String failure : failures) {
+                builder.append("\n  ").append(failure);
+            }
+            throw new AssertionError(builder.toString());
+        }
+    }
+
+    private AssertionBatch add(Check check) {
+        checks.add(check);
+        return this;
+    }
+
+    private static String stateName(int state) {
+        switch (state) {
+            case Bundle.UNINSTALLED:
+                return "UNINSTALLED";
+            case Bundle.INSTALLED:
+                return "INSTALLED";
+            case Bundle.RESOLVED:
+                return "RESOLVED";
+            case Bundle.STARTING:
+                return "STARTING";
+            case Bundle.STOPPING:
+                return "STOPPING";
+            case Bundle.ACTIVE:
+                return "ACTIVE";
+            default:
+                return String.valueOf(state);
+        }
+    }
+
+    /**
+     * Bundles, their states and service references of framework at one moment
+     */
+    private static final class Snapshot {
+        private final BundleContext bc;
+        private final Bundle[] bundles;
+        private final int[] states;
+        private final Map<Long, Integer> ids = new HashMap<Long, Integer>();
+        private final Map<String, Integer> names = new HashMap<String, Integer>();
+        private ServiceReference[] references;
+        private PackageAdmin packageAdmin;
+        private boolean packageAdminLoaded;
+
+        private Snapshot(BundleContext bc) {
+            this.bc = bc;
+            Bundle[] all = bc.getBundles();
+            bundles = all != null ? all : new Bundle[0];
+            states = new int[bundles.length];
+            for (int i = 0; i < bundles.length; i++) {
+                states[i] = bundles[i].getState();
+                ids.put(bundles[i].getBundleId(), i);
+                String symbolicName = bundles[i].getSymbolicName();
+                if (symbolicName != null) {
+                    Integer current = names.get(symbolicName);
+                    if (current == null || bundles[current].getVersion().compareTo(bundles[i].getVersion()) < 0) {
+                        names.put(symbolicName, i);
+                    }
+                }
+            }
+        }
+
+        private int find(long bundleId, String symbolicName, Version version) {
+            Integer index = symbolicName == null ? ids.get(bundleId) : names.get(symbolicName);
+            if (index == null || (version != null && bundles[index].getVersion().compareTo(version) < 0)) {
+                return -1;
+            }
+            return index;
+        }
+
+        private ServiceReference[] getReferences() {
+            if (references == null) {
+                try {
+                    ServiceReference[] all = bc.getServiceReferences((String) null, null);
+                    references = all != null ? all : new ServiceReference[0];
+                } catch (InvalidSyntaxException e) {
+                    // null filter is always valid
+                    references = new ServiceReference[0];
+                }
+            }
+            return references;
+        }
+
+        private PackageAdmin getPackageAdmin() {
+            if (!packageAdminLoaded) {
+                packageAdmin = getService(bc, PackageAdmin.class);
+                packageAdminLoaded = true;
+            }
+            return packageAdmin;
+        }
+    }
+
+    private abstract static class Check {
+        protected final String message;
+
+        protected Check(String message) {
+            this.message = message;
+        }
+
+        /**
+         * Evaluate assertion
+         *
+         * @param snapshot snapshot
+         * @return failure message or <code>null</code> if assertion passed
+         */
+        protected abstract String evaluate(Snapshot snapshot);
+    }
+
+    private static final class BundleCheck extends Check {
+        private final int kind;
+        private final int state;
+        private final long bundleId;
+        private final String symbolicName;
+        private final Version version;
+
+        private BundleCheck(int kind, String message, int state, long bundleId, String symbolicName, Version version) {
+            super(message);
+            if (bundleId < 0 && symbolicName == null) {
+                throw new NullPointerException("SymbolicName is null");
+            }
+            this.kind = kind;
+            this.state = state;
+            this.bundleId = bundleId;
+            this.symbolicName = symbolicName;
+            this.version = version;
+        }
+
+        @Override
+        protected String evaluate(Snapshot snapshot) {
+            int index = snapshot.find(bundleId, symbolicName, version);
+            switch (kind) {
+                case AVAILABLE:
+                    return index >= 0 ? null : failure("Bundle: %s is unavailable", null);
+                case UNAVAILABLE:
+                    return index < 0 ? null : failure("Bundle: %s is available", null);
+                default:
+                    if (index < 0) {
+                        return failure("Unknown bundle: %s", null);
+                    }
+            }
+            if (kind == STATE) {
+                int actual = snapshot.states[index];
+                return actual == state ? null
+                        : failure("Invalid state of bundle: %s", format("expected: %s, actual: %s", stateName(state), stateName(actual)));
+            }
+            PackageAdmin packageAdmin = snapshot.getPackageAdmin();
+            if (packageAdmin == null) {
+                return failure("PackageAdmin is unavailable for bundle: %s", null);
+            }
+            boolean fragment = (packageAdmin.getBundleType(snapshot.bundles[index]) & BUNDLE_TYPE_FRAGMENT) != 0;
+            if (kind == FRAGMENT) {
+                return fragment ? null : failure("Bundle: %s is not a fragment", null);
+            } else {
+                return !fragment ? null : failure("Bundle: %s is a fragment", null);
+            }
+        }
+
+        private String failure(String defaultMessage, String details) {
+            String text = message != null ? message : format(defaultMessage, describe());
+            return details != null ? text + " (" + details + ")" : text;
+        }
+
+        private String describe() {
+            if (symbolicName == null) {
+                return String.valueOf(bundleId);
+            }
+            return version != null ? format("%s[%s]", symbolicName, version) : symbolicName;
+        }
+    }
+
+    private static final class ServiceCheck extends Check {
+        private final boolean available;
+        private final String className;
+        private final Filter filter;
+
+        private ServiceCheck(boolean available, String message, String className, Filter filter) {
+            super(message);
+            if (className == null && filter == null) {
+                throw new NullPointerException("Class name or filter is null");
+            }
+            this.available = available;
+            this.className = className;
+            this.filter = filter;
+        }
+
+        @Override
+        protected String evaluate(Snapshot snapshot) {
+            int count = 0;
+            for (ServiceReference reference : snapshot.getReferences()) {
+                if (matches(reference)) {
+                    count++;
+                }
+            }
+            if (available == (count > 0)) {
+                return null;
+            }
+            Object target = className != null ? className : filter;
+            if (message != null) {
+                return message;
+            }
+            return available ? format("Service is unavailable: %s", target)
+                    : format("Service is available: %s (%s services)", target, count);
+        }
+
+        private boolean matches(ServiceReference reference) {
+            if (filter != null) {
+                return filter.match(reference);
+            }
+            Object objectClass = reference.getProperty(Constants.OBJECTCLASS);
+            if (objectClass instanceof String[]) {
+                for (String name : (String[]) objectClass) {
+                    if (className.equals(name)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,535 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.assertions;
+
+import org.knowhowlab.osgi.testing.utils.OperationEvent;
+import org.knowhowlab.osgi.testing.utils.OperationProbe;
+import org.knowhowlab.osgi.testing.utils.Promise;
+import org.knowhowlab.osgi.testing.utils.ServiceUtils;
+import org.knowhowlab.osgi.testing.utils.cmpn.EventAdminUtils;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Filter;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.Version;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.knowhowlab.osgi.testing.utils.BundleUtils.whenBundle;
+import static org.knowhowlab.osgi.testing.utils.FilterUtils.create;
+
+/**
+ * Group of timed assertions that are awaited concurrently.
+ * <p/>
+ * Assertions are queued and started together by {@link #verify()}: listeners of all assertions are registered
+ * at once and completions are awaited on one shared latch, so the group takes as long as its slowest assertion
+ * and not the sum of all timeouts. All failed assertions are reported together with one {@link AssertionError}:
+ * <pre>
+ * new AssertionGroup()
+ *         .assertServiceAvailable(ExampleService.class, 2, SECONDS)
+ *         .assertBundleState(Bundle.ACTIVE, "org.example.impl", 5, SECONDS)
+ *         .assertEvent("org/example/READY", null, 5, SECONDS)
+ *         .verify();
+ * </pre>
+ * Every assertion keeps its own timeout. If timeout is zero, the assertion waits indefinitely.
+ * Event assertions require EventAdmin API only if they are queued.
+ *
+ * @see AssertionBatch
+ * @see BundleAssert
+ * @see ServiceAssert
+ * @see org.knowhowlab.osgi.testing.assertions.cmpn.EventAdminAssert
+ * @since 1.3
+ */
+public class AssertionGroup {
+    private final BundleContext bc;
+    private final List<Member> members = new ArrayList<Member>();
+
+    /**
+     * Create group that uses BundleContext of {@link OSGiAssert#getBundleContext()}
+     *
+     * @since 1.3
+     */
+    public AssertionGroup() {
+        this(null);
+    }
+
+    /**
+     * Create group that uses BundleContext
+     *
+     * @param bc BundleContext. If <code>null</code>, {@link OSGiAssert#getBundleContext()} is used.
+     * @since 1.3
+     */
+    public AssertionGroup(BundleContext bc) {
+        this.bc = bc;
+    }
+
+    /**
+     * Queue assertion that Bundle with symbolic name reaches given stateMask value within timeout
+     *
+     * @param stateMask    The bit mask of the ORing of the bundle states to be tracked.
+     * @param symbolicName symbolic name
+     * @param timeout      time interval to wait. If zero, the assertion waits indefinitely.
+     * @param timeUnit     time unit for the time interval
+     * @return this group
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>symbolicName</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public AssertionGroup assertBundleState(int stateMask, String symbolicName, long timeout, TimeUnit timeUnit) {
+        return assertBundleState(null, stateMask, symbolicName, null, timeout, timeUnit);
+    }
+
+    /**
+     * Queue assertion that Bundle with symbolic name and version reaches given stateMask value within timeout
+     *
+     * @param stateMask    The bit mask of the ORing of the bundle states to be tracked.
+     * @param symbolicName symbolic name
+     * @param version      version (could be null)
+     * @param timeout      time interval to wait. If zero, the assertion waits indefinitely.
+     * @param timeUnit     time unit for the time interval
+     * @return this group
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>symbolicName</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public AssertionGroup assertBundleState(int stateMask, String symbolicName, Version version, long timeout, TimeUnit timeUnit) {
+        return assertBundleState(null, stateMask, symbolicName, version, timeout, timeUnit);
+    }
+
+    /**
+     * Queue assertion that Bundle with symbolic name and version reaches given stateMask value within timeout
+     *
+     * @param message      message (could be null)
+     * @param stateMask    The bit mask of the ORing of the bundle states to be tracked.
+     * @param symbolicName symbolic name
+     * @param version      version (could be null)
+     * @param timeout      time interval to wait. If zero, the assertion waits indefinitely.
+     * @param timeUnit     time unit for the time interval
+     * @return this group
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>symbolicName</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public AssertionGroup assertBundleState(String message, final int stateMask, final String symbolicName, final Version version,
+                                            long timeout, TimeUnit timeUnit) {
+        if (symbolicName == null) {
+            throw new NullPointerException("SymbolicName is null");
+        }
+        return add(new Member(message, timeout, timeUnit) {
+            @Override
+            protected Promise<?> start(BundleContext bc) {
+                return whenBundle(bc, symbolicName, version, stateMask, timeout, timeUnit);
+            }
+
+            @Override
+            protected String getDefaultMessage() {
+                return version != null
+                        ? format("Invalid state %s of bundle: %s[%s] within timeout: %s%s", stateMask, symbolicName, version, timeout, timeUnit)
+                        : format("Invalid state %s of bundle: %s within timeout: %s%s", stateMask, symbolicName, timeout, timeUnit);
+            }
+        });
+    }
+
+    /**
+     * Queue assertion that service with class becomes available within timeout
+     *
+     * @param clazz    class
+     * @param timeout  time interval to wait. If zero, the assertion waits indefinitely.
+     * @param timeUnit time unit for the time interval
+     * @return this group
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>clazz</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public AssertionGroup assertServiceAvailable(Class clazz, long timeout, TimeUnit timeUnit) {
+        return assertServiceAvailable(null, clazz, timeout, timeUnit);
+    }
+
+    /**
+     * Queue assertion that service with class becomes available within timeout
+     *
+     * @param message  message (could be null)
+     * @param clazz    class
+     * @param timeout  time interval to wait. If zero, the assertion waits indefinitely.
+     * @param timeUnit time unit for the time interval
+     * @return this group
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>clazz</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public AssertionGroup assertServiceAvailable(String message, Class clazz, long timeout, TimeUnit timeUnit) {
+        if (clazz == null) {
+            throw new NullPointerException("Class is null");
+        }
+        return assertServiceAvailable(message, clazz.getName(), timeout, timeUnit);
+    }
+
+    /**
+     * Queue assertion that service with class name becomes available within timeout
+     *
+     * @param className class name
+     * @param timeout   time interval to wait. If zero, the assertion waits indefinitely.
+     * @param timeUnit  time unit for the time interval
+     * @return this group
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>className</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public AssertionGroup assertServiceAvailable(String className, long timeout, TimeUnit timeUnit) {
+        return assertServiceAvailable(null, className, timeout, timeUnit);
+    }
+
+    /**
+     * Queue assertion that service with class name becomes available within timeout
+     *
+     * @param message   message (could be null)
+     * @param className class name
+     * @param timeout   time interval to wait. If zero, the assertion waits indefinitely.
+     * @param timeUnit  time unit for the time interval
+     * @return this group
+     * @throws IllegalArgumentException If the value of timeout is negative or <code>className</code> is invalid
+     *                                  to create filter
+     * @throws NullPointerException     If <code>className</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public AssertionGroup assertServiceAvailable(String message, String className, long timeout, TimeUnit timeUnit) {
+        if (className == null) {
+            throw new NullPointerException("Class name is null");
+        }
+        try {
+            return addServiceAvailable(message, className, create(className), timeout, timeUnit);
+        } catch (InvalidSyntaxException e) {
+            throw new IllegalArgumentException("Unable to create filter", e);
+        }
+    }
+
+    /**
+     * Queue assertion that service with filter becomes available within timeout
+     *
+     * @param filter   filter
+     * @param timeout  time interval to wait. If zero, the assertion waits indefinitely.
+     * @param timeUnit time unit for the time interval
+     * @return this group
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>filter</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public AssertionGroup assertServiceAvailable(Filter filter, long timeout, TimeUnit timeUnit) {
+        return assertServiceAvailable(null, filter, timeout, timeUnit);
+    }
+
+    /**
+     * Queue assertion that service with filter becomes available within timeout
+     *
+     * @param message  message (could be null)
+     * @param filter   filter
+     * @param timeout  time interval to wait. If zero, the assertion waits indefinitely.
+     * @param timeUnit time unit for the time interval
+     * @return this group
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>filter</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public AssertionGroup assertServiceAvailable(String message, Filter filter, long timeout, TimeUnit timeUnit) {
+        if (filter == null) {
+            throw new NullPointerException("Filter is null");
+        }
+        return addServiceAvailable(message, filter, filter, timeout, timeUnit);
+    }
+
+    /**
+     * Queue assertion that ServiceEvent with filter is fired within timeout
+     *
+     * @param eventTypeMask ServiceEvent type mask
+     * @param filter        service filter (could be null)
+     * @param timeout       time interval to wait. If zero, the assertion waits indefinitely.
+     * @param timeUnit      time unit for the time interval
+     * @return this group
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>timeUnit</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionGroup assertServiceEvent(int eventTypeMask, Filter filter, long timeout, TimeUnit timeUnit) {
+        return assertServiceEvent(null, eventTypeMask, filter, timeout, timeUnit);
+    }
+
+    /**
+     * Queue assertion that ServiceEvent with filter is fired within timeout
+     *
+     * @param message       message (could be null)
+     * @param eventTypeMask ServiceEvent type mask
+     * @param filter        service filter (could be null)
+     * @param timeout       time interval to wait. If zero, the assertion waits indefinitely.
+     * @param timeUnit      time unit for the time interval
+     * @return this group
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>timeUnit</code> is <code>null</code>
+     * @since 1.3
+     */
+    public AssertionGroup assertServiceEvent(String message, final int eventTypeMask, final Filter filter, long timeout, TimeUnit timeUnit) {
+        return add(new Member(message, timeout, timeUnit) {
+            @Override
+            protected Promise<?> start(BundleContext bc) {
+                return ServiceUtils.whenServiceEvent(bc, filter, eventTypeMask, timeout, timeUnit);
+            }
+
+            @Override
+            protected String getDefaultMessage() {
+                return format("ServiceEvent is unavailable: %s - %s within timeout: %s%s", eventTypeMask, filter, timeout, timeUnit);
+            }
+        });
+    }
+
+    /**
+     * Queue assertion that Event for defined topic and filter is fired within timeout
+     *
+     * @param topic    topic
+     * @param filter   filter (could be null)
+     * @param timeout  time interval to wait. If zero, the assertion waits indefinitely.
+     * @param timeUnit time unit for the time interval
+     * @return this group
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>topic</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public AssertionGroup assertEvent(String topic, Filter filter, long timeout, TimeUnit timeUnit) {
+        return assertEvent(null, topic, filter, timeout, timeUnit);
+    }
+
+    /**
+     * Queue assertion that Event for defined topic and filter is fired within timeout
+     *
+     * @param message  message (could be null)
+     * @param topic    topic
+     * @param filter   filter (could be null)
+     * @param timeout  time interval to wait. If zero, the assertion waits indefinitely.
+     * @param timeUnit time unit for the time interval
+     * @return this group
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>topic</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public AssertionGroup assertEvent(String message, String topic, Filter filter, long timeout, TimeUnit timeUnit) {
+        if (topic == null) {
+            throw new NullPointerException("Topic is null");
+        }
+        return assertEvent(message, new String[]{topic}, filter, timeout, timeUnit);
+    }
+
+    /**
+     * Queue assertion that Event for defined topics and filter is fired within timeout
+     *
+     * @param topics   topics
+     * @param filter   filter (could be null)
+     * @param timeout  time interval to wait. If zero, the assertion waits indefinitely.
+     * @param timeUnit time unit for the time interval
+     * @return this group
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>topics</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public AssertionGroup assertEvent(String[] topics, Filter filter, long timeout, TimeUnit timeUnit) {
+        return assertEvent(null, topics, filter, timeout, timeUnit);
+    }
+
+    /**
+     * Queue assertion that Event for defined topics and filter is fired within timeout
+     *
+     * @param message  message (could be null)
+     * @param topics   topics
+     * @param filter   filter (could be null)
+     * @param timeout  time interval to wait. If zero, the assertion waits indefinitely.
+     * @param timeUnit time unit for the time interval
+     * @return this group
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>topics</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public AssertionGroup assertEvent(String message, final String[] topics, final Filter filter, long timeout, TimeUnit timeUnit) {
+        if (topics == null) {
+            throw new NullPointerException("Topics is null");
+        }
+        return add(new Member(message, timeout, timeUnit) {
+            @Override
+            protected Promise<?> start(BundleContext bc) {
+                return EventAdminUtils.whenEvent(bc, topics, filter, timeout, timeUnit);
+            }
+
+            @Override
+            protected String getDefaultMessage() {
+                return filter != null
+                        ? format("Event is unavailable: topics: %s, filter: %s within timeout: %s%s", Arrays.toString(topics), filter, timeout, timeUnit)
+                        : format("Event is unavailable: topics: %s within timeout: %s%s", Arrays.toString(topics), timeout, timeUnit);
+            }
+        });
+    }
+
+    /**
+     * Get number of queued assertions
+     *
+     * @return number of queued assertions
+     * @since 1.3
+     */
+    public int size() {
+        return members.size();
+    }
+
+    /**
+     * Start all queued assertions together and wait until all of them are completed
+     * or the longest timeout of the group expires. Listeners of all assertions are removed before return.
+     *
+     * @return messages of failed assertions, empty if all assertions passed
+     * @since 1.3
+     */
+    public List<String> evaluate() {
+        BundleContext context = bc != null ? bc : OSGiAssert.getBundleContext();
+        List<String> failures = new ArrayList<String>();
+        if (members.isEmpty()) {
+            return failures;
+        }
+        final CountDownLatch latch = new CountDownLatch(members.size());
+        List<Promise<?>> promises = new ArrayList<Promise<?>>(members.size());
+        try {
+            for (Member member : members) {
+                Promise<?> promise = member.start(context);
+                promises.add(promise);
+                promise.whenComplete(new Promise.Callback<Object>() {
+                    public void completed(Object value, Throwable failure) {
+                        latch.countDown();
+                    }
+                });
+            }
+            long timeoutInNanos = getTimeoutInNanos();
+            if (timeoutInNanos == 0) {
+                latch.await();
+            } else {
+                latch.await(timeoutInNanos, NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            // collect failed assertions
+        } finally {
+            for (int i = 0; i < members.size(); i++) {
+                if (i >= promises.size() || !promises.get(i).isResolved()) {
+                    failures.add(members.get(i).getMessage());
+                }
+                if (i < promises.size()) {
+                    promises.get(i).cancel(false);
+                }
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Start all queued assertions together and wait until all of them are completed
+     * or the longest timeout of the group expires. If some assertions fail
+     * {@link AssertionError} is thrown with messages of all failed assertions.
+     *
+     * @since 1.3
+     */
+    public void verify() {
+        long start = System.nanoTime();
+        List<String> failures = evaluate();
+        OperationProbe.record(bc, OperationEvent.ASSERT, "AssertionGroup.verify", members.size() + " assertions",
+                NANOSECONDS.toMillis(getTimeoutInNanos()), start, failures.isEmpty());
+        if (!failures.isEmpty()) {
+            StringBuilder builder = new StringBuilder(format("%s of %s assertions failed:", failures.size(), members.size()));
+            for (String failure : failures) {
+                builder.append("\n  ").append(failure);
+            }
+            throw new AssertionError(builder.toString());
+        }
+    }
+
+    /**
+     * Get the longest timeout of queued assertions
+     *
+     * @return timeout in nanos or zero if some assertion waits indefinitely
+     */
+    private long getTimeoutInNanos() {
+        long max = 0;
+        for (Member member : members) {
+            long timeoutInNanos = member.timeUnit.toNanos(member.timeout);
+            if (timeoutInNanos == 0) {
+                return 0;
+            }
+            max = Math.max(max, timeoutInNanos);
+        }
+        return max;
+    }
+
+    private AssertionGroup addServiceAvailable(String message, final Object target, final Filter filter, long timeout, TimeUnit timeUnit) {
+        return add(new Member(message, timeout, timeUnit) {
+            @Override
+            protected Promise<?> start(BundleContext bc) {
+                return ServiceUtils.whenServiceAvailable(bc, filter, timeout, timeUnit);
+            }
+
+            @Override
+            protected String getDefaultMessage() {
+                return format("Service is unavailable: %s within timeout: %s%s", target, timeout, timeUnit);
+            }
+        });
+    }
+
+    private AssertionGroup add(Member member) {
+        members.add(member);
+        return this;
+    }
+
+    private abstract static class Member {
+        private final String message;
+        protected final long timeout;
+        protected final TimeUnit timeUnit;
+
+        protected Member(String message, long timeout, TimeUnit timeUnit) {
+            if (timeUnit == null) {
+                throw new NullPointerException("TimeUnit is null");
+            }
+            if (timeout < 0) {
+                throw new IllegalArgumentException("timeout value is negative");
+            }
+            this.message = message;
+            this.timeout = timeout;
+            this.timeUnit = timeUnit;
+        }
+
+        /**
+         * Register listeners of assertion
+         *
+         * @param bc BundleContext
+         * @return promise that is resolved if assertion passes
+         */
+        protected abstract Promise<?> start(BundleContext bc);
+
+        /**
+         * Get message of failed assertion. Default message is formatted only on failure.
+         *
+         * @return message
+         */
+        protected abstract String getDefaultMessage();
+
+        private String getMessage() {
+            return message != null ? message : getDefaultMessage();
+        }
+    }
+}
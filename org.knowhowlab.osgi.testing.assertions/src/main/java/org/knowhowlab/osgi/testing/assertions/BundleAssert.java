@@ -16,6 +16,7 @@
 
 package org.knowhowlab.osgi.testing.assertions;
 
+import org.knowhowlab.osgi.testing.utils.Deadline;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleEvent;
 import org.osgi.framework.Version;
@@ -23,7 +24,6 @@ import org.osgi.service.packageadmin.PackageAdmin;
 
 import java.util.concurrent.TimeUnit;
 
-import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -41,6 +41,8 @@ import static org.osgi.service.packageadmin.PackageAdmin.BUNDLE_TYPE_FRAGMENT;
  * @author dmytro.pishchukhin
  * @see java.lang.AssertionError
  * @see org.knowhowlab.osgi.testing.assertions.OSGiAssert
+ * @see org.knowhowlab.osgi.testing.assertions.AssertionBatch
+ * @see org.knowhowlab.osgi.testing.assertions.AssertionGroup
  */
 public class BundleAssert extends OSGiAssert {
     /**
@@ -58,7 +60,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleState(int state, long bundleId) {
-        assertBundleState(format("Invalid state of bundle: %s", bundleId), state, bundleId);
+        assertBundleState(lazyMessage("Invalid state of bundle: %s", bundleId), state, bundleId);
     }
 
     /**
@@ -71,9 +73,14 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleState(String message, int state, long bundleId) {
+        assertBundleState(messageOf(message), state, bundleId);
+    }
+
+    private static void assertBundleState(Message message, int state, long bundleId) {
+        long start = System.nanoTime();
         Bundle bundle = findBundle(getBundleContext(), bundleId);
-        assertThat(format("Unknown bundle with ID: %d", bundleId), bundle, notNullValue());
-        assertThat(message, bundle.getState(), equalTo(state));
+        assertMatches(lazyMessage("Unknown bundle with ID: %d", bundleId), bundle, notNullValue());
+        assertOutcome("BundleAssert.assertBundleState", bundleId, -1, start, message, bundle.getState(), equalTo(state));
     }
 
     /**
@@ -85,7 +92,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleState(int state, String symbolicName) {
-        assertBundleState(format("Invalid state of bundle: %s", symbolicName), state, symbolicName);
+        assertBundleState(lazyMessage("Invalid state of bundle: %s", symbolicName), state, symbolicName);
     }
 
     /**
@@ -98,7 +105,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleState(int state, String symbolicName, long timeoutInMillis) {
-        assertBundleState(format("Invalid state %s of bundle: %s within timeout: %sms", state, symbolicName, timeoutInMillis),
+        assertBundleState(lazyMessage("Invalid state %s of bundle: %s within timeout: %sms", state, symbolicName, timeoutInMillis),
                 state, symbolicName, null, timeoutInMillis, MILLISECONDS);
     }
 
@@ -113,6 +120,10 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleState(String message, int stateMask, String symbolicName, long timeoutInMillis) {
+        assertBundleState(messageOf(message), stateMask, symbolicName, timeoutInMillis);
+    }
+
+    private static void assertBundleState(Message message, int stateMask, String symbolicName, long timeoutInMillis) {
         assertBundleState(message, stateMask, symbolicName, null, timeoutInMillis, MILLISECONDS);
     }
 
@@ -128,9 +139,31 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleState(String message, int stateMask, String symbolicName, long timeout, TimeUnit timeUnit) {
+        assertBundleState(messageOf(message), stateMask, symbolicName, timeout, timeUnit);
+    }
+
+    private static void assertBundleState(Message message, int stateMask, String symbolicName, long timeout, TimeUnit timeUnit) {
         assertBundleState(message, stateMask, symbolicName, null, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that Bundle with symbolic name has given stateMask value. If it not as expected
+     * {@link AssertionError} without a message is thrown
+     *
+     * @param message      message
+     * @param stateMask    The bit mask of the ORing of the bundle states to be tracked.
+     * @param symbolicName symbolic name
+     * @param deadline     deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertBundleState(String message, int stateMask, String symbolicName, Deadline deadline) {
+        assertBundleState(messageOf(message), stateMask, symbolicName, deadline);
+    }
+
+    private static void assertBundleState(Message message, int stateMask, String symbolicName, Deadline deadline) {
+        assertBundleState(message, stateMask, symbolicName, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Asserts that Bundle with symbolic name has given state value. If it not as expected
      * {@link AssertionError} is thrown with the given message
@@ -141,10 +174,15 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleState(String message, int state, String symbolicName) {
+        assertBundleState(messageOf(message), state, symbolicName);
+    }
+
+    private static void assertBundleState(Message message, int state, String symbolicName) {
+        long start = System.nanoTime();
         assertThat("SymbolicName is null", symbolicName, notNullValue());
         Bundle bundle = findBundle(getBundleContext(), symbolicName);
-        assertThat(format("Unknown bundle with SymbolicName: %s", symbolicName), bundle, notNullValue());
-        assertThat(message, bundle.getState(), equalTo(state));
+        assertMatches(lazyMessage("Unknown bundle with SymbolicName: %s", symbolicName), bundle, notNullValue());
+        assertOutcome("BundleAssert.assertBundleState", symbolicName, -1, start, message, bundle.getState(), equalTo(state));
     }
 
     /**
@@ -160,10 +198,34 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleState(String message, int stateMask, String symbolicName, Version version, long timeout, TimeUnit timeUnit) {
+        assertBundleState(messageOf(message), stateMask, symbolicName, version, timeout, timeUnit);
+    }
+
+    private static void assertBundleState(Message message, int stateMask, String symbolicName, Version version, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("SymbolicName is null", symbolicName, notNullValue());
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         Bundle bundle = findBundle(getBundleContext(), symbolicName, version, stateMask, timeout, timeUnit);
-        assertThat(message, bundle, notNullValue());
+        assertOutcome("BundleAssert.assertBundleState", symbolicName, timeUnit.toMillis(timeout), start, message, bundle, notNullValue());
+    }
+
+    /**
+     * Asserts that Bundle with symbolic name has given stateMask value. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message      message
+     * @param stateMask    The bit mask of the ORing of the bundle states to be tracked.
+     * @param symbolicName symbolic name
+     * @param version      version
+     * @param deadline     deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertBundleState(String message, int stateMask, String symbolicName, Version version, Deadline deadline) {
+        assertBundleState(messageOf(message), stateMask, symbolicName, version, deadline);
+    }
+
+    private static void assertBundleState(Message message, int stateMask, String symbolicName, Version version, Deadline deadline) {
+        assertBundleState(message, stateMask, symbolicName, version, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -176,7 +238,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleState(int state, String symbolicName, Version version) {
-        assertBundleState(format("Invalid state of bundle: %s[%s]", symbolicName, version), state, symbolicName, version);
+        assertBundleState(lazyMessage("Invalid state of bundle: %s[%s]", symbolicName, version), state, symbolicName, version);
     }
 
     /**
@@ -191,10 +253,24 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleState(int stateMask, String symbolicName, Version version, long timeout, TimeUnit timeUnit) {
-        assertBundleState(format("Invalid state %s of bundle: %s[%s] within timeout: %s%s", stateMask, symbolicName, version, timeout, timeUnit),
+        assertBundleState(lazyMessage("Invalid state %s of bundle: %s[%s] within timeout: %s%s", stateMask, symbolicName, version, timeout, timeUnit),
                 stateMask, symbolicName, version, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that Bundle with symbolic name and version has given stateMask value. If it not as expected
+     * {@link AssertionError} without a message is thrown
+     *
+     * @param stateMask    The bit mask of the ORing of the bundle states to be tracked.
+     * @param symbolicName symbolic name
+     * @param version      version
+     * @param deadline     deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertBundleState(int stateMask, String symbolicName, Version version, Deadline deadline) {
+        assertBundleState(stateMask, symbolicName, version, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Asserts that Bundle with symbolic name has given stateMask value. If it not as expected
      * {@link AssertionError} without a message is thrown
@@ -206,10 +282,23 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleState(int stateMask, String symbolicName, long timeout, TimeUnit timeUnit) {
-        assertBundleState(format("Invalid state %s of bundle: %s within timeout: %s%s", stateMask, symbolicName, timeout, timeUnit),
+        assertBundleState(lazyMessage("Invalid state %s of bundle: %s within timeout: %s%s", stateMask, symbolicName, timeout, timeUnit),
                 stateMask, symbolicName, null, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that Bundle with symbolic name has given stateMask value. If it not as expected
+     * {@link AssertionError} without a message is thrown
+     *
+     * @param stateMask    The bit mask of the ORing of the bundle states to be tracked.
+     * @param symbolicName symbolic name
+     * @param deadline     deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertBundleState(int stateMask, String symbolicName, Deadline deadline) {
+        assertBundleState(stateMask, symbolicName, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Asserts that Bundle with symbolic name and version has given state value. If it not as expected
      * {@link AssertionError} is thrown with the given message
@@ -221,10 +310,15 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleState(String message, int state, String symbolicName, Version version) {
+        assertBundleState(messageOf(message), state, symbolicName, version);
+    }
+
+    private static void assertBundleState(Message message, int state, String symbolicName, Version version) {
+        long start = System.nanoTime();
         assertThat("SymbolicName is null", symbolicName, notNullValue());
         Bundle bundle = findBundle(getBundleContext(), symbolicName, version);
-        assertThat(format("Unknown bundle with SymbolicName: %s and version: %s", symbolicName, version), bundle, notNullValue());
-        assertThat(message, bundle.getState(), equalTo(state));
+        assertMatches(lazyMessage("Unknown bundle with SymbolicName: %s and version: %s", symbolicName, version), bundle, notNullValue());
+        assertOutcome("BundleAssert.assertBundleState", symbolicName, -1, start, message, bundle.getState(), equalTo(state));
     }
 
     /**
@@ -235,7 +329,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleAvailable(long bundleId) {
-        assertBundleAvailable(format("Bundle: %s is unavailable", bundleId), bundleId);
+        assertBundleAvailable(lazyMessage("Bundle: %s is unavailable", bundleId), bundleId);
     }
 
     /**
@@ -247,8 +341,13 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleAvailable(String message, long bundleId) {
+        assertBundleAvailable(messageOf(message), bundleId);
+    }
+
+    private static void assertBundleAvailable(Message message, long bundleId) {
+        long start = System.nanoTime();
         Bundle bundle = findBundle(getBundleContext(), bundleId);
-        assertThat(message, bundle, notNullValue());
+        assertOutcome("BundleAssert.assertBundleAvailable", bundleId, -1, start, message, bundle, notNullValue());
     }
 
     /**
@@ -259,7 +358,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleAvailable(String symbolicName) {
-        assertBundleAvailable(format("Bundle: %s is unavailable", symbolicName), symbolicName);
+        assertBundleAvailable(lazyMessage("Bundle: %s is unavailable", symbolicName), symbolicName);
     }
 
     /**
@@ -271,9 +370,14 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleAvailable(String message, String symbolicName) {
+        assertBundleAvailable(messageOf(message), symbolicName);
+    }
+
+    private static void assertBundleAvailable(Message message, String symbolicName) {
+        long start = System.nanoTime();
         assertThat("SymbolicName is null", symbolicName, notNullValue());
         Bundle bundle = findBundle(getBundleContext(), symbolicName);
-        assertThat(message, bundle, notNullValue());
+        assertOutcome("BundleAssert.assertBundleAvailable", symbolicName, -1, start, message, bundle, notNullValue());
     }
 
     /**
@@ -285,7 +389,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleAvailable(String symbolicName, Version version) {
-        assertBundleAvailable(format("Bundle: %s[%s] is unavailable", symbolicName, version), symbolicName, version);
+        assertBundleAvailable(lazyMessage("Bundle: %s[%s] is unavailable", symbolicName, version), symbolicName, version);
     }
 
     /**
@@ -298,9 +402,14 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleAvailable(String message, String symbolicName, Version version) {
+        assertBundleAvailable(messageOf(message), symbolicName, version);
+    }
+
+    private static void assertBundleAvailable(Message message, String symbolicName, Version version) {
+        long start = System.nanoTime();
         assertThat("SymbolicName is null", symbolicName, notNullValue());
         Bundle bundle = findBundle(getBundleContext(), symbolicName, version);
-        assertThat(message, bundle, notNullValue());
+        assertOutcome("BundleAssert.assertBundleAvailable", symbolicName, -1, start, message, bundle, notNullValue());
     }
 
     /**
@@ -311,7 +420,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleUnavailable(long bundleId) {
-        assertBundleUnavailable(format("Bundle: %s is available", bundleId), bundleId);
+        assertBundleUnavailable(lazyMessage("Bundle: %s is available", bundleId), bundleId);
     }
 
     /**
@@ -323,8 +432,13 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleUnavailable(String message, long bundleId) {
+        assertBundleUnavailable(messageOf(message), bundleId);
+    }
+
+    private static void assertBundleUnavailable(Message message, long bundleId) {
+        long start = System.nanoTime();
         Bundle bundle = findBundle(getBundleContext(), bundleId);
-        assertThat(message, bundle, nullValue());
+        assertOutcome("BundleAssert.assertBundleUnavailable", bundleId, -1, start, message, bundle, nullValue());
     }
 
     /**
@@ -335,7 +449,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleUnavailable(String symbolicName) {
-        assertBundleUnavailable(format("Bundle: %s is available", symbolicName), symbolicName);
+        assertBundleUnavailable(lazyMessage("Bundle: %s is available", symbolicName), symbolicName);
     }
 
     /**
@@ -347,9 +461,14 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleUnavailable(String message, String symbolicName) {
+        assertBundleUnavailable(messageOf(message), symbolicName);
+    }
+
+    private static void assertBundleUnavailable(Message message, String symbolicName) {
+        long start = System.nanoTime();
         assertThat("SymbolicName is null", symbolicName, notNullValue());
         Bundle bundle = findBundle(getBundleContext(), symbolicName);
-        assertThat(message, bundle, nullValue());
+        assertOutcome("BundleAssert.assertBundleUnavailable", symbolicName, -1, start, message, bundle, nullValue());
     }
 
     /**
@@ -361,7 +480,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleUnavailable(String symbolicName, Version version) {
-        assertBundleUnavailable(format("Bundle: %s[%s] is available", symbolicName, version), symbolicName, version);
+        assertBundleUnavailable(lazyMessage("Bundle: %s[%s] is available", symbolicName, version), symbolicName, version);
     }
 
     /**
@@ -374,9 +493,14 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertBundleUnavailable(String message, String symbolicName, Version version) {
+        assertBundleUnavailable(messageOf(message), symbolicName, version);
+    }
+
+    private static void assertBundleUnavailable(Message message, String symbolicName, Version version) {
+        long start = System.nanoTime();
         assertThat("SymbolicName is null", symbolicName, notNullValue());
         Bundle bundle = findBundle(getBundleContext(), symbolicName, version);
-        assertThat(message, bundle, nullValue());
+        assertOutcome("BundleAssert.assertBundleUnavailable", symbolicName, -1, start, message, bundle, nullValue());
     }
 
     /**
@@ -387,7 +511,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertFragment(long bundleId) {
-        assertFragment(format("Bundle: %s is not a fragment", bundleId), bundleId);
+        assertFragment(lazyMessage("Bundle: %s is not a fragment", bundleId), bundleId);
     }
 
     /**
@@ -399,12 +523,17 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertFragment(String message, long bundleId) {
+        assertFragment(messageOf(message), bundleId);
+    }
+
+    private static void assertFragment(Message message, long bundleId) {
+        long start = System.nanoTime();
         Bundle bundle = findBundle(getBundleContext(), bundleId);
-        assertThat(format("Unknown bundle with ID: %d", bundleId), bundle, notNullValue());
+        assertMatches(lazyMessage("Unknown bundle with ID: %d", bundleId), bundle, notNullValue());
         PackageAdmin packageAdmin = getService(getBundleContext(), PackageAdmin.class);
         assertThat("PackageAdmin is unavailable", packageAdmin, notNullValue());
         int type = packageAdmin.getBundleType(bundle);
-        assertThat(message, type & BUNDLE_TYPE_FRAGMENT, is(not(0)));
+        assertOutcome("BundleAssert.assertFragment", bundleId, -1, start, message, type & BUNDLE_TYPE_FRAGMENT, is(not(0)));
     }
 
     /**
@@ -415,7 +544,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertFragment(String symbolicName) {
-        assertFragment(format("Bundle: %s is not a fragment", symbolicName), symbolicName);
+        assertFragment(lazyMessage("Bundle: %s is not a fragment", symbolicName), symbolicName);
     }
 
     /**
@@ -427,13 +556,18 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertFragment(String message, String symbolicName) {
+        assertFragment(messageOf(message), symbolicName);
+    }
+
+    private static void assertFragment(Message message, String symbolicName) {
+        long start = System.nanoTime();
         assertThat("SymbolicName is null", symbolicName, notNullValue());
         Bundle bundle = findBundle(getBundleContext(), symbolicName);
-        assertThat(format("Unknown bundle with SymbolicName: %s", symbolicName), bundle, notNullValue());
+        assertMatches(lazyMessage("Unknown bundle with SymbolicName: %s", symbolicName), bundle, notNullValue());
         PackageAdmin packageAdmin = getService(getBundleContext(), PackageAdmin.class);
         assertThat("PackageAdmin is unavailable", packageAdmin, notNullValue());
         int type = packageAdmin.getBundleType(bundle);
-        assertThat(message, type & BUNDLE_TYPE_FRAGMENT, is(not(0)));
+        assertOutcome("BundleAssert.assertFragment", symbolicName, -1, start, message, type & BUNDLE_TYPE_FRAGMENT, is(not(0)));
     }
 
     /**
@@ -445,7 +579,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertFragment(String symbolicName, Version version) {
-        assertFragment(format("Bundle: %s[%s] is not a fragment", symbolicName, version), symbolicName, version);
+        assertFragment(lazyMessage("Bundle: %s[%s] is not a fragment", symbolicName, version), symbolicName, version);
     }
 
     /**
@@ -458,13 +592,18 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertFragment(String message, String symbolicName, Version version) {
+        assertFragment(messageOf(message), symbolicName, version);
+    }
+
+    private static void assertFragment(Message message, String symbolicName, Version version) {
+        long start = System.nanoTime();
         assertThat("SymbolicName is null", symbolicName, notNullValue());
         Bundle bundle = findBundle(getBundleContext(), symbolicName, version);
-        assertThat(format("Unknown bundle with SymbolicName: %s and version: %s", symbolicName, version), bundle, notNullValue());
+        assertMatches(lazyMessage("Unknown bundle with SymbolicName: %s and version: %s", symbolicName, version), bundle, notNullValue());
         PackageAdmin packageAdmin = getService(getBundleContext(), PackageAdmin.class);
         assertThat("PackageAdmin is unavailable", packageAdmin, notNullValue());
         int type = packageAdmin.getBundleType(bundle);
-        assertThat(message, type & BUNDLE_TYPE_FRAGMENT, is(not(0)));
+        assertOutcome("BundleAssert.assertFragment", symbolicName, -1, start, message, type & BUNDLE_TYPE_FRAGMENT, is(not(0)));
     }
 
     /**
@@ -475,7 +614,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertNotFragment(long bundleId) {
-        assertNotFragment(format("Bundle: %s is a fragment", bundleId), bundleId);
+        assertNotFragment(lazyMessage("Bundle: %s is a fragment", bundleId), bundleId);
     }
 
     /**
@@ -487,12 +626,17 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertNotFragment(String message, long bundleId) {
+        assertNotFragment(messageOf(message), bundleId);
+    }
+
+    private static void assertNotFragment(Message message, long bundleId) {
+        long start = System.nanoTime();
         Bundle bundle = findBundle(getBundleContext(), bundleId);
-        assertThat(format("Unknown bundle with ID: %d", bundleId), bundle, notNullValue());
+        assertMatches(lazyMessage("Unknown bundle with ID: %d", bundleId), bundle, notNullValue());
         PackageAdmin packageAdmin = getService(getBundleContext(), PackageAdmin.class);
         assertThat("PackageAdmin is unavailable", packageAdmin, notNullValue());
         int type = packageAdmin.getBundleType(bundle);
-        assertThat(message, type & BUNDLE_TYPE_FRAGMENT, is(not(0)));
+        assertOutcome("BundleAssert.assertNotFragment", bundleId, -1, start, message, type & BUNDLE_TYPE_FRAGMENT, is(not(0)));
     }
 
     /**
@@ -503,7 +647,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertNotFragment(String symbolicName) {
-        assertNotFragment(format("Bundle: %s is a fragment", symbolicName), symbolicName);
+        assertNotFragment(lazyMessage("Bundle: %s is a fragment", symbolicName), symbolicName);
     }
 
     /**
@@ -515,13 +659,18 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertNotFragment(String message, String symbolicName) {
+        assertNotFragment(messageOf(message), symbolicName);
+    }
+
+    private static void assertNotFragment(Message message, String symbolicName) {
+        long start = System.nanoTime();
         assertThat("SymbolicName is null", symbolicName, notNullValue());
         Bundle bundle = findBundle(getBundleContext(), symbolicName);
-        assertThat(format("Unknown bundle with SymbolicName: %s", symbolicName), bundle, notNullValue());
+        assertMatches(lazyMessage("Unknown bundle with SymbolicName: %s", symbolicName), bundle, notNullValue());
         PackageAdmin packageAdmin = getService(getBundleContext(), PackageAdmin.class);
         assertThat("PackageAdmin is unavailable", packageAdmin, notNullValue());
         int type = packageAdmin.getBundleType(bundle);
-        assertThat(message, type & BUNDLE_TYPE_FRAGMENT, is(not(0)));
+        assertOutcome("BundleAssert.assertNotFragment", symbolicName, -1, start, message, type & BUNDLE_TYPE_FRAGMENT, is(not(0)));
     }
 
     /**
@@ -533,7 +682,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertNotFragment(String symbolicName, Version version) {
-        assertNotFragment(format("Bundle: %s[%s] is a fragment", symbolicName, version), symbolicName, version);
+        assertNotFragment(lazyMessage("Bundle: %s[%s] is a fragment", symbolicName, version), symbolicName, version);
     }
 
     /**
@@ -546,13 +695,18 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertNotFragment(String message, String symbolicName, Version version) {
+        assertNotFragment(messageOf(message), symbolicName, version);
+    }
+
+    private static void assertNotFragment(Message message, String symbolicName, Version version) {
+        long start = System.nanoTime();
         assertThat("SymbolicName is null", symbolicName, notNullValue());
         Bundle bundle = findBundle(getBundleContext(), symbolicName, version);
-        assertThat(format("Unknown bundle with SymbolicName: %s and version: %s", symbolicName, version), bundle, notNullValue());
+        assertMatches(lazyMessage("Unknown bundle with SymbolicName: %s and version: %s", symbolicName, version), bundle, notNullValue());
         PackageAdmin packageAdmin = getService(getBundleContext(), PackageAdmin.class);
         assertThat("PackageAdmin is unavailable", packageAdmin, notNullValue());
         int type = packageAdmin.getBundleType(bundle);
-        assertThat(message, type & BUNDLE_TYPE_FRAGMENT, is(not(0)));
+        assertOutcome("BundleAssert.assertNotFragment", symbolicName, -1, start, message, type & BUNDLE_TYPE_FRAGMENT, is(not(0)));
     }
 
     /**
@@ -565,7 +719,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertBundleEvent(int eventTypeMask, int bundleId, long timeoutInMillis) {
-        assertBundleEvent(format("BundleEvent is unavailable: %s - %s within timeout: %sms", eventTypeMask, bundleId, timeoutInMillis), eventTypeMask, bundleId, timeoutInMillis);
+        assertBundleEvent(lazyMessage("BundleEvent is unavailable: %s - %s within timeout: %sms", eventTypeMask, bundleId, timeoutInMillis), eventTypeMask, bundleId, timeoutInMillis);
     }
 
     /**
@@ -579,6 +733,10 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertBundleEvent(String message, int eventTypeMask, int bundleId, long timeoutInMillis) {
+        assertBundleEvent(messageOf(message), eventTypeMask, bundleId, timeoutInMillis);
+    }
+
+    private static void assertBundleEvent(Message message, int eventTypeMask, int bundleId, long timeoutInMillis) {
         assertBundleEvent(message, eventTypeMask, bundleId, timeoutInMillis, MILLISECONDS);
     }
 
@@ -593,7 +751,20 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertBundleEvent(int eventTypeMask, int bundleId, long timeout, TimeUnit timeUnit) {
-        assertBundleEvent(format("BundleEvent is unavailable: %s - %s within timeout: %s%s", eventTypeMask, bundleId, timeout, timeUnit), eventTypeMask, bundleId, timeout, timeUnit);
+        assertBundleEvent(lazyMessage("BundleEvent is unavailable: %s - %s within timeout: %s%s", eventTypeMask, bundleId, timeout, timeUnit), eventTypeMask, bundleId, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that BundleEvent for defined bundle will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask BundleEvent type mask
+     * @param bundleId      bundle id
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertBundleEvent(int eventTypeMask, int bundleId, Deadline deadline) {
+        assertBundleEvent(eventTypeMask, bundleId, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -608,11 +779,34 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertBundleEvent(String message, int eventTypeMask, int bundleId, long timeout, TimeUnit timeUnit) {
+        assertBundleEvent(messageOf(message), eventTypeMask, bundleId, timeout, timeUnit);
+    }
+
+    private static void assertBundleEvent(Message message, int eventTypeMask, int bundleId, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         Bundle bundle = findBundle(getBundleContext(), bundleId);
-        assertThat(format("Unknown bundle with ID: %d", bundleId), bundle, notNullValue());
+        assertMatches(lazyMessage("Unknown bundle with ID: %d", bundleId), bundle, notNullValue());
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         BundleEvent event = waitForBundleEvent(getBundleContext(), bundleId, eventTypeMask, timeout, timeUnit);
-        assertThat(message, event, notNullValue());
+        assertOutcome("BundleAssert.assertBundleEvent", bundleId, timeUnit.toMillis(timeout), start, message, event, notNullValue());
+    }
+
+    /**
+     * Asserts that BundleEvent for defined bundle will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message       message
+     * @param eventTypeMask BundleEvent type mask
+     * @param bundleId      bundle id
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertBundleEvent(String message, int eventTypeMask, int bundleId, Deadline deadline) {
+        assertBundleEvent(messageOf(message), eventTypeMask, bundleId, deadline);
+    }
+
+    private static void assertBundleEvent(Message message, int eventTypeMask, int bundleId, Deadline deadline) {
+        assertBundleEvent(message, eventTypeMask, bundleId, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -625,7 +819,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertBundleEvent(int eventTypeMask, String symbolicName, long timeoutInMillis) {
-        assertBundleEvent(format("BundleEvent is unavailable: %s - %s within timeout: %sms", eventTypeMask, symbolicName, timeoutInMillis), eventTypeMask, symbolicName, timeoutInMillis);
+        assertBundleEvent(lazyMessage("BundleEvent is unavailable: %s - %s within timeout: %sms", eventTypeMask, symbolicName, timeoutInMillis), eventTypeMask, symbolicName, timeoutInMillis);
     }
 
     /**
@@ -639,6 +833,10 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertBundleEvent(String message, int eventTypeMask, String symbolicName, long timeoutInMillis) {
+        assertBundleEvent(messageOf(message), eventTypeMask, symbolicName, timeoutInMillis);
+    }
+
+    private static void assertBundleEvent(Message message, int eventTypeMask, String symbolicName, long timeoutInMillis) {
         assertBundleEvent(message, eventTypeMask, symbolicName, timeoutInMillis, MILLISECONDS);
     }
 
@@ -653,7 +851,20 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertBundleEvent(int eventTypeMask, String symbolicName, long timeout, TimeUnit timeUnit) {
-        assertBundleEvent(format("BundleEvent is unavailable: %s - %s within timeout: %s%s", eventTypeMask, symbolicName, timeout, timeUnit), eventTypeMask, symbolicName, timeout, timeUnit);
+        assertBundleEvent(lazyMessage("BundleEvent is unavailable: %s - %s within timeout: %s%s", eventTypeMask, symbolicName, timeout, timeUnit), eventTypeMask, symbolicName, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that BundleEvent for defined bundle will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask   BundleEvent type mask
+     * @param symbolicName    symbolicName
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertBundleEvent(int eventTypeMask, String symbolicName, Deadline deadline) {
+        assertBundleEvent(eventTypeMask, symbolicName, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -668,10 +879,33 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertBundleEvent(String message, int eventTypeMask, String symbolicName, long timeout, TimeUnit timeUnit) {
+        assertBundleEvent(messageOf(message), eventTypeMask, symbolicName, timeout, timeUnit);
+    }
+
+    private static void assertBundleEvent(Message message, int eventTypeMask, String symbolicName, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("SymbolicName is null", symbolicName, notNullValue());
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         BundleEvent event = waitForBundleEvent(getBundleContext(), symbolicName, eventTypeMask, timeout, timeUnit);
-        assertThat(message, event, notNullValue());
+        assertOutcome("BundleAssert.assertBundleEvent", symbolicName, timeUnit.toMillis(timeout), start, message, event, notNullValue());
+    }
+
+    /**
+     * Asserts that BundleEvent for defined bundle will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message         message
+     * @param eventTypeMask   BundleEvent type mask
+     * @param symbolicName    symbolicName
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertBundleEvent(String message, int eventTypeMask, String symbolicName, Deadline deadline) {
+        assertBundleEvent(messageOf(message), eventTypeMask, symbolicName, deadline);
+    }
+
+    private static void assertBundleEvent(Message message, int eventTypeMask, String symbolicName, Deadline deadline) {
+        assertBundleEvent(message, eventTypeMask, symbolicName, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -685,7 +919,7 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertBundleEvent(int eventTypeMask, String symbolicName, Version version, long timeoutInMillis) {
-        assertBundleEvent(format("BundleEvent is unavailable: %s - %s[%s] within timeout: %sms", eventTypeMask, symbolicName, version, timeoutInMillis),
+        assertBundleEvent(lazyMessage("BundleEvent is unavailable: %s - %s[%s] within timeout: %sms", eventTypeMask, symbolicName, version, timeoutInMillis),
                 eventTypeMask, symbolicName, version, timeoutInMillis);
     }
 
@@ -701,6 +935,10 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertBundleEvent(String message, int eventTypeMask, String symbolicName, Version version, long timeoutInMillis) {
+        assertBundleEvent(messageOf(message), eventTypeMask, symbolicName, version, timeoutInMillis);
+    }
+
+    private static void assertBundleEvent(Message message, int eventTypeMask, String symbolicName, Version version, long timeoutInMillis) {
         assertBundleEvent(message, eventTypeMask, symbolicName, version, timeoutInMillis, MILLISECONDS);
     }
 
@@ -716,7 +954,21 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertBundleEvent(int eventTypeMask, String symbolicName, long timeout, Version version, TimeUnit timeUnit) {
-        assertBundleEvent(format("BundleEvent is unavailable: %s - %s[%s] within timeout: %s%s", eventTypeMask, symbolicName, version, timeout, timeUnit), eventTypeMask, symbolicName, version, timeout, timeUnit);
+        assertBundleEvent(lazyMessage("BundleEvent is unavailable: %s - %s[%s] within timeout: %s%s", eventTypeMask, symbolicName, version, timeout, timeUnit), eventTypeMask, symbolicName, version, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that BundleEvent for defined bundle will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask   BundleEvent type mask
+     * @param symbolicName    symbolicName
+     * @param version         version
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertBundleEvent(int eventTypeMask, String symbolicName, Version version, Deadline deadline) {
+        assertBundleEvent(eventTypeMask, symbolicName, deadline.getTimeoutInMillis(), version, MILLISECONDS);
     }
 
     /**
@@ -732,9 +984,33 @@ public class BundleAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertBundleEvent(String message, int eventTypeMask, String symbolicName, Version version, long timeout, TimeUnit timeUnit) {
+        assertBundleEvent(messageOf(message), eventTypeMask, symbolicName, version, timeout, timeUnit);
+    }
+
+    private static void assertBundleEvent(Message message, int eventTypeMask, String symbolicName, Version version, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("SymbolicName is null", symbolicName, notNullValue());
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         BundleEvent event = waitForBundleEvent(getBundleContext(), symbolicName, version, eventTypeMask, timeout, timeUnit);
-        assertThat(message, event, notNullValue());
+        assertOutcome("BundleAssert.assertBundleEvent", symbolicName, timeUnit.toMillis(timeout), start, message, event, notNullValue());
+    }
+
+    /**
+     * Asserts that BundleEvent for defined bundle will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message         message
+     * @param eventTypeMask   BundleEvent type mask
+     * @param symbolicName    symbolicName
+     * @param version         version
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertBundleEvent(String message, int eventTypeMask, String symbolicName, Version version, Deadline deadline) {
+        assertBundleEvent(messageOf(message), eventTypeMask, symbolicName, version, deadline);
+    }
+
+    private static void assertBundleEvent(Message message, int eventTypeMask, String symbolicName, Version version, Deadline deadline) {
+        assertBundleEvent(message, eventTypeMask, symbolicName, version, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.assertions;
+
+import org.osgi.framework.BundleContext;
+
+import java.io.Closeable;
+
+/**
+ * Binding of BundleContext to the current thread that is used by assertions instead of
+ * the default BundleContext. Scope is created with {@link OSGiAssert#bindBundleContext(BundleContext)}
+ * and closing of scope restores the binding that was active before it:
+ * <pre>
+ * BundleContextScope scope = OSGiAssert.bindBundleContext(bc);
+ * try {
+ *     assertBundleState(Bundle.ACTIVE, "org.example.impl");
+ * } finally {
+ *     scope.close();
+ * }
+ * </pre>
+ * Nested scopes should be closed in reverse order of creation.
+ *
+ * @see OSGiAssert#bindBundleContext(BundleContext)
+ * @see OSGiAssert#bindBundleContext(BundleContext, boolean)
+ * @since 1.3
+ */
+public class BundleContextScope implements Closeable {
+    private final ThreadLocal<BundleContext> binding;
+    private final BundleContext previous;
+    private final Thread owner;
+    private boolean closed;
+
+    BundleContextScope(ThreadLocal<BundleContext> binding, BundleContext bc) {
+        this.binding = binding;
+        this.previous = binding.get();
+        this.owner = Thread.currentThread();
+        binding.set(bc);
+    }
+
+    /**
+     * Restore BundleContext binding that was active before this scope. Closing of closed scope has no effect.
+     *
+     * @throws IllegalStateException If scope is closed by another thread than the one that created it
+     * @since 1.3
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("scope is closed by another thread");
+        }
+        closed = true;
+        if (previous == null) {
+            binding.remove();
+        } else {
+            binding.set(previous);
+        }
+    }
+}
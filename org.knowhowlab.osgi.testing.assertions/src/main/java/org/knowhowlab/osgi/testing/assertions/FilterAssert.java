@@ -18,7 +18,6 @@ package org.knowhowlab.osgi.testing.assertions;
 
 import org.osgi.framework.InvalidSyntaxException;
 
-import static java.lang.String.format;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.osgi.framework.FrameworkUtil.createFilter;
@@ -48,7 +47,7 @@ public class FilterAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertFilterCorrect(String filter) {
-        assertFilterCorrect(format("Filter is incorrect: %s", filter), filter);
+        assertFilterCorrect(lazyMessage("Filter is incorrect: %s", filter), filter);
     }
 
     /**
@@ -60,6 +59,10 @@ public class FilterAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertFilterCorrect(String message, String filter) {
+        assertFilterCorrect(messageOf(message), filter);
+    }
+
+    private static void assertFilterCorrect(Message message, String filter) {
         assertThat("Filter is null", filter, notNullValue());
         try {
             createFilter(filter);
@@ -76,7 +79,7 @@ public class FilterAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertFilterIncorrect(String filter) {
-        assertFilterIncorrect(format("Filter is correct: %s", filter), filter);
+        assertFilterIncorrect(lazyMessage("Filter is correct: %s", filter), filter);
     }
 
     /**
@@ -88,6 +91,10 @@ public class FilterAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertFilterIncorrect(String message, String filter) {
+        assertFilterIncorrect(messageOf(message), filter);
+    }
+
+    private static void assertFilterIncorrect(Message message, String filter) {
         assertThat("Filter is null", filter, notNullValue());
         try {
             createFilter(filter);
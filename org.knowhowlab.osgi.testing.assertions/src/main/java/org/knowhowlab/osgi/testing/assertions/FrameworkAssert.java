@@ -16,13 +16,13 @@
 
 package org.knowhowlab.osgi.testing.assertions;
 
+import org.knowhowlab.osgi.testing.utils.Deadline;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.FrameworkEvent;
 import org.osgi.framework.Version;
 
 import java.util.concurrent.TimeUnit;
 
-import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -56,7 +56,7 @@ public class FrameworkAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertFrameworkEvent(int eventTypeMask, int bundleId, long timeoutInMillis) {
-        assertFrameworkEvent(format("FrameworkEvent is unavailable: %s for bundle: %s within timeout: %sms", eventTypeMask, bundleId, timeoutInMillis), eventTypeMask, bundleId, timeoutInMillis);
+        assertFrameworkEvent(lazyMessage("FrameworkEvent is unavailable: %s for bundle: %s within timeout: %sms", eventTypeMask, bundleId, timeoutInMillis), eventTypeMask, bundleId, timeoutInMillis);
     }
 
     /**
@@ -70,6 +70,10 @@ public class FrameworkAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertFrameworkEvent(String message, int eventTypeMask, int bundleId, long timeoutInMillis) {
+        assertFrameworkEvent(messageOf(message), eventTypeMask, bundleId, timeoutInMillis);
+    }
+
+    private static void assertFrameworkEvent(Message message, int eventTypeMask, int bundleId, long timeoutInMillis) {
         assertFrameworkEvent(message, eventTypeMask, bundleId, timeoutInMillis, MILLISECONDS);
     }
 
@@ -84,7 +88,20 @@ public class FrameworkAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertFrameworkEvent(int eventTypeMask, int bundleId, long timeout, TimeUnit timeUnit) {
-        assertFrameworkEvent(format("FrameworkEvent is unavailable: %s for bundle: %s within timeout: %s%s", eventTypeMask, bundleId, timeout, timeUnit), eventTypeMask, bundleId, timeout, timeUnit);
+        assertFrameworkEvent(lazyMessage("FrameworkEvent is unavailable: %s for bundle: %s within timeout: %s%s", eventTypeMask, bundleId, timeout, timeUnit), eventTypeMask, bundleId, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that FrameworkEvent for defined bundle will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask FrameworkEvent type mask
+     * @param bundleId        bundle id
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertFrameworkEvent(int eventTypeMask, int bundleId, Deadline deadline) {
+        assertFrameworkEvent(eventTypeMask, bundleId, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -99,11 +116,34 @@ public class FrameworkAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertFrameworkEvent(String message, int eventTypeMask, int bundleId, long timeout, TimeUnit timeUnit) {
+        assertFrameworkEvent(messageOf(message), eventTypeMask, bundleId, timeout, timeUnit);
+    }
+
+    private static void assertFrameworkEvent(Message message, int eventTypeMask, int bundleId, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         Bundle bundle = findBundle(getBundleContext(), bundleId);
-        assertThat(format("Unknown bundle with ID: %d", bundleId), bundle, notNullValue());
+        assertMatches(lazyMessage("Unknown bundle with ID: %d", bundleId), bundle, notNullValue());
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         FrameworkEvent event = waitForFrameworkEvent(getBundleContext(), bundleId, eventTypeMask, timeout, timeUnit);
-        assertThat(message, event, notNullValue());
+        assertOutcome("FrameworkAssert.assertFrameworkEvent", bundleId, timeUnit.toMillis(timeout), start, message, event, notNullValue());
+    }
+
+    /**
+     * Asserts that FrameworkEvent for defined bundle will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message       message
+     * @param eventTypeMask FrameworkEvent type mask
+     * @param bundleId        bundle id
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertFrameworkEvent(String message, int eventTypeMask, int bundleId, Deadline deadline) {
+        assertFrameworkEvent(messageOf(message), eventTypeMask, bundleId, deadline);
+    }
+
+    private static void assertFrameworkEvent(Message message, int eventTypeMask, int bundleId, Deadline deadline) {
+        assertFrameworkEvent(message, eventTypeMask, bundleId, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -116,7 +156,7 @@ public class FrameworkAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertFrameworkEvent(int eventTypeMask, String symbolicName, long timeoutInMillis) {
-        assertFrameworkEvent(format("FrameworkEvent is unavailable: %s for bundle: %s within timeout: %sms", eventTypeMask, symbolicName, timeoutInMillis), eventTypeMask, symbolicName, timeoutInMillis, MILLISECONDS);
+        assertFrameworkEvent(lazyMessage("FrameworkEvent is unavailable: %s for bundle: %s within timeout: %sms", eventTypeMask, symbolicName, timeoutInMillis), eventTypeMask, symbolicName, timeoutInMillis, MILLISECONDS);
     }
 
     /**
@@ -130,6 +170,10 @@ public class FrameworkAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertFrameworkEvent(String message, int eventTypeMask, String symbolicName, long timeoutInMillis) {
+        assertFrameworkEvent(messageOf(message), eventTypeMask, symbolicName, timeoutInMillis);
+    }
+
+    private static void assertFrameworkEvent(Message message, int eventTypeMask, String symbolicName, long timeoutInMillis) {
         assertFrameworkEvent(message, eventTypeMask, symbolicName, timeoutInMillis, MILLISECONDS);
     }
 
@@ -144,7 +188,20 @@ public class FrameworkAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertFrameworkEvent(int eventTypeMask, String symbolicName, long timeout, TimeUnit timeUnit) {
-        assertFrameworkEvent(format("FrameworkEvent is unavailable: %s for bundle: %s within timeout: %s%s", eventTypeMask, symbolicName, timeout, timeUnit), eventTypeMask, symbolicName, timeout, timeUnit);
+        assertFrameworkEvent(lazyMessage("FrameworkEvent is unavailable: %s for bundle: %s within timeout: %s%s", eventTypeMask, symbolicName, timeout, timeUnit), eventTypeMask, symbolicName, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that FrameworkEvent for defined bundle will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask FrameworkEvent type mask
+     * @param symbolicName  symbolicName
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertFrameworkEvent(int eventTypeMask, String symbolicName, Deadline deadline) {
+        assertFrameworkEvent(eventTypeMask, symbolicName, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -159,10 +216,33 @@ public class FrameworkAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertFrameworkEvent(String message, int eventTypeMask, String symbolicName, long timeout, TimeUnit timeUnit) {
+        assertFrameworkEvent(messageOf(message), eventTypeMask, symbolicName, timeout, timeUnit);
+    }
+
+    private static void assertFrameworkEvent(Message message, int eventTypeMask, String symbolicName, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("SymbolicName is null", symbolicName, notNullValue());
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         FrameworkEvent event = waitForFrameworkEvent(getBundleContext(), symbolicName, eventTypeMask, timeout, timeUnit);
-        assertThat(message, event, notNullValue());
+        assertOutcome("FrameworkAssert.assertFrameworkEvent", symbolicName, timeUnit.toMillis(timeout), start, message, event, notNullValue());
+    }
+
+    /**
+     * Asserts that FrameworkEvent for defined bundle will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message       message
+     * @param eventTypeMask FrameworkEvent type mask
+     * @param symbolicName  symbolicName
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertFrameworkEvent(String message, int eventTypeMask, String symbolicName, Deadline deadline) {
+        assertFrameworkEvent(messageOf(message), eventTypeMask, symbolicName, deadline);
+    }
+
+    private static void assertFrameworkEvent(Message message, int eventTypeMask, String symbolicName, Deadline deadline) {
+        assertFrameworkEvent(message, eventTypeMask, symbolicName, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -176,7 +256,7 @@ public class FrameworkAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertFrameworkEvent(int eventTypeMask, String symbolicName, Version version, long timeoutInMillis) {
-        assertFrameworkEvent(format("FrameworkEvent is unavailable: %s for bundle: %s[%s] within timeout: %sms", eventTypeMask, symbolicName, version, timeoutInMillis), eventTypeMask, symbolicName, version, timeoutInMillis);
+        assertFrameworkEvent(lazyMessage("FrameworkEvent is unavailable: %s for bundle: %s[%s] within timeout: %sms", eventTypeMask, symbolicName, version, timeoutInMillis), eventTypeMask, symbolicName, version, timeoutInMillis);
     }
 
     /**
@@ -191,6 +271,10 @@ public class FrameworkAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertFrameworkEvent(String message, int eventTypeMask, String symbolicName, Version version, long timeoutInMillis) {
+        assertFrameworkEvent(messageOf(message), eventTypeMask, symbolicName, version, timeoutInMillis);
+    }
+
+    private static void assertFrameworkEvent(Message message, int eventTypeMask, String symbolicName, Version version, long timeoutInMillis) {
         assertFrameworkEvent(message, eventTypeMask, symbolicName, version, timeoutInMillis, MILLISECONDS);
     }
 
@@ -206,7 +290,21 @@ public class FrameworkAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertFrameworkEvent(int eventTypeMask, String symbolicName, Version version, long timeout, TimeUnit timeUnit) {
-        assertFrameworkEvent(format("FrameworkEvent is unavailable: %s for bundle: %s[%s] within timeout: %s%s", eventTypeMask, symbolicName, version, timeout, timeUnit), eventTypeMask, symbolicName, version, timeout, timeUnit);
+        assertFrameworkEvent(lazyMessage("FrameworkEvent is unavailable: %s for bundle: %s[%s] within timeout: %s%s", eventTypeMask, symbolicName, version, timeout, timeUnit), eventTypeMask, symbolicName, version, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that FrameworkEvent for defined bundle will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask FrameworkEvent type mask
+     * @param symbolicName  symbolicName
+     * @param version       version
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertFrameworkEvent(int eventTypeMask, String symbolicName, Version version, Deadline deadline) {
+        assertFrameworkEvent(eventTypeMask, symbolicName, version, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -222,9 +320,33 @@ public class FrameworkAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertFrameworkEvent(String message, int eventTypeMask, String symbolicName, Version version, long timeout, TimeUnit timeUnit) {
+        assertFrameworkEvent(messageOf(message), eventTypeMask, symbolicName, version, timeout, timeUnit);
+    }
+
+    private static void assertFrameworkEvent(Message message, int eventTypeMask, String symbolicName, Version version, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("SymbolicName is null", symbolicName, notNullValue());
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         FrameworkEvent event = waitForFrameworkEvent(getBundleContext(), symbolicName, version, eventTypeMask, timeout, timeUnit);
-        assertThat(message, event, notNullValue());
+        assertOutcome("FrameworkAssert.assertFrameworkEvent", symbolicName, timeUnit.toMillis(timeout), start, message, event, notNullValue());
+    }
+
+    /**
+     * Asserts that FrameworkEvent for defined bundle will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message       message
+     * @param eventTypeMask FrameworkEvent type mask
+     * @param symbolicName  symbolicName
+     * @param version       version
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertFrameworkEvent(String message, int eventTypeMask, String symbolicName, Version version, Deadline deadline) {
+        assertFrameworkEvent(messageOf(message), eventTypeMask, symbolicName, version, deadline);
+    }
+
+    private static void assertFrameworkEvent(Message message, int eventTypeMask, String symbolicName, Version version, Deadline deadline) {
+        assertFrameworkEvent(message, eventTypeMask, symbolicName, version, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 }
@@ -16,6 +16,9 @@
 
 package org.knowhowlab.osgi.testing.assertions;
 
+import org.hamcrest.Matcher;
+import org.knowhowlab.osgi.testing.utils.OperationEvent;
+import org.knowhowlab.osgi.testing.utils.OperationProbe;
 import org.osgi.framework.BundleContext;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -24,16 +27,30 @@ import static org.osgi.framework.FrameworkUtil.getBundle;
 
 /**
  * Abstract OSGi Asset class with BundleContext Handling
+ * <p/>
+ * Assertions use BundleContext that is bound to the current thread with {@link #bindBundleContext(BundleContext)},
+ * otherwise the default BundleContext {@link #setDefaultBundleContext(BundleContext)},
+ * otherwise BundleContext of the assertions bundle. Thread bindings allow tests that run in parallel
+ * in one framework to use different BundleContexts.
  *
  * @author dpishchukhin
  * @see java.lang.AssertionError
  * @see org.osgi.framework.BundleContext
+ * @see BundleContextScope
  */
 public abstract class OSGiAssert {
     /**
      * Default BundleContext value
      */
-    private static BundleContext defaultBundleContext;
+    private static volatile BundleContext defaultBundleContext;
+    /**
+     * BundleContext bound to thread
+     */
+    private static final ThreadLocal<BundleContext> THREAD_BUNDLE_CONTEXT = new ThreadLocal<BundleContext>();
+    /**
+     * BundleContext bound to thread and threads created by it
+     */
+    private static final ThreadLocal<BundleContext> INHERITABLE_BUNDLE_CONTEXT = new InheritableThreadLocal<BundleContext>();
 
     /**
      * Set default BundleContext for OSGi assertions
@@ -45,20 +62,119 @@ public abstract class OSGiAssert {
         OSGiAssert.defaultBundleContext = defaultBundleContext;
     }
 
+    /**
+     * Bind BundleContext to the current thread until returned scope is closed
+     *
+     * @param bc BundleContext
+     * @return scope of binding
+     * @throws NullPointerException If <code>bc</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static BundleContextScope bindBundleContext(BundleContext bc) {
+        return bindBundleContext(bc, false);
+    }
+
+    /**
+     * Bind BundleContext to the current thread until returned scope is closed. Inheritable binding is visible
+     * also to threads that are created by the current thread while binding is active, e.g. by test runners
+     * that start a thread per test method. Binding of the current thread takes precedence over inheritable binding.
+     *
+     * @param bc          BundleContext
+     * @param inheritable <code>true</code> if binding is inherited by child threads
+     * @return scope of binding
+     * @throws NullPointerException If <code>bc</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static BundleContextScope bindBundleContext(BundleContext bc, boolean inheritable) {
+        if (bc == null) {
+            throw new NullPointerException("bc is null");
+        }
+        return new BundleContextScope(inheritable ? INHERITABLE_BUNDLE_CONTEXT : THREAD_BUNDLE_CONTEXT, bc);
+    }
+
     /**
      * Asserts BundleContext before return.
      *
-     * @return BundleContext
+     * @return BundleContext bound to the current thread, default BundleContext or BundleContext of assertions bundle
      * @since 1.0
      */
     public static BundleContext getBundleContext() {
-        BundleContext bc = defaultBundleContext == null
-                ? getBundle(OSGiAssert.class).getBundleContext()
-                : defaultBundleContext;
+        BundleContext bc = THREAD_BUNDLE_CONTEXT.get();
+        if (bc == null) {
+            bc = INHERITABLE_BUNDLE_CONTEXT.get();
+        }
+        if (bc == null) {
+            bc = defaultBundleContext;
+        }
+        if (bc == null) {
+            bc = getBundle(OSGiAssert.class).getBundleContext();
+        }
         assertThat("BundleContext is null", bc, notNullValue());
         return bc;
     }
 
+    /**
+     * Asserts that actual value satisfies matcher and reports assertion to {@link OperationProbe}.
+     * If it not as expected {@link AssertionError} is thrown with the given message
+     *
+     * @param name            name of assertion
+     * @param target          target of assertion
+     * @param timeoutInMillis timeout of assertion in millis or negative value if assertion has no timeout
+     * @param start           <code>System.nanoTime()</code> of assertion start
+     * @param message         message that is formatted only if assertion fails (could be null)
+     * @param actual          actual value
+     * @param matcher         matcher
+     * @since 1.3
+     */
+    protected static <T> void assertOutcome(String name, Object target, long timeoutInMillis, long start,
+                                            Message message, T actual, Matcher<? super T> matcher) {
+        boolean passed = false;
+        try {
+            assertMatches(message, actual, matcher);
+            passed = true;
+        } finally {
+            OperationProbe.record(null, OperationEvent.ASSERT, name, target, timeoutInMillis, start, passed);
+        }
+    }
+
+    /**
+     * Asserts that actual value satisfies matcher. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message message that is formatted only if assertion fails (could be null)
+     * @param actual  actual value
+     * @param matcher matcher
+     * @since 1.3
+     */
+    protected static <T> void assertMatches(Message message, T actual, Matcher<? super T> matcher) {
+        if (!matcher.matches(actual)) {
+            assertThat(message != null ? message.toString() : null, actual, matcher);
+        }
+    }
+
+    /**
+     * Wrap message of assertion
+     *
+     * @param message message (could be null)
+     * @return message or <code>null</code> if <code>message</code> is <code>null</code>
+     * @since 1.3
+     */
+    protected static Message messageOf(String message) {
+        return message != null ? new Message(message, null) : null;
+    }
+
+    /**
+     * Create message of assertion that is formatted with {@link String#format(String, Object...)}
+     * only if assertion fails
+     *
+     * @param format format string
+     * @param args   arguments
+     * @return message
+     * @since 1.3
+     */
+    protected static Message lazyMessage(String format, Object... args) {
+        return new Message(format, args);
+    }
 
     public static void fail(String message) {
         if (message == null)
@@ -66,4 +182,35 @@ public abstract class OSGiAssert {
         else
             throw new AssertionError(message);
     }
+
+    /**
+     * Fails with the given message
+     *
+     * @param message message that is formatted on failure (could be null)
+     * @since 1.3
+     */
+    protected static void fail(Message message) {
+        fail(message != null ? message.toString() : null);
+    }
+
+    /**
+     * Message of assertion. Default messages of assertions are formatted only if assertions fail,
+     * so passing assertions do not pay for formatting of filters, versions and time units.
+     *
+     * @since 1.3
+     */
+    protected static final class Message {
+        private final String format;
+        private final Object[] args;
+
+        private Message(String format, Object[] args) {
+            this.format = format;
+            this.args = args;
+        }
+
+        @Override
+        public String toString() {
+            return args != null ? String.format(format, args) : format;
+        }
+    }
 }
@@ -16,18 +16,24 @@
 
 package org.knowhowlab.osgi.testing.assertions;
 
+import org.knowhowlab.osgi.testing.utils.Deadline;
+import org.osgi.framework.BundleContext;
 import org.osgi.framework.Filter;
 import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceReference;
 
 import java.util.concurrent.TimeUnit;
 
-import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.knowhowlab.osgi.testing.utils.ServiceUtils.getService;
+import static org.knowhowlab.osgi.testing.utils.ServiceUtils.getServiceReference;
 import static org.knowhowlab.osgi.testing.utils.ServiceUtils.waitForServiceEvent;
+import static org.knowhowlab.osgi.testing.utils.ServiceUtils.waitForServiceUnavailable;
+import static org.knowhowlab.osgi.testing.utils.ServiceUtils.waitForServices;
 
 /**
  * A set of OSGi services specific assertion methods useful for writing tests.
@@ -38,6 +44,8 @@ import static org.knowhowlab.osgi.testing.utils.ServiceUtils.waitForServiceEvent
  * @author dmytro.pishchukhin
  * @see java.lang.AssertionError
  * @see org.knowhowlab.osgi.testing.assertions.OSGiAssert
+ * @see org.knowhowlab.osgi.testing.assertions.AssertionBatch
+ * @see org.knowhowlab.osgi.testing.assertions.AssertionGroup
  */
 public class ServiceAssert extends OSGiAssert {
     /**
@@ -54,7 +62,7 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(Class clazz) {
-        assertServiceAvailable(format("Service is unavailable: %s", clazz.getName()), clazz);
+        assertServiceAvailable(lazyMessage("Service is unavailable: %s", clazz.getName()), clazz);
     }
 
     /**
@@ -66,10 +74,15 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(String message, Class clazz) {
+        assertServiceAvailable(messageOf(message), clazz);
+    }
+
+    private static void assertServiceAvailable(Message message, Class clazz) {
+        long start = System.nanoTime();
         assertThat("Class is null", clazz, notNullValue());
         //noinspection unchecked
         Object service = getService(getBundleContext(), clazz);
-        assertThat(message, service, notNullValue());
+        assertOutcome("ServiceAssert.assertServiceAvailable", clazz, -1, start, message, service, notNullValue());
     }
 
     /**
@@ -81,7 +94,7 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(Class clazz, long timeoutInMillis) {
-        assertServiceAvailable(format("Service is unavailable: %s within timeout: %sms", clazz.getName(), timeoutInMillis), clazz, timeoutInMillis);
+        assertServiceAvailable(lazyMessage("Service is unavailable: %s within timeout: %sms", clazz.getName(), timeoutInMillis), clazz, timeoutInMillis);
     }
 
     /**
@@ -94,6 +107,10 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(String message, Class clazz, long timeoutInMillis) {
+        assertServiceAvailable(messageOf(message), clazz, timeoutInMillis);
+    }
+
+    private static void assertServiceAvailable(Message message, Class clazz, long timeoutInMillis) {
         assertServiceAvailable(message, clazz, timeoutInMillis, MILLISECONDS);
     }
 
@@ -107,7 +124,19 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(Class clazz, long timeout, TimeUnit timeUnit) {
-        assertServiceAvailable(format("Service is unavailable: %s within timeout: %s%s", clazz.getName(), timeout, timeUnit), clazz, timeout, timeUnit);
+        assertServiceAvailable(lazyMessage("Service is unavailable: %s within timeout: %s%s", clazz.getName(), timeout, timeUnit), clazz, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that service with class is available in OSGi registry before given deadline. If it not as expected
+     * {@link AssertionError} without a message is thrown
+     *
+     * @param clazz    service class
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceAvailable(Class clazz, Deadline deadline) {
+        assertServiceAvailable(clazz, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -121,11 +150,33 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(String message, Class clazz, long timeout, TimeUnit timeUnit) {
+        assertServiceAvailable(messageOf(message), clazz, timeout, timeUnit);
+    }
+
+    private static void assertServiceAvailable(Message message, Class clazz, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("Class is null", clazz, notNullValue());
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         //noinspection unchecked
         Object service = getService(getBundleContext(), clazz, timeout, timeUnit);
-        assertThat(message, service, notNullValue());
+        assertOutcome("ServiceAssert.assertServiceAvailable", clazz, timeUnit.toMillis(timeout), start, message, service, notNullValue());
+    }
+
+    /**
+     * Asserts that service with class is available in OSGi registry before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message  message
+     * @param clazz    service class
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceAvailable(String message, Class clazz, Deadline deadline) {
+        assertServiceAvailable(messageOf(message), clazz, deadline);
+    }
+
+    private static void assertServiceAvailable(Message message, Class clazz, Deadline deadline) {
+        assertServiceAvailable(message, clazz, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -136,7 +187,7 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(String className) {
-        assertServiceAvailable(format("Service is unavailable: %s", className), className);
+        assertServiceAvailable(lazyMessage("Service is unavailable: %s", className), className);
     }
 
     /**
@@ -148,10 +199,15 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(String message, String className) {
+        assertServiceAvailable(messageOf(message), className);
+    }
+
+    private static void assertServiceAvailable(Message message, String className) {
+        long start = System.nanoTime();
         assertThat("Class name is null", className, notNullValue());
         //noinspection unchecked
         Object service = getService(getBundleContext(), className);
-        assertThat(message, service, notNullValue());
+        assertOutcome("ServiceAssert.assertServiceAvailable", className, -1, start, message, service, notNullValue());
     }
 
     /**
@@ -163,7 +219,7 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(String className, long timeoutInMillis) {
-        assertServiceAvailable(format("Service is unavailable: %s within timeout: %sms", className, timeoutInMillis), className, timeoutInMillis);
+        assertServiceAvailable(lazyMessage("Service is unavailable: %s within timeout: %sms", className, timeoutInMillis), className, timeoutInMillis);
     }
 
     /**
@@ -176,6 +232,10 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(String message, String className, long timeoutInMillis) {
+        assertServiceAvailable(messageOf(message), className, timeoutInMillis);
+    }
+
+    private static void assertServiceAvailable(Message message, String className, long timeoutInMillis) {
         assertServiceAvailable(message, className, timeoutInMillis, MILLISECONDS);
     }
 
@@ -189,7 +249,19 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(String className, long timeout, TimeUnit timeUnit) {
-        assertServiceAvailable(format("Service is unavailable: %s within timeout: %s%s", className, timeout, timeUnit), className, timeout, timeUnit);
+        assertServiceAvailable(lazyMessage("Service is unavailable: %s within timeout: %s%s", className, timeout, timeUnit), className, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that service with class name is available in OSGi registry before given deadline. If it not as expected
+     * {@link AssertionError} without a message is thrown
+     *
+     * @param className service class name
+     * @param deadline  deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceAvailable(String className, Deadline deadline) {
+        assertServiceAvailable(className, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -203,11 +275,33 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(String message, String className, long timeout, TimeUnit timeUnit) {
+        assertServiceAvailable(messageOf(message), className, timeout, timeUnit);
+    }
+
+    private static void assertServiceAvailable(Message message, String className, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("Class name is null", className, notNullValue());
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         //noinspection unchecked
         Object service = getService(getBundleContext(), className, timeout, timeUnit);
-        assertThat(message, service, notNullValue());
+        assertOutcome("ServiceAssert.assertServiceAvailable", className, timeUnit.toMillis(timeout), start, message, service, notNullValue());
+    }
+
+    /**
+     * Asserts that service with class name is available in OSGi registry before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message   message
+     * @param className service class name
+     * @param deadline  deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceAvailable(String message, String className, Deadline deadline) {
+        assertServiceAvailable(messageOf(message), className, deadline);
+    }
+
+    private static void assertServiceAvailable(Message message, String className, Deadline deadline) {
+        assertServiceAvailable(message, className, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -218,7 +312,7 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(Filter filter) {
-        assertServiceAvailable(format("Service is unavailable: %s", filter), filter);
+        assertServiceAvailable(lazyMessage("Service is unavailable: %s", filter), filter);
     }
 
     /**
@@ -230,10 +324,15 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(String message, Filter filter) {
+        assertServiceAvailable(messageOf(message), filter);
+    }
+
+    private static void assertServiceAvailable(Message message, Filter filter) {
+        long start = System.nanoTime();
         assertThat("Filter is null", filter, notNullValue());
         //noinspection unchecked
         Object service = getService(getBundleContext(), filter);
-        assertThat(message, service, notNullValue());
+        assertOutcome("ServiceAssert.assertServiceAvailable", filter, -1, start, message, service, notNullValue());
     }
 
     /**
@@ -245,7 +344,7 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(Filter filter, long timeoutInMillis) {
-        assertServiceAvailable(format("Service is unavailable: %s within timeout: %sms", filter, timeoutInMillis), filter, timeoutInMillis);
+        assertServiceAvailable(lazyMessage("Service is unavailable: %s within timeout: %sms", filter, timeoutInMillis), filter, timeoutInMillis);
     }
 
     /**
@@ -258,6 +357,10 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(String message, Filter filter, long timeoutInMillis) {
+        assertServiceAvailable(messageOf(message), filter, timeoutInMillis);
+    }
+
+    private static void assertServiceAvailable(Message message, Filter filter, long timeoutInMillis) {
         assertServiceAvailable(message, filter, timeoutInMillis, MILLISECONDS);
     }
 
@@ -271,7 +374,19 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(Filter filter, long timeout, TimeUnit timeUnit) {
-        assertServiceAvailable(format("Service is unavailable: %s within timeout: %s%s", filter, timeout, timeUnit), filter, timeout, timeUnit);
+        assertServiceAvailable(lazyMessage("Service is unavailable: %s within timeout: %s%s", filter, timeout, timeUnit), filter, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that service with filter is available in OSGi registry before given deadline. If it not as expected
+     * {@link AssertionError} without a message is thrown
+     *
+     * @param filter   service filter
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceAvailable(Filter filter, Deadline deadline) {
+        assertServiceAvailable(filter, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -285,11 +400,33 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceAvailable(String message, Filter filter, long timeout, TimeUnit timeUnit) {
+        assertServiceAvailable(messageOf(message), filter, timeout, timeUnit);
+    }
+
+    private static void assertServiceAvailable(Message message, Filter filter, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("Filter is null", filter, notNullValue());
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         //noinspection unchecked
         Object service = getService(getBundleContext(), filter, timeout, timeUnit);
-        assertThat(message, service, notNullValue());
+        assertOutcome("ServiceAssert.assertServiceAvailable", filter, timeUnit.toMillis(timeout), start, message, service, notNullValue());
+    }
+
+    /**
+     * Asserts that service with filter is available in OSGi registry before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message  message
+     * @param filter   service filter
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceAvailable(String message, Filter filter, Deadline deadline) {
+        assertServiceAvailable(messageOf(message), filter, deadline);
+    }
+
+    private static void assertServiceAvailable(Message message, Filter filter, Deadline deadline) {
+        assertServiceAvailable(message, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -300,7 +437,7 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(Class clazz) {
-        assertServiceUnavailable(format("Service is available: %s", clazz.getName()), clazz);
+        assertServiceUnavailable(lazyMessage("Service is available: %s", clazz.getName()), clazz);
     }
 
     /**
@@ -312,10 +449,15 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(String message, Class clazz) {
+        assertServiceUnavailable(messageOf(message), clazz);
+    }
+
+    private static void assertServiceUnavailable(Message message, Class clazz) {
+        long start = System.nanoTime();
         assertThat("Class is null", clazz, notNullValue());
         //noinspection unchecked
         Object service = getService(getBundleContext(), clazz);
-        assertThat(message, service, nullValue());
+        assertOutcome("ServiceAssert.assertServiceUnavailable", clazz, -1, start, message, service, nullValue());
     }
 
     /**
@@ -327,7 +469,7 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(Class clazz, long timeoutInMillis) {
-        assertServiceUnavailable(format("Service is available: %s within timeout: %sms", clazz.getName(), timeoutInMillis), clazz, timeoutInMillis);
+        assertServiceUnavailable(lazyMessage("Service is available: %s within timeout: %sms", clazz.getName(), timeoutInMillis), clazz, timeoutInMillis);
     }
 
     /**
@@ -340,6 +482,10 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(String message, Class clazz, long timeoutInMillis) {
+        assertServiceUnavailable(messageOf(message), clazz, timeoutInMillis);
+    }
+
+    private static void assertServiceUnavailable(Message message, Class clazz, long timeoutInMillis) {
         assertServiceUnavailable(message, clazz, timeoutInMillis, MILLISECONDS);
     }
 
@@ -353,7 +499,19 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(Class clazz, long timeout, TimeUnit timeUnit) {
-        assertServiceUnavailable(format("Service is available: %s within timeout: %s%s", clazz.getName(), timeout, timeUnit), clazz, timeout, timeUnit);
+        assertServiceUnavailable(lazyMessage("Service is available: %s within timeout: %s%s", clazz.getName(), timeout, timeUnit), clazz, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that service with class is unavailable in OSGi registry before given deadline. If it not as expected
+     * {@link AssertionError} without a message is thrown
+     *
+     * @param clazz    service class
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceUnavailable(Class clazz, Deadline deadline) {
+        assertServiceUnavailable(clazz, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -367,11 +525,32 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(String message, Class clazz, long timeout, TimeUnit timeUnit) {
+        assertServiceUnavailable(messageOf(message), clazz, timeout, timeUnit);
+    }
+
+    private static void assertServiceUnavailable(Message message, Class clazz, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("Class is null", clazz, notNullValue());
         assertThat("TimeUnit is null", timeUnit, notNullValue());
-        //noinspection unchecked
-        Object service = getService(getBundleContext(), clazz, timeout, timeUnit);
-        assertThat(message, service, nullValue());
+        boolean unavailable = waitForServiceUnavailable(getBundleContext(), clazz, timeout, timeUnit);
+        assertOutcome("ServiceAssert.assertServiceUnavailable", clazz, timeUnit.toMillis(timeout), start, message, unavailable, is(true));
+    }
+
+    /**
+     * Asserts that service with class is unavailable in OSGi registry before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message  message
+     * @param clazz    service class
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceUnavailable(String message, Class clazz, Deadline deadline) {
+        assertServiceUnavailable(messageOf(message), clazz, deadline);
+    }
+
+    private static void assertServiceUnavailable(Message message, Class clazz, Deadline deadline) {
+        assertServiceUnavailable(message, clazz, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -382,7 +561,7 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(String className) {
-        assertServiceUnavailable(format("Service is available: %s", className), className);
+        assertServiceUnavailable(lazyMessage("Service is available: %s", className), className);
     }
 
     /**
@@ -394,10 +573,15 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(String message, String className) {
+        assertServiceUnavailable(messageOf(message), className);
+    }
+
+    private static void assertServiceUnavailable(Message message, String className) {
+        long start = System.nanoTime();
         assertThat("Class name is null", className, notNullValue());
         //noinspection unchecked
         Object service = getService(getBundleContext(), className);
-        assertThat(message, service, nullValue());
+        assertOutcome("ServiceAssert.assertServiceUnavailable", className, -1, start, message, service, nullValue());
     }
 
     /**
@@ -409,7 +593,7 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(String className, long timeoutInMillis) {
-        assertServiceUnavailable(format("Service is available: %s within timeout: %sms", className, timeoutInMillis), className, timeoutInMillis);
+        assertServiceUnavailable(lazyMessage("Service is available: %s within timeout: %sms", className, timeoutInMillis), className, timeoutInMillis);
     }
 
     /**
@@ -422,6 +606,10 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(String message, String className, long timeoutInMillis) {
+        assertServiceUnavailable(messageOf(message), className, timeoutInMillis);
+    }
+
+    private static void assertServiceUnavailable(Message message, String className, long timeoutInMillis) {
         assertServiceUnavailable(message, className, timeoutInMillis, MILLISECONDS);
     }
 
@@ -435,7 +623,19 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(String className, long timeout, TimeUnit timeUnit) {
-        assertServiceUnavailable(format("Service is available: %s within timeout: %s%s", className, timeout, timeUnit), className, timeout, timeUnit);
+        assertServiceUnavailable(lazyMessage("Service is available: %s within timeout: %s%s", className, timeout, timeUnit), className, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that service with class name is unavailable in OSGi registry before given deadline. If it not as expected
+     * {@link AssertionError} without a message is thrown
+     *
+     * @param className service class name
+     * @param deadline  deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceUnavailable(String className, Deadline deadline) {
+        assertServiceUnavailable(className, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -449,11 +649,32 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(String message, String className, long timeout, TimeUnit timeUnit) {
+        assertServiceUnavailable(messageOf(message), className, timeout, timeUnit);
+    }
+
+    private static void assertServiceUnavailable(Message message, String className, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("Class name is null", className, notNullValue());
         assertThat("TimeUnit is null", timeUnit, notNullValue());
-        //noinspection unchecked
-        Object service = getService(getBundleContext(), className, timeout, timeUnit);
-        assertThat(message, service, nullValue());
+        boolean unavailable = waitForServiceUnavailable(getBundleContext(), className, timeout, timeUnit);
+        assertOutcome("ServiceAssert.assertServiceUnavailable", className, timeUnit.toMillis(timeout), start, message, unavailable, is(true));
+    }
+
+    /**
+     * Asserts that service with class name is unavailable in OSGi registry before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message   message
+     * @param className service class name
+     * @param deadline  deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceUnavailable(String message, String className, Deadline deadline) {
+        assertServiceUnavailable(messageOf(message), className, deadline);
+    }
+
+    private static void assertServiceUnavailable(Message message, String className, Deadline deadline) {
+        assertServiceUnavailable(message, className, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -464,7 +685,7 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(Filter filter) {
-        assertServiceUnavailable(format("Service is available: %s", filter), filter);
+        assertServiceUnavailable(lazyMessage("Service is available: %s", filter), filter);
     }
 
     /**
@@ -476,10 +697,15 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(String message, Filter filter) {
+        assertServiceUnavailable(messageOf(message), filter);
+    }
+
+    private static void assertServiceUnavailable(Message message, Filter filter) {
+        long start = System.nanoTime();
         assertThat("Filter is null", filter, notNullValue());
         //noinspection unchecked
         Object service = getService(getBundleContext(), filter);
-        assertThat(message, service, nullValue());
+        assertOutcome("ServiceAssert.assertServiceUnavailable", filter, -1, start, message, service, nullValue());
     }
 
     /**
@@ -491,7 +717,7 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(Filter filter, long timeoutInMillis) {
-        assertServiceUnavailable(format("Service is available: %s within timeout: %sms", filter, timeoutInMillis), filter, timeoutInMillis);
+        assertServiceUnavailable(lazyMessage("Service is available: %s within timeout: %sms", filter, timeoutInMillis), filter, timeoutInMillis);
     }
 
     /**
@@ -504,6 +730,10 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(String message, Filter filter, long timeoutInMillis) {
+        assertServiceUnavailable(messageOf(message), filter, timeoutInMillis);
+    }
+
+    private static void assertServiceUnavailable(Message message, Filter filter, long timeoutInMillis) {
         assertServiceUnavailable(message, filter, timeoutInMillis, MILLISECONDS);
     }
 
@@ -517,7 +747,19 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(Filter filter, long timeout, TimeUnit timeUnit) {
-        assertServiceUnavailable(format("Service is available: %s within timeout: %s%s", filter, timeout, timeUnit), filter, timeout, timeUnit);
+        assertServiceUnavailable(lazyMessage("Service is available: %s within timeout: %s%s", filter, timeout, timeUnit), filter, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that service with filter is unavailable in OSGi registry before given deadline. If it not as expected
+     * {@link AssertionError} without a message is thrown
+     *
+     * @param filter   service filter
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceUnavailable(Filter filter, Deadline deadline) {
+        assertServiceUnavailable(filter, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -531,171 +773,779 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertServiceUnavailable(String message, Filter filter, long timeout, TimeUnit timeUnit) {
+        assertServiceUnavailable(messageOf(message), filter, timeout, timeUnit);
+    }
+
+    private static void assertServiceUnavailable(Message message, Filter filter, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("Filter is null", filter, notNullValue());
         assertThat("TimeUnit is null", timeUnit, notNullValue());
-        //noinspection unchecked
-        Object service = getService(getBundleContext(), filter, timeout, timeUnit);
-        assertThat(message, service, nullValue());
+        boolean unavailable = waitForServiceUnavailable(getBundleContext(), filter, timeout, timeUnit);
+        assertOutcome("ServiceAssert.assertServiceUnavailable", filter, timeUnit.toMillis(timeout), start, message, unavailable, is(true));
     }
 
     /**
-     * Asserts that ServiceEvent with filter will be fired within given timeoutInMillis. If it not as expected
-     * {@link AssertionError} is thrown
+     * Asserts that service with filter is unavailable in OSGi registry before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
      *
-     * @param eventTypeMask   ServiceEvent type mask
-     * @param filter          service filter
-     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
-     * @since 1.1
+     * @param message  message
+     * @param filter   service filter
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
      */
-    public static void assertServiceEvent(int eventTypeMask, Filter filter, long timeoutInMillis) {
-        assertServiceEvent(format("ServiceEvent is unavailable: %s - %s within timeout: %sms", eventTypeMask, filter, timeoutInMillis), eventTypeMask, filter, timeoutInMillis);
+    public static void assertServiceUnavailable(String message, Filter filter, Deadline deadline) {
+        assertServiceUnavailable(messageOf(message), filter, deadline);
+    }
+
+    private static void assertServiceUnavailable(Message message, Filter filter, Deadline deadline) {
+        assertServiceUnavailable(message, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
-     * Asserts that ServiceEvent with filter will be fired within given timeoutInMillis. If it not as expected
-     * {@link AssertionError} is thrown with the given message
+     * Asserts that service with class stays unavailable in OSGi registry during given timeoutInMillis.
+     * If it not as expected {@link AssertionError} without a message is thrown
      *
-     * @param message         message
-     * @param eventTypeMask   ServiceEvent type mask
-     * @param filter          service filter
-     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
-     * @since 1.1
+     * @param clazz           service class
+     * @param timeoutInMillis time interval in milliseconds to hold. If zero, only the current state is checked.
+     * @since 1.3
      */
-    public static void assertServiceEvent(String message, int eventTypeMask, Filter filter, long timeoutInMillis) {
-        assertServiceEvent(message, eventTypeMask, filter, timeoutInMillis, MILLISECONDS);
+    public static void assertServiceStaysUnavailable(Class clazz, long timeoutInMillis) {
+        assertServiceStaysUnavailable(lazyMessage("Service became available: %s during: %sms", clazz.getName(), timeoutInMillis), clazz, timeoutInMillis);
     }
 
     /**
-     * Asserts that ServiceEvent with filter will be fired within given timeout. If it not as expected
-     * {@link AssertionError} is thrown
+     * Asserts that service with class stays unavailable in OSGi registry during given timeoutInMillis.
+     * If it not as expected {@link AssertionError} is thrown with the given message
      *
-     * @param eventTypeMask ServiceEvent type mask
-     * @param filter        service filter
-     * @param timeout       time interval to wait. If zero, the method will wait indefinitely.
-     * @param timeUnit      time unit for the time interval
-     * @since 1.1
+     * @param message         message
+     * @param clazz           service class
+     * @param timeoutInMillis time interval in milliseconds to hold. If zero, only the current state is checked.
+     * @since 1.3
      */
-    public static void assertServiceEvent(int eventTypeMask, Filter filter, long timeout, TimeUnit timeUnit) {
-        assertServiceEvent(format("ServiceEvent is unavailable: %s - %s within timeout: %s%s", eventTypeMask, filter, timeout, timeUnit), eventTypeMask, filter, timeout, timeUnit);
+    public static void assertServiceStaysUnavailable(String message, Class clazz, long timeoutInMillis) {
+        assertServiceStaysUnavailable(messageOf(message), clazz, timeoutInMillis);
+    }
+
+    private static void assertServiceStaysUnavailable(Message message, Class clazz, long timeoutInMillis) {
+        assertServiceStaysUnavailable(message, clazz, timeoutInMillis, MILLISECONDS);
     }
 
     /**
-     * Asserts that ServiceEvent with filter will be fired within given timeout. If it not as expected
-     * {@link AssertionError} is thrown with the given message
+     * Asserts that service with class stays unavailable in OSGi registry during given timeout.
+     * If it not as expected {@link AssertionError} without a message is thrown
      *
-     * @param message       message
-     * @param eventTypeMask ServiceEvent type mask
-     * @param filter        service filter
-     * @param timeout       time interval to wait. If zero, the method will wait indefinitely.
-     * @param timeUnit      time unit for the time interval
-     * @since 1.1
+     * @param clazz    service class
+     * @param timeout  time interval to hold. If zero, only the current state is checked.
+     * @param timeUnit timeout time unit
+     * @since 1.3
      */
-    public static void assertServiceEvent(String message, int eventTypeMask, Filter filter, long timeout, TimeUnit timeUnit) {
-        assertServiceEvent(message, eventTypeMask, filter, false, timeout, timeUnit);
+    public static void assertServiceStaysUnavailable(Class clazz, long timeout, TimeUnit timeUnit) {
+        assertServiceStaysUnavailable(lazyMessage("Service became available: %s during: %s%s", clazz.getName(), timeout, timeUnit), clazz, timeout, timeUnit);
     }
 
     /**
-     * Asserts that ServiceEvent with filter will be fired within given timeoutInMillis. If it not as expected
-     * {@link AssertionError} is thrown
+     * Asserts that service with class stays unavailable in OSGi registry during given timeout.
+     * If it not as expected {@link AssertionError} without a message is thrown
      *
-     * @param eventTypeMask   ServiceEvent type mask
-     * @param filter          service filter
-     * @param all             use AllServiceListener
-     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
-     * @since 1.1
+     * @param clazz    service class
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
      */
-    public static void assertServiceEvent(int eventTypeMask, Filter filter, boolean all, long timeoutInMillis) {
-        assertServiceEvent(format("ServiceEvent is unavailable: %s - %s; all=%s within timeout: %sms", eventTypeMask, filter, all, timeoutInMillis), eventTypeMask, filter, all, timeoutInMillis);
+    public static void assertServiceStaysUnavailable(Class clazz, Deadline deadline) {
+        assertServiceStaysUnavailable(clazz, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
-     * Asserts that ServiceEvent with filter will be fired within given timeoutInMillis. If it not as expected
-     * {@link AssertionError} is thrown with the given message
+     * Asserts that service with class stays unavailable in OSGi registry during given timeout.
+     * The method fails as soon as a matching service is registered.
+     * If it not as expected {@link AssertionError} is thrown with the given message
      *
-     * @param message         message
-     * @param eventTypeMask   ServiceEvent type mask
-     * @param filter          service filter
-     * @param all             use AllServiceListener
-     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
-     * @since 1.1
+     * @param message  message
+     * @param clazz    service class
+     * @param timeout  time interval to hold. If zero, only the current state is checked.
+     * @param timeUnit timeout time unit
+     * @since 1.3
      */
-    public static void assertServiceEvent(String message, int eventTypeMask, Filter filter, boolean all, long timeoutInMillis) {
-        assertServiceEvent(message, eventTypeMask, filter, all, timeoutInMillis, MILLISECONDS);
+    public static void assertServiceStaysUnavailable(String message, Class clazz, long timeout, TimeUnit timeUnit) {
+        assertServiceStaysUnavailable(messageOf(message), clazz, timeout, timeUnit);
+    }
+
+    private static void assertServiceStaysUnavailable(Message message, Class clazz, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
+        assertThat("Class is null", clazz, notNullValue());
+        assertThat("TimeUnit is null", timeUnit, notNullValue());
+        BundleContext bc = getBundleContext();
+        ServiceReference reference = timeout == 0
+                ? getServiceReference(bc, clazz) : getServiceReference(bc, clazz, timeout, timeUnit);
+        assertOutcome("ServiceAssert.assertServiceStaysUnavailable", clazz, timeUnit.toMillis(timeout), start, message, reference, nullValue());
     }
 
     /**
-     * Asserts that ServiceEvent with filter will be fired within given timeout. If it not as expected
-     * {@link AssertionError} is thrown
+     * Asserts that service with class stays unavailable in OSGi registry during given timeout.
+     * The method fails as soon as a matching service is registered.
+     * If it not as expected {@link AssertionError} is thrown with the given message
      *
-     * @param eventTypeMask ServiceEvent type mask
-     * @param filter        service filter
-     * @param all           use AllServiceListener
-     * @param timeout       time interval to wait. If zero, the method will wait indefinitely.
-     * @param timeUnit      time unit for the time interval
-     * @since 1.1
+     * @param message  message
+     * @param clazz    service class
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
      */
-    public static void assertServiceEvent(int eventTypeMask, Filter filter, boolean all, long timeout, TimeUnit timeUnit) {
-        assertServiceEvent(format("ServiceEvent is unavailable: %s - %s; all=%s within timeout: %s%s", eventTypeMask, filter, all, timeout, timeUnit), eventTypeMask, filter, all, timeout, timeUnit);
+    public static void assertServiceStaysUnavailable(String message, Class clazz, Deadline deadline) {
+        assertServiceStaysUnavailable(messageOf(message), clazz, deadline);
+    }
+
+    private static void assertServiceStaysUnavailable(Message message, Class clazz, Deadline deadline) {
+        assertServiceStaysUnavailable(message, clazz, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
-     * Asserts that ServiceEvent with filter will be fired within given timeout. If it not as expected
-     * {@link AssertionError} is thrown with the given message
+     * Asserts that service with class name stays unavailable in OSGi registry during given timeoutInMillis.
+     * If it not as expected {@link AssertionError} without a message is thrown
      *
-     * @param message       message
-     * @param eventTypeMask ServiceEvent type mask
-     * @param filter        service filter
-     * @param all           use AllServiceListener
-     * @param timeout       time interval to wait. If zero, the method will wait indefinitely.
-     * @param timeUnit      time unit for the time interval
-     * @since 1.1
+     * @param className       service class name
+     * @param timeoutInMillis time interval in milliseconds to hold. If zero, only the current state is checked.
+     * @since 1.3
      */
-    public static void assertServiceEvent(String message, int eventTypeMask, Filter filter, boolean all, long timeout, TimeUnit timeUnit) {
-        assertThat("Filter is null", filter, notNullValue());
-        assertThat("TimeUnit is null", timeUnit, notNullValue());
-        ServiceEvent event = waitForServiceEvent(getBundleContext(), filter, eventTypeMask, all, timeout, timeUnit);
-        assertThat(message, event, notNullValue());
+    public static void assertServiceStaysUnavailable(String className, long timeoutInMillis) {
+        assertServiceStaysUnavailable(lazyMessage("Service became available: %s during: %sms", className, timeoutInMillis), className, timeoutInMillis);
     }
 
     /**
-     * Asserts that ServiceEvent with class name filter will be fired within given timeoutInMillis. If it not as expected
-     * {@link AssertionError} is thrown
+     * Asserts that service with class name stays unavailable in OSGi registry during given timeoutInMillis.
+     * If it not as expected {@link AssertionError} is thrown with the given message
      *
-     * @param eventTypeMask   ServiceEvent type mask
+     * @param message         message
      * @param className       service class name
-     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
-     * @since 1.1
+     * @param timeoutInMillis time interval in milliseconds to hold. If zero, only the current state is checked.
+     * @since 1.3
      */
-    public static void assertServiceEvent(int eventTypeMask, String className, long timeoutInMillis) {
-        assertServiceEvent(format("ServiceEvent is unavailable: %s - %s within timeout: %sms", eventTypeMask, className, timeoutInMillis), eventTypeMask, className, timeoutInMillis);
+    public static void assertServiceStaysUnavailable(String message, String className, long timeoutInMillis) {
+        assertServiceStaysUnavailable(messageOf(message), className, timeoutInMillis);
+    }
+
+    private static void assertServiceStaysUnavailable(Message message, String className, long timeoutInMillis) {
+        assertServiceStaysUnavailable(message, className, timeoutInMillis, MILLISECONDS);
     }
 
     /**
-     * Asserts that ServiceEvent with class name filter will be fired within given timeoutInMillis. If it not as expected
-     * {@link AssertionError} is thrown with the given message
+     * Asserts that service with class name stays unavailable in OSGi registry during given timeout.
+     * If it not as expected {@link AssertionError} without a message is thrown
      *
-     * @param message         message
-     * @param eventTypeMask   ServiceEvent type mask
-     * @param className       service class name
-     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
-     * @since 1.1
+     * @param className service class name
+     * @param timeout  time interval to hold. If zero, only the current state is checked.
+     * @param timeUnit timeout time unit
+     * @since 1.3
      */
-    public static void assertServiceEvent(String message, int eventTypeMask, String className, long timeoutInMillis) {
-        assertServiceEvent(message, eventTypeMask, className, timeoutInMillis, MILLISECONDS);
+    public static void assertServiceStaysUnavailable(String className, long timeout, TimeUnit timeUnit) {
+        assertServiceStaysUnavailable(lazyMessage("Service became available: %s during: %s%s", className, timeout, timeUnit), className, timeout, timeUnit);
     }
 
     /**
-     * Asserts that ServiceEvent with class name filter will be fired within given timeout. If it not as expected
-     * {@link AssertionError} is thrown
+     * Asserts that service with class name stays unavailable in OSGi registry during given timeout.
+     * If it not as expected {@link AssertionError} without a message is thrown
      *
-     * @param eventTypeMask ServiceEvent type mask
+     * @param className service class name
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceStaysUnavailable(String className, Deadline deadline) {
+        assertServiceStaysUnavailable(className, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Asserts that service with class name stays unavailable in OSGi registry during given timeout.
+     * The method fails as soon as a matching service is registered.
+     * If it not as expected {@link AssertionError} is thrown with the given message
+     *
+     * @param message  message
+     * @param className service class name
+     * @param timeout  time interval to hold. If zero, only the current state is checked.
+     * @param timeUnit timeout time unit
+     * @since 1.3
+     */
+    public static void assertServiceStaysUnavailable(String message, String className, long timeout, TimeUnit timeUnit) {
+        assertServiceStaysUnavailable(messageOf(message), className, timeout, timeUnit);
+    }
+
+    private static void assertServiceStaysUnavailable(Message message, String className, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
+        assertThat("Class name is null", className, notNullValue());
+        assertThat("TimeUnit is null", timeUnit, notNullValue());
+        BundleContext bc = getBundleContext();
+        ServiceReference reference = timeout == 0
+                ? getServiceReference(bc, className) : getServiceReference(bc, className, timeout, timeUnit);
+        assertOutcome("ServiceAssert.assertServiceStaysUnavailable", className, timeUnit.toMillis(timeout), start, message, reference, nullValue());
+    }
+
+    /**
+     * Asserts that service with class name stays unavailable in OSGi registry during given timeout.
+     * The method fails as soon as a matching service is registered.
+     * If it not as expected {@link AssertionError} is thrown with the given message
+     *
+     * @param message  message
+     * @param className service class name
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceStaysUnavailable(String message, String className, Deadline deadline) {
+        assertServiceStaysUnavailable(messageOf(message), className, deadline);
+    }
+
+    private static void assertServiceStaysUnavailable(Message message, String className, Deadline deadline) {
+        assertServiceStaysUnavailable(message, className, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Asserts that service with filter stays unavailable in OSGi registry during given timeoutInMillis.
+     * If it not as expected {@link AssertionError} without a message is thrown
+     *
+     * @param filter          service filter
+     * @param timeoutInMillis time interval in milliseconds to hold. If zero, only the current state is checked.
+     * @since 1.3
+     */
+    public static void assertServiceStaysUnavailable(Filter filter, long timeoutInMillis) {
+        assertServiceStaysUnavailable(lazyMessage("Service became available: %s during: %sms", filter, timeoutInMillis), filter, timeoutInMillis);
+    }
+
+    /**
+     * Asserts that service with filter stays unavailable in OSGi registry during given timeoutInMillis.
+     * If it not as expected {@link AssertionError} is thrown with the given message
+     *
+     * @param message         message
+     * @param filter          service filter
+     * @param timeoutInMillis time interval in milliseconds to hold. If zero, only the current state is checked.
+     * @since 1.3
+     */
+    public static void assertServiceStaysUnavailable(String message, Filter filter, long timeoutInMillis) {
+        assertServiceStaysUnavailable(messageOf(message), filter, timeoutInMillis);
+    }
+
+    private static void assertServiceStaysUnavailable(Message message, Filter filter, long timeoutInMillis) {
+        assertServiceStaysUnavailable(message, filter, timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Asserts that service with filter stays unavailable in OSGi registry during given timeout.
+     * If it not as expected {@link AssertionError} without a message is thrown
+     *
+     * @param filter   service filter
+     * @param timeout  time interval to hold. If zero, only the current state is checked.
+     * @param timeUnit timeout time unit
+     * @since 1.3
+     */
+    public static void assertServiceStaysUnavailable(Filter filter, long timeout, TimeUnit timeUnit) {
+        assertServiceStaysUnavailable(lazyMessage("Service became available: %s during: %s%s", filter, timeout, timeUnit), filter, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that service with filter stays unavailable in OSGi registry during given timeout.
+     * If it not as expected {@link AssertionError} without a message is thrown
+     *
+     * @param filter   service filter
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceStaysUnavailable(Filter filter, Deadline deadline) {
+        assertServiceStaysUnavailable(filter, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Asserts that service with filter stays unavailable in OSGi registry during given timeout.
+     * The method fails as soon as a matching service is registered.
+     * If it not as expected {@link AssertionError} is thrown with the given message
+     *
+     * @param message  message
+     * @param filter   service filter
+     * @param timeout  time interval to hold. If zero, only the current state is checked.
+     * @param timeUnit timeout time unit
+     * @since 1.3
+     */
+    public static void assertServiceStaysUnavailable(String message, Filter filter, long timeout, TimeUnit timeUnit) {
+        assertServiceStaysUnavailable(messageOf(message), filter, timeout, timeUnit);
+    }
+
+    private static void assertServiceStaysUnavailable(Message message, Filter filter, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
+        assertThat("Filter is null", filter, notNullValue());
+        assertThat("TimeUnit is null", timeUnit, notNullValue());
+        BundleContext bc = getBundleContext();
+        ServiceReference reference = timeout == 0
+                ? getServiceReference(bc, filter) : getServiceReference(bc, filter, timeout, timeUnit);
+        assertOutcome("ServiceAssert.assertServiceStaysUnavailable", filter, timeUnit.toMillis(timeout), start, message, reference, nullValue());
+    }
+
+    /**
+     * Asserts that service with filter stays unavailable in OSGi registry during given timeout.
+     * The method fails as soon as a matching service is registered.
+     * If it not as expected {@link AssertionError} is thrown with the given message
+     *
+     * @param message  message
+     * @param filter   service filter
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceStaysUnavailable(String message, Filter filter, Deadline deadline) {
+        assertServiceStaysUnavailable(messageOf(message), filter, deadline);
+    }
+
+    private static void assertServiceStaysUnavailable(Message message, Filter filter, Deadline deadline) {
+        assertServiceStaysUnavailable(message, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Asserts that at least <code>minCount</code> services with class are available in OSGi registry
+     * within given timeoutInMillis. If it not as expected {@link AssertionError} without a message is thrown
+     *
+     * @param clazz           service class
+     * @param minCount        minimal number of services
+     * @param timeoutInMillis time interval in milliseconds to wait.
+     * @since 1.3
+     */
+    public static void assertServiceCount(Class clazz, int minCount, long timeoutInMillis) {
+        assertServiceCount(lazyMessage("Less than %s services are available: %s within timeout: %sms", minCount, clazz.getName(), timeoutInMillis), clazz, minCount, timeoutInMillis);
+    }
+
+    /**
+     * Asserts that at least <code>minCount</code> services with class are available in OSGi registry
+     * within given timeoutInMillis. If it not as expected {@link AssertionError} is thrown with the given message
+     *
+     * @param message         message
+     * @param clazz           service class
+     * @param minCount        minimal number of services
+     * @param timeoutInMillis time interval in milliseconds to wait.
+     * @since 1.3
+     */
+    public static void assertServiceCount(String message, Class clazz, int minCount, long timeoutInMillis) {
+        assertServiceCount(messageOf(message), clazz, minCount, timeoutInMillis);
+    }
+
+    private static void assertServiceCount(Message message, Class clazz, int minCount, long timeoutInMillis) {
+        assertServiceCount(message, clazz, minCount, timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Asserts that at least <code>minCount</code> services with class are available in OSGi registry
+     * within given timeout. If it not as expected {@link AssertionError} without a message is thrown
+     *
+     * @param clazz    service class
+     * @param minCount minimal number of services
+     * @param timeout  time interval to wait.
+     * @param timeUnit timeout time unit
+     * @since 1.3
+     */
+    public static void assertServiceCount(Class clazz, int minCount, long timeout, TimeUnit timeUnit) {
+        assertServiceCount(lazyMessage("Less than %s services are available: %s within timeout: %s%s", minCount, clazz.getName(), timeout, timeUnit), clazz, minCount, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that at least <code>minCount</code> services with class are available in OSGi registry
+     * before given deadline. If it not as expected {@link AssertionError} without a message is thrown
+     *
+     * @param clazz    service class
+     * @param minCount minimal number of services
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceCount(Class clazz, int minCount, Deadline deadline) {
+        assertServiceCount(clazz, minCount, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Asserts that at least <code>minCount</code> services with class are available in OSGi registry
+     * within given timeout. If it not as expected {@link AssertionError} is thrown with the given message
+     *
+     * @param message  message
+     * @param clazz    service class
+     * @param minCount minimal number of services
+     * @param timeout  time interval to wait.
+     * @param timeUnit timeout time unit
+     * @since 1.3
+     */
+    public static void assertServiceCount(String message, Class clazz, int minCount, long timeout, TimeUnit timeUnit) {
+        assertServiceCount(messageOf(message), clazz, minCount, timeout, timeUnit);
+    }
+
+    private static void assertServiceCount(Message message, Class clazz, int minCount, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
+        assertThat("Class is null", clazz, notNullValue());
+        assertThat("TimeUnit is null", timeUnit, notNullValue());
+        ServiceReference[] references = waitForServices(getBundleContext(), clazz, minCount, timeout, timeUnit);
+        assertOutcome("ServiceAssert.assertServiceCount", clazz, timeUnit.toMillis(timeout), start, message, references, notNullValue());
+    }
+
+    /**
+     * Asserts that at least <code>minCount</code> services with class are available in OSGi registry
+     * before given deadline. If it not as expected {@link AssertionError} is thrown with the given message
+     *
+     * @param message  message
+     * @param clazz    service class
+     * @param minCount minimal number of services
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceCount(String message, Class clazz, int minCount, Deadline deadline) {
+        assertServiceCount(messageOf(message), clazz, minCount, deadline);
+    }
+
+    private static void assertServiceCount(Message message, Class clazz, int minCount, Deadline deadline) {
+        assertServiceCount(message, clazz, minCount, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Asserts that at least <code>minCount</code> services with filter are available in OSGi registry
+     * within given timeoutInMillis. If it not as expected {@link AssertionError} without a message is thrown
+     *
+     * @param filter          service filter
+     * @param minCount        minimal number of services
+     * @param timeoutInMillis time interval in milliseconds to wait.
+     * @since 1.3
+     */
+    public static void assertServiceCount(Filter filter, int minCount, long timeoutInMillis) {
+        assertServiceCount(lazyMessage("Less than %s services are available: %s within timeout: %sms", minCount, filter, timeoutInMillis), filter, minCount, timeoutInMillis);
+    }
+
+    /**
+     * Asserts that at least <code>minCount</code> services with filter are available in OSGi registry
+     * within given timeoutInMillis. If it not as expected {@link AssertionError} is thrown with the given message
+     *
+     * @param message         message
+     * @param filter          service filter
+     * @param minCount        minimal number of services
+     * @param timeoutInMillis time interval in milliseconds to wait.
+     * @since 1.3
+     */
+    public static void assertServiceCount(String message, Filter filter, int minCount, long timeoutInMillis) {
+        assertServiceCount(messageOf(message), filter, minCount, timeoutInMillis);
+    }
+
+    private static void assertServiceCount(Message message, Filter filter, int minCount, long timeoutInMillis) {
+        assertServiceCount(message, filter, minCount, timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Asserts that at least <code>minCount</code> services with filter are available in OSGi registry
+     * within given timeout. If it not as expected {@link AssertionError} without a message is thrown
+     *
+     * @param filter   service filter
+     * @param minCount minimal number of services
+     * @param timeout  time interval to wait.
+     * @param timeUnit timeout time unit
+     * @since 1.3
+     */
+    public static void assertServiceCount(Filter filter, int minCount, long timeout, TimeUnit timeUnit) {
+        assertServiceCount(lazyMessage("Less than %s services are available: %s within timeout: %s%s", minCount, filter, timeout, timeUnit), filter, minCount, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that at least <code>minCount</code> services with filter are available in OSGi registry
+     * before given deadline. If it not as expected {@link AssertionError} without a message is thrown
+     *
+     * @param filter   service filter
+     * @param minCount minimal number of services
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceCount(Filter filter, int minCount, Deadline deadline) {
+        assertServiceCount(filter, minCount, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Asserts that at least <code>minCount</code> services with filter are available in OSGi registry
+     * within given timeout. If it not as expected {@link AssertionError} is thrown with the given message
+     *
+     * @param message  message
+     * @param filter   service filter
+     * @param minCount minimal number of services
+     * @param timeout  time interval to wait.
+     * @param timeUnit timeout time unit
+     * @since 1.3
+     */
+    public static void assertServiceCount(String message, Filter filter, int minCount, long timeout, TimeUnit timeUnit) {
+        assertServiceCount(messageOf(message), filter, minCount, timeout, timeUnit);
+    }
+
+    private static void assertServiceCount(Message message, Filter filter, int minCount, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
+        assertThat("Filter is null", filter, notNullValue());
+        assertThat("TimeUnit is null", timeUnit, notNullValue());
+        ServiceReference[] references = waitForServices(getBundleContext(), filter, minCount, timeout, timeUnit);
+        assertOutcome("ServiceAssert.assertServiceCount", filter, timeUnit.toMillis(timeout), start, message, references, notNullValue());
+    }
+
+    /**
+     * Asserts that at least <code>minCount</code> services with filter are available in OSGi registry
+     * before given deadline. If it not as expected {@link AssertionError} is thrown with the given message
+     *
+     * @param message  message
+     * @param filter   service filter
+     * @param minCount minimal number of services
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceCount(String message, Filter filter, int minCount, Deadline deadline) {
+        assertServiceCount(messageOf(message), filter, minCount, deadline);
+    }
+
+    private static void assertServiceCount(Message message, Filter filter, int minCount, Deadline deadline) {
+        assertServiceCount(message, filter, minCount, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Asserts that ServiceEvent with filter will be fired within given timeoutInMillis. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask   ServiceEvent type mask
+     * @param filter          service filter
+     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
+     * @since 1.1
+     */
+    public static void assertServiceEvent(int eventTypeMask, Filter filter, long timeoutInMillis) {
+        assertServiceEvent(lazyMessage("ServiceEvent is unavailable: %s - %s within timeout: %sms", eventTypeMask, filter, timeoutInMillis), eventTypeMask, filter, timeoutInMillis);
+    }
+
+    /**
+     * Asserts that ServiceEvent with filter will be fired within given timeoutInMillis. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message         message
+     * @param eventTypeMask   ServiceEvent type mask
+     * @param filter          service filter
+     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
+     * @since 1.1
+     */
+    public static void assertServiceEvent(String message, int eventTypeMask, Filter filter, long timeoutInMillis) {
+        assertServiceEvent(messageOf(message), eventTypeMask, filter, timeoutInMillis);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, Filter filter, long timeoutInMillis) {
+        assertServiceEvent(message, eventTypeMask, filter, timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Asserts that ServiceEvent with filter will be fired within given timeout. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask ServiceEvent type mask
+     * @param filter        service filter
+     * @param timeout       time interval to wait. If zero, the method will wait indefinitely.
+     * @param timeUnit      time unit for the time interval
+     * @since 1.1
+     */
+    public static void assertServiceEvent(int eventTypeMask, Filter filter, long timeout, TimeUnit timeUnit) {
+        assertServiceEvent(lazyMessage("ServiceEvent is unavailable: %s - %s within timeout: %s%s", eventTypeMask, filter, timeout, timeUnit), eventTypeMask, filter, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that ServiceEvent with filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask ServiceEvent type mask
+     * @param filter        service filter
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceEvent(int eventTypeMask, Filter filter, Deadline deadline) {
+        assertServiceEvent(eventTypeMask, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Asserts that ServiceEvent with filter will be fired within given timeout. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message       message
+     * @param eventTypeMask ServiceEvent type mask
+     * @param filter        service filter
+     * @param timeout       time interval to wait. If zero, the method will wait indefinitely.
+     * @param timeUnit      time unit for the time interval
+     * @since 1.1
+     */
+    public static void assertServiceEvent(String message, int eventTypeMask, Filter filter, long timeout, TimeUnit timeUnit) {
+        assertServiceEvent(messageOf(message), eventTypeMask, filter, timeout, timeUnit);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, Filter filter, long timeout, TimeUnit timeUnit) {
+        assertServiceEvent(message, eventTypeMask, filter, false, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that ServiceEvent with filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message       message
+     * @param eventTypeMask ServiceEvent type mask
+     * @param filter        service filter
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceEvent(String message, int eventTypeMask, Filter filter, Deadline deadline) {
+        assertServiceEvent(messageOf(message), eventTypeMask, filter, deadline);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, Filter filter, Deadline deadline) {
+        assertServiceEvent(message, eventTypeMask, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Asserts that ServiceEvent with filter will be fired within given timeoutInMillis. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask   ServiceEvent type mask
+     * @param filter          service filter
+     * @param all             use AllServiceListener
+     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
+     * @since 1.1
+     */
+    public static void assertServiceEvent(int eventTypeMask, Filter filter, boolean all, long timeoutInMillis) {
+        assertServiceEvent(lazyMessage("ServiceEvent is unavailable: %s - %s; all=%s within timeout: %sms", eventTypeMask, filter, all, timeoutInMillis), eventTypeMask, filter, all, timeoutInMillis);
+    }
+
+    /**
+     * Asserts that ServiceEvent with filter will be fired within given timeoutInMillis. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message         message
+     * @param eventTypeMask   ServiceEvent type mask
+     * @param filter          service filter
+     * @param all             use AllServiceListener
+     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
+     * @since 1.1
+     */
+    public static void assertServiceEvent(String message, int eventTypeMask, Filter filter, boolean all, long timeoutInMillis) {
+        assertServiceEvent(messageOf(message), eventTypeMask, filter, all, timeoutInMillis);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, Filter filter, boolean all, long timeoutInMillis) {
+        assertServiceEvent(message, eventTypeMask, filter, all, timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Asserts that ServiceEvent with filter will be fired within given timeout. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask ServiceEvent type mask
+     * @param filter        service filter
+     * @param all           use AllServiceListener
+     * @param timeout       time interval to wait. If zero, the method will wait indefinitely.
+     * @param timeUnit      time unit for the time interval
+     * @since 1.1
+     */
+    public static void assertServiceEvent(int eventTypeMask, Filter filter, boolean all, long timeout, TimeUnit timeUnit) {
+        assertServiceEvent(lazyMessage("ServiceEvent is unavailable: %s - %s; all=%s within timeout: %s%s", eventTypeMask, filter, all, timeout, timeUnit), eventTypeMask, filter, all, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that ServiceEvent with filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask ServiceEvent type mask
+     * @param filter        service filter
+     * @param all           use AllServiceListener
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceEvent(int eventTypeMask, Filter filter, boolean all, Deadline deadline) {
+        assertServiceEvent(eventTypeMask, filter, all, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Asserts that ServiceEvent with filter will be fired within given timeout. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message       message
+     * @param eventTypeMask ServiceEvent type mask
+     * @param filter        service filter
+     * @param all           use AllServiceListener
+     * @param timeout       time interval to wait. If zero, the method will wait indefinitely.
+     * @param timeUnit      time unit for the time interval
+     * @since 1.1
+     */
+    public static void assertServiceEvent(String message, int eventTypeMask, Filter filter, boolean all, long timeout, TimeUnit timeUnit) {
+        assertServiceEvent(messageOf(message), eventTypeMask, filter, all, timeout, timeUnit);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, Filter filter, boolean all, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
+        assertThat("Filter is null", filter, notNullValue());
+        assertThat("TimeUnit is null", timeUnit, notNullValue());
+        ServiceEvent event = waitForServiceEvent(getBundleContext(), filter, eventTypeMask, all, timeout, timeUnit);
+        assertOutcome("ServiceAssert.assertServiceEvent", filter, timeUnit.toMillis(timeout), start, message, event, notNullValue());
+    }
+
+    /**
+     * Asserts that ServiceEvent with filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message       message
+     * @param eventTypeMask ServiceEvent type mask
+     * @param filter        service filter
+     * @param all           use AllServiceListener
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceEvent(String message, int eventTypeMask, Filter filter, boolean all, Deadline deadline) {
+        assertServiceEvent(messageOf(message), eventTypeMask, filter, all, deadline);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, Filter filter, boolean all, Deadline deadline) {
+        assertServiceEvent(message, eventTypeMask, filter, all, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Asserts that ServiceEvent with class name filter will be fired within given timeoutInMillis. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask   ServiceEvent type mask
+     * @param className       service class name
+     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
+     * @since 1.1
+     */
+    public static void assertServiceEvent(int eventTypeMask, String className, long timeoutInMillis) {
+        assertServiceEvent(lazyMessage("ServiceEvent is unavailable: %s - %s within timeout: %sms", eventTypeMask, className, timeoutInMillis), eventTypeMask, className, timeoutInMillis);
+    }
+
+    /**
+     * Asserts that ServiceEvent with class name filter will be fired within given timeoutInMillis. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message         message
+     * @param eventTypeMask   ServiceEvent type mask
+     * @param className       service class name
+     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
+     * @since 1.1
+     */
+    public static void assertServiceEvent(String message, int eventTypeMask, String className, long timeoutInMillis) {
+        assertServiceEvent(messageOf(message), eventTypeMask, className, timeoutInMillis);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, String className, long timeoutInMillis) {
+        assertServiceEvent(message, eventTypeMask, className, timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Asserts that ServiceEvent with class name filter will be fired within given timeout. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask ServiceEvent type mask
      * @param className     service class name
      * @param timeout       time interval to wait. If zero, the method will wait indefinitely.
      * @param timeUnit      time unit for the time interval
      * @since 1.1
      */
     public static void assertServiceEvent(int eventTypeMask, String className, long timeout, TimeUnit timeUnit) {
-        assertServiceEvent(format("ServiceEvent is unavailable: %s - %s within timeout: %s%s", eventTypeMask, className, timeout, timeUnit), eventTypeMask, className, timeout, timeUnit);
+        assertServiceEvent(lazyMessage("ServiceEvent is unavailable: %s - %s within timeout: %s%s", eventTypeMask, className, timeout, timeUnit), eventTypeMask, className, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that ServiceEvent with class name filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask ServiceEvent type mask
+     * @param className     service class name
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceEvent(int eventTypeMask, String className, Deadline deadline) {
+        assertServiceEvent(eventTypeMask, className, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -710,9 +1560,31 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertServiceEvent(String message, int eventTypeMask, String className, long timeout, TimeUnit timeUnit) {
+        assertServiceEvent(messageOf(message), eventTypeMask, className, timeout, timeUnit);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, String className, long timeout, TimeUnit timeUnit) {
         assertServiceEvent(message, eventTypeMask, className, false, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that ServiceEvent with class name filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message       message
+     * @param eventTypeMask ServiceEvent type mask
+     * @param className     service class name
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceEvent(String message, int eventTypeMask, String className, Deadline deadline) {
+        assertServiceEvent(messageOf(message), eventTypeMask, className, deadline);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, String className, Deadline deadline) {
+        assertServiceEvent(message, eventTypeMask, className, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Asserts that ServiceEvent with class name filter will be fired within given timeoutInMillis. If it not as expected
      * {@link AssertionError} is thrown
@@ -724,7 +1596,7 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertServiceEvent(int eventTypeMask, String className, boolean all, long timeoutInMillis) {
-        assertServiceEvent(format("ServiceEvent is unavailable: %s - %s; all=%s within timeout: %sms", eventTypeMask, className, all, timeoutInMillis), eventTypeMask, className, all, timeoutInMillis);
+        assertServiceEvent(lazyMessage("ServiceEvent is unavailable: %s - %s; all=%s within timeout: %sms", eventTypeMask, className, all, timeoutInMillis), eventTypeMask, className, all, timeoutInMillis);
     }
 
     /**
@@ -739,6 +1611,10 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertServiceEvent(String message, int eventTypeMask, String className, boolean all, long timeoutInMillis) {
+        assertServiceEvent(messageOf(message), eventTypeMask, className, all, timeoutInMillis);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, String className, boolean all, long timeoutInMillis) {
         assertServiceEvent(message, eventTypeMask, className, all, timeoutInMillis, MILLISECONDS);
     }
 
@@ -754,7 +1630,21 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertServiceEvent(int eventTypeMask, String className, boolean all, long timeout, TimeUnit timeUnit) {
-        assertServiceEvent(format("ServiceEvent is unavailable: %s - %s; all=%s within timeout: %s%s", eventTypeMask, className, all, timeout, timeUnit), eventTypeMask, className, all, timeout, timeUnit);
+        assertServiceEvent(lazyMessage("ServiceEvent is unavailable: %s - %s; all=%s within timeout: %s%s", eventTypeMask, className, all, timeout, timeUnit), eventTypeMask, className, all, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that ServiceEvent with class name filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask ServiceEvent type mask
+     * @param className     service class name
+     * @param all           use AllServiceListener
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceEvent(int eventTypeMask, String className, boolean all, Deadline deadline) {
+        assertServiceEvent(eventTypeMask, className, all, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -770,10 +1660,34 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertServiceEvent(String message, int eventTypeMask, String className, boolean all, long timeout, TimeUnit timeUnit) {
+        assertServiceEvent(messageOf(message), eventTypeMask, className, all, timeout, timeUnit);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, String className, boolean all, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("Class name is null", className, notNullValue());
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         ServiceEvent event = waitForServiceEvent(getBundleContext(), className, eventTypeMask, all, timeout, timeUnit);
-        assertThat(message, event, notNullValue());
+        assertOutcome("ServiceAssert.assertServiceEvent", className, timeUnit.toMillis(timeout), start, message, event, notNullValue());
+    }
+
+    /**
+     * Asserts that ServiceEvent with class name filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message       message
+     * @param eventTypeMask ServiceEvent type mask
+     * @param className     service class name
+     * @param all           use AllServiceListener
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceEvent(String message, int eventTypeMask, String className, boolean all, Deadline deadline) {
+        assertServiceEvent(messageOf(message), eventTypeMask, className, all, deadline);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, String className, boolean all, Deadline deadline) {
+        assertServiceEvent(message, eventTypeMask, className, all, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -786,7 +1700,7 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertServiceEvent(int eventTypeMask, Class clazz, long timeoutInMillis) {
-        assertServiceEvent(format("ServiceEvent is unavailable: %s - %s within timeout: %sms", eventTypeMask, clazz.getName(), timeoutInMillis), eventTypeMask, clazz, timeoutInMillis);
+        assertServiceEvent(lazyMessage("ServiceEvent is unavailable: %s - %s within timeout: %sms", eventTypeMask, clazz.getName(), timeoutInMillis), eventTypeMask, clazz, timeoutInMillis);
     }
 
     /**
@@ -800,6 +1714,10 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertServiceEvent(String message, int eventTypeMask, Class clazz, long timeoutInMillis) {
+        assertServiceEvent(messageOf(message), eventTypeMask, clazz, timeoutInMillis);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, Class clazz, long timeoutInMillis) {
         assertServiceEvent(message, eventTypeMask, clazz, timeoutInMillis, MILLISECONDS);
     }
 
@@ -814,7 +1732,20 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertServiceEvent(int eventTypeMask, Class clazz, long timeout, TimeUnit timeUnit) {
-        assertServiceEvent(format("ServiceEvent is unavailable: %s - %s within timeout: %s%s", eventTypeMask, clazz.getName(), timeout, timeUnit), eventTypeMask, clazz, timeout, timeUnit);
+        assertServiceEvent(lazyMessage("ServiceEvent is unavailable: %s - %s within timeout: %s%s", eventTypeMask, clazz.getName(), timeout, timeUnit), eventTypeMask, clazz, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that ServiceEvent with class filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask ServiceEvent type mask
+     * @param clazz         service class
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceEvent(int eventTypeMask, Class clazz, Deadline deadline) {
+        assertServiceEvent(eventTypeMask, clazz, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -829,9 +1760,31 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertServiceEvent(String message, int eventTypeMask, Class clazz, long timeout, TimeUnit timeUnit) {
+        assertServiceEvent(messageOf(message), eventTypeMask, clazz, timeout, timeUnit);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, Class clazz, long timeout, TimeUnit timeUnit) {
         assertServiceEvent(message, eventTypeMask, clazz, false, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that ServiceEvent with class filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message       message
+     * @param eventTypeMask ServiceEvent type mask
+     * @param clazz         service class
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceEvent(String message, int eventTypeMask, Class clazz, Deadline deadline) {
+        assertServiceEvent(messageOf(message), eventTypeMask, clazz, deadline);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, Class clazz, Deadline deadline) {
+        assertServiceEvent(message, eventTypeMask, clazz, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Asserts that ServiceEvent with class filter will be fired within given timeoutInMillis. If it not as expected
      * {@link AssertionError} is thrown
@@ -843,7 +1796,7 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertServiceEvent(int eventTypeMask, Class clazz, boolean all, long timeoutInMillis) {
-        assertServiceEvent(format("ServiceEvent is unavailable: %s - %s; all=%s within timeout: %sms", eventTypeMask, clazz.getName(), all, timeoutInMillis), eventTypeMask, clazz, all, timeoutInMillis);
+        assertServiceEvent(lazyMessage("ServiceEvent is unavailable: %s - %s; all=%s within timeout: %sms", eventTypeMask, clazz.getName(), all, timeoutInMillis), eventTypeMask, clazz, all, timeoutInMillis);
     }
 
     /**
@@ -858,6 +1811,10 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertServiceEvent(String message, int eventTypeMask, Class clazz, boolean all, long timeoutInMillis) {
+        assertServiceEvent(messageOf(message), eventTypeMask, clazz, all, timeoutInMillis);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, Class clazz, boolean all, long timeoutInMillis) {
         assertServiceEvent(message, eventTypeMask, clazz, all, timeoutInMillis, MILLISECONDS);
     }
 
@@ -873,7 +1830,21 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertServiceEvent(int eventTypeMask, Class clazz, boolean all, long timeout, TimeUnit timeUnit) {
-        assertServiceEvent(format("ServiceEvent is unavailable: %s - %s; all=%s within timeout: %s%s", eventTypeMask, clazz.getName(), all, timeout, timeUnit), eventTypeMask, clazz, all, timeout, timeUnit);
+        assertServiceEvent(lazyMessage("ServiceEvent is unavailable: %s - %s; all=%s within timeout: %s%s", eventTypeMask, clazz.getName(), all, timeout, timeUnit), eventTypeMask, clazz, all, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that ServiceEvent with class filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param eventTypeMask ServiceEvent type mask
+     * @param clazz         service class
+     * @param all           use AllServiceListener
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceEvent(int eventTypeMask, Class clazz, boolean all, Deadline deadline) {
+        assertServiceEvent(eventTypeMask, clazz, all, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -889,9 +1860,33 @@ public class ServiceAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertServiceEvent(String message, int eventTypeMask, Class clazz, boolean all, long timeout, TimeUnit timeUnit) {
+        assertServiceEvent(messageOf(message), eventTypeMask, clazz, all, timeout, timeUnit);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, Class clazz, boolean all, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("Class is null", clazz, notNullValue());
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         ServiceEvent event = waitForServiceEvent(getBundleContext(), clazz, eventTypeMask, all, timeout, timeUnit);
-        assertThat(message, event, notNullValue());
+        assertOutcome("ServiceAssert.assertServiceEvent", clazz, timeUnit.toMillis(timeout), start, message, event, notNullValue());
+    }
+
+    /**
+     * Asserts that ServiceEvent with class filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message       message
+     * @param eventTypeMask ServiceEvent type mask
+     * @param clazz         service class
+     * @param all           use AllServiceListener
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertServiceEvent(String message, int eventTypeMask, Class clazz, boolean all, Deadline deadline) {
+        assertServiceEvent(messageOf(message), eventTypeMask, clazz, all, deadline);
+    }
+
+    private static void assertServiceEvent(Message message, int eventTypeMask, Class clazz, boolean all, Deadline deadline) {
+        assertServiceEvent(message, eventTypeMask, clazz, all, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 }
@@ -17,6 +17,7 @@
 package org.knowhowlab.osgi.testing.assertions.cmpn;
 
 import org.knowhowlab.osgi.testing.assertions.OSGiAssert;
+import org.knowhowlab.osgi.testing.utils.Deadline;
 import org.knowhowlab.osgi.testing.utils.cmpn.ConfigurationAdminUtils;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Filter;
@@ -26,7 +27,6 @@ import org.osgi.service.cm.ConfigurationEvent;
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
-import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -63,7 +63,7 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationAvailable(String pid, String factoryPid, String location) {
-        assertConfigurationAvailable(format("Configuration is unavailable for PID: %s, FactoryPID: %s, Location: %s", pid, factoryPid, location),
+        assertConfigurationAvailable(lazyMessage("Configuration is unavailable for PID: %s, FactoryPID: %s, Location: %s", pid, factoryPid, location),
                 pid, factoryPid, location);
     }
 
@@ -77,6 +77,10 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @param location   bundle location
      */
     public static void assertConfigurationAvailable(String message, String pid, String factoryPid, String location) {
+        assertConfigurationAvailable(messageOf(message), pid, factoryPid, location);
+    }
+
+    private static void assertConfigurationAvailable(Message message, String pid, String factoryPid, String location) {
         assertConfigurationAvailable(message, createConfigurationFilter(pid, factoryPid, location));
     }
 
@@ -88,7 +92,7 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationAvailable(Filter filter) {
-        assertConfigurationAvailable(format("Configuration is unavailable for Filter: %s", filter), filter);
+        assertConfigurationAvailable(lazyMessage("Configuration is unavailable for Filter: %s", filter), filter);
     }
 
     /**
@@ -100,9 +104,14 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationAvailable(String message, Filter filter) {
+        assertConfigurationAvailable(messageOf(message), filter);
+    }
+
+    private static void assertConfigurationAvailable(Message message, Filter filter) {
+        long start = System.nanoTime();
         try {
             Configuration[] configurations = ConfigurationAdminUtils.listConfigurations(getBundleContext(), filter);
-            assertThat(message, configurations, notNullValue());
+            assertOutcome("ConfigurationAdminAssert.assertConfigurationAvailable", filter, -1, start, message, configurations, notNullValue());
         } catch (IOException e) {
             fail(e.getMessage());
         }
@@ -118,7 +127,7 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationUnavailable(String pid, String factoryPid, String location) {
-        assertConfigurationUnavailable(format("Configuration is available for PID: %s, FactoryPID: %s, Location: %s", pid, factoryPid, location),
+        assertConfigurationUnavailable(lazyMessage("Configuration is available for PID: %s, FactoryPID: %s, Location: %s", pid, factoryPid, location),
                 pid, factoryPid, location);
     }
 
@@ -133,6 +142,10 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationUnavailable(String message, String pid, String factoryPid, String location) {
+        assertConfigurationUnavailable(messageOf(message), pid, factoryPid, location);
+    }
+
+    private static void assertConfigurationUnavailable(Message message, String pid, String factoryPid, String location) {
         assertConfigurationUnavailable(message, createConfigurationFilter(pid, factoryPid, location));
     }
 
@@ -144,7 +157,7 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationUnavailable(Filter filter) {
-        assertConfigurationUnavailable(format("Configuration is unavailable for Filter: %s", filter), filter);
+        assertConfigurationUnavailable(lazyMessage("Configuration is unavailable for Filter: %s", filter), filter);
     }
 
     /**
@@ -156,9 +169,14 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationUnavailable(String message, Filter filter) {
+        assertConfigurationUnavailable(messageOf(message), filter);
+    }
+
+    private static void assertConfigurationUnavailable(Message message, Filter filter) {
+        long start = System.nanoTime();
         try {
             Configuration[] configurations = ConfigurationAdminUtils.listConfigurations(getBundleContext(), filter);
-            assertThat(message, configurations, nullValue());
+            assertOutcome("ConfigurationAdminAssert.assertConfigurationUnavailable", filter, -1, start, message, configurations, nullValue());
         } catch (IOException e) {
             fail(e.getMessage());
         }
@@ -175,7 +193,7 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      */
     public static void assertConfigurationAvailable(BundleContext bc, String pid, String factoryPid) {
         assertThat("BundleContext is null", bc, notNullValue());
-        assertConfigurationAvailable(format("Configuration is unavailable for BundleId: %s, PID: %s, FactoryPID: %s", bc.getBundle().getBundleId(), pid, factoryPid), bc, pid, factoryPid);
+        assertConfigurationAvailable(lazyMessage("Configuration is unavailable for BundleId: %s, PID: %s, FactoryPID: %s", bc.getBundle().getBundleId(), pid, factoryPid), bc, pid, factoryPid);
     }
 
     /**
@@ -189,6 +207,10 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertConfigurationAvailable(String message, BundleContext bc, String pid, String factoryPid) {
+        assertConfigurationAvailable(messageOf(message), bc, pid, factoryPid);
+    }
+
+    private static void assertConfigurationAvailable(Message message, BundleContext bc, String pid, String factoryPid) {
         assertConfigurationAvailable(message, bc, createConfigurationFilter(pid, factoryPid, bc.getBundle().getLocation()));
     }
 
@@ -202,7 +224,7 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      */
     public static void assertConfigurationAvailable(BundleContext bc, Filter filter) {
         assertThat("BundleContext is null", bc, notNullValue());
-        assertConfigurationAvailable(format("Configuration is unavailable for BundleId: %s, Filter: %s", bc.getBundle().getBundleId(), filter), bc, filter);
+        assertConfigurationAvailable(lazyMessage("Configuration is unavailable for BundleId: %s, Filter: %s", bc.getBundle().getBundleId(), filter), bc, filter);
     }
 
     /**
@@ -215,10 +237,15 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertConfigurationAvailable(String message, BundleContext bc, Filter filter) {
+        assertConfigurationAvailable(messageOf(message), bc, filter);
+    }
+
+    private static void assertConfigurationAvailable(Message message, BundleContext bc, Filter filter) {
+        long start = System.nanoTime();
         assertThat("BundleContext is null", bc, notNullValue());
         try {
             Configuration[] configurations = ConfigurationAdminUtils.listConfigurations(bc, filter);
-            assertThat(message, configurations, notNullValue());
+            assertOutcome("ConfigurationAdminAssert.assertConfigurationAvailable", filter, -1, start, message, configurations, notNullValue());
         } catch (IOException e) {
             fail(e.getMessage());
         }
@@ -235,7 +262,7 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      */
     public static void assertConfigurationUnavailable(BundleContext bc, String pid, String factoryPid) {
         assertThat("BundleContext is null", bc, notNullValue());
-        assertConfigurationUnavailable(format("Configuration is available for BundleId: %s, PID: %s, FactoryPID: %s", bc.getBundle().getBundleId(), pid, factoryPid), bc, pid, factoryPid);
+        assertConfigurationUnavailable(lazyMessage("Configuration is available for BundleId: %s, PID: %s, FactoryPID: %s", bc.getBundle().getBundleId(), pid, factoryPid), bc, pid, factoryPid);
     }
 
     /**
@@ -249,6 +276,10 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertConfigurationUnavailable(String message, BundleContext bc, String pid, String factoryPid) {
+        assertConfigurationUnavailable(messageOf(message), bc, pid, factoryPid);
+    }
+
+    private static void assertConfigurationUnavailable(Message message, BundleContext bc, String pid, String factoryPid) {
         assertConfigurationUnavailable(message, bc, createConfigurationFilter(pid, factoryPid, bc.getBundle().getLocation()));
     }
 
@@ -262,7 +293,7 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      */
     public static void assertConfigurationUnavailable(BundleContext bc, Filter filter) {
         assertThat("BundleContext is null", bc, notNullValue());
-        assertConfigurationUnavailable(format("Configuration is unavailable for BundleId: %s, Filter: %s", bc.getBundle().getBundleId(), filter), bc, filter);
+        assertConfigurationUnavailable(lazyMessage("Configuration is unavailable for BundleId: %s, Filter: %s", bc.getBundle().getBundleId(), filter), bc, filter);
     }
 
     /**
@@ -275,10 +306,15 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.1
      */
     public static void assertConfigurationUnavailable(String message, BundleContext bc, Filter filter) {
+        assertConfigurationUnavailable(messageOf(message), bc, filter);
+    }
+
+    private static void assertConfigurationUnavailable(Message message, BundleContext bc, Filter filter) {
+        long start = System.nanoTime();
         assertThat("BundleContext is null", bc, notNullValue());
         try {
             Configuration[] configurations = ConfigurationAdminUtils.listConfigurations(bc, filter);
-            assertThat(message, configurations, nullValue());
+            assertOutcome("ConfigurationAdminAssert.assertConfigurationUnavailable", filter, -1, start, message, configurations, nullValue());
         } catch (IOException e) {
             fail(e.getMessage());
         }
@@ -293,7 +329,7 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationEvent(int eventTypeMask, long timeoutInMillis) {
-        assertConfigurationEvent(format("ConfigurationEvent is unavailable: %s within timeout: %sms", eventTypeMask, timeoutInMillis), eventTypeMask, timeoutInMillis);
+        assertConfigurationEvent(lazyMessage("ConfigurationEvent is unavailable: %s within timeout: %sms", eventTypeMask, timeoutInMillis), eventTypeMask, timeoutInMillis);
     }
 
     /**
@@ -308,7 +344,7 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationEvent(int eventTypeMask, String pid, String factoryPid, String location, long timeoutInMillis) {
-        assertConfigurationEvent(format("ConfigurationEvent is unavailable: %s for PID: %s, FactoryPID: %s, Location: %s within timeout: %sms",
+        assertConfigurationEvent(lazyMessage("ConfigurationEvent is unavailable: %s for PID: %s, FactoryPID: %s, Location: %s within timeout: %sms",
                 eventTypeMask, pid, factoryPid, location, timeoutInMillis), eventTypeMask, pid, factoryPid, location, timeoutInMillis);
     }
 
@@ -323,7 +359,7 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationUpdated(String pid, String factoryPid, String location, long timeoutInMillis) {
-        assertConfigurationUpdated(format("ConfigurationEvent is unavailable: CM_UPDATED for PID: %s, FactoryPID: %s, Location: %s within timeout: %sms",
+        assertConfigurationUpdated(lazyMessage("ConfigurationEvent is unavailable: CM_UPDATED for PID: %s, FactoryPID: %s, Location: %s within timeout: %sms",
                 pid, factoryPid, location, timeoutInMillis), pid, factoryPid, location, timeoutInMillis);
     }
 
@@ -338,7 +374,7 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationDeleted(String pid, String factoryPid, String location, long timeoutInMillis) {
-        assertConfigurationDeleted(format("ConfigurationEvent is unavailable: CM_DELETED for PID: %s, FactoryPID: %s, Location: %s within timeout: %sms",
+        assertConfigurationDeleted(lazyMessage("ConfigurationEvent is unavailable: CM_DELETED for PID: %s, FactoryPID: %s, Location: %s within timeout: %sms",
                 pid, factoryPid, location, timeoutInMillis), pid, factoryPid, location, timeoutInMillis);
     }
 
@@ -352,6 +388,10 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationEvent(String message, int eventTypeMask, long timeoutInMillis) {
+        assertConfigurationEvent(messageOf(message), eventTypeMask, timeoutInMillis);
+    }
+
+    private static void assertConfigurationEvent(Message message, int eventTypeMask, long timeoutInMillis) {
         assertConfigurationEvent(message, eventTypeMask, timeoutInMillis, MILLISECONDS);
     }
 
@@ -368,6 +408,10 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationEvent(String message, int eventTypeMask, String pid, String factoryPid, String location, long timeoutInMillis) {
+        assertConfigurationEvent(messageOf(message), eventTypeMask, pid, factoryPid, location, timeoutInMillis);
+    }
+
+    private static void assertConfigurationEvent(Message message, int eventTypeMask, String pid, String factoryPid, String location, long timeoutInMillis) {
         assertConfigurationEvent(message, eventTypeMask, pid, factoryPid, location, timeoutInMillis, MILLISECONDS);
     }
 
@@ -383,6 +427,10 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationUpdated(String message, String pid, String factoryPid, String location, long timeoutInMillis) {
+        assertConfigurationUpdated(messageOf(message), pid, factoryPid, location, timeoutInMillis);
+    }
+
+    private static void assertConfigurationUpdated(Message message, String pid, String factoryPid, String location, long timeoutInMillis) {
         assertConfigurationUpdated(message, pid, factoryPid, location, timeoutInMillis, MILLISECONDS);
     }
 
@@ -398,6 +446,10 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationDeleted(String message, String pid, String factoryPid, String location, long timeoutInMillis) {
+        assertConfigurationDeleted(messageOf(message), pid, factoryPid, location, timeoutInMillis);
+    }
+
+    private static void assertConfigurationDeleted(Message message, String pid, String factoryPid, String location, long timeoutInMillis) {
         assertConfigurationDeleted(message, pid, factoryPid, location, timeoutInMillis, MILLISECONDS);
     }
 
@@ -412,10 +464,22 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      */
     public static void assertConfigurationEvent(int eventTypeMask, long timeout, TimeUnit timeUnit) {
         assertThat("TimeUnit is null", timeUnit, notNullValue());
-        assertConfigurationEvent(format("ConfigurationEvent is unavailable: %s within timeout: %s%s", eventTypeMask, timeout, timeUnit),
+        assertConfigurationEvent(lazyMessage("ConfigurationEvent is unavailable: %s within timeout: %s%s", eventTypeMask, timeout, timeUnit),
                 eventTypeMask, null, null, null, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that ConfigurationEvent with event type will be fired before given deadlineInMillis. If it not as expected
+     * {@link AssertionError} without a message is thrown
+     *
+     * @param eventTypeMask ServiceEvent type mask
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertConfigurationEvent(int eventTypeMask, Deadline deadline) {
+        assertConfigurationEvent(eventTypeMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Asserts that ConfigurationEvent with event filter will be fired within given timeoutInMillis. If it not as expected
      * {@link AssertionError} without a message is thrown
@@ -430,10 +494,25 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      */
     public static void assertConfigurationEvent(int eventTypeMask, String pid, String factoryPid, String location, long timeout, TimeUnit timeUnit) {
         assertThat("TimeUnit is null", timeUnit, notNullValue());
-        assertConfigurationEvent(format("ConfigurationEvent is unavailable: %s for PID: %s, FactoryPID: %s, Location: %s within timeout: %s%s",
+        assertConfigurationEvent(lazyMessage("ConfigurationEvent is unavailable: %s for PID: %s, FactoryPID: %s, Location: %s within timeout: %s%s",
                 eventTypeMask, pid, factoryPid, location, timeout, timeUnit), eventTypeMask, pid, factoryPid, location, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that ConfigurationEvent with event filter will be fired before given deadlineInMillis. If it not as expected
+     * {@link AssertionError} without a message is thrown
+     *
+     * @param eventTypeMask ServiceEvent type mask
+     * @param pid           PID
+     * @param factoryPid    FactoryPID
+     * @param location      bundle location
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertConfigurationEvent(int eventTypeMask, String pid, String factoryPid, String location, Deadline deadline) {
+        assertConfigurationEvent(eventTypeMask, pid, factoryPid, location, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Asserts that UPDATE ConfigurationEvent with event filter will be fired within given timeoutInMillis. If it not as expected
      * {@link AssertionError} without a message is thrown
@@ -447,10 +526,24 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      */
     public static void assertConfigurationUpdated(String pid, String factoryPid, String location, long timeout, TimeUnit timeUnit) {
         assertThat("TimeUnit is null", timeUnit, notNullValue());
-        assertConfigurationUpdated(format("ConfigurationEvent is unavailable: CM_UPDATED for PID: %s, FactoryPID: %s, Location: %s within timeout: %s%s",
+        assertConfigurationUpdated(lazyMessage("ConfigurationEvent is unavailable: CM_UPDATED for PID: %s, FactoryPID: %s, Location: %s within timeout: %s%s",
                 pid, factoryPid, location, timeout, timeUnit), pid, factoryPid, location, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that UPDATE ConfigurationEvent with event filter will be fired before given deadlineInMillis. If it not as expected
+     * {@link AssertionError} without a message is thrown
+     *
+     * @param pid        PID
+     * @param factoryPid FactoryPID
+     * @param location   bundle location
+     * @param deadline   deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertConfigurationUpdated(String pid, String factoryPid, String location, Deadline deadline) {
+        assertConfigurationUpdated(pid, factoryPid, location, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Asserts that DELETE ConfigurationEvent with event filter will be fired within given timeoutInMillis. If it not as expected
      * {@link AssertionError} without a message is thrown
@@ -464,10 +557,24 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      */
     public static void assertConfigurationDeleted(String pid, String factoryPid, String location, long timeout, TimeUnit timeUnit) {
         assertThat("TimeUnit is null", timeUnit, notNullValue());
-        assertConfigurationDeleted(format("ConfigurationEvent is unavailable: CM_DELETED for PID: %s, FactoryPID: %s, Location: %s within timeout: %s%s",
+        assertConfigurationDeleted(lazyMessage("ConfigurationEvent is unavailable: CM_DELETED for PID: %s, FactoryPID: %s, Location: %s within timeout: %s%s",
                 pid, factoryPid, location, timeout, timeUnit), pid, factoryPid, location, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that DELETE ConfigurationEvent with event filter will be fired before given deadlineInMillis. If it not as expected
+     * {@link AssertionError} without a message is thrown
+     *
+     * @param pid        PID
+     * @param factoryPid FactoryPID
+     * @param location   bundle location
+     * @param deadline   deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertConfigurationDeleted(String pid, String factoryPid, String location, Deadline deadline) {
+        assertConfigurationDeleted(pid, factoryPid, location, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Asserts that ConfigurationEvent with event type will be fired within given timeoutInMillis. If it not as expected
      * {@link AssertionError} is thrown with the given message
@@ -479,10 +586,31 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationEvent(String message, int eventTypeMask, long timeout, TimeUnit timeUnit) {
+        assertConfigurationEvent(messageOf(message), eventTypeMask, timeout, timeUnit);
+    }
+
+    private static void assertConfigurationEvent(Message message, int eventTypeMask, long timeout, TimeUnit timeUnit) {
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         assertConfigurationEvent(message, eventTypeMask, null, null, null, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that ConfigurationEvent with event type will be fired before given deadlineInMillis. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message       message
+     * @param eventTypeMask ServiceEvent type mask
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertConfigurationEvent(String message, int eventTypeMask, Deadline deadline) {
+        assertConfigurationEvent(messageOf(message), eventTypeMask, deadline);
+    }
+
+    private static void assertConfigurationEvent(Message message, int eventTypeMask, Deadline deadline) {
+        assertConfigurationEvent(message, eventTypeMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Asserts that ConfigurationEvent with event filter will be fired within given timeoutInMillis. If it not as expected
      * {@link AssertionError} is thrown with the given message
@@ -497,9 +625,34 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationEvent(String message, int eventTypeMask, String pid, String factoryPid, String location, long timeout, TimeUnit timeUnit) {
+        assertConfigurationEvent(messageOf(message), eventTypeMask, pid, factoryPid, location, timeout, timeUnit);
+    }
+
+    private static void assertConfigurationEvent(Message message, int eventTypeMask, String pid, String factoryPid, String location, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         ConfigurationEvent event = waitForConfigurationEvent(getBundleContext(), eventTypeMask, pid, factoryPid, location, timeout, timeUnit);
-        assertThat(message, event, notNullValue());
+        assertOutcome("ConfigurationAdminAssert.assertConfigurationEvent", pid, timeUnit.toMillis(timeout), start, message, event, notNullValue());
+    }
+
+    /**
+     * Asserts that ConfigurationEvent with event filter will be fired before given deadlineInMillis. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message       message
+     * @param eventTypeMask ServiceEvent type mask
+     * @param pid           PID
+     * @param factoryPid    FactoryPID
+     * @param location      bundle location
+     * @param deadline      deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertConfigurationEvent(String message, int eventTypeMask, String pid, String factoryPid, String location, Deadline deadline) {
+        assertConfigurationEvent(messageOf(message), eventTypeMask, pid, factoryPid, location, deadline);
+    }
+
+    private static void assertConfigurationEvent(Message message, int eventTypeMask, String pid, String factoryPid, String location, Deadline deadline) {
+        assertConfigurationEvent(message, eventTypeMask, pid, factoryPid, location, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -515,10 +668,33 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationUpdated(String message, String pid, String factoryPid, String location, long timeout, TimeUnit timeUnit) {
+        assertConfigurationUpdated(messageOf(message), pid, factoryPid, location, timeout, timeUnit);
+    }
+
+    private static void assertConfigurationUpdated(Message message, String pid, String factoryPid, String location, long timeout, TimeUnit timeUnit) {
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         assertConfigurationEvent(message, CM_UPDATED, pid, factoryPid, location, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that UPDATE ConfigurationEvent with event filter will be fired before given deadlineInMillis. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message    message
+     * @param pid        PID
+     * @param factoryPid FactoryPID
+     * @param location   bundle location
+     * @param deadline   deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertConfigurationUpdated(String message, String pid, String factoryPid, String location, Deadline deadline) {
+        assertConfigurationUpdated(messageOf(message), pid, factoryPid, location, deadline);
+    }
+
+    private static void assertConfigurationUpdated(Message message, String pid, String factoryPid, String location, Deadline deadline) {
+        assertConfigurationUpdated(message, pid, factoryPid, location, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Asserts that DELETE ConfigurationEvent with event filter will be fired within given timeoutInMillis. If it not as expected
      * {@link AssertionError} is thrown with the given message
@@ -532,8 +708,31 @@ public class ConfigurationAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertConfigurationDeleted(String message, String pid, String factoryPid, String location, long timeout, TimeUnit timeUnit) {
+        assertConfigurationDeleted(messageOf(message), pid, factoryPid, location, timeout, timeUnit);
+    }
+
+    private static void assertConfigurationDeleted(Message message, String pid, String factoryPid, String location, long timeout, TimeUnit timeUnit) {
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         assertConfigurationEvent(message, CM_DELETED, pid, factoryPid, location, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that DELETE ConfigurationEvent with event filter will be fired before given deadlineInMillis. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message    message
+     * @param pid        PID
+     * @param factoryPid FactoryPID
+     * @param location   bundle location
+     * @param deadline   deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertConfigurationDeleted(String message, String pid, String factoryPid, String location, Deadline deadline) {
+        assertConfigurationDeleted(messageOf(message), pid, factoryPid, location, deadline);
+    }
+
+    private static void assertConfigurationDeleted(Message message, String pid, String factoryPid, String location, Deadline deadline) {
+        assertConfigurationDeleted(message, pid, factoryPid, location, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
 }
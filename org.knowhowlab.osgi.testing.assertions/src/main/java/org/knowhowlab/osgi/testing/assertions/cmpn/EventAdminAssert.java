@@ -17,13 +17,13 @@
 package org.knowhowlab.osgi.testing.assertions.cmpn;
 
 import org.knowhowlab.osgi.testing.assertions.OSGiAssert;
+import org.knowhowlab.osgi.testing.utils.Deadline;
 import org.osgi.framework.Filter;
 import org.osgi.service.event.Event;
 
 import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
-import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -38,6 +38,7 @@ import static org.knowhowlab.osgi.testing.utils.cmpn.EventAdminUtils.waitForEven
  * @author dmytro.pishchukhin
  * @see java.lang.AssertionError
  * @see org.knowhowlab.osgi.testing.assertions.OSGiAssert
+ * @see org.knowhowlab.osgi.testing.assertions.AssertionGroup
  */
 public class EventAdminAssert extends OSGiAssert {
     /**
@@ -55,7 +56,7 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String topic, long timeoutInMillis) {
-        assertEvent(format("Event is unavailable: topic: %s within timeout: %sms", topic, timeoutInMillis), topic, timeoutInMillis);
+        assertEvent(lazyMessage("Event is unavailable: topic: %s within timeout: %sms", topic, timeoutInMillis), topic, timeoutInMillis);
     }
 
     /**
@@ -68,6 +69,10 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String message, String topic, long timeoutInMillis) {
+        assertEvent(messageOf(message), topic, timeoutInMillis);
+    }
+
+    private static void assertEvent(Message message, String topic, long timeoutInMillis) {
         assertEvent(message, topic, timeoutInMillis, MILLISECONDS);
     }
 
@@ -81,7 +86,7 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String topic, Filter filter, long timeoutInMillis) {
-        assertEvent(format("Event is unavailable: topic: %s, filter: %s within timeout: %sms", topic, filter, timeoutInMillis),
+        assertEvent(lazyMessage("Event is unavailable: topic: %s, filter: %s within timeout: %sms", topic, filter, timeoutInMillis),
                 topic, filter, timeoutInMillis);
     }
 
@@ -96,6 +101,10 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String message, String topic, Filter filter, long timeoutInMillis) {
+        assertEvent(messageOf(message), topic, filter, timeoutInMillis);
+    }
+
+    private static void assertEvent(Message message, String topic, Filter filter, long timeoutInMillis) {
         assertEvent(message, topic, filter, timeoutInMillis, MILLISECONDS);
     }
 
@@ -108,7 +117,7 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String[] topics, long timeoutInMillis) {
-        assertEvent(format("Event is unavailable: topics: %s within timeout: %sms", Arrays.toString(topics), timeoutInMillis), topics, timeoutInMillis);
+        assertEvent(lazyMessage("Event is unavailable: topics: %s within timeout: %sms", Arrays.toString(topics), timeoutInMillis), topics, timeoutInMillis);
     }
 
     /**
@@ -121,6 +130,10 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String message, String[] topics, long timeoutInMillis) {
+        assertEvent(messageOf(message), topics, timeoutInMillis);
+    }
+
+    private static void assertEvent(Message message, String[] topics, long timeoutInMillis) {
         assertEvent(message, topics, timeoutInMillis, MILLISECONDS);
     }
 
@@ -134,7 +147,7 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String[] topics, Filter filter, long timeoutInMillis) {
-        assertEvent(format("Event is unavailable: topics: %s, filter: %s within timeout: %sms", Arrays.toString(topics), filter, timeoutInMillis),
+        assertEvent(lazyMessage("Event is unavailable: topics: %s, filter: %s within timeout: %sms", Arrays.toString(topics), filter, timeoutInMillis),
                 topics, filter, timeoutInMillis);
     }
 
@@ -149,6 +162,10 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String message, String[] topics, Filter filter, long timeoutInMillis) {
+        assertEvent(messageOf(message), topics, filter, timeoutInMillis);
+    }
+
+    private static void assertEvent(Message message, String[] topics, Filter filter, long timeoutInMillis) {
         assertEvent(message, topics, filter, timeoutInMillis, MILLISECONDS);
     }
 
@@ -162,7 +179,19 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String topic, long timeout, TimeUnit timeUnit) {
-        assertEvent(format("Event is unavailable: topic: %s within timeout: %s%s", topic, timeout, timeUnit), topic, timeout, timeUnit);
+        assertEvent(lazyMessage("Event is unavailable: topic: %s within timeout: %s%s", topic, timeout, timeUnit), topic, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that Event for defined topic will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param topic    topic
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertEvent(String topic, Deadline deadline) {
+        assertEvent(topic, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -176,9 +205,30 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String message, String topic, long timeout, TimeUnit timeUnit) {
+        assertEvent(messageOf(message), topic, timeout, timeUnit);
+    }
+
+    private static void assertEvent(Message message, String topic, long timeout, TimeUnit timeUnit) {
         assertEvent(message, topic, null, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that Event for defined topic will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message  message
+     * @param topic    topic
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertEvent(String message, String topic, Deadline deadline) {
+        assertEvent(messageOf(message), topic, deadline);
+    }
+
+    private static void assertEvent(Message message, String topic, Deadline deadline) {
+        assertEvent(message, topic, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Asserts that Event for defined topic and filter will be fired within given timeout. If it not as expected
      * {@link AssertionError} is thrown
@@ -190,10 +240,23 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String topic, Filter filter, long timeout, TimeUnit timeUnit) {
-        assertEvent(format("Event is unavailable: topic: %s, filter: %s within timeout: %s%s", topic, filter, timeout, timeUnit),
+        assertEvent(lazyMessage("Event is unavailable: topic: %s, filter: %s within timeout: %s%s", topic, filter, timeout, timeUnit),
                 topic, filter, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that Event for defined topic and filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param topic    topic
+     * @param filter   filter
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertEvent(String topic, Filter filter, Deadline deadline) {
+        assertEvent(topic, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Asserts that Event for defined topic and filter will be fired within given timeout. If it not as expected
      * {@link AssertionError} is thrown with the given message
@@ -206,9 +269,32 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String message, String topic, Filter filter, long timeout, TimeUnit timeUnit) {
+        assertEvent(messageOf(message), topic, filter, timeout, timeUnit);
+    }
+
+    private static void assertEvent(Message message, String topic, Filter filter, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         Event event = waitForEvent(getBundleContext(), topic, filter, timeout, timeUnit);
-        assertThat(message, event, notNullValue());
+        assertOutcome("EventAdminAssert.assertEvent", topic, timeUnit.toMillis(timeout), start, message, event, notNullValue());
+    }
+
+    /**
+     * Asserts that Event for defined topic and filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message  message
+     * @param topic    topic
+     * @param filter   filter
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertEvent(String message, String topic, Filter filter, Deadline deadline) {
+        assertEvent(messageOf(message), topic, filter, deadline);
+    }
+
+    private static void assertEvent(Message message, String topic, Filter filter, Deadline deadline) {
+        assertEvent(message, topic, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -221,7 +307,19 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String[] topics, long timeout, TimeUnit timeUnit) {
-        assertEvent(format("Event is unavailable: topics: %s within timeout: %s%s", Arrays.toString(topics), timeout, timeUnit), topics, timeout, timeUnit);
+        assertEvent(lazyMessage("Event is unavailable: topics: %s within timeout: %s%s", Arrays.toString(topics), timeout, timeUnit), topics, timeout, timeUnit);
+    }
+
+    /**
+     * Asserts that Event for defined topics will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param topics   topics
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertEvent(String[] topics, Deadline deadline) {
+        assertEvent(topics, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     /**
@@ -235,9 +333,30 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String message, String[] topics, long timeout, TimeUnit timeUnit) {
+        assertEvent(messageOf(message), topics, timeout, timeUnit);
+    }
+
+    private static void assertEvent(Message message, String[] topics, long timeout, TimeUnit timeUnit) {
         assertEvent(message, topics, null, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that Event for defined topics will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message  message
+     * @param topics   topics
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertEvent(String message, String[] topics, Deadline deadline) {
+        assertEvent(messageOf(message), topics, deadline);
+    }
+
+    private static void assertEvent(Message message, String[] topics, Deadline deadline) {
+        assertEvent(message, topics, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Asserts that Event for defined topics and filter will be fired within given timeout. If it not as expected
      * {@link AssertionError} is thrown
@@ -249,10 +368,23 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String[] topics, Filter filter, long timeout, TimeUnit timeUnit) {
-        assertEvent(format("Event is unavailable: topics: %s, filter: %s within timeout: %s%s", Arrays.toString(topics), filter, timeout, timeUnit),
+        assertEvent(lazyMessage("Event is unavailable: topics: %s, filter: %s within timeout: %s%s", Arrays.toString(topics), filter, timeout, timeUnit),
                 topics, filter, timeout, timeUnit);
     }
 
+    /**
+     * Asserts that Event for defined topics and filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown
+     *
+     * @param topics   topics
+     * @param filter   filter
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertEvent(String[] topics, Filter filter, Deadline deadline) {
+        assertEvent(topics, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Asserts that Event for defined topics and filter will be fired within given timeout. If it not as expected
      * {@link AssertionError} is thrown with the given message
@@ -265,8 +397,31 @@ public class EventAdminAssert extends OSGiAssert {
      * @since 1.0
      */
     public static void assertEvent(String message, String[] topics, Filter filter, long timeout, TimeUnit timeUnit) {
+        assertEvent(messageOf(message), topics, filter, timeout, timeUnit);
+    }
+
+    private static void assertEvent(Message message, String[] topics, Filter filter, long timeout, TimeUnit timeUnit) {
+        long start = System.nanoTime();
         assertThat("TimeUnit is null", timeUnit, notNullValue());
         Event event = waitForEvent(getBundleContext(), topics, filter, timeout, timeUnit);
-        assertThat(message, event, notNullValue());
+        assertOutcome("EventAdminAssert.assertEvent", topics, timeUnit.toMillis(timeout), start, message, event, notNullValue());
+    }
+
+    /**
+     * Asserts that Event for defined topics and filter will be fired before given deadline. If it not as expected
+     * {@link AssertionError} is thrown with the given message
+     *
+     * @param message  message
+     * @param topics   topics
+     * @param filter   filter
+     * @param deadline deadline shared by consecutive waits
+     * @since 1.3
+     */
+    public static void assertEvent(String message, String[] topics, Filter filter, Deadline deadline) {
+        assertEvent(messageOf(message), topics, filter, deadline);
+    }
+
+    private static void assertEvent(Message message, String[] topics, Filter filter, Deadline deadline) {
+        assertEvent(message, topics, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 }
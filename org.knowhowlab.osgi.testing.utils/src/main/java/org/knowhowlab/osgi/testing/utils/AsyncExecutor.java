@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor SPI that runs all <code>*Async</code> operations of the testing utilities.
+ * <p/>
+ * Custom implementations could be plugged in with {@link AsyncUtils#setAsyncExecutor(AsyncExecutor)}.
+ *
+ * @see AsyncUtils
+ * @see DefaultAsyncExecutor
+ * @since 1.3
+ */
+public interface AsyncExecutor {
+    /**
+     * Schedules a task for execution after the given delay
+     *
+     * @param task     task to execute
+     * @param delay    time interval to wait before execution. If zero, the task is executed as soon as possible.
+     * @param timeUnit time unit for the time interval
+     * @return A <code>Future</code> of the task
+     * @throws NullPointerException If <code>task</code> or <code>timeUnit</code> are <code>null</code>
+     * @throws java.util.concurrent.RejectedExecutionException
+     *                              If executor is shut down
+     */
+    <T> Future<T> schedule(Callable<T> task, long delay, TimeUnit timeUnit);
+
+    /**
+     * Get the approximate number of tasks that are waiting for execution
+     *
+     * @return number of queued tasks
+     */
+    long getQueuedTaskCount();
+
+    /**
+     * Get the approximate number of tasks that are being executed
+     *
+     * @return number of running tasks
+     */
+    long getRunningTaskCount();
+
+    /**
+     * Get the approximate number of tasks that have completed execution
+     *
+     * @return number of completed tasks
+     */
+    long getCompletedTaskCount();
+
+    /**
+     * Shuts down executor. Queued tasks are cancelled, running tasks are interrupted.
+     */
+    void shutdown();
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Asynchronous execution utilities class.
+ * <p/>
+ * All <code>*Async</code> methods of the testing utilities share one {@link AsyncExecutor}.
+ * By default it is a lazily created {@link DefaultAsyncExecutor} that is shut down on JVM exit.
+ *
+ * @see AsyncExecutor
+ * @see DefaultAsyncExecutor
+ * @since 1.3
+ */
+public class AsyncUtils {
+    private static final Object LOCK = new Object();
+    private static final Map<Promise<?>, AsyncExecutor> PENDING = new ConcurrentHashMap<Promise<?>, AsyncExecutor>();
+
+    private static AsyncExecutor asyncExecutor;
+    private static Thread shutdownHook;
+
+    /**
+     * Utility class. Only static methods are available.
+     */
+    private AsyncUtils() {
+    }
+
+    /**
+     * Get shared executor. Default executor is created if no executor is set.
+     *
+     * @return shared executor
+     * @since 1.3
+     */
+    public static AsyncExecutor getAsyncExecutor() {
+        synchronized (LOCK) {
+            if (asyncExecutor == null) {
+                asyncExecutor = new DefaultAsyncExecutor();
+                registerShutdownHook();
+            }
+            return asyncExecutor;
+        }
+    }
+
+    /**
+     * Set shared executor. Previous executor is not shut down, it remains under the control of a caller.
+     *
+     * @param executor executor or <code>null</code> to fall back to default executor
+     * @since 1.3
+     */
+    public static void setAsyncExecutor(AsyncExecutor executor) {
+        synchronized (LOCK) {
+            asyncExecutor = executor;
+        }
+    }
+
+    /**
+     * Shuts down shared executor. Promises of tasks that have not started yet are cancelled.
+     * Next async operation creates a new default executor.
+     *
+     * @since 1.3
+     */
+    public static void shutdown() {
+        AsyncExecutor executor;
+        synchronized (LOCK) {
+            executor = asyncExecutor;
+            asyncExecutor = null;
+            unregisterShutdownHook();
+        }
+        if (executor != null) {
+            shutdown(executor);
+        }
+    }
+
+    /**
+     * Schedules a task for execution with shared executor
+     *
+     * @param task     task to execute
+     * @param delay    time interval to wait before execution. If zero, the task is executed as soon as possible.
+     * @param timeUnit time unit for the time interval
+     * @return A <code>Future</code> of the task
+     * @throws NullPointerException If <code>task</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static <T> Future<T> schedule(Callable<T> task, long delay, TimeUnit timeUnit) {
+        return getAsyncExecutor().schedule(task, delay, timeUnit);
+    }
+
+    /**
+     * Executes a task with shared executor
+     *
+     * @param task task to execute
+     * @return A <code>Promise</code> that is completed with task result. Promise is failed with
+     *         <code>RejectedExecutionException</code> if executor rejects the task and cancelled
+     *         if executor is shut down with {@link #shutdown()} before the task is started.
+     * @throws NullPointerException If <code>task</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static <T> Promise<T> execute(final Callable<T> task) {
+        if (task == null) {
+            throw new NullPointerException("task is null");
+        }
+        final Promise<T> promise = new Promise<T>();
+        AsyncExecutor executor = getAsyncExecutor();
+        PENDING.put(promise, executor);
+        try {
+            executor.schedule(new Callable<T>() {
+                public T call() throws Exception {
+                    if (PENDING.remove(promise) == null) {
+                        // promise is cancelled by shutdown
+                        return null;
+                    }
+                    try {
+                        T result = task.call();
+                        promise.resolve(result);
+                        return result;
+                    } catch (Throwable e) {
+                        promise.fail(e);
+                        return null;
+                    }
+                }
+            }, 0, MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            PENDING.remove(promise);
+            promise.fail(e);
+        }
+        return promise;
+    }
+
+    private static void shutdown(AsyncExecutor executor) {
+        executor.shutdown();
+        for (Map.Entry<Promise<?>, AsyncExecutor> entry : PENDING.entrySet()) {
+            if (entry.getValue() == executor && PENDING.remove(entry.getKey()) != null) {
+                entry.getKey().cancel(false);
+            }
+        }
+    }
+
+    private static void registerShutdownHook() {
+        if (shutdownHook == null) {
+            shutdownHook = new Thread(new Runnable() {
+                public void run() {
+                    AsyncExecutor executor;
+                    synchronized (LOCK) {
+                        executor = asyncExecutor;
+                        asyncExecutor = null;
+                    }
+                    if (executor != null) {
+                        shutdown(executor);
+                    }
+                }
+            }, "osgi-testing-async-shutdown");
+            try {
+                Runtime.getRuntime().addShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // JVM is shutting down
+                shutdownHook = null;
+            }
+        }
+    }
+
+    private static void unregisterShutdownHook() {
+        if (shutdownHook != null) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // JVM is shutting down
+            }
+            shutdownHook = null;
+        }
+    }
+}
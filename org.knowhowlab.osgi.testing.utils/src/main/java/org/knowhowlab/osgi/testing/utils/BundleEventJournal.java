@@ -0,0 +1,446 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Journal of bundle transitions of one framework.
+ * <p/>
+ * Journal is fed by a <code>SynchronousBundleListener</code>, so every transition (INSTALLED, RESOLVED,
+ * STARTING, STARTED, STOPPING, ...) is recorded in the order the framework fires it. Every record is
+ * a bundle id, an event type and a <code>System.nanoTime()</code> timestamp kept in parallel primitive
+ * arrays of a bounded ring, the oldest records are overwritten first. Journal answers timing queries:
+ * <pre>
+ * BundleEventJournal journal = BundleEventJournal.start(bc);
+ * ...
+ * long millis = journal.getTransitionTime(bundle.getBundleId(), BundleEvent.STARTING, BundleEvent.STARTED, TimeUnit.MILLISECONDS);
+ * for (BundleEventJournal.Transition slow : journal.getSlowTransitions(BundleEvent.STARTING, BundleEvent.STARTED, 500, TimeUnit.MILLISECONDS)) {
+ *     System.out.println(slow);
+ * }
+ * </pre>
+ * Only transitions fired after journal start are recorded. Journal is stopped automatically
+ * when the bundle of its BundleContext is stopping.
+ *
+ * @see BundleUtils#waitForBundleEvent(BundleContext, String, int, long, TimeUnit)
+ * @since 1.3
+ */
+public class BundleEventJournal {
+    /**
+     * Default capacity of journal
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final Map<BundleContext, BundleEventJournal> JOURNALS = new HashMap<BundleContext, BundleEventJournal>();
+
+    private final BundleContext bc;
+    private final Bundle bundle;
+    private final long[] bundleIds;
+    private final int[] types;
+    private final long[] timestamps;
+    private final Map<Long, String> symbolicNames = new HashMap<Long, String>();
+    private long sequence;
+
+    private final SynchronousBundleListener bundleListener = new SynchronousBundleListener() {
+        public void bundleChanged(BundleEvent event) {
+            record(event.getBundle().getBundleId(), event.getBundle().getSymbolicName(), event.getType(), System.nanoTime());
+            if (event.getType() == BundleEvent.STOPPING && bundle.equals(event.getBundle())) {
+                stop(bc);
+            }
+        }
+    };
+
+    private BundleEventJournal(BundleContext bc, int capacity) {
+        this.bc = bc;
+        this.bundle = bc.getBundle();
+        this.bundleIds = new long[capacity];
+        this.types = new int[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    /**
+     * Start journal of BundleContext with default capacity
+     *
+     * @param bc BundleContext
+     * @return journal
+     * @throws NullPointerException  If <code>bc</code> is <code>null</code>
+     * @throws IllegalStateException If <code>bc</code> is no longer valid
+     * @since 1.3
+     */
+    public static BundleEventJournal start(BundleContext bc) {
+        return start(bc, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Start journal of BundleContext. If journal is already started, existing journal is returned.
+     *
+     * @param bc       BundleContext
+     * @param capacity maximum number of recorded transitions
+     * @return journal
+     * @throws IllegalArgumentException If the value of capacity is not positive
+     * @throws NullPointerException     If <code>bc</code> is <code>null</code>
+     * @throws IllegalStateException    If <code>bc</code> is no longer valid
+     * @since 1.3
+     */
+    public static BundleEventJournal start(BundleContext bc, int capacity) {
+        if (bc == null) {
+            throw new NullPointerException("bc is null");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity value is not positive");
+        }
+        synchronized (JOURNALS) {
+            BundleEventJournal journal = JOURNALS.get(bc);
+            if (journal == null) {
+                journal = new BundleEventJournal(bc, capacity);
+                bc.addBundleListener(journal.bundleListener);
+                JOURNALS.put(bc, journal);
+            }
+            return journal;
+        }
+    }
+
+    /**
+     * Get started journal of BundleContext
+     *
+     * @param bc BundleContext
+     * @return journal or <code>null</code> if journal is not started
+     * @since 1.3
+     */
+    public static BundleEventJournal getJournal(BundleContext bc) {
+        synchronized (JOURNALS) {
+            return JOURNALS.get(bc);
+        }
+    }
+
+    /**
+     * Stop journal of BundleContext and remove its framework listener
+     *
+     * @param bc BundleContext
+     * @since 1.3
+     */
+    public static void stop(BundleContext bc) {
+        BundleEventJournal journal;
+        synchronized (JOURNALS) {
+            journal = JOURNALS.remove(bc);
+        }
+        if (journal != null) {
+            try {
+                bc.removeBundleListener(journal.bundleListener);
+            } catch (IllegalStateException e) {
+                // BundleContext is no longer valid
+            }
+        }
+    }
+
+    /**
+     * Get mark of the current end of journal
+     *
+     * @return mark
+     * @since 1.3
+     */
+    public synchronized long mark() {
+        return sequence;
+    }
+
+    /**
+     * Get number of recorded transitions that are still in journal
+     *
+     * @return number of transitions
+     * @since 1.3
+     */
+    public synchronized int size() {
+        return (int) Math.min(sequence, bundleIds.length);
+    }
+
+    /**
+     * Get event types recorded for bundle in order of recording
+     *
+     * @param bundleId bundle id
+     * @return array of BundleEvent types, empty if nothing is recorded
+     * @since 1.3
+     */
+    public synchronized int[] getEventTypes(long bundleId) {
+        int[] result = new int[size()];
+        int count = 0;
+        for (long current = first(0); current < sequence; current++) {
+            int index = index(current);
+            if (bundleIds[index] == bundleId) {
+                result[count++] = types[index];
+            }
+        }
+        int[] trimmed = new int[count];
+        System.arraycopy(result, 0, trimmed, 0, count);
+        return trimmed;
+    }
+
+    /**
+     * Get time of the latest transition of bundle from one event type to another,
+     * e.g. from <code>BundleEvent.INSTALLED</code> to <code>BundleEvent.STARTED</code>
+     *
+     * @param bundleId bundle id
+     * @param fromType BundleEvent type where transition starts
+     * @param toType   BundleEvent type where transition ends
+     * @param timeUnit time unit of result
+     * @return transition time or <code>-1</code> if transition is not recorded
+     * @throws NullPointerException If <code>timeUnit</code> is <code>null</code>
+     * @since 1.3
+     */
+    public synchronized long getTransitionTime(long bundleId, int fromType, int toType, TimeUnit timeUnit) {
+        long fromTimestamp = -1;
+        long duration = -1;
+        boolean started = false;
+        for (long current = first(0); current < sequence; current++) {
+            int index = index(current);
+            if (bundleIds[index] != bundleId) {
+                continue;
+            }
+            if (types[index] == fromType) {
+                fromTimestamp = timestamps[index];
+                started = true;
+            } else if (types[index] == toType && started) {
+                duration = timestamps[index] - fromTimestamp;
+                started = false;
+            }
+        }
+        return duration < 0 ? -1 : timeUnit.convert(duration, NANOSECONDS);
+    }
+
+    /**
+     * Get latest transitions of all bundles that took longer than threshold, the slowest first
+     *
+     * @param fromType  BundleEvent type where transition starts
+     * @param toType    BundleEvent type where transition ends
+     * @param threshold minimal transition time
+     * @param timeUnit  time unit for threshold
+     * @return list of transitions
+     * @throws NullPointerException If <code>timeUnit</code> is <code>null</code>
+     * @since 1.3
+     */
+    public synchronized List<Transition> getSlowTransitions(int fromType, int toType, long threshold, TimeUnit timeUnit) {
+        long thresholdInNanos = timeUnit.toNanos(threshold);
+        Map<Long, Long> started = new HashMap<Long, Long>();
+        Map<Long, Transition> transitions = new HashMap<Long, Transition>();
+        for (long current = first(0); current < sequence; current++) {
+            int index = index(current);
+            Long bundleId = bundleIds[index];
+            if (types[index] == fromType) {
+                started.put(bundleId, timestamps[index]);
+            } else if (types[index] == toType) {
+                Long fromTimestamp = started.remove(bundleId);
+                if (fromTimestamp != null) {
+                    transitions.put(bundleId, new Transition(bundleId, symbolicNames.get(bundleId),
+                            fromType, toType, fromTimestamp, timestamps[index] - fromTimestamp));
+                }
+            }
+        }
+        List<Transition> result = new ArrayList<Transition>();
+        for (Transition transition : transitions.values()) {
+            if (transition.duration > thresholdInNanos) {
+                result.add(transition);
+            }
+        }
+        Collections.sort(result, new Comparator<Transition>() {
+            public int compare(Transition t1, Transition t2) {
+                return t1.duration > t2.duration ? -1 : (t1.duration == t2.duration ? 0 : 1);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Wait for transition of bundle from mark
+     *
+     * @param mark            mark
+     * @param bundleId        bundle id
+     * @param eventTypeMask   BundleEvent type mask
+     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
+     * @return <code>true</code> if transition is recorded, otherwise <code>false</code>
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @since 1.3
+     */
+    public boolean waitForBundleEvent(long mark, long bundleId, int eventTypeMask, long timeoutInMillis) {
+        return waitForBundleEvent(mark, bundleId, eventTypeMask, timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Wait for transition of bundle from mark. Transitions recorded after mark and before the call
+     * are found without waiting.
+     *
+     * @param mark          mark
+     * @param bundleId      bundle id
+     * @param eventTypeMask BundleEvent type mask
+     * @param timeout       time interval to wait. If zero, the method will wait indefinitely.
+     * @param timeUnit      time unit for the time interval
+     * @return <code>true</code> if transition is recorded, otherwise <code>false</code>
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>timeUnit</code> is <code>null</code>
+     * @since 1.3
+     */
+    public synchronized boolean waitForBundleEvent(long mark, long bundleId, int eventTypeMask, long timeout, TimeUnit timeUnit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+        long timeoutInNanos = timeUnit.toNanos(timeout);
+        long start = System.nanoTime();
+        long from = mark;
+        try {
+            while (true) {
+                for (from = first(from); from < sequence; from++) {
+                    int index = index(from);
+                    if (bundleIds[index] == bundleId && (types[index] & eventTypeMask) != 0) {
+                        return true;
+                    }
+                }
+                if (timeoutInNanos == 0) {
+                    wait();
+                } else {
+                    long remaining = timeoutInNanos - (System.nanoTime() - start);
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Wait for transition of bundle from mark
+     *
+     * @param mark          mark
+     * @param bundleId      bundle id
+     * @param eventTypeMask BundleEvent type mask
+     * @param deadline      deadline shared by consecutive waits
+     * @return <code>true</code> if transition is recorded, otherwise <code>false</code>
+     * @throws NullPointerException If <code>deadline</code> is <code>null</code>
+     * @since 1.3
+     */
+    public boolean waitForBundleEvent(long mark, long bundleId, int eventTypeMask, Deadline deadline) {
+        return waitForBundleEvent(mark, bundleId, eventTypeMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    synchronized void record(long bundleId, String symbolicName, int type, long timestamp) {
+        int index = index(sequence++);
+        bundleIds[index] = bundleId;
+        types[index] = type;
+        timestamps[index] = timestamp;
+        if (symbolicName != null) {
+            symbolicNames.put(bundleId, symbolicName);
+        }
+        notifyAll();
+    }
+
+    private long first(long mark) {
+        return Math.max(Math.max(mark, 0), sequence - bundleIds.length);
+    }
+
+    private int index(long current) {
+        return (int) (current % bundleIds.length);
+    }
+
+    /**
+     * Recorded transition of one bundle
+     *
+     * @since 1.3
+     */
+    public static final class Transition {
+        private final long bundleId;
+        private final String symbolicName;
+        private final int fromType;
+        private final int toType;
+        private final long timestamp;
+        private final long duration;
+
+        private Transition(long bundleId, String symbolicName, int fromType, int toType, long timestamp, long duration) {
+            this.bundleId = bundleId;
+            this.symbolicName = symbolicName;
+            this.fromType = fromType;
+            this.toType = toType;
+            this.timestamp = timestamp;
+            this.duration = duration;
+        }
+
+        /**
+         * Get bundle id
+         *
+         * @return bundle id
+         */
+        public long getBundleId() {
+            return bundleId;
+        }
+
+        /**
+         * Get SymbolicName of bundle
+         *
+         * @return SymbolicName or <code>null</code>
+         */
+        public String getSymbolicName() {
+            return symbolicName;
+        }
+
+        /**
+         * Get BundleEvent type where transition starts
+         *
+         * @return BundleEvent type
+         */
+        public int getFromType() {
+            return fromType;
+        }
+
+        /**
+         * Get BundleEvent type where transition ends
+         *
+         * @return BundleEvent type
+         */
+        public int getToType() {
+            return toType;
+        }
+
+        /**
+         * Get time when transition started
+         *
+         * @return <code>System.nanoTime()</code> of start event
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Get transition time
+         *
+         * @param timeUnit time unit of result
+         * @return transition time
+         */
+        public long getDuration(TimeUnit timeUnit) {
+            return timeUnit.convert(duration, NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s [%s]: %sms", symbolicName, bundleId, getDuration(MILLISECONDS));
+        }
+    }
+}
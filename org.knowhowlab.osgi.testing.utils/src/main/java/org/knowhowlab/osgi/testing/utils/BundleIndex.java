@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of installed bundles by SymbolicName.
+ * <p/>
+ * Index is maintained by a <code>SynchronousBundleListener</code>, so it is always up to date with
+ * the framework without <code>PackageAdmin</code> lookups. Every SymbolicName is mapped to
+ * an array of bundles sorted by version in descending order, so the lookup of the highest version is O(1).
+ * <p/>
+ * Index is disposed automatically when the bundle of its BundleContext is stopping.
+ *
+ * @see VersionRange
+ * @see BundleUtils#findBundle(BundleContext, String, Version)
+ * @since 1.3
+ */
+public class BundleIndex {
+    private static final Bundle[] EMPTY = new Bundle[0];
+
+    private static final Comparator<Bundle> VERSION_DESCENDING = new Comparator<Bundle>() {
+        public int compare(Bundle b1, Bundle b2) {
+            int result = b2.getVersion().compareTo(b1.getVersion());
+            if (result == 0) {
+                return b1.getBundleId() < b2.getBundleId() ? -1 : (b1.getBundleId() == b2.getBundleId() ? 0 : 1);
+            }
+            return result;
+        }
+    };
+
+    private static final Map<BundleContext, BundleIndex> INDEXES = new HashMap<BundleContext, BundleIndex>();
+
+    private final BundleContext bc;
+    private final Bundle bundle;
+    private final Map<String, Bundle[]> bundles = new ConcurrentHashMap<String, Bundle[]>();
+    private final Map<Long, String> symbolicNames = new HashMap<Long, String>();
+
+    private final SynchronousBundleListener bundleListener = new SynchronousBundleListener() {
+        public void bundleChanged(BundleEvent event) {
+            switch (event.getType()) {
+                case BundleEvent.INSTALLED:
+                case BundleEvent.UPDATED:
+                    add(event.getBundle());
+                    break;
+                case BundleEvent.UNINSTALLED:
+                    remove(event.getBundle());
+                    break;
+                case BundleEvent.STOPPING:
+                    if (bundle.equals(event.getBundle())) {
+                        dispose(bc);
+                    }
+                    break;
+            }
+        }
+    };
+
+    private BundleIndex(BundleContext bc) {
+        this.bc = bc;
+        this.bundle = bc.getBundle();
+    }
+
+    /**
+     * Get index of BundleContext. Index is created on first request.
+     *
+     * @param bc BundleContext
+     * @return index
+     * @throws NullPointerException  If <code>bc</code> is <code>null</code>
+     * @throws IllegalStateException If <code>bc</code> is no longer valid
+     * @since 1.3
+     */
+    public static BundleIndex getIndex(BundleContext bc) {
+        if (bc == null) {
+            throw new NullPointerException("bc is null");
+        }
+        synchronized (INDEXES) {
+            BundleIndex index = INDEXES.get(bc);
+            if (index == null) {
+                index = new BundleIndex(bc);
+                index.open();
+                INDEXES.put(bc, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Dispose index of BundleContext and remove its framework listener
+     *
+     * @param bc BundleContext
+     * @since 1.3
+     */
+    public static void dispose(BundleContext bc) {
+        BundleIndex index;
+        synchronized (INDEXES) {
+            index = INDEXES.remove(bc);
+        }
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    /**
+     * Get bundle with the highest version
+     *
+     * @param symbolicName symbolicName
+     * @return Bundle instance or <code>null</code>
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public Bundle getBundle(String symbolicName) {
+        Bundle[] array = bundles.get(symbolicName);
+        return array != null ? array[0] : null;
+    }
+
+    /**
+     * Get bundle with the highest version that is equal or greater than version.
+     * Same semantic as <code>PackageAdmin.getBundles(symbolicName, version)</code>.
+     *
+     * @param symbolicName symbolicName
+     * @param version      minimal version (could be null)
+     * @return Bundle instance or <code>null</code>
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public Bundle getBundle(String symbolicName, Version version) {
+        Bundle found = getBundle(symbolicName);
+        if (found != null && version != null && found.getVersion().compareTo(version) < 0) {
+            return null;
+        }
+        return found;
+    }
+
+    /**
+     * Get bundle with the highest version in range
+     *
+     * @param symbolicName symbolicName
+     * @param range        version range (could be null)
+     * @return Bundle instance or <code>null</code>
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public Bundle getBundle(String symbolicName, VersionRange range) {
+        Bundle[] array = bundles.get(symbolicName);
+        if (array != null) {
+            for (Bundle candidate : array) {
+                if (range == null || range.includes(candidate.getVersion())) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get bundles sorted by version in descending order
+     *
+     * @param symbolicName symbolicName
+     * @return array of bundles, empty if no bundle is installed
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public Bundle[] getBundles(String symbolicName) {
+        Bundle[] array = bundles.get(symbolicName);
+        return array != null ? array.clone() : EMPTY;
+    }
+
+    /**
+     * Get bundles in version range sorted by version in descending order
+     *
+     * @param symbolicName symbolicName
+     * @param range        version range (could be null)
+     * @return array of bundles, empty if no bundle is found
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public Bundle[] getBundles(String symbolicName, VersionRange range) {
+        Bundle[] array = bundles.get(symbolicName);
+        if (array == null) {
+            return EMPTY;
+        }
+        if (range == null) {
+            return array.clone();
+        }
+        List<Bundle> result = new ArrayList<Bundle>(array.length);
+        for (Bundle candidate : array) {
+            if (range.includes(candidate.getVersion())) {
+                result.add(candidate);
+            }
+        }
+        return result.toArray(new Bundle[result.size()]);
+    }
+
+    private void open() {
+        bc.addBundleListener(bundleListener);
+        for (Bundle installed : bc.getBundles()) {
+            add(installed);
+        }
+    }
+
+    private void close() {
+        try {
+            bc.removeBundleListener(bundleListener);
+        } catch (IllegalStateException e) {
+            // BundleContext is no longer valid
+        }
+        synchronized (symbolicNames) {
+            bundles.clear();
+            symbolicNames.clear();
+        }
+    }
+
+    private void add(Bundle installed) {
+        synchronized (symbolicNames) {
+            removeEntry(installed);
+            String symbolicName = installed.getSymbolicName();
+            if (symbolicName == null || installed.getState() == Bundle.UNINSTALLED) {
+                return;
+            }
+            Bundle[] array = bundles.get(symbolicName);
+            Bundle[] newArray;
+            if (array == null) {
+                newArray = new Bundle[]{installed};
+            } else {
+                newArray = new Bundle[array.length + 1];
+                System.arraycopy(array, 0, newArray, 0, array.length);
+                newArray[array.length] = installed;
+                Arrays.sort(newArray, VERSION_DESCENDING);
+            }
+            bundles.put(symbolicName, newArray);
+            symbolicNames.put(installed.getBundleId(), symbolicName);
+        }
+    }
+
+    private void remove(Bundle uninstalled) {
+        synchronized (symbolicNames) {
+            removeEntry(uninstalled);
+        }
+    }
+
+    private void removeEntry(Bundle target) {
+        String symbolicName = symbolicNames.remove(target.getBundleId());
+        if (symbolicName == null) {
+            return;
+        }
+        Bundle[] array = bundles.get(symbolicName);
+        if (array == null) {
+            return;
+        }
+        List<Bundle> rest = new ArrayList<Bundle>(array.length);
+        for (Bundle candidate : array) {
+            if (candidate.getBundleId() != target.getBundleId()) {
+                rest.add(candidate);
+            }
+        }
+        if (rest.isEmpty()) {
+            bundles.remove(symbolicName);
+        } else {
+            bundles.put(symbolicName, rest.toArray(new Bundle[rest.size()]));
+        }
+    }
+}
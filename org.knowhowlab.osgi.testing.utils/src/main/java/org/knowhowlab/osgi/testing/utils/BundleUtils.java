@@ -17,7 +17,6 @@
 package org.knowhowlab.osgi.testing.utils;
 
 import org.osgi.framework.*;
-import org.osgi.service.packageadmin.PackageAdmin;
 import org.osgi.util.tracker.BundleTracker;
 import org.osgi.util.tracker.BundleTrackerCustomizer;
 
@@ -25,17 +24,20 @@ import java.io.InputStream;
 import java.util.concurrent.*;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
-import static org.knowhowlab.osgi.testing.utils.ServiceUtils.getService;
+import static org.knowhowlab.osgi.testing.utils.AsyncUtils.execute;
+import static org.knowhowlab.osgi.testing.utils.AsyncUtils.schedule;
+import static org.knowhowlab.osgi.testing.utils.LatchUtils.await;
 
 /**
  * OSGi Bundles utilities class
  *
  * @author dpishchukhin
  * @see org.osgi.framework.Bundle
- * @see org.osgi.service.packageadmin.PackageAdmin
  * @see org.osgi.framework.BundleContext
  * @see org.osgi.framework.BundleEvent
  * @see org.osgi.framework.BundleListener
+ * @see BundleIndex
+ * @see BundleEventJournal
  */
 public class BundleUtils {
     /**
@@ -87,14 +89,21 @@ public class BundleUtils {
      * @since 1.0
      */
     public static Bundle findBundle(BundleContext bc, String symbolicName, Version version) {
-        PackageAdmin packageAdmin = getService(bc, PackageAdmin.class);
-        if (packageAdmin != null) {
-            Bundle[] bundles = packageAdmin.getBundles(symbolicName, version != null ? version.toString() : null);
-            if (bundles != null && bundles.length > 0) {
-                return bundles[0];
-            }
-        }
-        return null;
+        return BundleIndex.getIndex(bc).getBundle(symbolicName, version);
+    }
+
+    /**
+     * Find bundles by SymbolicName and version range
+     *
+     * @param bc           BundleContext
+     * @param symbolicName symbolicName
+     * @param range        version range (could be null)
+     * @return array of bundles sorted by version in descending order, empty if no bundle is found
+     * @throws NullPointerException If <code>bc</code> or <code>symbolicName</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Bundle[] findBundles(BundleContext bc, String symbolicName, VersionRange range) {
+        return BundleIndex.getIndex(bc).getBundles(symbolicName, range);
     }
 
     /**
@@ -187,6 +196,21 @@ public class BundleUtils {
         return findBundle(bc, symbolicName, null, stateMask, timeout, timeUnit);
     }
 
+    /**
+     * Find bundle by SymbolicName and Version and stateMask within timeout
+     *
+     * @param bc           BundleContext
+     * @param symbolicName symbolicName
+     * @param stateMask    The bit mask of the ORing of the bundle states to be tracked.
+     * @param deadline     deadline shared by consecutive waits
+     * @return Bundle instance or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>symbolicName</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Bundle findBundle(BundleContext bc, String symbolicName, int stateMask, Deadline deadline) {
+        return findBundle(bc, symbolicName, stateMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Find bundle by SymbolicName and Version within timeout
      *
@@ -203,6 +227,21 @@ public class BundleUtils {
         return findBundle(bc, symbolicName, version, ANY_STATE, timeout, timeUnit);
     }
 
+    /**
+     * Find bundle by SymbolicName and Version within timeout
+     *
+     * @param bc           BundleContext
+     * @param symbolicName symbolicName
+     * @param version      version
+     * @param deadline     deadline shared by consecutive waits
+     * @return Bundle instance or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>symbolicName</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Bundle findBundle(BundleContext bc, String symbolicName, Version version, Deadline deadline) {
+        return findBundle(bc, symbolicName, version, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Find bundle by SymbolicName and Version and stateMask within timeout
      *
@@ -223,15 +262,35 @@ public class BundleUtils {
         BundleTracker tracker = new BundleTracker(bc, stateMask,
                 new SymbolicNameVersionBundleTrackerCustomizer(bc, latch, symbolicName, version));
         tracker.open();
+        long start = System.nanoTime();
+        Bundle bundle = null;
         try {
-            return waitForBundle(tracker, timeoutInMillis, latch);
+            bundle = waitForBundle(tracker, timeoutInMillis, latch);
+            return bundle;
         } catch (InterruptedException e) {
             return null;
         } finally {
             tracker.close();
+            OperationProbe.record(bc, OperationEvent.WAIT, "BundleUtils.findBundle", symbolicName, timeoutInMillis, start, bundle != null);
         }
     }
 
+    /**
+     * Find bundle by SymbolicName and Version and stateMask within timeout
+     *
+     * @param bc           BundleContext
+     * @param symbolicName symbolicName
+     * @param version      version
+     * @param stateMask    The bit mask of the ORing of the bundle states to be tracked.
+     * @param deadline     deadline shared by consecutive waits
+     * @return Bundle instance or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>symbolicName</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Bundle findBundle(BundleContext bc, String symbolicName, Version version, int stateMask, Deadline deadline) {
+        return findBundle(bc, symbolicName, version, stateMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Installs a bundle asynchronously
      *
@@ -322,11 +381,11 @@ public class BundleUtils {
      * @since 1.1
      */
     public static Future<Bundle> installBundleAsync(final BundleContext bc, final String location, final InputStream input, long delay, TimeUnit timeUnit) {
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<Bundle>() {
+        return schedule(OperationProbe.wrap("BundleUtils.installBundleAsync", location, new Callable<Bundle>() {
             public Bundle call() throws Exception {
                 return bc.installBundle(location, input);
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -622,12 +681,12 @@ public class BundleUtils {
      * @since 1.1
      */
     public static Future<?> startBundleAsync(final Bundle bundle, final int options, long delay, TimeUnit timeUnit) {
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<Object>() {
+        return schedule(OperationProbe.wrap("BundleUtils.startBundleAsync", bundle, new Callable<Object>() {
             public Object call() throws Exception {
                 bundle.start(options);
                 return null;
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -975,12 +1034,12 @@ public class BundleUtils {
      * @since 1.1
      */
     public static Future<?> stopBundleAsync(final Bundle bundle, final int options, long delay, TimeUnit timeUnit) {
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<Object>() {
+        return schedule(OperationProbe.wrap("BundleUtils.stopBundleAsync", bundle, new Callable<Object>() {
             public Object call() throws Exception {
                 bundle.stop(options);
                 return null;
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -1145,12 +1204,12 @@ public class BundleUtils {
      * @since 1.1
      */
     public static Future<?> uninstallBundleAsync(final Bundle bundle, long delay, TimeUnit timeUnit) {
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<Object>() {
+        return schedule(OperationProbe.wrap("BundleUtils.uninstallBundleAsync", bundle, new Callable<Object>() {
             public Object call() throws Exception {
                 bundle.uninstall();
                 return null;
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -1525,12 +1584,12 @@ public class BundleUtils {
      * @since 1.1
      */
     public static Future<?> updateBundleAsync(final Bundle bundle, final InputStream input, long delay, TimeUnit timeUnit) {
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<Object>() {
+        return schedule(OperationProbe.wrap("BundleUtils.updateBundleAsync", bundle, new Callable<Object>() {
             public Object call() throws Exception {
                 bundle.update(input);
                 return null;
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -1665,6 +1724,22 @@ public class BundleUtils {
         return waitForBundleEvent(bc, bundle.getSymbolicName(), bundle.getVersion(), eventTypeMask, timeout, timeUnit);
     }
 
+    /**
+     * Wait for BundleEvent with event type mask for defined bundle
+     *
+     * @param bc            BundleContext
+     * @param bundleId      bundle id
+     * @param eventTypeMask BundleEvent type mask
+     * @param deadline      deadline shared by consecutive waits
+     * @return BundleEvent or <code>null</code>
+     * @throws NullPointerException     If <code>bc</code> or <code>deadline</code> are <code>null</code>
+     * @throws IllegalArgumentException If <code>bundleId</code> is invalid
+     * @since 1.3
+     */
+    public static BundleEvent waitForBundleEvent(BundleContext bc, int bundleId, int eventTypeMask, Deadline deadline) {
+        return waitForBundleEvent(bc, bundleId, eventTypeMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Wait for BundleEvent with event type mask for defined bundle
      *
@@ -1681,6 +1756,21 @@ public class BundleUtils {
         return waitForBundleEvent(bc, symbolicName, null, eventTypeMask, timeout, timeUnit);
     }
 
+    /**
+     * Wait for BundleEvent with event type mask for defined bundle
+     *
+     * @param bc            BundleContext
+     * @param symbolicName  symbolicName
+     * @param eventTypeMask BundleEvent type mask
+     * @param deadline      deadline shared by consecutive waits
+     * @return BundleEvent or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>symbolicName</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static BundleEvent waitForBundleEvent(BundleContext bc, String symbolicName, int eventTypeMask, Deadline deadline) {
+        return waitForBundleEvent(bc, symbolicName, eventTypeMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Wait for BundleEvent with event type mask for defined bundle
      *
@@ -1701,21 +1791,256 @@ public class BundleUtils {
         BundleListenerImpl listener = new BundleListenerImpl(symbolicName, version, eventTypeMask, latch);
         bc.addBundleListener(listener);
 
+        long start = System.nanoTime();
+        BundleEvent event = null;
         try {
-            return waitForBundleEvent(listener, timeoutInMillis, latch);
+            event = waitForBundleEvent(listener, timeoutInMillis, latch);
+            return event;
         } catch (InterruptedException e) {
             return null;
         } finally {
             bc.removeBundleListener(listener);
+            OperationProbe.record(bc, OperationEvent.WAIT, "BundleUtils.waitForBundleEvent", symbolicName, timeoutInMillis, start, event != null);
         }
     }
 
+    /**
+     * Wait for BundleEvent with event type mask for defined bundle
+     *
+     * @param bc            BundleContext
+     * @param symbolicName  symbolicName
+     * @param version       version
+     * @param eventTypeMask BundleEvent type mask
+     * @param deadline      deadline shared by consecutive waits
+     * @return BundleEvent or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>symbolicName</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static BundleEvent waitForBundleEvent(BundleContext bc, String symbolicName, Version version, int eventTypeMask, Deadline deadline) {
+        return waitForBundleEvent(bc, symbolicName, version, eventTypeMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Installs a bundle asynchronously
+     *
+     * @param bc       BundleContext
+     * @param location The location identifier of the bundle to install.
+     * @return A <code>Promise&lt;Bundle&gt;</code> of the installed bundle.
+     * @since 1.3
+     */
+    public static Promise<Bundle> installBundlePromise(BundleContext bc, String location) {
+        return installBundlePromise(bc, location, null);
+    }
+
+    /**
+     * Installs a bundle asynchronously
+     *
+     * @param bc       BundleContext
+     * @param location The location identifier of the bundle to install.
+     * @param input    The <code>InputStream</code> object from which this bundle
+     *                 will be read or <code>null</code> to indicate the Framework must
+     *                 create the input stream from the specified location identifier.
+     *                 The input stream must always be closed when this method completes,
+     *                 even if an exception is thrown.
+     * @return A <code>Promise&lt;Bundle&gt;</code> of the installed bundle.
+     * @since 1.3
+     */
+    public static Promise<Bundle> installBundlePromise(final BundleContext bc, final String location, final InputStream input) {
+        return execute(OperationProbe.wrap("BundleUtils.installBundlePromise", location, new Callable<Bundle>() {
+            public Bundle call() throws Exception {
+                return bc.installBundle(location, input);
+            }
+        }));
+    }
+
+    /**
+     * Starts a bundle asynchronously
+     *
+     * @param bundle Bundle
+     * @return A <code>Promise&lt;Bundle&gt;</code> of the started bundle.
+     * @since 1.3
+     */
+    public static Promise<Bundle> startBundlePromise(Bundle bundle) {
+        return startBundlePromise(bundle, 0);
+    }
+
+    /**
+     * Starts a bundle asynchronously
+     *
+     * @param bundle  Bundle
+     * @param options The options for starting this bundle. See
+     *                {@link Bundle#START_TRANSIENT} and {@link Bundle#START_ACTIVATION_POLICY}.
+     *                The Framework must ignore unrecognized options.
+     * @return A <code>Promise&lt;Bundle&gt;</code> of the started bundle.
+     * @since 1.3
+     */
+    public static Promise<Bundle> startBundlePromise(final Bundle bundle, final int options) {
+        return execute(OperationProbe.wrap("BundleUtils.startBundlePromise", bundle, new Callable<Bundle>() {
+            public Bundle call() throws Exception {
+                bundle.start(options);
+                return bundle;
+            }
+        }));
+    }
+
+    /**
+     * Stops a bundle asynchronously
+     *
+     * @param bundle Bundle
+     * @return A <code>Promise&lt;Bundle&gt;</code> of the stopped bundle.
+     * @since 1.3
+     */
+    public static Promise<Bundle> stopBundlePromise(Bundle bundle) {
+        return stopBundlePromise(bundle, 0);
+    }
+
+    /**
+     * Stops a bundle asynchronously
+     *
+     * @param bundle  Bundle
+     * @param options The options for stoping this bundle. See
+     *                {@link Bundle#STOP_TRANSIENT}. The Framework must ignore unrecognized
+     *                options.
+     * @return A <code>Promise&lt;Bundle&gt;</code> of the stopped bundle.
+     * @since 1.3
+     */
+    public static Promise<Bundle> stopBundlePromise(final Bundle bundle, final int options) {
+        return execute(OperationProbe.wrap("BundleUtils.stopBundlePromise", bundle, new Callable<Bundle>() {
+            public Bundle call() throws Exception {
+                bundle.stop(options);
+                return bundle;
+            }
+        }));
+    }
+
+    /**
+     * Uninstalls a bundle asynchronously
+     *
+     * @param bundle Bundle
+     * @return A <code>Promise&lt;Bundle&gt;</code> of the uninstalled bundle.
+     * @since 1.3
+     */
+    public static Promise<Bundle> uninstallBundlePromise(final Bundle bundle) {
+        return execute(OperationProbe.wrap("BundleUtils.uninstallBundlePromise", bundle, new Callable<Bundle>() {
+            public Bundle call() throws Exception {
+                bundle.uninstall();
+                return bundle;
+            }
+        }));
+    }
+
+    /**
+     * Updates a bundle asynchronously
+     *
+     * @param bundle Bundle
+     * @return A <code>Promise&lt;Bundle&gt;</code> of the updated bundle.
+     * @since 1.3
+     */
+    public static Promise<Bundle> updateBundlePromise(Bundle bundle) {
+        return updateBundlePromise(bundle, null);
+    }
+
+    /**
+     * Updates a bundle asynchronously
+     *
+     * @param bundle Bundle
+     * @param input  The <code>InputStream</code> from which to read the new
+     *               bundle or <code>null</code> to indicate the Framework must create
+     *               the input stream from this bundle's
+     *               {@link Constants#BUNDLE_UPDATELOCATION Bundle-UpdateLocation}
+     *               Manifest header, if present, or this bundle's original location.
+     *               The input stream must always be closed when this method completes,
+     *               even if an exception is thrown.
+     * @return A <code>Promise&lt;Bundle&gt;</code> of the updated bundle.
+     * @since 1.3
+     */
+    public static Promise<Bundle> updateBundlePromise(final Bundle bundle, final InputStream input) {
+        return execute(OperationProbe.wrap("BundleUtils.updateBundlePromise", bundle, new Callable<Bundle>() {
+            public Bundle call() throws Exception {
+                bundle.update(input);
+                return bundle;
+            }
+        }));
+    }
+
+    /**
+     * Get a promise of BundleEvent with event type mask for defined bundle.
+     * The promise is completed from a BundleListener callback.
+     *
+     * @param bc            BundleContext
+     * @param symbolicName  symbolicName
+     * @param version       version (could be null)
+     * @param eventTypeMask BundleEvent type mask
+     * @param timeout       time interval to wait. If zero, the promise never times out.
+     * @param timeUnit      time unit for the time interval
+     * @return A <code>Promise&lt;BundleEvent&gt;</code> that fails with <code>TimeoutException</code> if no event is
+     *         received within timeout
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>bc</code> or <code>symbolicName</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Promise<BundleEvent> whenBundleEvent(final BundleContext bc, String symbolicName, Version version, int eventTypeMask, long timeout, TimeUnit timeUnit) {
+        if (symbolicName == null || timeUnit == null) {
+            throw new NullPointerException("symbolicName or timeUnit is null");
+        }
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+        final Promise<BundleEvent> promise = new Promise<BundleEvent>();
+        final BundleListener listener = new PromiseBundleListener(symbolicName, version, eventTypeMask, promise);
+        bc.addBundleListener(listener);
+        promise.whenComplete(new Promise.Callback<BundleEvent>() {
+            public void completed(BundleEvent value, Throwable failure) {
+                bc.removeBundleListener(listener);
+            }
+        });
+        return promise.withTimeout(timeout, timeUnit);
+    }
+
+    /**
+     * Get a promise of Bundle with symbolicName, version and state mask.
+     * The promise is resolved immediately if the bundle is already in expected state,
+     * otherwise it is completed from a BundleListener callback.
+     *
+     * @param bc           BundleContext
+     * @param symbolicName symbolicName
+     * @param version      version (could be null)
+     * @param stateMask    state mask
+     * @param timeout      time interval to wait. If zero, the promise never times out.
+     * @param timeUnit     time unit for the time interval
+     * @return A <code>Promise&lt;Bundle&gt;</code> that fails with <code>TimeoutException</code> if bundle does not
+     *         reach expected state within timeout
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>bc</code> or <code>symbolicName</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Promise<Bundle> whenBundle(final BundleContext bc, String symbolicName, Version version, int stateMask, long timeout, TimeUnit timeUnit) {
+        if (symbolicName == null || timeUnit == null) {
+            throw new NullPointerException("symbolicName or timeUnit is null");
+        }
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+        final Promise<Bundle> promise = new Promise<Bundle>();
+        final PromiseBundleStateListener listener = new PromiseBundleStateListener(symbolicName, version, stateMask, promise);
+        bc.addBundleListener(listener);
+        promise.whenComplete(new Promise.Callback<Bundle>() {
+            public void completed(Bundle value, Throwable failure) {
+                bc.removeBundleListener(listener);
+            }
+        });
+        for (Bundle bundle : bc.getBundles()) {
+            listener.check(bundle);
+        }
+        return promise.withTimeout(timeout, timeUnit);
+    }
+
     private static BundleEvent waitForBundleEvent(BundleListenerImpl listener, long timeoutInMillis, CountDownLatch latch)
             throws InterruptedException {
         if (timeoutInMillis < 0) {
             throw new IllegalArgumentException("timeout value is negative");
         }
-        if (latch.await(timeoutInMillis, MILLISECONDS)) {
+        if (await(latch, timeoutInMillis)) {
             return listener.getBundleEvent();
         } else {
             return null;
@@ -1740,7 +2065,7 @@ public class BundleUtils {
         }
         Bundle[] bundles = tracker.getBundles();
         if (bundles == null) {
-            if (latch.await(timeoutInMillis, MILLISECONDS)) {
+            if (await(latch, timeoutInMillis)) {
                 bundles = tracker.getBundles();
                 return bundles == null ? null : bundles[0];
             } else {
@@ -1752,7 +2077,6 @@ public class BundleUtils {
         }
     }
 
-
     /**
      * BundleTrackerCustomizer with latch support.
      *
@@ -1831,7 +2155,7 @@ public class BundleUtils {
             }
         }
 
-        private boolean match(BundleEvent event) {
+        protected boolean match(BundleEvent event) {
             Bundle bundle = event.getBundle();
             return bundle.getSymbolicName().equals(symbolicName)
                     && (version == null || bundle.getVersion().equals(version))
@@ -1842,4 +2166,46 @@ public class BundleUtils {
             return event;
         }
     }
+
+    private static class PromiseBundleListener extends BundleListenerImpl {
+        private final Promise<BundleEvent> promise;
+
+        public PromiseBundleListener(String symbolicName, Version version, int eventTypeMask, Promise<BundleEvent> promise) {
+            super(symbolicName, version, eventTypeMask, new CountDownLatch(1));
+            this.promise = promise;
+        }
+
+        @Override
+        public void bundleChanged(BundleEvent event) {
+            if (match(event)) {
+                promise.resolve(event);
+            }
+        }
+    }
+
+    private static class PromiseBundleStateListener implements BundleListener {
+        private final String symbolicName;
+        private final Version version;
+        private final int stateMask;
+        private final Promise<Bundle> promise;
+
+        public PromiseBundleStateListener(String symbolicName, Version version, int stateMask, Promise<Bundle> promise) {
+            this.symbolicName = symbolicName;
+            this.version = version;
+            this.stateMask = stateMask;
+            this.promise = promise;
+        }
+
+        public void bundleChanged(BundleEvent event) {
+            check(event.getBundle());
+        }
+
+        public void check(Bundle bundle) {
+            if (symbolicName.equals(bundle.getSymbolicName())
+                    && (version == null || version.equals(bundle.getVersion()))
+                    && (stateMask & bundle.getState()) != 0) {
+                promise.resolve(bundle);
+            }
+        }
+    }
 }
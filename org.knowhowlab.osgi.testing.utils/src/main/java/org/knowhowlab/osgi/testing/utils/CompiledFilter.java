@@ -0,0 +1,829 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.Filter;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
+
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Framework independent LDAP filter.
+ * <p/>
+ * Filter string is parsed once into a tree of predicates. Every comparison caches the filter value
+ * coerced to each type of property values after first use, and primitive arrays are compared without boxing,
+ * so matching of scalar and array property values does not allocate if property key is found with its exact case.
+ * Property keys are matched case-insensitively as defined by OSGi Core specification, except
+ * {@link #matchCase(Dictionary)}: if key is not found with its exact case, all keys are iterated.
+ * <code>Collection</code> property values are iterated as well.
+ * <p/>
+ * Filter could be used in plain unit tests without OSGi framework, e.g. to match EventAdmin event
+ * properties or service property sets:
+ * <pre>
+ * CompiledFilter filter = CompiledFilter.compile("(&amp;(event.topics=org/example/*)(priority&gt;=5))");
+ * boolean matched = filter.matches(properties);
+ * </pre>
+ *
+ * @see FilterUtils#compile(String)
+ * @since 1.3
+ */
+public final class CompiledFilter implements Filter {
+    private static final int MAP = 0;
+    private static final int DICTIONARY = 1;
+    private static final int REFERENCE = 2;
+
+    private static final int EQUAL = 0;
+    private static final int APPROX = 1;
+    private static final int GREATER_EQUAL = 2;
+    private static final int LESS_EQUAL = 3;
+
+    private final Node root;
+    private final String filter;
+
+    private CompiledFilter(Node root) {
+        this.root = root;
+        StringBuilder builder = new StringBuilder(64);
+        root.render(builder);
+        this.filter = builder.toString();
+    }
+
+    /**
+     * Compile filter
+     *
+     * @param filter LDAP filter string
+     * @return compiled filter
+     * @throws InvalidSyntaxException If <code>filter</code> contains an invalid filter string
+     * @throws NullPointerException   If <code>filter</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static CompiledFilter compile(String filter) throws InvalidSyntaxException {
+        if (filter == null) {
+            throw new NullPointerException("filter is null");
+        }
+        return new CompiledFilter(new Parser(filter).parse());
+    }
+
+    /**
+     * Match property set. Keys are matched case-insensitively.
+     *
+     * @param properties properties (could be null)
+     * @return <code>true</code> if properties match filter, otherwise <code>false</code>
+     * @since 1.3
+     */
+    public boolean matches(Map<String, ?> properties) {
+        return root.match(properties, MAP, false);
+    }
+
+    public boolean match(ServiceReference reference) {
+        return root.match(reference, REFERENCE, false);
+    }
+
+    public boolean match(Dictionary dictionary) {
+        return root.match(dictionary, DICTIONARY, false);
+    }
+
+    public boolean matchCase(Dictionary dictionary) {
+        return root.match(dictionary, DICTIONARY, true);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Filter && filter.equals(o.toString()));
+    }
+
+    @Override
+    public int hashCode() {
+        return filter.hashCode();
+    }
+
+    /**
+     * Get normalized filter string
+     *
+     * @return normalized filter string
+     */
+    @Override
+    public String toString() {
+        return filter;
+    }
+
+    /**
+     * Get predicate that every matching property set must satisfy: attribute key and value of an equality
+     * predicate or attribute key and <code>null</code> of a presence predicate.
+     *
+     * @return key and value pair or <code>null</code> if filter has no such predicate
+     */
+    String[] getRequiredPredicate() {
+        return root.getRequiredPredicate();
+    }
+
+    static Object getProperty(Map<String, ?> properties, String key) {
+        return lookup(properties, MAP, key, false);
+    }
+
+    static Object getProperty(Dictionary properties, String key) {
+        return lookup(properties, DICTIONARY, key, false);
+    }
+
+    private static Object lookup(Object source, int sourceType, String key, boolean caseSensitive) {
+        if (source == null) {
+            return null;
+        }
+        switch (sourceType) {
+            case MAP: {
+                Map map = (Map) source;
+                Object value = map.get(key);
+                if (value != null || caseSensitive) {
+                    return value;
+                }
+                for (Object entry : map.entrySet()) {
+                    Object entryKey = ((Map.Entry) entry).getKey();
+                    if (entryKey instanceof String && key.equalsIgnoreCase((String) entryKey)) {
+                        return ((Map.Entry) entry).getValue();
+                    }
+                }
+                return null;
+            }
+            case DICTIONARY: {
+                Dictionary dictionary = (Dictionary) source;
+                Object value = dictionary.get(key);
+                if (value != null || caseSensitive) {
+                    return value;
+                }
+                for (Enumeration keys = dictionary.keys(); keys.hasMoreElements(); ) {
+                    Object entryKey = keys.nextElement();
+                    if (entryKey instanceof String && key.equalsIgnoreCase((String) entryKey)) {
+                        return dictionary.get(entryKey);
+                    }
+                }
+                return null;
+            }
+            default:
+                return ((ServiceReference) source).getProperty(key);
+        }
+    }
+
+    private static void appendEscaped(StringBuilder builder, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '(' || c == ')' || c == '*') {
+                builder.append('\\');
+            }
+            builder.append(c);
+        }
+    }
+
+    private abstract static class Node {
+        abstract boolean match(Object source, int sourceType, boolean caseSensitive);
+
+        abstract void render(StringBuilder builder);
+
+        String[] getRequiredPredicate() {
+            return null;
+        }
+    }
+
+    private static final class And extends Node {
+        private final Node[] nodes;
+
+        private And(Node[] nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        boolean match(Object source, int sourceType, boolean caseSensitive) {
+            for (Node node : nodes) {
+                if (!node.match(source, sourceType, caseSensitive)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        String[] getRequiredPredicate() {
+            String[] present = null;
+            for (Node node : nodes) {
+                String[] predicate = node.getRequiredPredicate();
+                if (predicate != null && predicate[1] != null) {
+                    return predicate;
+                }
+                if (present == null) {
+                    present = predicate;
+                }
+            }
+            return present;
+        }
+
+        @Override
+        void render(StringBuilder builder) {
+            builder.append("(&");
+            for (Node node : nodes) {
+                node.render(builder);
+            }
+            builder.append(')');
+        }
+    }
+
+    private static final class Or extends Node {
+        private final Node[] nodes;
+
+        private Or(Node[] nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        boolean match(Object source, int sourceType, boolean caseSensitive) {
+            for (Node node : nodes) {
+                if (node.match(source, sourceType, caseSensitive)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        void render(StringBuilder builder) {
+            builder.append("(|");
+            for (Node node : nodes) {
+                node.render(builder);
+            }
+            builder.append(')');
+        }
+    }
+
+    private static final class Not extends Node {
+        private final Node node;
+
+        private Not(Node node) {
+            this.node = node;
+        }
+
+        @Override
+        boolean match(Object source, int sourceType, boolean caseSensitive) {
+            return !node.match(source, sourceType, caseSensitive);
+        }
+
+        @Override
+        void render(StringBuilder builder) {
+            builder.append("(!");
+            node.render(builder);
+            builder.append(')');
+        }
+    }
+
+    private static final class Present extends Node {
+        private final String key;
+
+        private Present(String key) {
+            this.key = key;
+        }
+
+        @Override
+        boolean match(Object source, int sourceType, boolean caseSensitive) {
+            return lookup(source, sourceType, key, caseSensitive) != null;
+        }
+
+        @Override
+        String[] getRequiredPredicate() {
+            return new String[]{key, null};
+        }
+
+        @Override
+        void render(StringBuilder builder) {
+            builder.append('(').append(key).append("=*)");
+        }
+    }
+
+    /**
+     * Attribute predicate. Arrays and collections match if any element matches.
+     */
+    private abstract static class Leaf extends Node {
+        final String key;
+
+        private Leaf(String key) {
+            this.key = key;
+        }
+
+        @Override
+        boolean match(Object source, int sourceType, boolean caseSensitive) {
+            Object value = lookup(source, sourceType, key, caseSensitive);
+            return value != null && matchAny(value);
+        }
+
+        private boolean matchAny(Object value) {
+            if (value instanceof String) {
+                return matchValue(value);
+            }
+            if (value instanceof Object[]) {
+                for (Object element : (Object[]) value) {
+                    if (element != null && matchValue(element)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (value.getClass().isArray()) {
+                return matchPrimitiveArray(value);
+            }
+            if (value instanceof Collection) {
+                for (Object element : (Collection) value) {
+                    if (element != null && matchValue(element)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return matchValue(value);
+        }
+
+        abstract boolean matchValue(Object value);
+
+        abstract boolean matchPrimitiveArray(Object array);
+    }
+
+    private static final class Comparison extends Leaf {
+        private static final int MAX_COERCED_TYPES = 8;
+        private static final Coerced[] NOT_COERCED = new Coerced[0];
+
+        private final int operation;
+        private final String value;
+        private volatile Coerced[] coerced = NOT_COERCED;
+
+        private Comparison(String key, int operation, String value) {
+            super(key);
+            this.operation = operation;
+            this.value = value;
+        }
+
+        @Override
+        boolean matchValue(Object propertyValue) {
+            if (propertyValue instanceof String) {
+                return matchString((String) propertyValue);
+            }
+            Object filterValue = coerced(propertyValue.getClass());
+            if (filterValue == null) {
+                return false;
+            }
+            if (propertyValue instanceof Boolean) {
+                return propertyValue.equals(filterValue);
+            }
+            if (operation == APPROX && propertyValue instanceof Character) {
+                return Character.toLowerCase((Character) propertyValue) == Character.toLowerCase((Character) filterValue);
+            }
+            if (propertyValue instanceof Comparable) {
+                //noinspection unchecked
+                return matchResult(((Comparable) propertyValue).compareTo(filterValue));
+            }
+            return (operation == EQUAL || operation == APPROX) && propertyValue.equals(filterValue);
+        }
+
+        @Override
+        boolean matchPrimitiveArray(Object array) {
+            Class type = array.getClass().getComponentType();
+            if (type == int.class) {
+                Object filterValue = coerced(Integer.class);
+                if (filterValue != null) {
+                    int number = (Integer) filterValue;
+                    for (int element : (int[]) array) {
+                        if (matchResult(element < number ? -1 : (element == number ? 0 : 1))) {
+                            return true;
+                        }
+                    }
+                }
+            } else if (type == long.class) {
+                Object filterValue = coerced(Long.class);
+                if (filterValue != null) {
+                    long number = (Long) filterValue;
+                    for (long element : (long[]) array) {
+                        if (matchResult(element < number ? -1 : (element == number ? 0 : 1))) {
+                            return true;
+                        }
+                    }
+                }
+            } else if (type == short.class) {
+                Object filterValue = coerced(Short.class);
+                if (filterValue != null) {
+                    short number = (Short) filterValue;
+                    for (short element : (short[]) array) {
+                        if (matchResult(element - number)) {
+                            return true;
+                        }
+                    }
+                }
+            } else if (type == byte.class) {
+                Object filterValue = coerced(Byte.class);
+                if (filterValue != null) {
+                    byte number = (Byte) filterValue;
+                    for (byte element : (byte[]) array) {
+                        if (matchResult(element - number)) {
+                            return true;
+                        }
+                    }
+                }
+            } else if (type == double.class) {
+                Object filterValue = coerced(Double.class);
+                if (filterValue != null) {
+                    double number = (Double) filterValue;
+                    for (double element : (double[]) array) {
+                        if (matchResult(Double.compare(element, number))) {
+                            return true;
+                        }
+                    }
+                }
+            } else if (type == float.class) {
+                Object filterValue = coerced(Float.class);
+                if (filterValue != null) {
+                    float number = (Float) filterValue;
+                    for (float element : (float[]) array) {
+                        if (matchResult(Float.compare(element, number))) {
+                            return true;
+                        }
+                    }
+                }
+            } else if (type == char.class) {
+                Object filterValue = coerced(Character.class);
+                if (filterValue != null) {
+                    char character = (Character) filterValue;
+                    for (char element : (char[]) array) {
+                        if (operation == APPROX
+                                ? Character.toLowerCase(element) == Character.toLowerCase(character)
+                                : matchResult(element - character)) {
+                            return true;
+                        }
+                    }
+                }
+            } else if (type == boolean.class) {
+                Object filterValue = coerced(Boolean.class);
+                if (filterValue != null) {
+                    boolean flag = (Boolean) filterValue;
+                    for (boolean element : (boolean[]) array) {
+                        if (element == flag) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean matchResult(int result) {
+            switch (operation) {
+                case GREATER_EQUAL:
+                    return result >= 0;
+                case LESS_EQUAL:
+                    return result <= 0;
+                default:
+                    return result == 0;
+            }
+        }
+
+        /**
+         * Get filter value coerced to type of property value. Coerced values are cached per type,
+         * at most {@link #MAX_COERCED_TYPES} types are cached.
+         *
+         * @param type type of property value
+         * @return coerced filter value or <code>null</code> if filter value could not be coerced
+         */
+        private Object coerced(Class type) {
+            Coerced[] current = coerced;
+            for (Coerced entry : current) {
+                if (entry.type == type) {
+                    return entry.value;
+                }
+            }
+            Object filterValue = coerce(type);
+            if (current.length < MAX_COERCED_TYPES) {
+                Coerced[] updated = new Coerced[current.length + 1];
+                System.arraycopy(current, 0, updated, 0, current.length);
+                updated[current.length] = new Coerced(type, filterValue);
+                coerced = updated;
+            }
+            return filterValue;
+        }
+
+        @Override
+        String[] getRequiredPredicate() {
+            return operation == EQUAL ? new String[]{key, value} : null;
+        }
+
+        private boolean matchString(String propertyValue) {
+            switch (operation) {
+                case APPROX:
+                    return approxEquals(propertyValue, value);
+                case GREATER_EQUAL:
+                    return propertyValue.compareTo(value) >= 0;
+                case LESS_EQUAL:
+                    return propertyValue.compareTo(value) <= 0;
+                default:
+                    return propertyValue.equals(value);
+            }
+        }
+
+        private Object coerce(Class type) {
+            String trimmed = value.trim();
+            try {
+                if (type == Integer.class) {
+                    return Integer.valueOf(trimmed);
+                } else if (type == Long.class) {
+                    return Long.valueOf(trimmed);
+                } else if (type == Short.class) {
+                    return Short.valueOf(trimmed);
+                } else if (type == Byte.class) {
+                    return Byte.valueOf(trimmed);
+                } else if (type == Float.class) {
+                    return Float.valueOf(trimmed);
+                } else if (type == Double.class) {
+                    return Double.valueOf(trimmed);
+                } else if (type == BigInteger.class) {
+                    return new BigInteger(trimmed);
+                } else if (type == BigDecimal.class) {
+                    return new BigDecimal(trimmed);
+                } else if (type == Boolean.class) {
+                    return Boolean.valueOf(trimmed);
+                } else if (type == Character.class) {
+                    return value.length() > 0 ? value.charAt(0) : null;
+                }
+                Constructor constructor = type.getConstructor(String.class);
+                return constructor.newInstance(trimmed);
+            } catch (Exception e) {
+                // value could not be coerced, property never matches
+                return null;
+            }
+        }
+
+        private static boolean approxEquals(String s1, String s2) {
+            int i1 = 0;
+            int i2 = 0;
+            while (true) {
+                while (i1 < s1.length() && Character.isWhitespace(s1.charAt(i1))) {
+                    i1++;
+                }
+                while (i2 < s2.length() && Character.isWhitespace(s2.charAt(i2))) {
+                    i2++;
+                }
+                if (i1 == s1.length() || i2 == s2.length()) {
+                    return i1 == s1.length() && i2 == s2.length();
+                }
+                char c1 = s1.charAt(i1++);
+                char c2 = s2.charAt(i2++);
+                if (c1 != c2 && Character.toLowerCase(c1) != Character.toLowerCase(c2)
+                        && Character.toUpperCase(c1) != Character.toUpperCase(c2)) {
+                    return false;
+                }
+            }
+        }
+
+        @Override
+        void render(StringBuilder builder) {
+            builder.append('(').append(key);
+            switch (operation) {
+                case APPROX:
+                    builder.append("~=");
+                    break;
+                case GREATER_EQUAL:
+                    builder.append(">=");
+                    break;
+                case LESS_EQUAL:
+                    builder.append("<=");
+                    break;
+                default:
+                    builder.append('=');
+            }
+            appendEscaped(builder, value);
+            builder.append(')');
+        }
+    }
+
+    private static final class Coerced {
+        private final Class type;
+        private final Object value;
+
+        private Coerced(Class type, Object value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    private static final class Substring extends Leaf {
+        private final String initial;
+        private final String[] any;
+        private final String last;
+
+        private Substring(String key, String initial, String[] any, String last) {
+            super(key);
+            this.initial = initial;
+            this.any = any;
+            this.last = last;
+        }
+
+        @Override
+        boolean matchPrimitiveArray(Object array) {
+            return false;
+        }
+
+        @Override
+        boolean matchValue(Object value) {
+            if (!(value instanceof String)) {
+                return false;
+            }
+            String string = (String) value;
+            int position = 0;
+            if (initial != null) {
+                if (!string.startsWith(initial)) {
+                    return false;
+                }
+                position = initial.length();
+            }
+            for (String part : any) {
+                int index = string.indexOf(part, position);
+                if (index < 0) {
+                    return false;
+                }
+                position = index + part.length();
+            }
+            return last == null || (string.length() - last.length() >= position && string.endsWith(last));
+        }
+
+        @Override
+        void render(StringBuilder builder) {
+            builder.append('(').append(key).append('=');
+            if (initial != null) {
+                appendEscaped(builder, initial);
+            }
+            builder.append('*');
+            for (String part : any) {
+                appendEscaped(builder, part);
+                builder.append('*');
+            }
+            if (last != null) {
+                appendEscaped(builder, last);
+            }
+            builder.append(')');
+        }
+    }
+
+    /**
+     * Recursive descent parser of LDAP filter string
+     */
+    private static final class Parser {
+        private final String filter;
+        private int position;
+
+        private Parser(String filter) {
+            this.filter = filter;
+        }
+
+        private Node parse() throws InvalidSyntaxException {
+            Node node = parseFilter();
+            skipWhitespace();
+            if (position != filter.length()) {
+                throw error("Extraneous trailing characters");
+            }
+            return node;
+        }
+
+        private Node parseFilter() throws InvalidSyntaxException {
+            skipWhitespace();
+            expect('(');
+            skipWhitespace();
+            if (position == filter.length()) {
+                throw error("Unexpected end of filter");
+            }
+            Node node;
+            switch (filter.charAt(position)) {
+                case '&':
+                    position++;
+                    node = new And(parseList());
+                    break;
+                case '|':
+                    position++;
+                    node = new Or(parseList());
+                    break;
+                case '!':
+                    position++;
+                    node = new Not(parseFilter());
+                    break;
+                default:
+                    node = parseItem();
+            }
+            skipWhitespace();
+            expect(')');
+            return node;
+        }
+
+        private Node[] parseList() throws InvalidSyntaxException {
+            List<Node> nodes = new ArrayList<Node>();
+            skipWhitespace();
+            while (position < filter.length() && filter.charAt(position) == '(') {
+                nodes.add(parseFilter());
+                skipWhitespace();
+            }
+            if (nodes.isEmpty()) {
+                throw error("Missing filter list");
+            }
+            return nodes.toArray(new Node[nodes.size()]);
+        }
+
+        private Node parseItem() throws InvalidSyntaxException {
+            int start = position;
+            while (position < filter.length() && "=~<>()".indexOf(filter.charAt(position)) < 0) {
+                position++;
+            }
+            String key = filter.substring(start, position).trim();
+            if (key.length() == 0) {
+                throw error("Missing attribute name");
+            }
+            if (position + 1 >= filter.length()) {
+                throw error("Unexpected end of filter");
+            }
+            int operation;
+            char c = filter.charAt(position);
+            if (c == '=') {
+                operation = EQUAL;
+                position++;
+            } else if (filter.charAt(position + 1) == '=' && (c == '~' || c == '<' || c == '>')) {
+                operation = c == '~' ? APPROX : (c == '<' ? LESS_EQUAL : GREATER_EQUAL);
+                position += 2;
+            } else {
+                throw error("Invalid operator");
+            }
+            List<String> parts = new ArrayList<String>(2);
+            StringBuilder builder = new StringBuilder();
+            while (true) {
+                if (position == filter.length()) {
+                    throw error("Unexpected end of filter");
+                }
+                c = filter.charAt(position);
+                if (c == ')') {
+                    break;
+                } else if (c == '(') {
+                    throw error("Invalid value");
+                } else if (c == '\\') {
+                    position++;
+                    if (position == filter.length()) {
+                        throw error("Unexpected end of filter");
+                    }
+                    builder.append(filter.charAt(position++));
+                } else if (c == '*' && operation == EQUAL) {
+                    parts.add(builder.toString());
+                    builder.setLength(0);
+                    position++;
+                } else {
+                    builder.append(c);
+                    position++;
+                }
+            }
+            parts.add(builder.toString());
+            if (parts.size() == 1) {
+                return new Comparison(key, operation, parts.get(0));
+            }
+            if (parts.size() == 2 && parts.get(0).length() == 0 && parts.get(1).length() == 0) {
+                return new Present(key);
+            }
+            String initial = parts.get(0).length() > 0 ? parts.get(0) : null;
+            String last = parts.get(parts.size() - 1).length() > 0 ? parts.get(parts.size() - 1) : null;
+            List<String> any = new ArrayList<String>(parts.size());
+            for (int i = 1; i < parts.size() - 1; i++) {
+                if (parts.get(i).length() > 0) {
+                    any.add(parts.get(i));
+                }
+            }
+            return new Substring(key, initial, any.toArray(new String[any.size()]), last);
+        }
+
+        private void skipWhitespace() {
+            while (position < filter.length() && Character.isWhitespace(filter.charAt(position))) {
+                position++;
+            }
+        }
+
+        private void expect(char c) throws InvalidSyntaxException {
+            if (position == filter.length() || filter.charAt(position) != c) {
+                throw error(String.format("Missing '%s'", c));
+            }
+            position++;
+        }
+
+        private InvalidSyntaxException error(String message) {
+            return new InvalidSyntaxException(String.format("%s at position %s", message, position), filter);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import org.knowhowlab.osgi.testing.utils.cmpn.ConfigurationAdminUtils;
+import org.knowhowlab.osgi.testing.utils.cmpn.EventAdminUtils;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Filter;
+import org.osgi.framework.Version;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Composite wait for bundle, service, configuration and event conditions.
+ * <p/>
+ * All listeners of the conditions are registered at once and awaited with one shared deadline,
+ * so the wall time is bounded by the slowest condition instead of the sum of all timeouts.
+ * <pre>
+ * boolean ready = Conditions.allOf(bc)
+ *         .bundle("org.example.bundle", null, Bundle.ACTIVE)
+ *         .service(ExampleService.class)
+ *         .configurationEvent(ConfigurationEvent.CM_UPDATED, "org.example.pid", null, null)
+ *         .event("org/example/READY", null)
+ *         .await(10, TimeUnit.SECONDS);
+ * </pre>
+ *
+ * @see Promise
+ * @since 1.3
+ */
+public class Conditions {
+    private final BundleContext bc;
+    private final boolean all;
+    private final List<Condition> conditions = new ArrayList<Condition>();
+    private final List<Condition> unsatisfied = new ArrayList<Condition>();
+
+    private Conditions(BundleContext bc, boolean all) {
+        if (bc == null) {
+            throw new NullPointerException("bc is null");
+        }
+        this.bc = bc;
+        this.all = all;
+    }
+
+    /**
+     * Create conditions that are satisfied when all of them are satisfied
+     *
+     * @param bc BundleContext
+     * @return conditions
+     * @throws NullPointerException If <code>bc</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static Conditions allOf(BundleContext bc) {
+        return new Conditions(bc, true);
+    }
+
+    /**
+     * Create conditions that are satisfied when any of them is satisfied
+     *
+     * @param bc BundleContext
+     * @return conditions
+     * @throws NullPointerException If <code>bc</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static Conditions anyOf(BundleContext bc) {
+        return new Conditions(bc, false);
+    }
+
+    /**
+     * Add custom condition
+     *
+     * @param condition condition
+     * @return this conditions
+     * @throws NullPointerException If <code>condition</code> is <code>null</code>
+     * @since 1.3
+     */
+    public Conditions add(Condition condition) {
+        if (condition == null) {
+            throw new NullPointerException("condition is null");
+        }
+        conditions.add(condition);
+        return this;
+    }
+
+    /**
+     * Add condition: bundle is in the state defined by state mask
+     *
+     * @param symbolicName symbolicName
+     * @param version      version (could be null)
+     * @param stateMask    state mask
+     * @return this conditions
+     * @throws NullPointerException If <code>symbolicName</code> is <code>null</code>
+     * @since 1.3
+     */
+    public Conditions bundle(final String symbolicName, final Version version, final int stateMask) {
+        if (symbolicName == null) {
+            throw new NullPointerException("symbolicName is null");
+        }
+        return add(new Condition() {
+            public Promise<?> start(BundleContext bc) {
+                return BundleUtils.whenBundle(bc, symbolicName, version, stateMask, 0, MILLISECONDS);
+            }
+
+            @Override
+            public String toString() {
+                return String.format("Bundle %s[%s] in state mask: %s", symbolicName, version, stateMask);
+            }
+        });
+    }
+
+    /**
+     * Add condition: service with filter is available
+     *
+     * @param filter filter
+     * @return this conditions
+     * @throws NullPointerException If <code>filter</code> is <code>null</code>
+     * @since 1.3
+     */
+    public Conditions service(final Filter filter) {
+        if (filter == null) {
+            throw new NullPointerException("filter is null");
+        }
+        return add(new Condition() {
+            public Promise<?> start(BundleContext bc) {
+                return ServiceUtils.whenServiceAvailable(bc, filter, 0, MILLISECONDS);
+            }
+
+            @Override
+            public String toString() {
+                return String.format("Service %s", filter);
+            }
+        });
+    }
+
+    /**
+     * Add condition: service with class is available
+     *
+     * @param clazz class
+     * @return this conditions
+     * @throws NullPointerException If <code>clazz</code> is <code>null</code>
+     * @since 1.3
+     */
+    public Conditions service(final Class clazz) {
+        if (clazz == null) {
+            throw new NullPointerException("clazz is null");
+        }
+        return add(new Condition() {
+            public Promise<?> start(BundleContext bc) {
+                return ServiceUtils.whenServiceAvailable(bc, clazz, 0, MILLISECONDS);
+            }
+
+            @Override
+            public String toString() {
+                return String.format("Service %s", clazz.getName());
+            }
+        });
+    }
+
+    /**
+     * Add condition: ConfigurationEvent is received
+     *
+     * @param eventTypeMask ConfigurationEvent type mask
+     * @param pid           PID (could be null)
+     * @param factoryPid    FactoryPID (could be null)
+     * @param location      bundle location (could be null)
+     * @return this conditions
+     * @since 1.3
+     */
+    public Conditions configurationEvent(final int eventTypeMask, final String pid, final String factoryPid, final String location) {
+        return add(new Condition() {
+            public Promise<?> start(BundleContext bc) {
+                return ConfigurationAdminUtils.whenConfigurationEvent(bc, eventTypeMask, pid, factoryPid, location, 0, MILLISECONDS);
+            }
+
+            @Override
+            public String toString() {
+                return String.format("ConfigurationEvent %s for PID: %s, FactoryPID: %s, Location: %s", eventTypeMask, pid, factoryPid, location);
+            }
+        });
+    }
+
+    /**
+     * Add condition: EventAdmin event with topic is received
+     *
+     * @param topic  topic
+     * @param filter filter (could be null)
+     * @return this conditions
+     * @since 1.3
+     */
+    public Conditions event(String topic, Filter filter) {
+        return event(topic != null ? new String[]{topic} : null, filter);
+    }
+
+    /**
+     * Add condition: EventAdmin event with topics is received
+     *
+     * @param topics topics
+     * @param filter filter (could be null)
+     * @return this conditions
+     * @since 1.3
+     */
+    public Conditions event(final String[] topics, final Filter filter) {
+        return add(new Condition() {
+            public Promise<?> start(BundleContext bc) {
+                return EventAdminUtils.whenEvent(bc, topics, filter, 0, MILLISECONDS);
+            }
+
+            @Override
+            public String toString() {
+                return String.format("Event topics: %s, filter: %s", Arrays.toString(topics), filter);
+            }
+        });
+    }
+
+    /**
+     * Wait for conditions
+     *
+     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
+     * @return <code>true</code> if conditions are satisfied, otherwise <code>false</code>
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @since 1.3
+     */
+    public boolean await(long timeoutInMillis) {
+        return await(timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Wait for conditions. All listeners are registered before waiting and removed before return.
+     * The method returns as soon as the result is known, e.g. when one condition of allOf has failed.
+     *
+     * @param timeout  time interval to wait. If zero, the method will wait indefinitely.
+     * @param timeUnit time unit for the time interval
+     * @return <code>true</code> if conditions are satisfied, otherwise <code>false</code>
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>timeUnit</code> is <code>null</code>
+     * @since 1.3
+     */
+    public boolean await(long timeout, TimeUnit timeUnit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+        long timeoutInNanos = timeUnit.toNanos(timeout);
+        unsatisfied.clear();
+        if (conditions.isEmpty()) {
+            return true;
+        }
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicInteger resolved = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final int size = conditions.size();
+        List<Promise<?>> promises = new ArrayList<Promise<?>>(size);
+        try {
+            for (Condition condition : conditions) {
+                Promise<?> promise = condition.start(bc);
+                promises.add(promise);
+                promise.whenComplete(new Promise.Callback<Object>() {
+                    public void completed(Object value, Throwable failure) {
+                        if (failure == null) {
+                            if (!all || resolved.incrementAndGet() == size) {
+                                latch.countDown();
+                            }
+                        } else if (all || failed.incrementAndGet() == size) {
+                            latch.countDown();
+                        }
+                    }
+                });
+            }
+            if (timeout == 0) {
+                latch.await();
+            } else {
+                latch.await(timeoutInNanos, TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            // collect unsatisfied conditions
+        } finally {
+            for (int i = 0; i < conditions.size(); i++) {
+                if (i >= promises.size() || !promises.get(i).isResolved()) {
+                    unsatisfied.add(conditions.get(i));
+                }
+                if (i < promises.size()) {
+                    promises.get(i).cancel(false);
+                }
+            }
+        }
+        return all ? unsatisfied.isEmpty() : unsatisfied.size() < conditions.size();
+    }
+
+    /**
+     * Wait for conditions with deadline
+     *
+     * @param deadline deadline shared by consecutive waits
+     * @return <code>true</code> if conditions are satisfied, otherwise <code>false</code>
+     * @throws NullPointerException If <code>deadline</code> is <code>null</code>
+     * @since 1.3
+     */
+    public boolean await(Deadline deadline) {
+        return await(deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Get conditions that were not satisfied by the last {@link #await(long, TimeUnit)} call
+     *
+     * @return list of unsatisfied conditions
+     * @since 1.3
+     */
+    public List<Condition> getUnsatisfied() {
+        return new ArrayList<Condition>(unsatisfied);
+    }
+
+    @Override
+    public String toString() {
+        return (all ? "allOf" : "anyOf") + conditions;
+    }
+
+    /**
+     * Condition that is satisfied when its promise is resolved
+     *
+     * @since 1.3
+     */
+    public static interface Condition {
+        /**
+         * Register listeners of the condition
+         *
+         * @param bc BundleContext
+         * @return promise that is resolved when condition is satisfied.
+         *         The promise is cancelled when it is no longer needed.
+         */
+        Promise<?> start(BundleContext bc);
+    }
+}
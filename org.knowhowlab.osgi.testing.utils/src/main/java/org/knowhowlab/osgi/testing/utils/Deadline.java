@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Overall time budget shared by consecutive waits.
+ * <p/>
+ * Every wait method that accepts a <code>Deadline</code> consumes only the time that is left,
+ * so a chain of waits fails as soon as the whole budget is spent instead of compounding timeouts:
+ * <pre>
+ * Deadline deadline = Deadline.after(10, TimeUnit.SECONDS);
+ * assertBundleState(Bundle.ACTIVE, "org.example.bundle", deadline);
+ * assertServiceAvailable(ExampleService.class, deadline);
+ * </pre>
+ * Remaining time is calculated with <code>System.nanoTime()</code>, so it is not affected by wall clock changes.
+ *
+ * @since 1.3
+ */
+public final class Deadline {
+    private static final long NANOS_IN_MILLI = MILLISECONDS.toNanos(1);
+
+    private final long deadlineInNanos;
+    private final boolean indefinite;
+
+    private Deadline(long deadlineInNanos, boolean indefinite) {
+        this.deadlineInNanos = deadlineInNanos;
+        this.indefinite = indefinite;
+    }
+
+    /**
+     * Create deadline after time interval from now
+     *
+     * @param timeout  time interval. If zero, the deadline never expires.
+     * @param timeUnit time unit for the time interval
+     * @return deadline
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>timeUnit</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static Deadline after(long timeout, TimeUnit timeUnit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+        if (timeout == 0) {
+            return indefinite();
+        }
+        return new Deadline(System.nanoTime() + timeUnit.toNanos(timeout), false);
+    }
+
+    /**
+     * Create deadline after time interval in milliseconds from now
+     *
+     * @param timeoutInMillis time interval in milliseconds. If zero, the deadline never expires.
+     * @return deadline
+     * @throws IllegalArgumentException If the value of timeoutInMillis is negative
+     * @since 1.3
+     */
+    public static Deadline after(long timeoutInMillis) {
+        return after(timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Create deadline that never expires
+     *
+     * @return deadline
+     * @since 1.3
+     */
+    public static Deadline indefinite() {
+        return new Deadline(0, true);
+    }
+
+    /**
+     * Check if deadline never expires
+     *
+     * @return <code>true</code> if deadline never expires, otherwise <code>false</code>
+     * @since 1.3
+     */
+    public boolean isIndefinite() {
+        return indefinite;
+    }
+
+    /**
+     * Check if deadline is expired
+     *
+     * @return <code>true</code> if no time is left, otherwise <code>false</code>
+     * @since 1.3
+     */
+    public boolean isExpired() {
+        return !indefinite && deadlineInNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Get remaining time
+     *
+     * @param timeUnit time unit of the result
+     * @return remaining time, zero if deadline is expired or <code>Long.MAX_VALUE</code> if it never expires
+     * @throws NullPointerException If <code>timeUnit</code> is <code>null</code>
+     * @since 1.3
+     */
+    public long remaining(TimeUnit timeUnit) {
+        if (indefinite) {
+            return Long.MAX_VALUE;
+        }
+        return timeUnit.convert(Math.max(0, deadlineInNanos - System.nanoTime()), NANOSECONDS);
+    }
+
+    /**
+     * Get remaining time as a timeout in milliseconds for wait methods.
+     * <p/>
+     * A deadline that never expires gives <code>Long.MAX_VALUE</code>, so it is never mistaken for an expired one.
+     * Remaining time is rounded up and an expired deadline gives the minimal timeout of one millisecond,
+     * so waits only check the current state and fail fast.
+     *
+     * @return timeout in milliseconds or <code>Long.MAX_VALUE</code> if deadline never expires
+     * @since 1.3
+     */
+    public long getTimeoutInMillis() {
+        if (indefinite) {
+            return Long.MAX_VALUE;
+        }
+        long remainingInNanos = deadlineInNanos - System.nanoTime();
+        if (remainingInNanos <= 0) {
+            return 1;
+        }
+        return (remainingInNanos + NANOS_IN_MILLI - 1) / NANOS_IN_MILLI;
+    }
+
+    @Override
+    public String toString() {
+        return indefinite ? "Deadline[indefinite]" : String.format("Deadline[remaining: %sms]", remaining(MILLISECONDS));
+    }
+}
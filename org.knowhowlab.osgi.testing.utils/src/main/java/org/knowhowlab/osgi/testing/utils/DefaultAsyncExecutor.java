@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Default {@link AsyncExecutor} implementation based on a bounded pool of daemon threads.
+ * <p/>
+ * Daemon threads never prevent JVM from exit, so the executor does not have to be shut down explicitly.
+ *
+ * @see AsyncUtils
+ * @since 1.3
+ */
+public class DefaultAsyncExecutor implements AsyncExecutor {
+    /**
+     * Default pool size
+     */
+    public static final int DEFAULT_POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Creates executor with {@link #DEFAULT_POOL_SIZE} threads
+     */
+    public DefaultAsyncExecutor() {
+        this(DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * Creates executor with defined number of threads
+     *
+     * @param poolSize maximal number of threads
+     * @throws IllegalArgumentException If <code>poolSize</code> is not positive
+     */
+    public DefaultAsyncExecutor(int poolSize) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("poolSize is not positive");
+        }
+        executor = new ScheduledThreadPoolExecutor(poolSize, new DaemonThreadFactory());
+    }
+
+    public <T> Future<T> schedule(Callable<T> task, long delay, TimeUnit timeUnit) {
+        return executor.schedule(task, delay, timeUnit);
+    }
+
+    public long getQueuedTaskCount() {
+        return executor.getQueue().size();
+    }
+
+    public long getRunningTaskCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedTaskCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    public void shutdown() {
+        for (Runnable task : executor.shutdownNow()) {
+            // drained tasks are never run, so they must not stay pending
+            if (task instanceof Future) {
+                ((Future) task).cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Check if executor is shut down
+     *
+     * @return <code>true</code> if executor is shut down, otherwise <code>false</code>
+     */
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String prefix = "osgi-testing-async-" + POOL_NUMBER.getAndIncrement() + "-";
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.Filter;
+import org.osgi.framework.InvalidSyntaxException;
+
+import static org.osgi.framework.FrameworkUtil.createFilter;
+
+/**
+ * Immutable LDAP filter expression.
+ * <p/>
+ * Expression is kept as a tree of nodes and is rendered into one <code>StringBuilder</code>
+ * only when {@link #build()} is called, so a composite filter is parsed by the framework exactly once.
+ * Values of simple expressions are escaped: <code>\</code>, <code>(</code>, <code>)</code> and <code>*</code>.
+ * <pre>
+ * Filter filter = FilterBuilder.and(
+ *         FilterBuilder.eq(Constants.OBJECTCLASS, ExampleService.class.getName()),
+ *         FilterBuilder.or(FilterBuilder.eq("mode", "a(b)"), FilterBuilder.present("debug"))
+ * ).build();
+ * </pre>
+ *
+ * @see FilterUtils
+ * @see org.osgi.framework.FrameworkUtil#createFilter(String)
+ * @since 1.3
+ */
+public abstract class FilterBuilder {
+    private static final char AND = '&';
+    private static final char OR = '|';
+
+    private static final String EQUALS = "=";
+    private static final String APPROX = "~=";
+    private static final String GREATER_EQUALS = ">=";
+    private static final String LESS_EQUALS = "<=";
+
+    /**
+     * Only nested nodes are available
+     */
+    private FilterBuilder() {
+    }
+
+    /**
+     * Create EQUALS expression
+     *
+     * @param key   key
+     * @param value value. To create filter value.toString() is used.
+     * @return EQUALS expression
+     * @throws NullPointerException If <code>key</code> or <code>value</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static FilterBuilder eq(String key, Object value) {
+        return new Simple(key, EQUALS, value);
+    }
+
+    /**
+     * Create APPROX expression
+     *
+     * @param key   key
+     * @param value value. To create filter value.toString() is used.
+     * @return APPROX expression
+     * @throws NullPointerException If <code>key</code> or <code>value</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static FilterBuilder approx(String key, Object value) {
+        return new Simple(key, APPROX, value);
+    }
+
+    /**
+     * Create GREATER-EQUALS expression
+     *
+     * @param key   key
+     * @param value value. To create filter value.toString() is used.
+     * @return GREATER-EQUALS expression
+     * @throws NullPointerException If <code>key</code> or <code>value</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static FilterBuilder ge(String key, Object value) {
+        return new Simple(key, GREATER_EQUALS, value);
+    }
+
+    /**
+     * Create LESS-EQUALS expression
+     *
+     * @param key   key
+     * @param value value. To create filter value.toString() is used.
+     * @return LESS-EQUALS expression
+     * @throws NullPointerException If <code>key</code> or <code>value</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static FilterBuilder le(String key, Object value) {
+        return new Simple(key, LESS_EQUALS, value);
+    }
+
+    /**
+     * Create PRESENT expression
+     *
+     * @param key key
+     * @return PRESENT expression
+     * @throws NullPointerException If <code>key</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static FilterBuilder present(String key) {
+        return new Present(key);
+    }
+
+    /**
+     * Create expression from already formatted LDAP filter string. The string is not escaped.
+     *
+     * @param filter LDAP filter string
+     * @return expression
+     * @throws NullPointerException If <code>filter</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static FilterBuilder raw(String filter) {
+        return new Raw(filter);
+    }
+
+    /**
+     * Create expression from filter
+     *
+     * @param filter filter
+     * @return expression
+     * @throws NullPointerException If <code>filter</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static FilterBuilder raw(Filter filter) {
+        return new Raw(filter.toString());
+    }
+
+    /**
+     * Create AND expression. If <code>expressions</code> length is 1 - return only 1 expression
+     *
+     * @param expressions expressions
+     * @return AND expression
+     * @throws IllegalArgumentException If <code>expressions</code> are empty
+     * @throws NullPointerException     If <code>expressions</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static FilterBuilder and(FilterBuilder... expressions) {
+        return composite(AND, expressions);
+    }
+
+    /**
+     * Create OR expression. If <code>expressions</code> length is 1 - return only 1 expression
+     *
+     * @param expressions expressions
+     * @return OR expression
+     * @throws IllegalArgumentException If <code>expressions</code> are empty
+     * @throws NullPointerException     If <code>expressions</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static FilterBuilder or(FilterBuilder... expressions) {
+        return composite(OR, expressions);
+    }
+
+    /**
+     * Create NOT expression
+     *
+     * @param expression expression
+     * @return NOT expression
+     * @throws NullPointerException If <code>expression</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static FilterBuilder not(FilterBuilder expression) {
+        return new Not(expression);
+    }
+
+    /**
+     * Escape LDAP filter value
+     *
+     * @param value value
+     * @return escaped value
+     * @throws NullPointerException If <code>value</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static String escape(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 8);
+        appendEscaped(builder, value);
+        return builder.toString();
+    }
+
+    /**
+     * Render expression and create filter
+     *
+     * @return new filter
+     * @throws InvalidSyntaxException If it is unable to create filter
+     * @since 1.3
+     */
+    public Filter build() throws InvalidSyntaxException {
+        return createFilter(toString());
+    }
+
+    /**
+     * Render expression as LDAP filter string
+     *
+     * @return LDAP filter string
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(64);
+        render(builder);
+        return builder.toString();
+    }
+
+    abstract void render(StringBuilder builder);
+
+    private static FilterBuilder composite(char operator, FilterBuilder[] expressions) {
+        if (expressions.length == 0) {
+            throw new IllegalArgumentException("Filters are empty");
+        }
+        for (FilterBuilder expression : expressions) {
+            if (expression == null) {
+                throw new NullPointerException("expression is null");
+            }
+        }
+        if (expressions.length == 1) {
+            return expressions[0];
+        }
+        return new Composite(operator, expressions.clone());
+    }
+
+    private static void appendEscaped(StringBuilder builder, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                case '(':
+                case ')':
+                case '*':
+                    builder.append('\\');
+                    break;
+            }
+            builder.append(c);
+        }
+    }
+
+    private static final class Simple extends FilterBuilder {
+        private final String key;
+        private final String operator;
+        private final String value;
+
+        private Simple(String key, String operator, Object value) {
+            if (key == null) {
+                throw new NullPointerException("key is null");
+            }
+            if (value == null) {
+                throw new NullPointerException("value is null");
+            }
+            this.key = key;
+            this.operator = operator;
+            this.value = value.toString();
+        }
+
+        @Override
+        void render(StringBuilder builder) {
+            builder.append('(').append(key).append(operator);
+            appendEscaped(builder, value);
+            builder.append(')');
+        }
+    }
+
+    private static final class Present extends FilterBuilder {
+        private final String key;
+
+        private Present(String key) {
+            if (key == null) {
+                throw new NullPointerException("key is null");
+            }
+            this.key = key;
+        }
+
+        @Override
+        void render(StringBuilder builder) {
+            builder.append('(').append(key).append("=*)");
+        }
+    }
+
+    private static final class Raw extends FilterBuilder {
+        private final String filter;
+
+        private Raw(String filter) {
+            if (filter == null) {
+                throw new NullPointerException("filter is null");
+            }
+            this.filter = filter;
+        }
+
+        @Override
+        void render(StringBuilder builder) {
+            builder.append(filter);
+        }
+    }
+
+    private static final class Composite extends FilterBuilder {
+        private final char operator;
+        private final FilterBuilder[] expressions;
+
+        private Composite(char operator, FilterBuilder[] expressions) {
+            this.operator = operator;
+            this.expressions = expressions;
+        }
+
+        @Override
+        void render(StringBuilder builder) {
+            builder.append('(').append(operator);
+            for (FilterBuilder expression : expressions) {
+                expression.render(builder);
+            }
+            builder.append(')');
+        }
+    }
+
+    private static final class Not extends FilterBuilder {
+        private final FilterBuilder expression;
+
+        private Not(FilterBuilder expression) {
+            if (expression == null) {
+                throw new NullPointerException("expression is null");
+            }
+            this.expression = expression;
+        }
+
+        @Override
+        void render(StringBuilder builder) {
+            builder.append("(!");
+            expression.render(builder);
+            builder.append(')');
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.Filter;
+import org.osgi.framework.InvalidSyntaxException;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.osgi.framework.Constants.OBJECTCLASS;
+
+/**
+ * Cache of compiled <code>objectClass</code> filters used by {@link FilterUtils#create(Class)}
+ * and {@link FilterUtils#create(String)}.
+ * <p/>
+ * Filters are immutable, so one compiled instance is shared by all callers. Filters are kept in a concurrent map
+ * keyed by class name, so lookups do not lock and the filter string is formatted only on a miss. The map does not
+ * hold <code>Class</code> objects, so the cache does not hold bundle class loaders after their bundles are uninstalled.
+ * If the map grows over {@link #MAX_SIZE}, arbitrary entries are evicted. Every lookup counts exactly one hit or miss,
+ * so the counters show how much parsing is saved.
+ *
+ * @see FilterUtils
+ * @since 1.3
+ */
+public class FilterCache {
+    /**
+     * Maximum number of cached filters
+     */
+    public static final int MAX_SIZE = 256;
+
+    private static final ConcurrentMap<String, Filter> FILTERS = new ConcurrentHashMap<String, Filter>();
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    /**
+     * Utility class. Only static methods are available.
+     */
+    private FilterCache() {
+    }
+
+    /**
+     * Get compiled <code>objectClass</code> filter for class
+     *
+     * @param clazz class
+     * @return filter
+     * @throws InvalidSyntaxException If it is unable to create filter
+     * @throws NullPointerException   If <code>clazz</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static Filter getObjectClassFilter(Class clazz) throws InvalidSyntaxException {
+        return getObjectClassFilter(clazz.getName());
+    }
+
+    /**
+     * Get compiled <code>objectClass</code> filter for class name
+     *
+     * @param className class name
+     * @return filter
+     * @throws InvalidSyntaxException If it is unable to create filter
+     * @throws NullPointerException   If <code>className</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static Filter getObjectClassFilter(String className) throws InvalidSyntaxException {
+        if (className == null) {
+            throw new NullPointerException("className is null");
+        }
+        Filter filter = FILTERS.get(className);
+        if (filter != null) {
+            HITS.incrementAndGet();
+            return filter;
+        }
+        MISSES.incrementAndGet();
+        filter = FilterBuilder.eq(OBJECTCLASS, className).build();
+        Filter cached = FILTERS.putIfAbsent(className, filter);
+        if (cached != null) {
+            return cached;
+        }
+        if (FILTERS.size() > MAX_SIZE) {
+            evict(className);
+        }
+        return filter;
+    }
+
+    private static void evict(String keep) {
+        Iterator<String> keys = FILTERS.keySet().iterator();
+        while (FILTERS.size() > MAX_SIZE && keys.hasNext()) {
+            if (!keep.equals(keys.next())) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Get number of cache hits
+     *
+     * @return number of cache hits
+     * @since 1.3
+     */
+    public static long getHitCount() {
+        return HITS.get();
+    }
+
+    /**
+     * Get number of cache misses, i.e. number of parsed filters
+     *
+     * @return number of cache misses
+     * @since 1.3
+     */
+    public static long getMissCount() {
+        return MISSES.get();
+    }
+
+    /**
+     * Remove all cached filters and reset counters
+     *
+     * @since 1.3
+     */
+    public static void clear() {
+        FILTERS.clear();
+        HITS.set(0);
+        MISSES.set(0);
+    }
+}
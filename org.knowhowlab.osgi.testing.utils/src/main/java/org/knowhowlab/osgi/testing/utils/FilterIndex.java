@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.Filter;
+import org.osgi.framework.InvalidSyntaxException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of filters for matching one property set against many registered filters.
+ * <p/>
+ * Every filter is registered under one predicate that each matching property set must satisfy:
+ * an equality predicate of the filter or of its top-level AND, otherwise a presence predicate.
+ * Predicates are indexed per attribute, so a property set is fully evaluated only against filters
+ * whose indexed predicate is satisfied by its String values. Filters without such predicate and
+ * attributes with non-String values are always evaluated. Filters are evaluated as {@link CompiledFilter}.
+ * <pre>
+ * FilterIndex&lt;Handler&gt; index = new FilterIndex&lt;Handler&gt;();
+ * index.add("(&amp;(event.topics=org/example/test)(priority&gt;=5))", handler);
+ * for (Handler matched : index.match(eventProperties)) {
+ *     ...
+ * }
+ * </pre>
+ * Filters could be added and removed while other threads match property sets.
+ *
+ * @param <T> type of values registered with filters
+ * @see CompiledFilter
+ * @since 1.3
+ */
+public class FilterIndex<T> {
+    private final Map<String, AttributeIndex<T>> attributes = new ConcurrentHashMap<String, AttributeIndex<T>>();
+    private final List<Entry<T>> unindexed = new CopyOnWriteArrayList<Entry<T>>();
+    private final Map<T, List<Entry<T>>> entries = new HashMap<T, List<Entry<T>>>();
+    private volatile int size;
+    private volatile int multiRegistered;
+
+    private final AtomicLong evaluated = new AtomicLong();
+    private final AtomicLong pruned = new AtomicLong();
+
+    /**
+     * Register value with filter. One value could be registered with several filters.
+     *
+     * @param filter filter
+     * @param value  value
+     * @throws InvalidSyntaxException If it is unable to compile filter
+     * @throws NullPointerException   If <code>filter</code> or <code>value</code> are <code>null</code>
+     * @since 1.3
+     */
+    public void add(Filter filter, T value) throws InvalidSyntaxException {
+        add(FilterUtils.compile(filter), value);
+    }
+
+    /**
+     * Register value with filter. One value could be registered with several filters.
+     *
+     * @param filter filter
+     * @param value  value
+     * @throws InvalidSyntaxException If it is unable to compile filter
+     * @throws NullPointerException   If <code>filter</code> or <code>value</code> are <code>null</code>
+     * @since 1.3
+     */
+    public void add(String filter, T value) throws InvalidSyntaxException {
+        add(CompiledFilter.compile(filter), value);
+    }
+
+    /**
+     * Remove all registrations of value
+     *
+     * @param value value
+     * @return <code>true</code> if value was registered, otherwise <code>false</code>
+     * @since 1.3
+     */
+    public synchronized boolean remove(T value) {
+        List<Entry<T>> removed = entries.remove(value);
+        if (removed == null) {
+            return false;
+        }
+        for (Entry<T> entry : removed) {
+            if (entry.key == null) {
+                unindexed.remove(entry);
+                continue;
+            }
+            AttributeIndex<T> attribute = attributes.get(entry.key.toLowerCase());
+            if (entry.value == null) {
+                attribute.present.remove(entry);
+            } else {
+                List<Entry<T>> bucket = attribute.values.get(entry.value);
+                bucket.remove(entry);
+                if (bucket.isEmpty()) {
+                    attribute.values.remove(entry.value);
+                }
+            }
+            if (attribute.present.isEmpty() && attribute.values.isEmpty()) {
+                attributes.remove(entry.key.toLowerCase());
+            }
+        }
+        size -= removed.size();
+        if (removed.size() > 1) {
+            multiRegistered--;
+        }
+        return true;
+    }
+
+    /**
+     * Get values whose filters match properties. Value that is registered with several matching filters
+     * is returned once.
+     *
+     * @param properties properties
+     * @return list of matched values, empty if nothing matches
+     * @since 1.3
+     */
+    public List<T> match(Map<String, ?> properties) {
+        return match(properties, null);
+    }
+
+    /**
+     * Get values whose filters match properties. Value that is registered with several matching filters
+     * is returned once.
+     *
+     * @param properties properties
+     * @return list of matched values, empty if nothing matches
+     * @since 1.3
+     */
+    public List<T> match(Dictionary properties) {
+        return match(null, properties);
+    }
+
+    /**
+     * Get number of registered filters
+     *
+     * @return number of registered filters
+     * @since 1.3
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get number of fully evaluated filters since creation or last {@link #resetStatistics()}
+     *
+     * @return number of evaluated filters
+     * @since 1.3
+     */
+    public long getEvaluatedCount() {
+        return evaluated.get();
+    }
+
+    /**
+     * Get number of filters that were pruned by index without evaluation
+     * since creation or last {@link #resetStatistics()}
+     *
+     * @return number of pruned filters
+     * @since 1.3
+     */
+    public long getPrunedCount() {
+        return pruned.get();
+    }
+
+    /**
+     * Reset evaluated and pruned counters
+     *
+     * @since 1.3
+     */
+    public void resetStatistics() {
+        evaluated.set(0);
+        pruned.set(0);
+    }
+
+    private synchronized void add(CompiledFilter filter, T value) {
+        if (value == null) {
+            throw new NullPointerException("value is null");
+        }
+        String[] predicate = filter.getRequiredPredicate();
+        Entry<T> entry = predicate == null ? new Entry<T>(filter, value, null, null) : new Entry<T>(filter, value, predicate[0], predicate[1]);
+        if (entry.key == null) {
+            unindexed.add(entry);
+        } else {
+            AttributeIndex<T> attribute = attributes.get(entry.key.toLowerCase());
+            if (attribute == null) {
+                attribute = new AttributeIndex<T>(entry.key);
+                attributes.put(entry.key.toLowerCase(), attribute);
+            }
+            if (entry.value == null) {
+                attribute.present.add(entry);
+            } else {
+                List<Entry<T>> bucket = attribute.values.get(entry.value);
+                if (bucket == null) {
+                    bucket = new CopyOnWriteArrayList<Entry<T>>();
+                    attribute.values.put(entry.value, bucket);
+                }
+                bucket.add(entry);
+            }
+        }
+        List<Entry<T>> registered = entries.get(value);
+        if (registered == null) {
+            registered = new ArrayList<Entry<T>>(1);
+            entries.put(value, registered);
+        }
+        registered.add(entry);
+        if (registered.size() == 2) {
+            multiRegistered++;
+        }
+        size++;
+    }
+
+    private List<T> match(Map<String, ?> map, Dictionary dictionary) {
+        List<T> result = new ArrayList<T>();
+        int count = evaluate(unindexed, map, dictionary, result);
+        for (AttributeIndex<T> attribute : attributes.values()) {
+            Object value = map != null ? CompiledFilter.getProperty(map, attribute.key) : CompiledFilter.getProperty(dictionary, attribute.key);
+            if (value == null) {
+                continue;
+            }
+            count += evaluate(attribute.present, map, dictionary, result);
+            if (attribute.values.isEmpty()) {
+                continue;
+            }
+            if (value instanceof String) {
+                count += evaluate(attribute.values.get(value), map, dictionary, result);
+            } else if (value instanceof String[]) {
+                String[] array = (String[]) value;
+                for (int i = 0; i < array.length; i++) {
+                    if (!contains(array, i)) {
+                        count += evaluate(attribute.values.get(array[i]), map, dictionary, result);
+                    }
+                }
+            } else {
+                // non-String values are coerced by filters, every equality predicate could match
+                for (List<Entry<T>> bucket : attribute.values.values()) {
+                    count += evaluate(bucket, map, dictionary, result);
+                }
+            }
+        }
+        evaluated.addAndGet(count);
+        pruned.addAndGet(Math.max(0, size - count));
+        if (multiRegistered > 0 && result.size() > 1) {
+            return new ArrayList<T>(new LinkedHashSet<T>(result));
+        }
+        return result;
+    }
+
+    private static boolean contains(String[] array, int index) {
+        for (int i = 0; i < index; i++) {
+            if (array[index] == null || array[index].equals(array[i])) {
+                return true;
+            }
+        }
+        return array[index] == null;
+    }
+
+    private int evaluate(List<Entry<T>> bucket, Map<String, ?> map, Dictionary dictionary, List<T> result) {
+        if (bucket == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Entry<T> entry : bucket) {
+            count++;
+            if (map != null ? entry.filter.matches(map) : entry.filter.match(dictionary)) {
+                result.add(entry.registered);
+            }
+        }
+        return count;
+    }
+
+    private static final class AttributeIndex<T> {
+        private final String key;
+        private final Map<String, List<Entry<T>>> values = new ConcurrentHashMap<String, List<Entry<T>>>();
+        private final List<Entry<T>> present = new CopyOnWriteArrayList<Entry<T>>();
+
+        private AttributeIndex(String key) {
+            this.key = key;
+        }
+    }
+
+    private static final class Entry<T> {
+        private final CompiledFilter filter;
+        private final T registered;
+        private final String key;
+        private final String value;
+
+        private Entry(CompiledFilter filter, T registered, String key, String value) {
+            this.filter = filter;
+            this.registered = registered;
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
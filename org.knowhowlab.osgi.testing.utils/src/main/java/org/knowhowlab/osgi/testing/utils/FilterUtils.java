@@ -20,10 +20,6 @@ import org.osgi.framework.Constants;
 import org.osgi.framework.Filter;
 import org.osgi.framework.InvalidSyntaxException;
 
-import static java.lang.String.format;
-import static org.osgi.framework.Constants.OBJECTCLASS;
-import static org.osgi.framework.FrameworkUtil.createFilter;
-
 /**
  * OSGi Filter utilities class
  *
@@ -31,42 +27,9 @@ import static org.osgi.framework.FrameworkUtil.createFilter;
  * @see org.osgi.framework.Filter
  * @see org.osgi.framework.FrameworkUtil#createFilter(String)
  * @see org.osgi.framework.BundleContext#createFilter(String)
+ * @see FilterBuilder
  */
 public class FilterUtils {
-    /**
-     * Equals filter template
-     */
-    private static final String EQUALS_FILTER_TEMPLATE = "(%s=%s)";
-    /**
-     * Approximate filter template
-     */
-    private static final String APPROX_FILTER_TEMPLATE = "(%s~=%s)";
-    /**
-     * Greater equals filter template
-     */
-    private static final String GE_FILTER_TEMPLATE = "(%s>=%s)";
-    /**
-     * Less equals filter template
-     */
-    private static final String LE_FILTER_TEMPLATE = "(%s<=%s)";
-    /**
-     * Present filter template
-     */
-    private static final String PRESENT_FILTER_TEMPLATE = "(%s=*)";
-
-    /**
-     * NOT filter template
-     */
-    private static final String NOT_TEMPLATE = "(!%s)";
-    /**
-     * AND filter template
-     */
-    private static final String AND_TEMPLATE = "(&%s%s)";
-    /**
-     * OR filter template
-     */
-    private static final String OR_TEMPLATE = "(|%s%s)";
-
     /**
      * Utility class. Only static methods are available.
      */
@@ -117,7 +80,7 @@ public class FilterUtils {
      * @since 1.0
      */
     public static Filter create(Class clazz) throws InvalidSyntaxException {
-        return eq(OBJECTCLASS, clazz.getName());
+        return FilterCache.getObjectClassFilter(clazz);
     }
 
     /**
@@ -164,7 +127,7 @@ public class FilterUtils {
      * @since 1.0
      */
     public static Filter create(String className) throws InvalidSyntaxException {
-        return eq(OBJECTCLASS, className);
+        return FilterCache.getObjectClassFilter(className);
     }
 
     /**
@@ -179,16 +142,17 @@ public class FilterUtils {
      * @since 1.0
      */
     public static Filter and(String filter1, String filter2) throws InvalidSyntaxException {
-        return createFilter(format(AND_TEMPLATE, filter1, filter2));
+        return FilterBuilder.and(raw(filter1), raw(filter2)).build();
     }
 
     /**
-     * Create AND filter for two or more filters. If <code>filters</code> length is 1 - return only 1 filter
+     * Create AND filter for two or more filters. If <code>filters</code> length is 1 - return only 1 filter.
+     * Filters are composed into one flat expression that is parsed once.
      *
      * @param filters filters
      * @return new AND filter
      *
-     * @throws IllegalArgumentException If <code>filters</code> length is 1
+     * @throws IllegalArgumentException If <code>filters</code> are empty
      * @throws InvalidSyntaxException If it is unable to create filter
      * @throws NullPointerException   If <code>filters</code> are <code>null</code>
      * @since 1.2
@@ -197,11 +161,7 @@ public class FilterUtils {
         if (filters.length == 0) {
             throw new IllegalArgumentException("Filters are empty");
         }
-        Filter filter = createFilter(filters[0]);
-        for (int i = 1; i < filters.length; i++) {
-            filter = and(filter, filters[i]);
-        }
-        return filter;
+        return FilterBuilder.and(raw(filters)).build();
     }
 
     /**
@@ -216,7 +176,7 @@ public class FilterUtils {
      * @since 1.0
      */
     public static Filter and(Filter filter1, String filter2) throws InvalidSyntaxException {
-        return createFilter(format(AND_TEMPLATE, filter1, filter2));
+        return FilterBuilder.and(raw(filter1), raw(filter2)).build();
     }
 
     /**
@@ -231,16 +191,17 @@ public class FilterUtils {
      * @since 1.0
      */
     public static Filter and(Filter filter1, Filter filter2) throws InvalidSyntaxException {
-        return createFilter(format(AND_TEMPLATE, filter1, filter2));
+        return FilterBuilder.and(raw(filter1), raw(filter2)).build();
     }
 
     /**
-     * Create AND filter for two or more filters. If <code>filters</code> length is 1 - return only 1 filter
+     * Create AND filter for two or more filters. If <code>filters</code> length is 1 - return only 1 filter.
+     * Filters are composed into one flat expression that is parsed once.
      *
      * @param filters filters
      * @return new AND filter
      *
-     * @throws IllegalArgumentException If <code>filters</code> length is 1
+     * @throws IllegalArgumentException If <code>filters</code> are empty
      * @throws InvalidSyntaxException If it is unable to create filter
      * @throws NullPointerException   If <code>filters</code> are <code>null</code>
      * @since 1.2
@@ -249,11 +210,10 @@ public class FilterUtils {
         if (filters.length == 0) {
             throw new IllegalArgumentException("Filters are empty");
         }
-        Filter filter = filters[0];
-        for (int i = 1; i < filters.length; i++) {
-            filter = and(filter, filters[i]);
+        if (filters.length == 1) {
+            return filters[0];
         }
-        return filter;
+        return FilterBuilder.and(raw(filters)).build();
     }
 
     /**
@@ -268,16 +228,17 @@ public class FilterUtils {
      * @since 1.0
      */
     public static Filter or(String filter1, String filter2) throws InvalidSyntaxException {
-        return createFilter(format(OR_TEMPLATE, filter1, filter2));
+        return FilterBuilder.or(raw(filter1), raw(filter2)).build();
     }
 
     /**
-     * Create OR filter for two or more filters. If <code>filters</code> length is 1 - return only 1 filter
+     * Create OR filter for two or more filters. If <code>filters</code> length is 1 - return only 1 filter.
+     * Filters are composed into one flat expression that is parsed once.
      *
      * @param filters filters
      * @return new OR filter
      *
-     * @throws IllegalArgumentException If <code>filters</code> length is 1
+     * @throws IllegalArgumentException If <code>filters</code> are empty
      * @throws InvalidSyntaxException If it is unable to create filter
      * @throws NullPointerException   If <code>filters</code> are <code>null</code>
      * @since 1.2
@@ -286,11 +247,7 @@ public class FilterUtils {
         if (filters.length == 0) {
             throw new IllegalArgumentException("Filters are empty");
         }
-        Filter filter = createFilter(filters[0]);
-        for (int i = 1; i < filters.length; i++) {
-            filter = or(filter, filters[i]);
-        }
-        return filter;
+        return FilterBuilder.or(raw(filters)).build();
     }
 
     /**
@@ -305,7 +262,7 @@ public class FilterUtils {
      * @since 1.0
      */
     public static Filter or(Filter filter1, String filter2) throws InvalidSyntaxException {
-        return createFilter(format(OR_TEMPLATE, filter1, filter2));
+        return FilterBuilder.or(raw(filter1), raw(filter2)).build();
     }
 
     /**
@@ -320,16 +277,17 @@ public class FilterUtils {
      * @since 1.0
      */
     public static Filter or(Filter filter1, Filter filter2) throws InvalidSyntaxException {
-        return createFilter(format(OR_TEMPLATE, filter1, filter2));
+        return FilterBuilder.or(raw(filter1), raw(filter2)).build();
     }
 
     /**
-     * Create OR filter for two or more filters. If <code>filters</code> length is 1 - return only 1 filter
+     * Create OR filter for two or more filters. If <code>filters</code> length is 1 - return only 1 filter.
+     * Filters are composed into one flat expression that is parsed once.
      *
      * @param filters filters
      * @return new OR filter
      *
-     * @throws IllegalArgumentException If <code>filters</code> length is 1
+     * @throws IllegalArgumentException If <code>filters</code> are empty
      * @throws InvalidSyntaxException If it is unable to create filter
      * @throws NullPointerException   If <code>filters</code> are <code>null</code>
      * @since 1.2
@@ -338,11 +296,10 @@ public class FilterUtils {
         if (filters.length == 0) {
             throw new IllegalArgumentException("Filters are empty");
         }
-        Filter filter = filters[0];
-        for (int i = 1; i < filters.length; i++) {
-            filter = or(filter, filters[i]);
+        if (filters.length == 1) {
+            return filters[0];
         }
-        return filter;
+        return FilterBuilder.or(raw(filters)).build();
     }
 
     /**
@@ -356,7 +313,7 @@ public class FilterUtils {
      * @since 1.0
      */
     public static Filter not(String filter) throws InvalidSyntaxException {
-        return createFilter(format(NOT_TEMPLATE, filter));
+        return FilterBuilder.not(raw(filter)).build();
     }
 
     /**
@@ -370,7 +327,7 @@ public class FilterUtils {
      * @since 1.0
      */
     public static Filter not(Filter filter) throws InvalidSyntaxException {
-        return createFilter(format(NOT_TEMPLATE, filter));
+        return FilterBuilder.not(raw(filter)).build();
     }
 
     /**
@@ -385,7 +342,7 @@ public class FilterUtils {
      * @since 1.0
      */
     public static Filter eq(String key, Object value) throws InvalidSyntaxException {
-        return createFilter(format(EQUALS_FILTER_TEMPLATE, key, value));
+        return FilterBuilder.eq(key, value).build();
     }
 
     /**
@@ -400,7 +357,7 @@ public class FilterUtils {
      * @since 1.0
      */
     public static Filter approx(String key, Object value) throws InvalidSyntaxException {
-        return createFilter(format(APPROX_FILTER_TEMPLATE, key, value));
+        return FilterBuilder.approx(key, value).build();
     }
 
     /**
@@ -415,7 +372,7 @@ public class FilterUtils {
      * @since 1.0
      */
     public static Filter ge(String key, Object value) throws InvalidSyntaxException {
-        return createFilter(format(GE_FILTER_TEMPLATE, key, value));
+        return FilterBuilder.ge(key, value).build();
     }
 
     /**
@@ -430,7 +387,7 @@ public class FilterUtils {
      * @since 1.0
      */
     public static Filter le(String key, Object value) throws InvalidSyntaxException {
-        return createFilter(format(LE_FILTER_TEMPLATE, key, value));
+        return FilterBuilder.le(key, value).build();
     }
 
     /**
@@ -444,6 +401,51 @@ public class FilterUtils {
      * @since 1.0
      */
     public static Filter present(String key) throws InvalidSyntaxException {
-        return createFilter(format(PRESENT_FILTER_TEMPLATE, key));
+        return FilterBuilder.present(key).build();
+    }
+
+    /**
+     * Compile framework independent filter
+     *
+     * @param filter filter
+     * @return new compiled filter
+     *
+     * @throws InvalidSyntaxException If it is unable to create filter
+     * @throws NullPointerException   If <code>filter</code> is <code>null</code>
+     * @see CompiledFilter
+     * @since 1.3
+     */
+    public static CompiledFilter compile(String filter) throws InvalidSyntaxException {
+        return CompiledFilter.compile(filter);
+    }
+
+    /**
+     * Compile framework independent filter
+     *
+     * @param filter filter
+     * @return new compiled filter
+     *
+     * @throws InvalidSyntaxException If it is unable to create filter
+     * @throws NullPointerException   If <code>filter</code> is <code>null</code>
+     * @see CompiledFilter
+     * @since 1.3
+     */
+    public static CompiledFilter compile(Filter filter) throws InvalidSyntaxException {
+        if (filter instanceof CompiledFilter) {
+            return (CompiledFilter) filter;
+        }
+        return CompiledFilter.compile(filter.toString());
+    }
+
+    private static FilterBuilder raw(Object filter) {
+        return filter instanceof Filter ? FilterBuilder.raw((Filter) filter) : FilterBuilder.raw((String) filter);
+    }
+
+    private static FilterBuilder[] raw(Object[] filters) {
+        FilterBuilder[] expressions = new FilterBuilder[filters.length];
+        for (int i = 0; i < filters.length; i++) {
+            expressions[i] = raw(filters[i]);
+        }
+        return expressions;
     }
 }
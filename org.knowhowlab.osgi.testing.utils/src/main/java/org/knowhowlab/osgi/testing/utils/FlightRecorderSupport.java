@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+/**
+ * JDK Flight Recorder support of {@link OperationProbe}.
+ * <p/>
+ * JDK Flight Recorder is not available before Java 11, so this baseline version does nothing.
+ * Java 11 version of this class is packaged in <code>META-INF/versions/11</code> of multi-release jar.
+ *
+ * @see OperationProbe
+ * @since 1.3
+ */
+final class FlightRecorderSupport {
+    /**
+     * Utility class. Only static methods are available.
+     */
+    private FlightRecorderSupport() {
+    }
+
+    /**
+     * Install JDK Flight Recorder listener of completed operations
+     */
+    static void install() {
+    }
+}
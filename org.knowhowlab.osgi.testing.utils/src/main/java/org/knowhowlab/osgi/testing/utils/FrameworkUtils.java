@@ -23,6 +23,7 @@ import java.util.concurrent.TimeUnit;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.knowhowlab.osgi.testing.utils.BundleUtils.findBundle;
+import static org.knowhowlab.osgi.testing.utils.LatchUtils.await;
 
 /**
  * OSGi Framework utilities class
@@ -106,6 +107,22 @@ public class FrameworkUtils {
         return waitForFrameworkEvent(bc, bundle.getSymbolicName(), bundle.getVersion(), eventTypeMask, timeout, timeUnit);
     }
 
+    /**
+     * Wait for FrameworkEvent with event type mask for defined bundle
+     *
+     * @param bc            BundleContext
+     * @param bundleId      bundle id
+     * @param eventTypeMask FrameworkEvent type mask
+     * @param deadline      deadline shared by consecutive waits
+     * @return FrameworkEvent or <code>null</code>
+     * @throws NullPointerException     If <code>bc</code> or <code>deadline</code> are <code>null</code>
+     * @throws IllegalArgumentException If <code>bundleId</code> is invalid
+     * @since 1.3
+     */
+    public static FrameworkEvent waitForFrameworkEvent(BundleContext bc, int bundleId, int eventTypeMask, Deadline deadline) {
+        return waitForFrameworkEvent(bc, bundleId, eventTypeMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Wait for FrameworkEvent with event type mask for defined bundle
      *
@@ -122,6 +139,21 @@ public class FrameworkUtils {
         return waitForFrameworkEvent(bc, symbolicName, null, eventTypeMask, timeout, timeUnit);
     }
 
+    /**
+     * Wait for FrameworkEvent with event type mask for defined bundle
+     *
+     * @param bc            BundleContext
+     * @param symbolicName  symbolicName
+     * @param eventTypeMask FrameworkEvent type mask
+     * @param deadline      deadline shared by consecutive waits
+     * @return FrameworkEvent or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>symbolicName</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static FrameworkEvent waitForFrameworkEvent(BundleContext bc, String symbolicName, int eventTypeMask, Deadline deadline) {
+        return waitForFrameworkEvent(bc, symbolicName, eventTypeMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Wait for FrameworkEvent with event type mask for defined bundle
      *
@@ -142,21 +174,41 @@ public class FrameworkUtils {
         FrameworkListenerImpl listener = new FrameworkListenerImpl(symbolicName, version, eventTypeMask, latch);
         bc.addFrameworkListener(listener);
 
+        long start = System.nanoTime();
+        FrameworkEvent event = null;
         try {
-            return waitForFrameworkEvent(listener, timeoutInMillis, latch);
+            event = waitForFrameworkEvent(listener, timeoutInMillis, latch);
+            return event;
         } catch (InterruptedException e) {
             return null;
         } finally {
             bc.removeFrameworkListener(listener);
+            OperationProbe.record(bc, OperationEvent.WAIT, "FrameworkUtils.waitForFrameworkEvent", symbolicName, timeoutInMillis, start, event != null);
         }
     }
 
+    /**
+     * Wait for FrameworkEvent with event type mask for defined bundle
+     *
+     * @param bc            BundleContext
+     * @param symbolicName  symbolicName
+     * @param version       version
+     * @param eventTypeMask FrameworkEvent type mask
+     * @param deadline      deadline shared by consecutive waits
+     * @return FrameworkEvent or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>symbolicName</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static FrameworkEvent waitForFrameworkEvent(BundleContext bc, String symbolicName, Version version, int eventTypeMask, Deadline deadline) {
+        return waitForFrameworkEvent(bc, symbolicName, version, eventTypeMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     private static FrameworkEvent waitForFrameworkEvent(FrameworkListenerImpl listener, long timeoutInMillis, CountDownLatch latch)
             throws InterruptedException {
         if (timeoutInMillis < 0) {
             throw new IllegalArgumentException("timeout value is negative");
         }
-        if (latch.await(timeoutInMillis, MILLISECONDS)) {
+        if (await(latch, timeoutInMillis)) {
             return listener.getFrameworkEvent();
         } else {
             return null;
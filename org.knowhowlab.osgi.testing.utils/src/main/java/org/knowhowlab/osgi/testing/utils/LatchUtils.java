@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Latch utilities class that is shared by wait methods of the testing utilities.
+ *
+ * @since 1.3
+ */
+public class LatchUtils {
+    /**
+     * Utility class. Only static methods are available.
+     */
+    private LatchUtils() {
+    }
+
+    /**
+     * Wait for latch to count down
+     *
+     * @param latch           latch
+     * @param timeoutInMillis time interval in milliseconds to wait. If zero, the method will wait indefinitely.
+     * @return <code>true</code> if latch is counted down, <code>false</code> if timeout elapsed
+     * @throws InterruptedException     If another thread has interrupted the current thread.
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>latch</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static boolean await(CountDownLatch latch, long timeoutInMillis) throws InterruptedException {
+        if (latch == null) {
+            throw new NullPointerException("latch is null");
+        }
+        if (timeoutInMillis < 0) {
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+        if (timeoutInMillis == 0) {
+            latch.await();
+            return true;
+        }
+        return latch.await(timeoutInMillis, MILLISECONDS);
+    }
+}
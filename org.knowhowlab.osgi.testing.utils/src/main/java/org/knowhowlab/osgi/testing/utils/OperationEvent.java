@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.BundleContext;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completed wait, async operation or assertion
+ *
+ * @see OperationProbe
+ * @see OperationListener
+ * @since 1.3
+ */
+public final class OperationEvent {
+    /**
+     * Wait method of utilities
+     */
+    public static final int WAIT = 0x00000001;
+    /**
+     * Async operation of utilities
+     */
+    public static final int ASYNC = 0x00000002;
+    /**
+     * Assertion
+     */
+    public static final int ASSERT = 0x00000004;
+
+    private final BundleContext bc;
+    private final int type;
+    private final String name;
+    private final Object target;
+    private final long timeoutInMillis;
+    private final long start;
+    private final long duration;
+    private final boolean successful;
+
+    OperationEvent(BundleContext bc, int type, String name, Object target, long timeoutInMillis, long start, long end, boolean successful) {
+        this.bc = bc;
+        this.type = type;
+        this.name = name;
+        this.target = target;
+        this.timeoutInMillis = timeoutInMillis;
+        this.start = start;
+        this.duration = end - start;
+        this.successful = successful;
+    }
+
+    /**
+     * Get BundleContext of operation
+     *
+     * @return BundleContext or <code>null</code> if operation is not bound to BundleContext
+     */
+    public BundleContext getBundleContext() {
+        return bc;
+    }
+
+    /**
+     * Get type of operation
+     *
+     * @return {@link #WAIT}, {@link #ASYNC} or {@link #ASSERT}
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Get name of operation, e.g. <code>ServiceUtils.getService</code>
+     *
+     * @return name of operation
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get target of operation: filter, class name, symbolic name, bundle, topic or PID
+     *
+     * @return target or <code>null</code>
+     */
+    public Object getTarget() {
+        return target;
+    }
+
+    /**
+     * Get string representation of target
+     *
+     * @return string representation of target or <code>null</code>
+     */
+    public String getTargetAsString() {
+        if (target instanceof Object[]) {
+            return Arrays.asList((Object[]) target).toString();
+        }
+        if (target instanceof Class) {
+            return ((Class) target).getName();
+        }
+        return target != null ? target.toString() : null;
+    }
+
+    /**
+     * Get requested timeout of operation
+     *
+     * @return timeout in millis, zero for infinite wait or negative value if operation has no timeout
+     */
+    public long getTimeoutInMillis() {
+        return timeoutInMillis;
+    }
+
+    /**
+     * Get time of operation start
+     *
+     * @return <code>System.nanoTime()</code> of operation start
+     */
+    public long getStartTime() {
+        return start;
+    }
+
+    /**
+     * Get actual duration of operation
+     *
+     * @param timeUnit time unit of duration
+     * @return duration
+     * @throws NullPointerException If <code>timeUnit</code> is <code>null</code>
+     */
+    public long getDuration(TimeUnit timeUnit) {
+        return timeUnit.convert(duration, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get outcome of operation
+     *
+     * @return <code>true</code> if wait was satisfied, async operation completed normally or assertion passed,
+     *         otherwise <code>false</code>
+     */
+    public boolean isSuccessful() {
+        return successful;
+    }
+
+    @Override
+    public String toString() {
+        return name + "[" + getTargetAsString() + "] " + (successful ? "successful" : "failed")
+                + " after " + getDuration(TimeUnit.MILLISECONDS) + "ms";
+    }
+}
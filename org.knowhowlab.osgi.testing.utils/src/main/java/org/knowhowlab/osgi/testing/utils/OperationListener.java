@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+/**
+ * Listener SPI that is notified about every completed wait, async operation and assertion.
+ * <p/>
+ * Listeners are plugged in with {@link OperationProbe#addListener(OperationListener)}. A listener could forward
+ * events to a profiling tool. JDK Flight Recorder events are committed by the probe itself on Java 11 and later.
+ * Listeners are called synchronously by the thread that completed an operation, so they should return quickly.
+ *
+ * @see OperationProbe
+ * @see OperationEvent
+ * @since 1.3
+ */
+public interface OperationListener {
+    /**
+     * Receives notification that an operation is completed
+     *
+     * @param event completed operation
+     */
+    void operationCompleted(OperationEvent event);
+}
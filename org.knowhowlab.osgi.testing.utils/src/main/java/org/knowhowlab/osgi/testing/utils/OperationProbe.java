@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.BundleContext;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Probe of wait methods, <code>*Async</code> and <code>*Promise</code> operations of the testing utilities
+ * and of assertions.
+ * <p/>
+ * Every completed operation is reported with its target, timeout, actual duration and outcome
+ * to registered {@link OperationListener}s and to started {@link TraceRecorder}s.
+ * If nothing is registered, operations are not reported and the probe costs one check per operation.
+ * <p/>
+ * On Java 11 and later every completed operation is also committed as JDK Flight Recorder event
+ * (<code>org.knowhowlab.osgi.testing.Wait</code>, <code>org.knowhowlab.osgi.testing.Async</code> or
+ * <code>org.knowhowlab.osgi.testing.Assert</code>) while a recording is running.
+ *
+ * @see OperationListener
+ * @see OperationEvent
+ * @see WaitTimeStatistics
+ * @since 1.3
+ */
+public class OperationProbe {
+    private static final List<OperationListener> LISTENERS = new CopyOnWriteArrayList<OperationListener>();
+
+    static {
+        FlightRecorderSupport.install();
+    }
+
+    /**
+     * Utility class. Only static methods are available.
+     */
+    private OperationProbe() {
+    }
+
+    /**
+     * Register listener. Listener that is already registered is not added again.
+     *
+     * @param listener listener
+     * @throws NullPointerException If <code>listener</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static void addListener(OperationListener listener) {
+        if (listener == null) {
+            throw new NullPointerException("listener is null");
+        }
+        synchronized (LISTENERS) {
+            if (!LISTENERS.contains(listener)) {
+                LISTENERS.add(listener);
+            }
+        }
+    }
+
+    /**
+     * Unregister listener
+     *
+     * @param listener listener
+     * @since 1.3
+     */
+    public static void removeListener(OperationListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Check if completed operations are reported
+     *
+     * @return <code>true</code> if listener is registered or trace recorder is started
+     * @since 1.3
+     */
+    public static boolean isEnabled() {
+        return !LISTENERS.isEmpty() || TraceRecorder.isActive();
+    }
+
+    /**
+     * Report completed operation
+     *
+     * @param bc              BundleContext of operation (could be null)
+     * @param type            type of operation: {@link OperationEvent#WAIT}, {@link OperationEvent#ASYNC}
+     *                        or {@link OperationEvent#ASSERT}
+     * @param name            name of operation
+     * @param target          target of operation (could be null)
+     * @param timeoutInMillis requested timeout in millis, zero for infinite wait or negative value
+     *                        if operation has no timeout
+     * @param start           <code>System.nanoTime()</code> of operation start
+     * @param successful      outcome of operation
+     * @since 1.3
+     */
+    public static void record(BundleContext bc, int type, String name, Object target, long timeoutInMillis, long start, boolean successful) {
+        if (!isEnabled()) {
+            return;
+        }
+        OperationEvent event = new OperationEvent(bc, type, name, target, timeoutInMillis, start, System.nanoTime(), successful);
+        TraceRecorder.record(event);
+        for (OperationListener listener : LISTENERS) {
+            try {
+                listener.operationCompleted(event);
+            } catch (RuntimeException e) {
+                // listener failure must not change outcome of operation
+            }
+        }
+    }
+
+    /**
+     * Wrap task of async operation. Completion of wrapped task is reported with duration since wrapping.
+     * If probe is not enabled, task is returned as is.
+     *
+     * @param name   name of operation
+     * @param target target of operation (could be null)
+     * @param task   task
+     * @return wrapped task
+     * @since 1.3
+     */
+    public static <T> Callable<T> wrap(final String name, final Object target, final Callable<T> task) {
+        if (!isEnabled()) {
+            return task;
+        }
+        final long start = System.nanoTime();
+        return new Callable<T>() {
+            public T call() throws Exception {
+                boolean successful = false;
+                try {
+                    T result = task.call();
+                    successful = true;
+                    return result;
+                } finally {
+                    record(null, OperationEvent.ASYNC, name, target, -1, start, successful);
+                }
+            }
+        };
+    }
+}
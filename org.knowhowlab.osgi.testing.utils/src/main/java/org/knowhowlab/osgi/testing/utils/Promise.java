@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Composable result of an asynchronous operation.
+ * <p/>
+ * Promise is completed either by a task of the shared {@link AsyncExecutor} or directly from
+ * a framework listener callback, so no thread is parked while the result is pending.
+ * Dependent steps are chained with {@link #thenApply(Function)} and {@link #thenCompose(Function)}.
+ * Cancellation of a dependent promise cancels the promise it depends on, so listeners and timers
+ * of the whole chain are released.
+ * <p/>
+ * Callbacks and functions are executed by the thread that completes the promise
+ * (could be a framework event dispatching thread) or by the registering thread if the promise is already done.
+ * They should be short and must not block.
+ *
+ * @see AsyncUtils
+ * @since 1.3
+ */
+public class Promise<T> implements Future<T> {
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private final List<Callback<? super T>> callbacks = new ArrayList<Callback<? super T>>();
+
+    private boolean done;
+    private boolean cancelled;
+    private T value;
+    private Throwable failure;
+
+    /**
+     * Creates a resolved promise
+     *
+     * @param value value
+     * @return resolved promise
+     */
+    public static <T> Promise<T> resolved(T value) {
+        Promise<T> promise = new Promise<T>();
+        promise.resolve(value);
+        return promise;
+    }
+
+    /**
+     * Creates a failed promise
+     *
+     * @param failure failure
+     * @return failed promise
+     * @throws NullPointerException If <code>failure</code> is <code>null</code>
+     */
+    public static <T> Promise<T> failed(Throwable failure) {
+        Promise<T> promise = new Promise<T>();
+        promise.fail(failure);
+        return promise;
+    }
+
+    /**
+     * Resolves promise with value
+     *
+     * @param value value
+     * @return <code>true</code> if promise was completed by this call, otherwise <code>false</code>
+     */
+    public boolean resolve(T value) {
+        return complete(value, null, false);
+    }
+
+    /**
+     * Completes promise with failure
+     *
+     * @param failure failure
+     * @return <code>true</code> if promise was completed by this call, otherwise <code>false</code>
+     * @throws NullPointerException If <code>failure</code> is <code>null</code>
+     */
+    public boolean fail(Throwable failure) {
+        if (failure == null) {
+            throw new NullPointerException("failure is null");
+        }
+        return complete(null, failure, false);
+    }
+
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return complete(null, new CancellationException(), true);
+    }
+
+    public boolean isCancelled() {
+        synchronized (callbacks) {
+            return cancelled;
+        }
+    }
+
+    public boolean isDone() {
+        synchronized (callbacks) {
+            return done;
+        }
+    }
+
+    /**
+     * Check if promise is resolved with value
+     *
+     * @return <code>true</code> if promise is resolved, <code>false</code> if it is pending, failed or cancelled
+     */
+    public boolean isResolved() {
+        synchronized (callbacks) {
+            return done && failure == null;
+        }
+    }
+
+    public T get() throws InterruptedException, ExecutionException {
+        latch.await();
+        return getResult();
+    }
+
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!latch.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+        return getResult();
+    }
+
+    /**
+     * Registers callback that is notified when promise is completed
+     *
+     * @param callback callback
+     * @return this promise
+     * @throws NullPointerException If <code>callback</code> is <code>null</code>
+     */
+    public Promise<T> whenComplete(Callback<? super T> callback) {
+        if (callback == null) {
+            throw new NullPointerException("callback is null");
+        }
+        synchronized (callbacks) {
+            if (!done) {
+                callbacks.add(callback);
+                return this;
+            }
+        }
+        notify(callback);
+        return this;
+    }
+
+    /**
+     * Creates a promise that is resolved with a result of the function applied to the value of this promise.
+     * Cancellation of the new promise cancels this promise.
+     *
+     * @param function function
+     * @return new promise
+     * @throws NullPointerException If <code>function</code> is <code>null</code>
+     */
+    public <R> Promise<R> thenApply(final Function<? super T, ? extends R> function) {
+        if (function == null) {
+            throw new NullPointerException("function is null");
+        }
+        final Promise<R> promise = new Promise<R>();
+        whenComplete(new Callback<T>() {
+            public void completed(T value, Throwable failure) {
+                if (failure != null) {
+                    promise.fail(failure);
+                } else {
+                    try {
+                        promise.resolve(function.apply(value));
+                    } catch (Throwable e) {
+                        promise.fail(e);
+                    }
+                }
+            }
+        });
+        cancelOnCancel(promise, this);
+        return promise;
+    }
+
+    /**
+     * Creates a promise that is completed with a promise returned by the function applied to the value of this promise.
+     * Cancellation of the new promise cancels this promise and the promise returned by the function.
+     *
+     * @param function function
+     * @return new promise
+     * @throws NullPointerException If <code>function</code> is <code>null</code>
+     */
+    public <R> Promise<R> thenCompose(final Function<? super T, ? extends Promise<R>> function) {
+        if (function == null) {
+            throw new NullPointerException("function is null");
+        }
+        final Promise<R> promise = new Promise<R>();
+        whenComplete(new Callback<T>() {
+            public void completed(T value, Throwable failure) {
+                if (failure != null) {
+                    promise.fail(failure);
+                } else {
+                    try {
+                        Promise<R> next = function.apply(value);
+                        if (next == null) {
+                            promise.resolve(null);
+                        } else {
+                            cancelOnCancel(promise, next);
+                            next.whenComplete(new Callback<R>() {
+                                public void completed(R value, Throwable failure) {
+                                    if (failure != null) {
+                                        promise.fail(failure);
+                                    } else {
+                                        promise.resolve(value);
+                                    }
+                                }
+                            });
+                        }
+                    } catch (Throwable e) {
+                        promise.fail(e);
+                    }
+                }
+            }
+        });
+        cancelOnCancel(promise, this);
+        return promise;
+    }
+
+    /**
+     * Fails promise with <code>TimeoutException</code> if it is not completed within timeout
+     *
+     * @param timeout  time interval to wait. If zero, the promise never times out.
+     * @param timeUnit time unit for the time interval
+     * @return this promise
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>timeUnit</code> is <code>null</code>
+     */
+    public Promise<T> withTimeout(long timeout, TimeUnit timeUnit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+        if (timeout > 0 && !isDone()) {
+            final Future<?> timer = AsyncUtils.schedule(new Callable<Object>() {
+                public Object call() throws Exception {
+                    fail(new TimeoutException());
+                    return null;
+                }
+            }, timeout, timeUnit);
+            whenComplete(new Callback<T>() {
+                public void completed(T value, Throwable failure) {
+                    timer.cancel(false);
+                }
+            });
+        }
+        return this;
+    }
+
+    /**
+     * Cancels source promise when dependent promise is cancelled
+     *
+     * @param dependent dependent promise
+     * @param source    promise that dependent promise waits for
+     */
+    private static void cancelOnCancel(final Promise<?> dependent, final Future<?> source) {
+        dependent.whenComplete(new Callback<Object>() {
+            public void completed(Object value, Throwable failure) {
+                if (dependent.isCancelled()) {
+                    source.cancel(false);
+                }
+            }
+        });
+    }
+
+    private boolean complete(T value, Throwable failure, boolean cancelled) {
+        List<Callback<? super T>> toNotify;
+        synchronized (callbacks) {
+            if (done) {
+                return false;
+            }
+            this.done = true;
+            this.cancelled = cancelled;
+            this.value = value;
+            this.failure = failure;
+            toNotify = new ArrayList<Callback<? super T>>(callbacks);
+            callbacks.clear();
+        }
+        latch.countDown();
+        for (Callback<? super T> callback : toNotify) {
+            notify(callback);
+        }
+        return true;
+    }
+
+    private void notify(Callback<? super T> callback) {
+        T value;
+        Throwable failure;
+        synchronized (callbacks) {
+            value = this.value;
+            failure = this.failure;
+        }
+        try {
+            callback.completed(value, failure);
+        } catch (RuntimeException ignored) {
+            // callback failures must not break other callbacks
+        }
+    }
+
+    private T getResult() throws ExecutionException {
+        synchronized (callbacks) {
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Completion callback
+     */
+    public static interface Callback<T> {
+        /**
+         * Promise is completed
+         *
+         * @param value   value or <code>null</code>
+         * @param failure failure or <code>null</code> if promise is resolved
+         */
+        void completed(T value, Throwable failure);
+    }
+
+    /**
+     * Function that is applied to the value of a resolved promise
+     */
+    public static interface Function<T, R> {
+        /**
+         * Apply function
+         *
+         * @param value value of a resolved promise
+         * @return result
+         * @throws Exception any failure that completes a dependent promise
+         */
+        R apply(T value) throws Exception;
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Multiplexes ServiceEvents of one BundleContext to registered ServiceListeners.
+ * <p/>
+ * Only one long-lived <code>AllServiceListener</code> is registered in the framework per BundleContext.
+ * Listeners are kept in a table indexed by ServiceEvent type bit, and their filters are matched
+ * with already compiled <code>Filter</code> instances, so adding and removing a listener does not touch
+ * the framework event dispatching. <code>MODIFIED_ENDMATCH</code> events are synthesized per listener.
+ * <p/>
+ * Dispatcher is disposed automatically when the bundle of its BundleContext is stopping.
+ *
+ * @see org.osgi.framework.AllServiceListener
+ * @see org.osgi.framework.ServiceEvent
+ * @since 1.3
+ */
+public class ServiceEventDispatcher {
+    private static final int[] EVENT_TYPES = new int[]{
+            ServiceEvent.REGISTERED, ServiceEvent.MODIFIED, ServiceEvent.UNREGISTERING, ServiceEvent.MODIFIED_ENDMATCH
+    };
+
+    private static final Map<BundleContext, ServiceEventDispatcher> DISPATCHERS = new HashMap<BundleContext, ServiceEventDispatcher>();
+
+    private final BundleContext bc;
+    private final Bundle bundle;
+    private final List<Registration>[] table;
+    private final List<Registration> endMatchRegistrations = new CopyOnWriteArrayList<Registration>();
+    private final Map<ServiceListener, Registration> registrations = new ConcurrentHashMap<ServiceListener, Registration>();
+    private boolean closed;
+
+    private final AllServiceListener serviceListener = new AllServiceListener() {
+        public void serviceChanged(ServiceEvent event) {
+            dispatch(event);
+        }
+    };
+
+    private final SynchronousBundleListener bundleListener = new SynchronousBundleListener() {
+        public void bundleChanged(BundleEvent event) {
+            if (event.getType() == BundleEvent.STOPPING && bundle.equals(event.getBundle())) {
+                dispose(bc);
+            }
+        }
+    };
+
+    @SuppressWarnings("unchecked")
+    private ServiceEventDispatcher(BundleContext bc) {
+        this.bc = bc;
+        this.bundle = bc.getBundle();
+        this.table = new List[EVENT_TYPES.length];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = new CopyOnWriteArrayList<Registration>();
+        }
+    }
+
+    /**
+     * Get dispatcher of BundleContext. Dispatcher is created on first request.
+     *
+     * @param bc BundleContext
+     * @return dispatcher
+     * @throws NullPointerException  If <code>bc</code> is <code>null</code>
+     * @throws IllegalStateException If <code>bc</code> is no longer valid
+     * @since 1.3
+     */
+    public static ServiceEventDispatcher getDispatcher(BundleContext bc) {
+        if (bc == null) {
+            throw new NullPointerException("bc is null");
+        }
+        synchronized (DISPATCHERS) {
+            ServiceEventDispatcher dispatcher = DISPATCHERS.get(bc);
+            if (dispatcher == null) {
+                dispatcher = new ServiceEventDispatcher(bc);
+                dispatcher.open();
+                DISPATCHERS.put(bc, dispatcher);
+            }
+            return dispatcher;
+        }
+    }
+
+    /**
+     * Dispose dispatcher of BundleContext and remove its framework listeners
+     *
+     * @param bc BundleContext
+     * @since 1.3
+     */
+    public static void dispose(BundleContext bc) {
+        ServiceEventDispatcher dispatcher;
+        synchronized (DISPATCHERS) {
+            dispatcher = DISPATCHERS.remove(bc);
+        }
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    /**
+     * Add ServiceListener to dispatcher of BundleContext. If dispatcher is disposed concurrently,
+     * listener is added to a fresh dispatcher.
+     *
+     * @param bc            BundleContext
+     * @param listener      listener
+     * @param filter        filter (could be null)
+     * @param eventTypeMask ServiceEvent type mask
+     * @param all           deliver events like to <code>AllServiceListener</code>
+     *                      without checking the class space compatibility
+     * @return dispatcher that listener is added to
+     * @throws NullPointerException  If <code>bc</code> or <code>listener</code> are <code>null</code>
+     * @throws IllegalStateException If <code>bc</code> is no longer valid
+     * @since 1.3
+     */
+    public static ServiceEventDispatcher addServiceListener(BundleContext bc, ServiceListener listener, Filter filter, int eventTypeMask, boolean all) {
+        while (true) {
+            ServiceEventDispatcher dispatcher = getDispatcher(bc);
+            if (dispatcher.addServiceListener(listener, filter, eventTypeMask, all)) {
+                return dispatcher;
+            }
+        }
+    }
+
+    /**
+     * Add ServiceListener
+     *
+     * @param listener      listener
+     * @param filter        filter (could be null)
+     * @param eventTypeMask ServiceEvent type mask
+     * @param all           deliver events like to <code>AllServiceListener</code>
+     *                      without checking the class space compatibility
+     * @return <code>true</code> if listener is added, <code>false</code> if dispatcher is already disposed
+     * @throws NullPointerException If <code>listener</code> is <code>null</code>
+     * @since 1.3
+     */
+    public boolean addServiceListener(ServiceListener listener, Filter filter, int eventTypeMask, boolean all) {
+        if (listener == null) {
+            throw new NullPointerException("listener is null");
+        }
+        Registration registration = new Registration(listener, filter, all);
+        synchronized (registrations) {
+            if (closed) {
+                return false;
+            }
+            removeServiceListener(listener);
+            registrations.put(listener, registration);
+            for (int i = 0; i < EVENT_TYPES.length; i++) {
+                if ((eventTypeMask & EVENT_TYPES[i]) != 0 && EVENT_TYPES[i] != ServiceEvent.MODIFIED_ENDMATCH) {
+                    table[i].add(registration);
+                }
+            }
+            if ((eventTypeMask & ServiceEvent.MODIFIED_ENDMATCH) != 0) {
+                endMatchRegistrations.add(registration);
+                registration.initMatched();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Remove ServiceListener
+     *
+     * @param listener listener
+     * @since 1.3
+     */
+    public void removeServiceListener(ServiceListener listener) {
+        synchronized (registrations) {
+            Registration registration = registrations.remove(listener);
+            if (registration != null) {
+                for (List<Registration> bucket : table) {
+                    bucket.remove(registration);
+                }
+                endMatchRegistrations.remove(registration);
+            }
+        }
+    }
+
+    private void open() {
+        bc.addServiceListener(serviceListener);
+        bc.addBundleListener(bundleListener);
+    }
+
+    private void close() {
+        try {
+            bc.removeServiceListener(serviceListener);
+            bc.removeBundleListener(bundleListener);
+        } catch (IllegalStateException e) {
+            // BundleContext is no longer valid
+        }
+        synchronized (registrations) {
+            closed = true;
+            for (List<Registration> bucket : table) {
+                bucket.clear();
+            }
+            endMatchRegistrations.clear();
+            registrations.clear();
+        }
+    }
+
+    private void dispatch(ServiceEvent event) {
+        int type = event.getType();
+        ServiceReference reference = event.getServiceReference();
+        int index = Integer.numberOfTrailingZeros(type);
+        if (index < table.length) {
+            for (Registration registration : table[index]) {
+                if (registration.matches(reference)) {
+                    registration.listener.serviceChanged(event);
+                }
+            }
+        }
+        if (!endMatchRegistrations.isEmpty()) {
+            ServiceEvent endMatchEvent = null;
+            for (Registration registration : endMatchRegistrations) {
+                boolean matches = registration.matches(reference);
+                if (type == ServiceEvent.UNREGISTERING || !matches) {
+                    if (registration.matched.remove(reference) && type == ServiceEvent.MODIFIED) {
+                        if (endMatchEvent == null) {
+                            endMatchEvent = new ServiceEvent(ServiceEvent.MODIFIED_ENDMATCH, reference);
+                        }
+                        registration.listener.serviceChanged(endMatchEvent);
+                    }
+                } else {
+                    registration.matched.add(reference);
+                }
+            }
+        }
+    }
+
+    private class Registration {
+        private final ServiceListener listener;
+        private final Filter filter;
+        private final boolean all;
+        private final Set<ServiceReference> matched = Collections.synchronizedSet(new HashSet<ServiceReference>());
+
+        private Registration(ServiceListener listener, Filter filter, boolean all) {
+            this.listener = listener;
+            this.filter = filter;
+            this.all = all;
+        }
+
+        private boolean matches(ServiceReference reference) {
+            return (filter == null || filter.match(reference)) && (all || isAssignable(reference));
+        }
+
+        private boolean isAssignable(ServiceReference reference) {
+            String[] classes = (String[]) reference.getProperty(Constants.OBJECTCLASS);
+            if (classes != null) {
+                for (String className : classes) {
+                    if (!reference.isAssignableTo(bundle, className)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private void initMatched() {
+            try {
+                ServiceReference[] references = bc.getAllServiceReferences(null, null);
+                if (references != null) {
+                    for (ServiceReference reference : references) {
+                        if (matches(reference)) {
+                            matched.add(reference);
+                        }
+                    }
+                }
+            } catch (InvalidSyntaxException e) {
+                // no filter is used
+            }
+        }
+    }
+}
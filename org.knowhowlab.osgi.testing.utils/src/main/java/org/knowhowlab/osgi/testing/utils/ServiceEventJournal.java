@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Journal of all ServiceEvents of one BundleContext.
+ * <p/>
+ * Events are recorded with <code>System.nanoTime()</code> timestamps into a bounded lock-free ring buffer,
+ * the oldest events are overwritten first. A wait method scans the history from a mark before it blocks,
+ * so an event that is fired between the triggering action and the wait is not lost:
+ * <pre>
+ * ServiceEventJournal journal = ServiceEventJournal.start(bc);
+ * long mark = journal.mark();
+ * bundle.start();
+ * ServiceEvent event = journal.waitForServiceEvent(mark, filter, ServiceEvent.REGISTERED, 5, TimeUnit.SECONDS);
+ * </pre>
+ * Journal is stopped automatically when the bundle of its BundleContext is stopping.
+ *
+ * @see ServiceUtils#waitForServiceEvent(BundleContext, long, Filter, int, long, TimeUnit)
+ * @since 1.3
+ */
+public class ServiceEventJournal {
+    /**
+     * Default capacity of journal
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final Map<BundleContext, ServiceEventJournal> JOURNALS = new HashMap<BundleContext, ServiceEventJournal>();
+
+    private final BundleContext bc;
+    private final Bundle bundle;
+    private final AtomicReferenceArray<Record> records;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final Object monitor = new Object();
+
+    private final AllServiceListener serviceListener = new AllServiceListener() {
+        public void serviceChanged(ServiceEvent event) {
+            record(event);
+        }
+    };
+
+    private final SynchronousBundleListener bundleListener = new SynchronousBundleListener() {
+        public void bundleChanged(BundleEvent event) {
+            if (event.getType() == BundleEvent.STOPPING && bundle.equals(event.getBundle())) {
+                stop(bc);
+            }
+        }
+    };
+
+    private ServiceEventJournal(BundleContext bc, int capacity) {
+        this.bc = bc;
+        this.bundle = bc.getBundle();
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.records = new AtomicReferenceArray<Record>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Start journal of BundleContext with default capacity
+     *
+     * @param bc BundleContext
+     * @return journal
+     * @throws NullPointerException  If <code>bc</code> is <code>null</code>
+     * @throws IllegalStateException If <code>bc</code> is no longer valid
+     * @since 1.3
+     */
+    public static ServiceEventJournal start(BundleContext bc) {
+        return start(bc, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Start journal of BundleContext. If journal is already started, existing journal is returned.
+     *
+     * @param bc       BundleContext
+     * @param capacity maximum number of recorded events. It is rounded up to a power of two.
+     * @return journal
+     * @throws IllegalArgumentException If the value of capacity is not positive or greater than 2^30
+     * @throws NullPointerException     If <code>bc</code> is <code>null</code>
+     * @throws IllegalStateException    If <code>bc</code> is no longer valid
+     * @since 1.3
+     */
+    public static ServiceEventJournal start(BundleContext bc, int capacity) {
+        if (bc == null) {
+            throw new NullPointerException("bc is null");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity value is not positive");
+        }
+        if (capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity value is too big");
+        }
+        synchronized (JOURNALS) {
+            ServiceEventJournal journal = JOURNALS.get(bc);
+            if (journal == null) {
+                journal = new ServiceEventJournal(bc, capacity);
+                bc.addBundleListener(journal.bundleListener);
+                bc.addServiceListener(journal.serviceListener);
+                JOURNALS.put(bc, journal);
+            }
+            return journal;
+        }
+    }
+
+    /**
+     * Get started journal of BundleContext
+     *
+     * @param bc BundleContext
+     * @return journal or <code>null</code> if journal is not started
+     * @since 1.3
+     */
+    public static ServiceEventJournal getJournal(BundleContext bc) {
+        synchronized (JOURNALS) {
+            return JOURNALS.get(bc);
+        }
+    }
+
+    /**
+     * Stop journal of BundleContext and remove its framework listeners
+     *
+     * @param bc BundleContext
+     * @since 1.3
+     */
+    public static void stop(BundleContext bc) {
+        ServiceEventJournal journal;
+        synchronized (JOURNALS) {
+            journal = JOURNALS.remove(bc);
+        }
+        if (journal != null) {
+            try {
+                bc.removeServiceListener(journal.serviceListener);
+                bc.removeBundleListener(journal.bundleListener);
+            } catch (IllegalStateException e) {
+                // BundleContext is no longer valid
+            }
+        }
+    }
+
+    /**
+     * Get mark of the current end of journal. Events recorded later have sequence equal or greater than mark.
+     *
+     * @return mark
+     * @since 1.3
+     */
+    public long mark() {
+        return sequence.get();
+    }
+
+    /**
+     * Get capacity of journal
+     *
+     * @return maximum number of recorded events
+     * @since 1.3
+     */
+    public int getCapacity() {
+        return records.length();
+    }
+
+    /**
+     * Get number of events that were overwritten since journal start
+     *
+     * @return number of overwritten events
+     * @since 1.3
+     */
+    public long getDroppedCount() {
+        return Math.max(0, sequence.get() - records.length());
+    }
+
+    /**
+     * Get records from mark that are still in journal
+     *
+     * @param mark mark
+     * @return records in order of recording
+     * @since 1.3
+     */
+    public List<Record> getRecords(long mark) {
+        List<Record> result = new ArrayList<Record>();
+        long end = sequence.get();
+        for (long current = first(mark, end); current < end; current++) {
+            Record record = records.get((int) (current & mask));
+            if (record == null || record.sequence < current) {
+                break;
+            }
+            if (record.sequence == current) {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find first ServiceEvent from mark with event type mask for defined filter
+     *
+     * @param mark          mark
+     * @param filter        filter (could be null)
+     * @param eventTypeMask ServiceEvent type mask
+     * @return ServiceEvent or <code>null</code>
+     * @since 1.3
+     */
+    public ServiceEvent findServiceEvent(long mark, Filter filter, int eventTypeMask) {
+        Record record = find(mark, sequence.get(), filter, eventTypeMask);
+        return record != null ? record.event : null;
+    }
+
+    /**
+     * Wait for ServiceEvent from mark with event type mask for defined filter.
+     * Events recorded after mark and before the call are returned without waiting.
+     *
+     * @param mark            mark
+     * @param filter          filter (could be null)
+     * @param eventTypeMask   ServiceEvent type mask
+     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
+     * @return ServiceEvent or <code>null</code>
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @since 1.3
+     */
+    public ServiceEvent waitForServiceEvent(long mark, Filter filter, int eventTypeMask, long timeoutInMillis) {
+        return waitForServiceEvent(mark, filter, eventTypeMask, timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Wait for ServiceEvent from mark with event type mask for defined filter.
+     * Events recorded after mark and before the call are returned without waiting.
+     *
+     * @param mark          mark
+     * @param filter        filter (could be null)
+     * @param eventTypeMask ServiceEvent type mask
+     * @param timeout       time interval to wait. If zero, the method will wait indefinitely.
+     * @param timeUnit      time unit for the time interval
+     * @return ServiceEvent or <code>null</code>
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>timeUnit</code> is <code>null</code>
+     * @since 1.3
+     */
+    public ServiceEvent waitForServiceEvent(long mark, Filter filter, int eventTypeMask, long timeout, TimeUnit timeUnit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+        long timeoutInNanos = timeUnit.toNanos(timeout);
+        long start = System.nanoTime();
+        long from = mark;
+        waiters.incrementAndGet();
+        try {
+            synchronized (monitor) {
+                while (true) {
+                    long end = sequence.get();
+                    for (from = first(from, end); from < end; from++) {
+                        Record record = records.get((int) (from & mask));
+                        if (record == null || record.sequence < from) {
+                            // writer has reserved sequence but has not stored the record yet
+                            break;
+                        }
+                        if (record.sequence == from && matches(record, filter, eventTypeMask)) {
+                            return record.event;
+                        }
+                    }
+                    if (timeoutInNanos == 0) {
+                        monitor.wait();
+                    } else {
+                        long remaining = timeoutInNanos - (System.nanoTime() - start);
+                        if (remaining <= 0) {
+                            return null;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(monitor, remaining);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            return null;
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Wait for ServiceEvent from mark with event type mask for defined filter.
+     * Events recorded after mark and before the call are returned without waiting.
+     *
+     * @param mark          mark
+     * @param filter        filter (could be null)
+     * @param eventTypeMask ServiceEvent type mask
+     * @param deadline      deadline shared by consecutive waits
+     * @return ServiceEvent or <code>null</code>
+     * @throws NullPointerException If <code>deadline</code> is <code>null</code>
+     * @since 1.3
+     */
+    public ServiceEvent waitForServiceEvent(long mark, Filter filter, int eventTypeMask, Deadline deadline) {
+        return waitForServiceEvent(mark, filter, eventTypeMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    void record(ServiceEvent event) {
+        long current = sequence.getAndIncrement();
+        records.set((int) (current & mask), new Record(current, System.nanoTime(), event));
+        if (waiters.get() > 0) {
+            synchronized (monitor) {
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    private long first(long mark, long end) {
+        return Math.max(Math.max(mark, 0), end - records.length());
+    }
+
+    private Record find(long mark, long end, Filter filter, int eventTypeMask) {
+        for (long current = first(mark, end); current < end; current++) {
+            Record record = records.get((int) (current & mask));
+            if (record == null || record.sequence < current) {
+                return null;
+            }
+            if (record.sequence == current && matches(record, filter, eventTypeMask)) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(Record record, Filter filter, int eventTypeMask) {
+        return (eventTypeMask & record.event.getType()) != 0
+                && (filter == null || filter.match(record.event.getServiceReference()));
+    }
+
+    /**
+     * Recorded ServiceEvent
+     *
+     * @since 1.3
+     */
+    public static final class Record {
+        private final long sequence;
+        private final long timestamp;
+        private final ServiceEvent event;
+
+        private Record(long sequence, long timestamp, ServiceEvent event) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.event = event;
+        }
+
+        /**
+         * Get sequence number of record. It could be used as a mark.
+         *
+         * @return sequence number
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * Get time of recording
+         *
+         * @return <code>System.nanoTime()</code> of recording
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Get recorded ServiceEvent
+         *
+         * @return ServiceEvent
+         */
+        public ServiceEvent getEvent() {
+            return event;
+        }
+    }
+}
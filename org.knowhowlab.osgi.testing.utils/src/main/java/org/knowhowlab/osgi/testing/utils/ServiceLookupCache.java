@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.*;
+import org.osgi.util.tracker.ServiceTracker;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in cache of open ServiceTrackers for repeated service lookups of one BundleContext.
+ * <p/>
+ * Without cache every <code>ServiceUtils.getService</code>/<code>getServiceReference</code> call opens
+ * a new ServiceTracker, that registers a listener and scans the whole service registry.
+ * With enabled cache trackers are kept open per normalized filter, so a repeated lookup is a read
+ * of already tracked services. The number of open trackers is bounded, the least recently used tracker is closed first.
+ * <pre>
+ * &#64;Before
+ * public void setUp() {
+ *     ServiceLookupCache.enable(bc);
+ * }
+ *
+ * &#64;After
+ * public void tearDown() {
+ *     ServiceLookupCache.disable(bc);
+ * }
+ * </pre>
+ * Cache is disabled automatically when the bundle of its BundleContext is stopping.
+ *
+ * @see ServiceUtils
+ * @since 1.3
+ */
+public class ServiceLookupCache {
+    /**
+     * Default maximum number of open trackers
+     */
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private static final Map<BundleContext, ServiceLookupCache> CACHES = new ConcurrentHashMap<BundleContext, ServiceLookupCache>();
+
+    private final BundleContext bc;
+    private final Bundle bundle;
+    private final int maxSize;
+    private final Map<String, ServiceTracker> trackers = new LinkedHashMap<String, ServiceTracker>(16, 0.75f, true);
+
+    private final SynchronousBundleListener bundleListener = new SynchronousBundleListener() {
+        public void bundleChanged(BundleEvent event) {
+            if (event.getType() == BundleEvent.STOPPING && bundle.equals(event.getBundle())) {
+                disable(bc);
+            }
+        }
+    };
+
+    private ServiceLookupCache(BundleContext bc, int maxSize) {
+        this.bc = bc;
+        this.bundle = bc.getBundle();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Enable cache for BundleContext with default maximum number of open trackers
+     *
+     * @param bc BundleContext
+     * @return cache
+     * @throws NullPointerException  If <code>bc</code> is <code>null</code>
+     * @throws IllegalStateException If <code>bc</code> is no longer valid
+     * @since 1.3
+     */
+    public static ServiceLookupCache enable(BundleContext bc) {
+        return enable(bc, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Enable cache for BundleContext. If cache is already enabled, existing cache is returned.
+     *
+     * @param bc      BundleContext
+     * @param maxSize maximum number of open trackers
+     * @return cache
+     * @throws IllegalArgumentException If the value of maxSize is not positive
+     * @throws NullPointerException     If <code>bc</code> is <code>null</code>
+     * @throws IllegalStateException    If <code>bc</code> is no longer valid
+     * @since 1.3
+     */
+    public static ServiceLookupCache enable(BundleContext bc, int maxSize) {
+        if (bc == null) {
+            throw new NullPointerException("bc is null");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize value is not positive");
+        }
+        synchronized (CACHES) {
+            ServiceLookupCache cache = CACHES.get(bc);
+            if (cache == null) {
+                cache = new ServiceLookupCache(bc, maxSize);
+                bc.addBundleListener(cache.bundleListener);
+                CACHES.put(bc, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Get enabled cache of BundleContext
+     *
+     * @param bc BundleContext
+     * @return cache or <code>null</code> if cache is not enabled
+     * @since 1.3
+     */
+    public static ServiceLookupCache getCache(BundleContext bc) {
+        return bc == null ? null : CACHES.get(bc);
+    }
+
+    /**
+     * Disable cache of BundleContext and close all its trackers
+     *
+     * @param bc BundleContext
+     * @since 1.3
+     */
+    public static void disable(BundleContext bc) {
+        ServiceLookupCache cache = bc == null ? null : CACHES.remove(bc);
+        if (cache != null) {
+            try {
+                bc.removeBundleListener(cache.bundleListener);
+            } catch (IllegalStateException e) {
+                // BundleContext is no longer valid
+            }
+            cache.clear();
+        }
+    }
+
+    /**
+     * Get the best ServiceReference that matches filter
+     *
+     * @param filter filter
+     * @return ServiceReference instance or <code>null</code>
+     * @throws NullPointerException If <code>filter</code> is <code>null</code>
+     * @since 1.3
+     */
+    public ServiceReference getServiceReference(Filter filter) {
+        return getTracker(filter).getServiceReference();
+    }
+
+    /**
+     * Get the best ServiceReference with class name
+     *
+     * @param className class name
+     * @return ServiceReference instance or <code>null</code>
+     * @throws NullPointerException     If <code>className</code> is <code>null</code>
+     * @throws IllegalArgumentException If <code>className</code> is not a valid filter value
+     * @since 1.3
+     */
+    public ServiceReference getServiceReference(String className) {
+        return getServiceReference(createClassFilter(className));
+    }
+
+    /**
+     * Get service instance of the best ServiceReference that matches filter
+     *
+     * @param filter filter
+     * @return service instance or <code>null</code>
+     * @throws NullPointerException If <code>filter</code> is <code>null</code>
+     * @since 1.3
+     */
+    public Object getService(Filter filter) {
+        return getTracker(filter).getService();
+    }
+
+    /**
+     * Get service instance of the best ServiceReference with class name
+     *
+     * @param className class name
+     * @return service instance or <code>null</code>
+     * @throws NullPointerException     If <code>className</code> is <code>null</code>
+     * @throws IllegalArgumentException If <code>className</code> is not a valid filter value
+     * @since 1.3
+     */
+    public Object getService(String className) {
+        return getService(createClassFilter(className));
+    }
+
+    /**
+     * Get number of open trackers
+     *
+     * @return number of open trackers
+     * @since 1.3
+     */
+    public int size() {
+        synchronized (trackers) {
+            return trackers.size();
+        }
+    }
+
+    /**
+     * Close all open trackers. Cache remains enabled.
+     *
+     * @since 1.3
+     */
+    public void clear() {
+        List<ServiceTracker> toClose;
+        synchronized (trackers) {
+            toClose = new ArrayList<ServiceTracker>(trackers.values());
+            trackers.clear();
+        }
+        close(toClose);
+    }
+
+    /**
+     * Get open tracker of filter. Trackers are opened and closed outside of the cache lock,
+     * so framework callbacks of one lookup do not block others. If two threads open a tracker
+     * for the same filter, the first published tracker is used and the other one is closed.
+     *
+     * @param filter filter
+     * @return open tracker
+     */
+    private ServiceTracker getTracker(Filter filter) {
+        String key = filter.toString();
+        synchronized (trackers) {
+            ServiceTracker tracker = trackers.get(key);
+            if (tracker != null) {
+                return tracker;
+            }
+        }
+        ServiceTracker created = new ServiceTracker(bc, filter, null);
+        created.open();
+        ServiceTracker tracker;
+        List<ServiceTracker> toClose = new ArrayList<ServiceTracker>();
+        synchronized (trackers) {
+            tracker = trackers.get(key);
+            if (tracker == null) {
+                tracker = created;
+                trackers.put(key, tracker);
+                // the least recently used trackers are first in access order
+                Iterator<ServiceTracker> iterator = trackers.values().iterator();
+                while (trackers.size() > maxSize) {
+                    toClose.add(iterator.next());
+                    iterator.remove();
+                }
+            } else {
+                toClose.add(created);
+            }
+        }
+        close(toClose);
+        return tracker;
+    }
+
+    private static void close(List<ServiceTracker> trackers) {
+        for (ServiceTracker tracker : trackers) {
+            try {
+                tracker.close();
+            } catch (IllegalStateException e) {
+                // BundleContext is no longer valid
+            }
+        }
+    }
+
+    private static Filter createClassFilter(String className) {
+        if (className == null) {
+            throw new NullPointerException("className is null");
+        }
+        try {
+            return FilterUtils.create(className);
+        } catch (InvalidSyntaxException e) {
+            throw new IllegalArgumentException("Unable to create filter", e);
+        }
+    }
+}
@@ -20,15 +20,32 @@ import org.osgi.framework.*;
 import org.osgi.util.tracker.ServiceTracker;
 import org.osgi.util.tracker.ServiceTrackerCustomizer;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Dictionary;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.*;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.knowhowlab.osgi.testing.utils.AsyncUtils.execute;
+import static org.knowhowlab.osgi.testing.utils.AsyncUtils.schedule;
+import static org.knowhowlab.osgi.testing.utils.LatchUtils.await;
 import static org.knowhowlab.osgi.testing.utils.FilterUtils.create;
 import static org.osgi.framework.FrameworkUtil.createFilter;
 
 /**
  * OSGi Services utilities class
+ * <p/>
+ * Service lookups reuse open trackers if {@link ServiceLookupCache} is enabled for the BundleContext.
+ * <code>waitForServiceEvent</code> methods without mark see only events fired after the call. To wait for events
+ * fired since a mark, e.g. by an action that precedes the wait, use methods with mark and a started {@link ServiceEventJournal}:
+ * <pre>
+ * long mark = ServiceEventJournal.start(bc).mark();
+ * bundle.start();
+ * ServiceEvent event = ServiceUtils.waitForServiceEvent(bc, mark, filter, ServiceEvent.REGISTERED, 5, TimeUnit.SECONDS);
+ * </pre>
  *
  * @author dmytro.pishchukhin
  * @see org.osgi.framework.BundleContext
@@ -55,6 +72,10 @@ public class ServiceUtils {
      * @since 1.0
      */
     public static ServiceReference getServiceReference(BundleContext bc, Filter filter) {
+        ServiceLookupCache cache = ServiceLookupCache.getCache(bc);
+        if (cache != null) {
+            return cache.getServiceReference(filter);
+        }
         ServiceTracker tracker = new ServiceTracker(bc, filter, null);
         tracker.open();
         try {
@@ -93,20 +114,46 @@ public class ServiceUtils {
      * @since 1.0
      */
     public static ServiceReference getServiceReference(BundleContext bc, Filter filter, long timeout, TimeUnit timeUnit) {
+        ServiceLookupCache cache = ServiceLookupCache.getCache(bc);
+        if (cache != null) {
+            ServiceReference reference = cache.getServiceReference(filter);
+            if (reference != null) {
+                return reference;
+            }
+        }
         CountDownLatch latch = new CountDownLatch(1);
 
         long timeoutInMillis = timeUnit.toMillis(timeout);
         ServiceTracker tracker = new ServiceTracker(bc, filter, new ServiceTrackerCustomizerWithLock(bc, latch));
         tracker.open();
+        long start = System.nanoTime();
+        ServiceReference reference = null;
         try {
-            return waitForServiceReference(tracker, timeoutInMillis, latch);
+            reference = waitForServiceReference(tracker, timeoutInMillis, latch);
+            return reference;
         } catch (InterruptedException e) {
             return null;
         } finally {
             tracker.close();
+            OperationProbe.record(bc, OperationEvent.WAIT, "ServiceUtils.getServiceReference", filter, timeoutInMillis, start, reference != null);
         }
     }
 
+    /**
+     * Get ServiceReference by filter with deadline.
+     *
+     * @param bc       BundleContext
+     * @param filter   filter
+     * @param deadline deadline shared by consecutive waits
+     * @return ServiceReference instance or <code>null</code>
+     * @throws NullPointerException     If <code>bc</code>, <code>filter</code> or
+     *                                  <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ServiceReference getServiceReference(BundleContext bc, Filter filter, Deadline deadline) {
+        return getServiceReference(bc, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Get ServiceReference by class name
      *
@@ -117,6 +164,10 @@ public class ServiceUtils {
      * @since 1.0
      */
     public static ServiceReference getServiceReference(BundleContext bc, String className) {
+        ServiceLookupCache cache = ServiceLookupCache.getCache(bc);
+        if (cache != null) {
+            return cache.getServiceReference(className);
+        }
         ServiceTracker tracker = new ServiceTracker(bc, className, null);
         tracker.open();
         try {
@@ -155,20 +206,46 @@ public class ServiceUtils {
      * @since 1.0
      */
     public static ServiceReference getServiceReference(BundleContext bc, String className, long timeout, TimeUnit timeUnit) {
+        ServiceLookupCache cache = ServiceLookupCache.getCache(bc);
+        if (cache != null) {
+            ServiceReference reference = cache.getServiceReference(className);
+            if (reference != null) {
+                return reference;
+            }
+        }
         CountDownLatch latch = new CountDownLatch(1);
 
         long timeoutInMillis = timeUnit.toMillis(timeout);
         ServiceTracker tracker = new ServiceTracker(bc, className, new ServiceTrackerCustomizerWithLock(bc, latch));
         tracker.open();
+        long start = System.nanoTime();
+        ServiceReference reference = null;
         try {
-            return waitForServiceReference(tracker, timeoutInMillis, latch);
+            reference = waitForServiceReference(tracker, timeoutInMillis, latch);
+            return reference;
         } catch (InterruptedException e) {
             return null;
         } finally {
             tracker.close();
+            OperationProbe.record(bc, OperationEvent.WAIT, "ServiceUtils.getServiceReference", className, timeoutInMillis, start, reference != null);
         }
     }
 
+    /**
+     * Get ServiceReference by class name with deadline.
+     *
+     * @param bc        BundleContext
+     * @param className className
+     * @param deadline  deadline shared by consecutive waits
+     * @return ServiceReference instance or <code>null</code>
+     * @throws NullPointerException     If <code>bc</code>, <code>className</code> or
+     *                                  <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ServiceReference getServiceReference(BundleContext bc, String className, Deadline deadline) {
+        return getServiceReference(bc, className, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Get ServiceReference by class
      *
@@ -179,6 +256,10 @@ public class ServiceUtils {
      * @since 1.0
      */
     public static ServiceReference getServiceReference(BundleContext bc, Class clazz) {
+        ServiceLookupCache cache = ServiceLookupCache.getCache(bc);
+        if (cache != null) {
+            return cache.getServiceReference(clazz.getName());
+        }
         ServiceTracker tracker = new ServiceTracker(bc, clazz.getName(), null);
         tracker.open();
         try {
@@ -220,6 +301,21 @@ public class ServiceUtils {
         return getServiceReference(bc, clazz.getName(), timeout, timeUnit);
     }
 
+    /**
+     * Get ServiceReference by class with deadline.
+     *
+     * @param bc       BundleContext
+     * @param clazz    Class
+     * @param deadline deadline shared by consecutive waits
+     * @return ServiceReference instance or <code>null</code>
+     * @throws NullPointerException     If <code>bc</code>, <code>filter</code> or
+     *                                  <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ServiceReference getServiceReference(BundleContext bc, Class clazz, Deadline deadline) {
+        return getServiceReference(bc, clazz, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Get service instance by filter
      *
@@ -230,6 +326,10 @@ public class ServiceUtils {
      * @since 1.0
      */
     public static Object getService(BundleContext bc, Filter filter) {
+        ServiceLookupCache cache = ServiceLookupCache.getCache(bc);
+        if (cache != null) {
+            return cache.getService(filter);
+        }
         ServiceTracker tracker = new ServiceTracker(bc, filter, null);
         tracker.open();
         try {
@@ -268,17 +368,43 @@ public class ServiceUtils {
      * @since 1.0
      */
     public static Object getService(BundleContext bc, Filter filter, long timeout, TimeUnit timeUnit) {
+        ServiceLookupCache cache = ServiceLookupCache.getCache(bc);
+        if (cache != null) {
+            Object service = cache.getService(filter);
+            if (service != null) {
+                return service;
+            }
+        }
         ServiceTracker tracker = new ServiceTracker(bc, filter, null);
         tracker.open();
+        long start = System.nanoTime();
+        Object service = null;
         try {
-            return tracker.waitForService(timeUnit.toMillis(timeout));
+            service = tracker.waitForService(timeUnit.toMillis(timeout));
+            return service;
         } catch (InterruptedException e) {
             return null;
         } finally {
             tracker.close();
+            OperationProbe.record(bc, OperationEvent.WAIT, "ServiceUtils.getService", filter, timeUnit.toMillis(timeout), start, service != null);
         }
     }
 
+    /**
+     * Get service instance by filter with deadline.
+     *
+     * @param bc       BundleContext
+     * @param filter   filter
+     * @param deadline deadline shared by consecutive waits
+     * @return service instance or <code>null</code>
+     * @throws NullPointerException     If <code>bc</code>, <code>filter</code> or
+     *                                  <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Object getService(BundleContext bc, Filter filter, Deadline deadline) {
+        return getService(bc, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Get service instance by class name
      *
@@ -289,6 +415,10 @@ public class ServiceUtils {
      * @since 1.0
      */
     public static Object getService(BundleContext bc, String className) {
+        ServiceLookupCache cache = ServiceLookupCache.getCache(bc);
+        if (cache != null) {
+            return cache.getService(className);
+        }
         ServiceTracker tracker = new ServiceTracker(bc, className, null);
         tracker.open();
         try {
@@ -327,17 +457,43 @@ public class ServiceUtils {
      * @since 1.0
      */
     public static Object getService(BundleContext bc, String className, long timeout, TimeUnit timeUnit) {
+        ServiceLookupCache cache = ServiceLookupCache.getCache(bc);
+        if (cache != null) {
+            Object service = cache.getService(className);
+            if (service != null) {
+                return service;
+            }
+        }
         ServiceTracker tracker = new ServiceTracker(bc, className, null);
         tracker.open();
+        long start = System.nanoTime();
+        Object service = null;
         try {
-            return tracker.waitForService(timeUnit.toMillis(timeout));
+            service = tracker.waitForService(timeUnit.toMillis(timeout));
+            return service;
         } catch (InterruptedException e) {
             return null;
         } finally {
             tracker.close();
+            OperationProbe.record(bc, OperationEvent.WAIT, "ServiceUtils.getService", className, timeUnit.toMillis(timeout), start, service != null);
         }
     }
 
+    /**
+     * Get service instance by className with deadline.
+     *
+     * @param bc        BundleContext
+     * @param className className
+     * @param deadline  deadline shared by consecutive waits
+     * @return service instance or <code>null</code>
+     * @throws NullPointerException     If <code>bc</code>, <code>className</code> or
+     *                                  <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Object getService(BundleContext bc, String className, Deadline deadline) {
+        return getService(bc, className, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Get service instance by class
      *
@@ -348,6 +504,11 @@ public class ServiceUtils {
      * @since 1.0
      */
     public static <T> T getService(BundleContext bc, Class<T> clazz) {
+        ServiceLookupCache cache = ServiceLookupCache.getCache(bc);
+        if (cache != null) {
+            //noinspection unchecked
+            return (T) cache.getService(clazz.getName());
+        }
         ServiceReference serviceReference = null;
 
         ServiceTracker tracker = new ServiceTracker(bc, clazz.getName(), null);
@@ -395,10 +556,19 @@ public class ServiceUtils {
      * @since 1.0
      */
     public static <T> T getService(BundleContext bc, Class<T> clazz, long timeout, TimeUnit timeUnit) {
+        ServiceLookupCache cache = ServiceLookupCache.getCache(bc);
+        if (cache != null) {
+            Object service = cache.getService(clazz.getName());
+            if (service != null) {
+                //noinspection unchecked
+                return (T) service;
+            }
+        }
         ServiceReference serviceReference = null;
 
         ServiceTracker tracker = new ServiceTracker(bc, clazz.getName(), null);
         tracker.open();
+        long start = System.nanoTime();
         try {
             //noinspection unchecked
             tracker.waitForService(timeUnit.toMillis(timeout));
@@ -407,6 +577,7 @@ public class ServiceUtils {
             return null;
         } finally {
             tracker.close();
+            OperationProbe.record(bc, OperationEvent.WAIT, "ServiceUtils.getService", clazz.getName(), timeUnit.toMillis(timeout), start, serviceReference != null);
         }
 
         if (serviceReference != null) {
@@ -417,6 +588,21 @@ public class ServiceUtils {
         }
     }
 
+    /**
+     * Get service instance by class with deadline.
+     *
+     * @param bc       BundleContext
+     * @param clazz    Class
+     * @param deadline deadline shared by consecutive waits
+     * @return service instance or <code>null</code>
+     * @throws NullPointerException     If <code>bc</code>, <code>clazz</code> or
+     *                                  <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static <T> T getService(BundleContext bc, Class<T> clazz, Deadline deadline) {
+        return getService(bc, clazz, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Get service instance by class
      *
@@ -471,6 +657,24 @@ public class ServiceUtils {
         return getService(bc, clazz, createFilter(filter), timeout, timeUnit);
     }
 
+    /**
+     * Get service instance by class with deadline.
+     *
+     * @param bc       BundleContext
+     * @param clazz    Class
+     * @param filter   filter
+     * @param deadline deadline shared by consecutive waits
+     * @return service instance or <code>null</code>
+     * @throws NullPointerException     If <code>bc</code>, <code>clazz</code> or
+     *                                  <code>deadline</code> are <code>null</code>
+     * @throws InvalidSyntaxException   If <code>filter</code> contains an
+     *                                  invalid filter string that cannot be parsed
+     * @since 1.3
+     */
+    public static <T> T getService(BundleContext bc, Class<T> clazz, String filter, Deadline deadline) throws InvalidSyntaxException {
+        return getService(bc, clazz, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Get service instance by class
      *
@@ -483,12 +687,18 @@ public class ServiceUtils {
      * @since 1.0
      */
     public static <T> T getService(BundleContext bc, Class<T> clazz, Filter filter) {
-        ServiceTracker tracker;
+        Filter classFilter;
         try {
-            tracker = new ServiceTracker(bc, create(clazz, filter), null);
+            classFilter = create(clazz, filter);
         } catch (InvalidSyntaxException e) {
             throw new IllegalArgumentException("Unable to create filter", e);
         }
+        ServiceLookupCache cache = ServiceLookupCache.getCache(bc);
+        if (cache != null) {
+            //noinspection unchecked
+            return (T) cache.getService(classFilter);
+        }
+        ServiceTracker tracker = new ServiceTracker(bc, classFilter, null);
         tracker.open();
         try {
             //noinspection unchecked
@@ -529,23 +739,338 @@ public class ServiceUtils {
      * @since 1.0
      */
     public static <T> T getService(BundleContext bc, Class<T> clazz, Filter filter, long timeout, TimeUnit timeUnit) {
-        ServiceTracker tracker;
+        Filter classFilter;
         try {
-            tracker = new ServiceTracker(bc, create(clazz, filter), null);
+            classFilter = create(clazz, filter);
         } catch (InvalidSyntaxException e) {
             throw new IllegalArgumentException("Unable to create filter", e);
         }
+        ServiceLookupCache cache = ServiceLookupCache.getCache(bc);
+        if (cache != null) {
+            Object service = cache.getService(classFilter);
+            if (service != null) {
+                //noinspection unchecked
+                return (T) service;
+            }
+        }
+        ServiceTracker tracker = new ServiceTracker(bc, classFilter, null);
         tracker.open();
+        long start = System.nanoTime();
+        Object service = null;
         try {
+            service = tracker.waitForService(timeUnit.toMillis(timeout));
             //noinspection unchecked
-            return (T) tracker.waitForService(timeUnit.toMillis(timeout));
+            return (T) service;
+        } catch (InterruptedException e) {
+            return null;
+        } finally {
+            tracker.close();
+            OperationProbe.record(bc, OperationEvent.WAIT, "ServiceUtils.getService", classFilter, timeUnit.toMillis(timeout), start, service != null);
+        }
+    }
+
+    /**
+     * Get service instance by class with deadline.
+     *
+     * @param bc       BundleContext
+     * @param clazz    Class
+     * @param filter   filter
+     * @param deadline deadline shared by consecutive waits
+     * @return service instance or <code>null</code>
+     * @throws IllegalArgumentException If the value of <code>timeout</code> is negative or <code>filter</code> is invalid
+     * @throws NullPointerException     If <code>bc</code>, <code>clazz</code> or
+     *                                  <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static <T> T getService(BundleContext bc, Class<T> clazz, Filter filter, Deadline deadline) {
+        return getService(bc, clazz, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Wait until no service matches filter.
+     *
+     * @param bc              BundleContext
+     * @param filter          filter
+     * @param timeoutInMillis time interval in milliseconds to wait.
+     * @return <code>true</code> if no service matches filter, <code>false</code> if timeout has elapsed
+     * @throws IllegalArgumentException If the value of timeoutInMillis is negative
+     * @throws NullPointerException     If <code>bc</code> or <code>filter</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static boolean waitForServiceUnavailable(BundleContext bc, Filter filter, long timeoutInMillis) {
+        return waitForServiceUnavailable(bc, filter, timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Wait until no service matches filter. The method returns as soon as the last matching service is unregistered.
+     *
+     * @param bc       BundleContext
+     * @param filter   filter
+     * @param timeout  time interval to wait.
+     * @param timeUnit time unit for the time interval
+     * @return <code>true</code> if no service matches filter, <code>false</code> if timeout has elapsed
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>bc</code>, <code>filter</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static boolean waitForServiceUnavailable(BundleContext bc, Filter filter, long timeout, TimeUnit timeUnit) {
+        long timeoutInMillis = timeUnit.toMillis(timeout);
+        ServiceTrackerCustomizerWithCount customizer = new ServiceTrackerCustomizerWithCount();
+        ServiceTracker tracker = new ServiceTracker(bc, filter, customizer);
+        tracker.open();
+        long start = System.nanoTime();
+        boolean unavailable = false;
+        try {
+            unavailable = waitForServiceUnavailable(customizer, timeoutInMillis);
+            return unavailable;
+        } catch (InterruptedException e) {
+            return false;
+        } finally {
+            tracker.close();
+            OperationProbe.record(bc, OperationEvent.WAIT, "ServiceUtils.waitForServiceUnavailable", filter, timeoutInMillis, start, unavailable);
+        }
+    }
+
+    /**
+     * Wait until no service matches filter. The method returns as soon as the last matching service is unregistered.
+     *
+     * @param bc       BundleContext
+     * @param filter   filter
+     * @param deadline deadline shared by consecutive waits
+     * @return <code>true</code> if no service matches filter, <code>false</code> if timeout has elapsed
+     * @throws NullPointerException     If <code>bc</code>, <code>filter</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static boolean waitForServiceUnavailable(BundleContext bc, Filter filter, Deadline deadline) {
+        return waitForServiceUnavailable(bc, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Wait until no service with class name is registered.
+     *
+     * @param bc              BundleContext
+     * @param className       class name
+     * @param timeoutInMillis time interval in milliseconds to wait.
+     * @return <code>true</code> if no service is registered, <code>false</code> if timeout has elapsed
+     * @throws IllegalArgumentException If the value of timeoutInMillis is negative
+     * @throws NullPointerException     If <code>bc</code> or <code>className</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static boolean waitForServiceUnavailable(BundleContext bc, String className, long timeoutInMillis) {
+        return waitForServiceUnavailable(bc, className, timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Wait until no service with class name is registered.
+     * The method returns as soon as the last matching service is unregistered.
+     *
+     * @param bc        BundleContext
+     * @param className class name
+     * @param timeout   time interval to wait.
+     * @param timeUnit  time unit for the time interval
+     * @return <code>true</code> if no service is registered, <code>false</code> if timeout has elapsed
+     * @throws IllegalArgumentException If the value of timeout is negative or <code>className</code> is invalid to create filter
+     * @throws NullPointerException     If <code>bc</code>, <code>className</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static boolean waitForServiceUnavailable(BundleContext bc, String className, long timeout, TimeUnit timeUnit) {
+        try {
+            return waitForServiceUnavailable(bc, create(className), timeout, timeUnit);
+        } catch (InvalidSyntaxException e) {
+            throw new IllegalArgumentException("Unable to create filter", e);
+        }
+    }
+
+    /**
+     * Wait until no service with class name is registered.
+     * The method returns as soon as the last matching service is unregistered.
+     *
+     * @param bc        BundleContext
+     * @param className class name
+     * @param deadline  deadline shared by consecutive waits
+     * @return <code>true</code> if no service is registered, <code>false</code> if timeout has elapsed
+     * @throws NullPointerException     If <code>bc</code>, <code>className</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static boolean waitForServiceUnavailable(BundleContext bc, String className, Deadline deadline) {
+        return waitForServiceUnavailable(bc, className, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Wait until no service with class is registered.
+     *
+     * @param bc              BundleContext
+     * @param clazz           class
+     * @param timeoutInMillis time interval in milliseconds to wait.
+     * @return <code>true</code> if no service is registered, <code>false</code> if timeout has elapsed
+     * @throws IllegalArgumentException If the value of timeoutInMillis is negative
+     * @throws NullPointerException     If <code>bc</code> or <code>clazz</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static boolean waitForServiceUnavailable(BundleContext bc, Class clazz, long timeoutInMillis) {
+        return waitForServiceUnavailable(bc, clazz, timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Wait until no service with class is registered.
+     * The method returns as soon as the last matching service is unregistered.
+     *
+     * @param bc       BundleContext
+     * @param clazz    class
+     * @param timeout  time interval to wait.
+     * @param timeUnit time unit for the time interval
+     * @return <code>true</code> if no service is registered, <code>false</code> if timeout has elapsed
+     * @throws IllegalArgumentException If the value of timeout is negative or <code>clazz</code> is invalid to create filter
+     * @throws NullPointerException     If <code>bc</code>, <code>clazz</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static boolean waitForServiceUnavailable(BundleContext bc, Class clazz, long timeout, TimeUnit timeUnit) {
+        try {
+            return waitForServiceUnavailable(bc, create(clazz), timeout, timeUnit);
+        } catch (InvalidSyntaxException e) {
+            throw new IllegalArgumentException("Unable to create filter", e);
+        }
+    }
+
+    /**
+     * Wait until no service with class is registered.
+     * The method returns as soon as the last matching service is unregistered.
+     *
+     * @param bc       BundleContext
+     * @param clazz    class
+     * @param deadline deadline shared by consecutive waits
+     * @return <code>true</code> if no service is registered, <code>false</code> if timeout has elapsed
+     * @throws NullPointerException     If <code>bc</code>, <code>clazz</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static boolean waitForServiceUnavailable(BundleContext bc, Class clazz, Deadline deadline) {
+        return waitForServiceUnavailable(bc, clazz, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Wait for at least <code>minCount</code> services that match filter.
+     *
+     * @param bc              BundleContext
+     * @param filter          filter
+     * @param minCount        minimal number of services
+     * @param timeoutInMillis time interval in milliseconds to wait.
+     * @return ServiceReferences sorted by ranking (highest first) or <code>null</code> if threshold is not reached
+     * @throws IllegalArgumentException If the value of timeoutInMillis is negative or <code>minCount</code> is not positive
+     * @throws NullPointerException     If <code>bc</code> or <code>filter</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ServiceReference[] waitForServices(BundleContext bc, Filter filter, int minCount, long timeoutInMillis) {
+        return waitForServices(bc, filter, minCount, timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Wait for at least <code>minCount</code> services that match filter.
+     * One ServiceTracker is used, the method returns as soon as threshold of registered services is reached.
+     * Services are not got from the registry.
+     *
+     * @param bc       BundleContext
+     * @param filter   filter
+     * @param minCount minimal number of services
+     * @param timeout  time interval to wait. If zero, the method will wait indefinitely.
+     * @param timeUnit time unit for the time interval
+     * @return ServiceReferences sorted by ranking (highest first) or <code>null</code> if threshold is not reached
+     * @throws IllegalArgumentException If the value of timeout is negative or <code>minCount</code> is not positive
+     * @throws NullPointerException     If <code>bc</code>, <code>filter</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ServiceReference[] waitForServices(BundleContext bc, Filter filter, int minCount, long timeout, TimeUnit timeUnit) {
+        if (minCount <= 0) {
+            throw new IllegalArgumentException("minCount is not positive");
+        }
+        long timeoutInMillis = timeUnit.toMillis(timeout);
+        ServiceTrackerCustomizerWithCount customizer = new ServiceTrackerCustomizerWithCount();
+        ServiceTracker tracker = new ServiceTracker(bc, filter, customizer);
+        tracker.open();
+        long start = System.nanoTime();
+        ServiceReference[] references = null;
+        try {
+            references = waitForServiceReferences(customizer, minCount, timeoutInMillis);
+            return references;
         } catch (InterruptedException e) {
             return null;
         } finally {
             tracker.close();
+            OperationProbe.record(bc, OperationEvent.WAIT, "ServiceUtils.waitForServices", filter, timeoutInMillis, start, references != null);
         }
     }
 
+    /**
+     * Wait for at least <code>minCount</code> services that match filter.
+     * One ServiceTracker is used, the method returns as soon as threshold is reached.
+     *
+     * @param bc       BundleContext
+     * @param filter   filter
+     * @param minCount minimal number of services
+     * @param deadline deadline shared by consecutive waits
+     * @return ServiceReferences sorted by ranking (highest first) or <code>null</code> if threshold is not reached
+     * @throws NullPointerException     If <code>bc</code>, <code>filter</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ServiceReference[] waitForServices(BundleContext bc, Filter filter, int minCount, Deadline deadline) {
+        return waitForServices(bc, filter, minCount, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Wait for at least <code>minCount</code> services with class.
+     *
+     * @param bc              BundleContext
+     * @param clazz           class
+     * @param minCount        minimal number of services
+     * @param timeoutInMillis time interval in milliseconds to wait.
+     * @return ServiceReferences sorted by ranking (highest first) or <code>null</code> if threshold is not reached
+     * @throws IllegalArgumentException If the value of timeoutInMillis is negative or <code>minCount</code> is not positive
+     * @throws NullPointerException     If <code>bc</code> or <code>clazz</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ServiceReference[] waitForServices(BundleContext bc, Class clazz, int minCount, long timeoutInMillis) {
+        return waitForServices(bc, clazz, minCount, timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Wait for at least <code>minCount</code> services with class.
+     * One ServiceTracker is used, the method returns as soon as threshold is reached.
+     *
+     * @param bc       BundleContext
+     * @param clazz    class
+     * @param minCount minimal number of services
+     * @param timeout  time interval to wait.
+     * @param timeUnit time unit for the time interval
+     * @return ServiceReferences sorted by ranking (highest first) or <code>null</code> if threshold is not reached
+     * @throws IllegalArgumentException If the value of timeout is negative, <code>minCount</code> is not positive
+     *                                  or <code>clazz</code> is invalid to create filter
+     * @throws NullPointerException     If <code>bc</code>, <code>clazz</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ServiceReference[] waitForServices(BundleContext bc, Class clazz, int minCount, long timeout, TimeUnit timeUnit) {
+        try {
+            return waitForServices(bc, create(clazz), minCount, timeout, timeUnit);
+        } catch (InvalidSyntaxException e) {
+            throw new IllegalArgumentException("Unable to create filter", e);
+        }
+    }
+
+    /**
+     * Wait for at least <code>minCount</code> services with class.
+     * One ServiceTracker is used, the method returns as soon as threshold is reached.
+     *
+     * @param bc       BundleContext
+     * @param clazz    class
+     * @param minCount minimal number of services
+     * @param deadline deadline shared by consecutive waits
+     * @return ServiceReferences sorted by ranking (highest first) or <code>null</code> if threshold is not reached
+     *                                  or <code>clazz</code> is invalid to create filter
+     * @throws NullPointerException     If <code>bc</code>, <code>clazz</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ServiceReference[] waitForServices(BundleContext bc, Class clazz, int minCount, Deadline deadline) {
+        return waitForServices(bc, clazz, minCount, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Registers service asynchronously
      *
@@ -664,11 +1189,11 @@ public class ServiceUtils {
      * @since 1.1
      */
     public static <T> Future<ServiceRegistration> registerServiceAsync(final BundleContext bc, final Class<T> clazz, final T service, final Dictionary properties, long delay, TimeUnit timeUnit) {
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<ServiceRegistration>() {
+        return schedule(OperationProbe.wrap("ServiceUtils.registerServiceAsync", clazz, new Callable<ServiceRegistration>() {
             public ServiceRegistration call() throws Exception {
                 return bc.registerService(clazz.getName(), service, properties);
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -686,11 +1211,11 @@ public class ServiceUtils {
      * @since 1.1
      */
     public static Future<ServiceRegistration> registerServiceAsync(final BundleContext bc, final String clazz, final Object service, final Dictionary properties, long delay, TimeUnit timeUnit) {
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<ServiceRegistration>() {
+        return schedule(OperationProbe.wrap("ServiceUtils.registerServiceAsync", clazz, new Callable<ServiceRegistration>() {
             public ServiceRegistration call() throws Exception {
                 return bc.registerService(clazz, service, properties);
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -710,11 +1235,11 @@ public class ServiceUtils {
      * @since 1.1
      */
     public static Future<ServiceRegistration> registerServiceAsync(final BundleContext bc, final String[] clazzes, final Object service, final Dictionary properties, long delay, TimeUnit timeUnit) {
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<ServiceRegistration>() {
+        return schedule(OperationProbe.wrap("ServiceUtils.registerServiceAsync", clazzes, new Callable<ServiceRegistration>() {
             public ServiceRegistration call() throws Exception {
                 return bc.registerService(clazzes, service, properties);
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -762,12 +1287,12 @@ public class ServiceUtils {
      * @since 1.1
      */
     public static Future<?> updateServiceAsync(final ServiceRegistration registration, final Dictionary properties, long delay, TimeUnit timeUnit) {
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<Object>() {
+        return schedule(OperationProbe.wrap("ServiceUtils.updateServiceAsync", registration, new Callable<Object>() {
             public Object call() throws Exception {
                 registration.setProperties(properties);
                 return null;
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -803,12 +1328,186 @@ public class ServiceUtils {
      * @since 1.1
      */
     public static Future<?> unregisterServiceAsync(final ServiceRegistration registration, long delay, TimeUnit timeUnit) {
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<Object>() {
+        return schedule(OperationProbe.wrap("ServiceUtils.unregisterServiceAsync", registration, new Callable<Object>() {
             public Object call() throws Exception {
                 registration.unregister();
                 return null;
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
+    }
+
+    /**
+     * Registers service asynchronously
+     *
+     * @param bc         BundleContext
+     * @param clazz      The class name under which the service can be located.
+     * @param service    The service object or a <code>ServiceFactory</code> object.
+     * @param properties The properties for this service.
+     * @return A <code>Promise&lt;ServiceRegistration&gt;</code> object for use by the bundle
+     *         registering the service to update the service's properties or to
+     *         unregister the service.
+     * @since 1.3
+     */
+    public static Promise<ServiceRegistration> registerServicePromise(BundleContext bc, String clazz, Object service, Dictionary properties) {
+        return registerServicePromise(bc, new String[]{clazz}, service, properties);
+    }
+
+    /**
+     * Registers service asynchronously
+     *
+     * @param bc         BundleContext
+     * @param clazzes    The class names under which the service can be located.
+     *                   The class names in this array will be stored in the service's
+     *                   properties under the key {@link Constants#OBJECTCLASS}.
+     * @param service    The service object or a <code>ServiceFactory</code> object.
+     * @param properties The properties for this service.
+     * @return A <code>Promise&lt;ServiceRegistration&gt;</code> object for use by the bundle
+     *         registering the service to update the service's properties or to
+     *         unregister the service.
+     * @since 1.3
+     */
+    public static Promise<ServiceRegistration> registerServicePromise(final BundleContext bc, final String[] clazzes, final Object service, final Dictionary properties) {
+        return execute(OperationProbe.wrap("ServiceUtils.registerServicePromise", clazzes, new Callable<ServiceRegistration>() {
+            public ServiceRegistration call() throws Exception {
+                return bc.registerService(clazzes, service, properties);
+            }
+        }));
+    }
+
+    /**
+     * Updates registered service properties asynchronously
+     *
+     * @param registration Service registration
+     * @param properties   The properties for this service. See {@link Constants}
+     *                     for a list of standard service property keys. Changes should not
+     *                     be made to this object after calling this method. To update the
+     *                     service's properties this method should be called again.
+     * @return A <code>Promise&lt;ServiceRegistration&gt;</code> of the updated service
+     * @since 1.3
+     */
+    public static Promise<ServiceRegistration> updateServicePromise(final ServiceRegistration registration, final Dictionary properties) {
+        return execute(OperationProbe.wrap("ServiceUtils.updateServicePromise", registration, new Callable<ServiceRegistration>() {
+            public ServiceRegistration call() throws Exception {
+                registration.setProperties(properties);
+                return registration;
+            }
+        }));
+    }
+
+    /**
+     * Unregisters a service asynchronously
+     *
+     * @param registration Service registration
+     * @return A <code>Promise&lt;ServiceRegistration&gt;</code> of the unregistered service
+     * @since 1.3
+     */
+    public static Promise<ServiceRegistration> unregisterServicePromise(final ServiceRegistration registration) {
+        return execute(OperationProbe.wrap("ServiceUtils.unregisterServicePromise", registration, new Callable<ServiceRegistration>() {
+            public ServiceRegistration call() throws Exception {
+                registration.unregister();
+                return registration;
+            }
+        }));
+    }
+
+    /**
+     * Get a promise of ServiceReference by filter.
+     * The promise is resolved immediately if the service is already registered,
+     * otherwise it is completed from a ServiceListener callback.
+     *
+     * @param bc       BundleContext
+     * @param filter   filter
+     * @param timeout  time interval to wait. If zero, the promise never times out.
+     * @param timeUnit time unit for the time interval
+     * @return A <code>Promise&lt;ServiceReference&gt;</code> that fails with <code>TimeoutException</code> if no service
+     *         is registered within timeout
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>bc</code> or <code>filter</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Promise<ServiceReference> whenServiceAvailable(BundleContext bc, Filter filter, long timeout, TimeUnit timeUnit) {
+        if (filter == null) {
+            throw new NullPointerException("filter is null");
+        }
+        Promise<ServiceEvent> events = whenServiceEvent(bc, filter, ServiceEvent.REGISTERED | ServiceEvent.MODIFIED, timeout, timeUnit);
+        Promise<ServiceReference> promise = events.thenApply(new Promise.Function<ServiceEvent, ServiceReference>() {
+            public ServiceReference apply(ServiceEvent event) throws Exception {
+                return event.getServiceReference();
+            }
+        });
+        try {
+            ServiceReference[] references = bc.getServiceReferences((String) null, filter.toString());
+            if (references != null) {
+                ServiceReference best = references[0];
+                for (int i = 1; i < references.length; i++) {
+                    if (references[i].compareTo(best) > 0) {
+                        best = references[i];
+                    }
+                }
+                events.cancel(false);
+                return Promise.resolved(best);
+            }
+        } catch (InvalidSyntaxException e) {
+            events.cancel(false);
+            throw new IllegalArgumentException("Unable to use filter", e);
+        }
+        return promise;
+    }
+
+    /**
+     * Get a promise of ServiceReference by class.
+     * The promise is resolved immediately if the service is already registered,
+     * otherwise it is completed from a ServiceListener callback.
+     *
+     * @param bc       BundleContext
+     * @param clazz    class
+     * @param timeout  time interval to wait. If zero, the promise never times out.
+     * @param timeUnit time unit for the time interval
+     * @return A <code>Promise&lt;ServiceReference&gt;</code> that fails with <code>TimeoutException</code> if no service
+     *         is registered within timeout
+     * @throws IllegalArgumentException If the value of timeout is negative or <code>clazz</code> is invalid to create filter
+     * @throws NullPointerException     If <code>bc</code> or <code>clazz</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Promise<ServiceReference> whenServiceAvailable(BundleContext bc, Class clazz, long timeout, TimeUnit timeUnit) {
+        try {
+            return whenServiceAvailable(bc, create(clazz), timeout, timeUnit);
+        } catch (InvalidSyntaxException e) {
+            throw new IllegalArgumentException("Unable to create filter", e);
+        }
+    }
+
+    /**
+     * Get a promise of ServiceEvent with event type mask for defined filter.
+     * The promise is completed from a ServiceListener callback.
+     *
+     * @param bc            BundleContext
+     * @param filter        filter (could be null)
+     * @param eventTypeMask ServiceEvent type mask
+     * @param timeout       time interval to wait. If zero, the promise never times out.
+     * @param timeUnit      time unit for the time interval
+     * @return A <code>Promise&lt;ServiceEvent&gt;</code> that fails with <code>TimeoutException</code> if no event is
+     *         received within timeout
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>bc</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Promise<ServiceEvent> whenServiceEvent(final BundleContext bc, Filter filter, int eventTypeMask, long timeout, TimeUnit timeUnit) {
+        if (timeUnit == null) {
+            throw new NullPointerException("timeUnit is null");
+        }
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+        final Promise<ServiceEvent> promise = new Promise<ServiceEvent>();
+        final ServiceListener listener = new PromiseServiceListener(eventTypeMask, promise);
+        final ServiceEventDispatcher dispatcher = ServiceEventDispatcher.addServiceListener(bc, listener, filter, eventTypeMask, false);
+        promise.whenComplete(new Promise.Callback<ServiceEvent>() {
+            public void completed(ServiceEvent value, Throwable failure) {
+                dispatcher.removeServiceListener(listener);
+            }
+        });
+        return promise.withTimeout(timeout, timeUnit);
     }
 
     /**
@@ -872,6 +1571,21 @@ public class ServiceUtils {
         return waitForServiceEvent(bc, className, eventTypeMask, false, timeout, timeUnit);
     }
 
+    /**
+     * Wait for ServiceEvent with event type mask for defined class name
+     *
+     * @param bc            BundleContext
+     * @param className     class name (could be null)
+     * @param eventTypeMask ServiceEvent type mask
+     * @param deadline      deadline shared by consecutive waits
+     * @return ServiceEvent or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ServiceEvent waitForServiceEvent(BundleContext bc, String className, int eventTypeMask, Deadline deadline) {
+        return waitForServiceEvent(bc, className, eventTypeMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Wait for ServiceEvent with event type mask for defined class
      *
@@ -888,6 +1602,21 @@ public class ServiceUtils {
         return waitForServiceEvent(bc, clazz, eventTypeMask, false, timeout, timeUnit);
     }
 
+    /**
+     * Wait for ServiceEvent with event type mask for defined class
+     *
+     * @param bc            BundleContext
+     * @param clazz         class (could be null)
+     * @param eventTypeMask ServiceEvent type mask
+     * @param deadline      deadline shared by consecutive waits
+     * @return ServiceEvent or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ServiceEvent waitForServiceEvent(BundleContext bc, Class clazz, int eventTypeMask, Deadline deadline) {
+        return waitForServiceEvent(bc, clazz, eventTypeMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Wait for ServiceEvent with event type mask for defined filter
      *
@@ -904,6 +1633,21 @@ public class ServiceUtils {
         return waitForServiceEvent(bc, filter, eventTypeMask, false, timeout, timeUnit);
     }
 
+    /**
+     * Wait for ServiceEvent with event type mask for defined filter
+     *
+     * @param bc            BundleContext
+     * @param filter        filter (could be null)
+     * @param eventTypeMask ServiceEvent type mask
+     * @param deadline      deadline shared by consecutive waits
+     * @return ServiceEvent or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ServiceEvent waitForServiceEvent(BundleContext bc, Filter filter, int eventTypeMask, Deadline deadline) {
+        return waitForServiceEvent(bc, filter, eventTypeMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Wait for ServiceEvent with event type mask for defined filter
      *
@@ -978,6 +1722,23 @@ public class ServiceUtils {
         return waitForServiceEvent(bc, filter, eventTypeMask, all, timeout, timeUnit);
     }
 
+    /**
+     * Wait for ServiceEvent with event type mask for defined class name
+     *
+     * @param bc            BundleContext
+     * @param className     class name (could be null)
+     * @param eventTypeMask ServiceEvent type mask
+     * @param all           use AllServiceListener
+     * @param deadline      deadline shared by consecutive waits
+     * @return ServiceEvent or <code>null</code>
+     * @throws IllegalArgumentException If <code>clazz</code> is invalid to create filter
+     * @throws NullPointerException If <code>bc</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ServiceEvent waitForServiceEvent(BundleContext bc, String className, int eventTypeMask, boolean all, Deadline deadline) {
+        return waitForServiceEvent(bc, className, eventTypeMask, all, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Wait for ServiceEvent with event type mask for defined class
      *
@@ -1004,6 +1765,23 @@ public class ServiceUtils {
         return waitForServiceEvent(bc, filter, eventTypeMask, all, timeout, timeUnit);
     }
 
+    /**
+     * Wait for ServiceEvent with event type mask for defined class
+     *
+     * @param bc            BundleContext
+     * @param clazz         class (could be null)
+     * @param eventTypeMask ServiceEvent type mask
+     * @param all           use AllServiceListener
+     * @param deadline      deadline shared by consecutive waits
+     * @return ServiceEvent or <code>null</code>
+     * @throws IllegalArgumentException If <code>clazz</code> is invalid to create filter
+     * @throws NullPointerException If <code>bc</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ServiceEvent waitForServiceEvent(BundleContext bc, Class clazz, int eventTypeMask, boolean all, Deadline deadline) {
+        return waitForServiceEvent(bc, clazz, eventTypeMask, all, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Wait for ServiceEvent with event type mask for defined filter
      *
@@ -1022,25 +1800,88 @@ public class ServiceUtils {
         CountDownLatch latch = new CountDownLatch(1);
 
         long timeoutInMillis = timeUnit.toMillis(timeout);
-        ServiceListenerImpl listener;
-        if (all) {
-            listener = new AllServiceListenerImpl(eventTypeMask, latch);
-        } else {
-            listener = new ServiceListenerImpl(eventTypeMask, latch);
-        }
-        try {
-            bc.addServiceListener(listener, filter != null ? filter.toString() : null);
-        } catch (InvalidSyntaxException e) {
-            throw new IllegalArgumentException("Unable to use filter", e);
-        }
+        ServiceListenerImpl listener = new ServiceListenerImpl(eventTypeMask, latch);
+        ServiceEventDispatcher dispatcher = ServiceEventDispatcher.addServiceListener(bc, listener, filter, eventTypeMask, all);
 
+        long start = System.nanoTime();
+        ServiceEvent event = null;
         try {
-            return waitForServiceEvent(listener, timeoutInMillis, latch);
+            event = waitForServiceEvent(listener, timeoutInMillis, latch);
+            return event;
         } catch (InterruptedException e) {
             return null;
         } finally {
-            bc.removeServiceListener(listener);
+            dispatcher.removeServiceListener(listener);
+            OperationProbe.record(bc, OperationEvent.WAIT, "ServiceUtils.waitForServiceEvent", filter, timeoutInMillis, start, event != null);
+        }
+    }
+
+    /**
+     * Wait for ServiceEvent with event type mask for defined filter
+     *
+     * @param bc            BundleContext
+     * @param filter        filter (could be null)
+     * @param eventTypeMask ServiceEvent type mask
+     * @param all           use AllServiceListener
+     * @param deadline      deadline shared by consecutive waits
+     * @return ServiceEvent or <code>null</code>
+     * @throws IllegalArgumentException If <code>filter</code> is invalid
+     * @throws NullPointerException If <code>bc</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ServiceEvent waitForServiceEvent(BundleContext bc, Filter filter, int eventTypeMask, boolean all, Deadline deadline) {
+        return waitForServiceEvent(bc, filter, eventTypeMask, all, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Wait for ServiceEvent since mark with event type mask for defined filter.
+     * Events recorded by ServiceEventJournal after mark and before the call are returned without waiting.
+     *
+     * @param bc            BundleContext with started ServiceEventJournal
+     * @param mark          mark of ServiceEventJournal
+     * @param filter        filter (could be null)
+     * @param eventTypeMask ServiceEvent type mask
+     * @param timeout       time interval to wait. If zero, the method will wait indefinitely.
+     * @param timeUnit      time unit for the time interval
+     * @return ServiceEvent or <code>null</code>
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws IllegalStateException    If ServiceEventJournal is not started for <code>bc</code>
+     * @throws NullPointerException     If <code>bc</code> or <code>timeUnit</code> are <code>null</code>
+     * @see ServiceEventJournal#mark()
+     * @since 1.3
+     */
+    public static ServiceEvent waitForServiceEvent(BundleContext bc, long mark, Filter filter, int eventTypeMask, long timeout, TimeUnit timeUnit) {
+        if (bc == null) {
+            throw new NullPointerException("bc is null");
         }
+        ServiceEventJournal journal = ServiceEventJournal.getJournal(bc);
+        if (journal == null) {
+            throw new IllegalStateException("ServiceEventJournal is not started");
+        }
+        long timeoutInMillis = timeUnit.toMillis(timeout);
+        long start = System.nanoTime();
+        ServiceEvent event = journal.waitForServiceEvent(mark, filter, eventTypeMask, timeoutInMillis);
+        OperationProbe.record(bc, OperationEvent.WAIT, "ServiceUtils.waitForServiceEvent", filter, timeoutInMillis, start, event != null);
+        return event;
+    }
+
+    /**
+     * Wait for ServiceEvent since mark with event type mask for defined filter.
+     * Events recorded by ServiceEventJournal after mark and before the call are returned without waiting.
+     *
+     * @param bc            BundleContext with started ServiceEventJournal
+     * @param mark          mark of ServiceEventJournal
+     * @param filter        filter (could be null)
+     * @param eventTypeMask ServiceEvent type mask
+     * @param deadline      deadline shared by consecutive waits
+     * @return ServiceEvent or <code>null</code>
+     * @throws IllegalStateException If ServiceEventJournal is not started for <code>bc</code>
+     * @throws NullPointerException  If <code>bc</code> or <code>deadline</code> are <code>null</code>
+     * @see ServiceEventJournal#mark()
+     * @since 1.3
+     */
+    public static ServiceEvent waitForServiceEvent(BundleContext bc, long mark, Filter filter, int eventTypeMask, Deadline deadline) {
+        return waitForServiceEvent(bc, mark, filter, eventTypeMask, deadline.getTimeoutInMillis(), MILLISECONDS);
     }
 
     private static ServiceEvent waitForServiceEvent(ServiceListenerImpl listener, long timeoutInMillis, CountDownLatch latch)
@@ -1048,7 +1889,7 @@ public class ServiceUtils {
         if (timeoutInMillis < 0) {
             throw new IllegalArgumentException("timeout value is negative");
         }
-        if (latch.await(timeoutInMillis, MILLISECONDS)) {
+        if (await(latch, timeoutInMillis)) {
             return listener.getServiceEvent();
         } else {
             return null;
@@ -1073,7 +1914,7 @@ public class ServiceUtils {
         }
         ServiceReference reference = tracker.getServiceReference();
         if (reference == null) {
-            if (latch.await(timeoutInMillis, MILLISECONDS)) {
+            if (await(latch, timeoutInMillis)) {
                 return tracker.getServiceReference();
             } else {
                 return null;
@@ -1084,7 +1925,46 @@ public class ServiceUtils {
     }
 
     /**
-     * ServiceTrackerCustomizer with lock support.
+     * Wait for at least <code>minCount</code> ServiceReferences to be tracked by ServiceTracker
+     *
+     * @param customizer      counting customizer of ServiceTracker
+     * @param minCount        minimal number of services
+     * @param timeoutInMillis time interval in milliseconds to wait. If zero, the method will wait indefinitely.
+     * @return ServiceReferences sorted by ranking (highest first) or <code>null</code>
+     * @throws IllegalArgumentException If the value of timeout is negative.
+     * @throws InterruptedException     If another thread has interrupted the current thread.
+     */
+    private static ServiceReference[] waitForServiceReferences(ServiceTrackerCustomizerWithCount customizer, int minCount,
+                                                               long timeoutInMillis) throws InterruptedException {
+        if (timeoutInMillis < 0) {
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+        ServiceReference[] references = customizer.awaitServiceReferences(minCount, Integer.MAX_VALUE, timeoutInMillis);
+        if (references != null) {
+            Arrays.sort(references, Collections.reverseOrder());
+        }
+        return references;
+    }
+
+    /**
+     * Wait for ServiceTracker to track no services
+     *
+     * @param customizer      counting customizer of ServiceTracker
+     * @param timeoutInMillis time interval in milliseconds to wait. If zero, the method will wait indefinitely.
+     * @return <code>true</code> if no service is tracked, otherwise <code>false</code>
+     * @throws IllegalArgumentException If the value of timeout is negative.
+     * @throws InterruptedException     If another thread has interrupted the current thread.
+     */
+    private static boolean waitForServiceUnavailable(ServiceTrackerCustomizerWithCount customizer, long timeoutInMillis)
+            throws InterruptedException {
+        if (timeoutInMillis < 0) {
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+        return customizer.awaitCount(0, 0, timeoutInMillis);
+    }
+
+    /**
+     * ServiceTrackerCustomizer with lock support. The latch is counted down for every added service.
      *
      * @see java.util.concurrent.locks.ReentrantLock
      * @see org.osgi.util.tracker.ServiceTrackerCustomizer
@@ -1113,6 +1993,75 @@ public class ServiceUtils {
         }
     }
 
+    /**
+     * ServiceTrackerCustomizer that counts tracked services. Services are not got from the registry,
+     * tracked objects are ServiceReferences.
+     *
+     * @see org.osgi.util.tracker.ServiceTrackerCustomizer
+     */
+    private static class ServiceTrackerCustomizerWithCount implements ServiceTrackerCustomizer {
+        private final Set<ServiceReference> references = new HashSet<ServiceReference>();
+
+        public synchronized Object addingService(ServiceReference serviceReference) {
+            references.add(serviceReference);
+            notifyAll();
+            return serviceReference;
+        }
+
+        public void modifiedService(ServiceReference serviceReference, Object o) {
+        }
+
+        public synchronized void removedService(ServiceReference serviceReference, Object o) {
+            references.remove(serviceReference);
+            notifyAll();
+        }
+
+        public synchronized int getCount() {
+            return references.size();
+        }
+
+        /**
+         * Wait until number of tracked services is within range. The number is checked again
+         * after every change, so a service that comes back before the waiter wakes up is not missed.
+         *
+         * @param minCount        minimal number of services
+         * @param maxCount        maximal number of services
+         * @param timeoutInMillis time interval in milliseconds to wait. If zero, the method will wait indefinitely.
+         * @return <code>true</code> if number of tracked services is within range, <code>false</code> if timeout elapsed
+         * @throws InterruptedException If another thread has interrupted the current thread.
+         */
+        public boolean awaitCount(int minCount, int maxCount, long timeoutInMillis) throws InterruptedException {
+            return awaitServiceReferences(minCount, maxCount, timeoutInMillis) != null;
+        }
+
+        /**
+         * Wait until number of tracked services is within range and get tracked ServiceReferences
+         *
+         * @param minCount        minimal number of services
+         * @param maxCount        maximal number of services
+         * @param timeoutInMillis time interval in milliseconds to wait. If zero, the method will wait indefinitely.
+         * @return tracked ServiceReferences or <code>null</code> if timeout elapsed
+         * @throws InterruptedException If another thread has interrupted the current thread.
+         */
+        public synchronized ServiceReference[] awaitServiceReferences(int minCount, int maxCount, long timeoutInMillis)
+                throws InterruptedException {
+            long timeoutInNanos = MILLISECONDS.toNanos(timeoutInMillis);
+            long start = System.nanoTime();
+            while (references.size() < minCount || references.size() > maxCount) {
+                if (timeoutInMillis == 0) {
+                    wait();
+                } else {
+                    long remaining = timeoutInNanos - (System.nanoTime() - start);
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                    NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+            return references.toArray(new ServiceReference[references.size()]);
+        }
+    }
+
     private static class ServiceListenerImpl implements ServiceListener {
         private int eventTypeMask;
         private CountDownLatch latch;
@@ -1131,7 +2080,7 @@ public class ServiceUtils {
             }
         }
 
-        private boolean match(ServiceEvent event) {
+        protected boolean match(ServiceEvent event) {
             return (eventTypeMask & event.getType()) != 0;
         }
 
@@ -1140,9 +2089,19 @@ public class ServiceUtils {
         }
     }
 
-    private static class AllServiceListenerImpl extends ServiceListenerImpl implements AllServiceListener {
-        public AllServiceListenerImpl(int eventTypeMask, CountDownLatch latch) {
-            super(eventTypeMask, latch);
+    private static class PromiseServiceListener extends ServiceListenerImpl {
+        private final Promise<ServiceEvent> promise;
+
+        public PromiseServiceListener(int eventTypeMask, Promise<ServiceEvent> promise) {
+            super(eventTypeMask, new CountDownLatch(1));
+            this.promise = promise;
+        }
+
+        @Override
+        public void serviceChanged(ServiceEvent event) {
+            if (match(event)) {
+                promise.resolve(event);
+            }
         }
     }
 }
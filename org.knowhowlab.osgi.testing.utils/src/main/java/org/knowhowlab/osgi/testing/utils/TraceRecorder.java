@@ -0,0 +1,627 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.*;
+import org.osgi.service.cm.ConfigurationEvent;
+import org.osgi.service.cm.ConfigurationListener;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventHandler;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorder of one timeline of BundleEvents, ServiceEvents, FrameworkEvents, ConfigurationEvents, EventAdmin events
+ * and wait calls of {@link ServiceUtils}, {@link BundleUtils} and {@link FrameworkUtils} of one BundleContext.
+ * Async operations and assertions that are not bound to BundleContext are recorded by all started recorders.
+ * <p/>
+ * Timeline is streamed in Chrome trace-event JSON array format, that could be opened with
+ * <code>chrome://tracing</code> or Perfetto UI. Every event is written when it happens, so memory usage
+ * does not depend on test duration. Writer is flushed when an event is written and {@link #FLUSH_INTERVAL}
+ * has elapsed since the last flush, so a trace of an aborted test run is readable up to the last flush.
+ * <ul>
+ * <li>bundle starting and stopping are async spans per bundle, other BundleEvents are instant events</li>
+ * <li>ServiceEvents, FrameworkEvents, ConfigurationEvents and EventAdmin events are instant events</li>
+ * <li>wait calls, async operations and assertions that are reported to {@link OperationProbe} are complete events
+ * on the track of completing thread with target, timeout and outcome</li>
+ * </ul>
+ * <pre>
+ * TraceRecorder.start(bc, new File("target/test-trace.json"));
+ * ...
+ * TraceRecorder.stop(bc);
+ * </pre>
+ * ConfigurationEvents and EventAdmin events are recorded only if ConfigurationAdmin and EventAdmin API
+ * is available. Recorder is stopped automatically when the bundle of its BundleContext is stopping.
+ *
+ * @since 1.3
+ */
+public class TraceRecorder {
+    /**
+     * Minimal time in milliseconds between flushes of writer
+     */
+    public static final long FLUSH_INTERVAL = 1000;
+
+    private static final Map<BundleContext, TraceRecorder> RECORDERS = new HashMap<BundleContext, TraceRecorder>();
+    private static volatile boolean active;
+
+    private final BundleContext bc;
+    private final Bundle bundle;
+    private final Writer writer;
+    private final long origin = System.nanoTime();
+    private final Set<Long> threads = new HashSet<Long>();
+    private boolean closed;
+    private long count;
+    private long flushed = System.nanoTime();
+    private IOException error;
+
+    private ServiceRegistration configurationListener;
+    private ServiceRegistration eventHandler;
+
+    private final SynchronousBundleListener bundleListener = new SynchronousBundleListener() {
+        public void bundleChanged(BundleEvent event) {
+            record(event);
+            if (event.getType() == BundleEvent.STOPPING && bundle.equals(event.getBundle())) {
+                stop(bc);
+            }
+        }
+    };
+
+    private final AllServiceListener serviceListener = new AllServiceListener() {
+        public void serviceChanged(ServiceEvent event) {
+            record(event);
+        }
+    };
+
+    private final FrameworkListener frameworkListener = new FrameworkListener() {
+        public void frameworkEvent(FrameworkEvent event) {
+            record(event);
+        }
+    };
+
+    TraceRecorder(BundleContext bc, Writer writer) {
+        this.bc = bc;
+        this.bundle = bc.getBundle();
+        this.writer = writer;
+        write("[");
+        StringBuilder builder = new StringBuilder();
+        builder.append("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":1,\"args\":{\"name\":");
+        quote(builder, bundle != null ? String.valueOf(bundle.getSymbolicName()) : "OSGi");
+        builder.append("}}");
+        write(builder.toString());
+    }
+
+    /**
+     * Start recorder of BundleContext that writes trace to file
+     *
+     * @param bc   BundleContext
+     * @param file trace file. Existing file is overwritten.
+     * @return recorder
+     * @throws IOException           If it is unable to create file
+     * @throws NullPointerException  If <code>bc</code> or <code>file</code> are <code>null</code>
+     * @throws IllegalStateException If <code>bc</code> is no longer valid or recorder is already started
+     * @since 1.3
+     */
+    public static TraceRecorder start(BundleContext bc, File file) throws IOException {
+        if (file == null) {
+            throw new NullPointerException("file is null");
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+        try {
+            return start(bc, writer);
+        } catch (RuntimeException e) {
+            writer.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Start recorder of BundleContext that writes trace to writer. Writer is closed when recorder is stopped.
+     *
+     * @param bc     BundleContext
+     * @param writer trace writer
+     * @return recorder
+     * @throws NullPointerException  If <code>bc</code> or <code>writer</code> are <code>null</code>
+     * @throws IllegalStateException If <code>bc</code> is no longer valid or recorder is already started
+     * @since 1.3
+     */
+    public static TraceRecorder start(BundleContext bc, Writer writer) {
+        if (bc == null) {
+            throw new NullPointerException("bc is null");
+        }
+        if (writer == null) {
+            throw new NullPointerException("writer is null");
+        }
+        synchronized (RECORDERS) {
+            if (RECORDERS.containsKey(bc)) {
+                throw new IllegalStateException("recorder is already started");
+            }
+            TraceRecorder recorder = new TraceRecorder(bc, writer);
+            bc.addBundleListener(recorder.bundleListener);
+            bc.addServiceListener(recorder.serviceListener);
+            bc.addFrameworkListener(recorder.frameworkListener);
+            try {
+                recorder.configurationListener = ConfigurationListenerImpl.register(recorder);
+            } catch (NoClassDefFoundError e) {
+                // ConfigurationAdmin API is not available
+            }
+            try {
+                recorder.eventHandler = EventHandlerImpl.register(recorder);
+            } catch (NoClassDefFoundError e) {
+                // EventAdmin API is not available
+            }
+            RECORDERS.put(bc, recorder);
+            active = true;
+            return recorder;
+        }
+    }
+
+    /**
+     * Get started recorder of BundleContext
+     *
+     * @param bc BundleContext
+     * @return recorder or <code>null</code> if recorder is not started
+     * @since 1.3
+     */
+    public static TraceRecorder getRecorder(BundleContext bc) {
+        synchronized (RECORDERS) {
+            return RECORDERS.get(bc);
+        }
+    }
+
+    /**
+     * Stop recorder of BundleContext, remove its listeners and complete trace
+     *
+     * @param bc BundleContext
+     * @since 1.3
+     */
+    public static void stop(BundleContext bc) {
+        TraceRecorder recorder;
+        synchronized (RECORDERS) {
+            recorder = RECORDERS.remove(bc);
+            active = !RECORDERS.isEmpty();
+        }
+        if (recorder != null) {
+            try {
+                bc.removeFrameworkListener(recorder.frameworkListener);
+                bc.removeServiceListener(recorder.serviceListener);
+                bc.removeBundleListener(recorder.bundleListener);
+                if (recorder.configurationListener != null) {
+                    recorder.configurationListener.unregister();
+                }
+                if (recorder.eventHandler != null) {
+                    recorder.eventHandler.unregister();
+                }
+            } catch (IllegalStateException e) {
+                // BundleContext is no longer valid
+            }
+            recorder.close();
+        }
+    }
+
+    /**
+     * Get number of written trace events
+     *
+     * @return number of written trace events
+     * @since 1.3
+     */
+    public synchronized long getEventCount() {
+        return count;
+    }
+
+    /**
+     * Get first error of trace writer
+     *
+     * @return error or <code>null</code> if trace is written successfully
+     * @since 1.3
+     */
+    public synchronized IOException getError() {
+        return error;
+    }
+
+    static boolean isActive() {
+        return active;
+    }
+
+    static void record(OperationEvent event) {
+        if (!active) {
+            return;
+        }
+        if (event.getBundleContext() != null) {
+            TraceRecorder recorder = getRecorder(event.getBundleContext());
+            if (recorder != null) {
+                recorder.write(event);
+            }
+        } else {
+            TraceRecorder[] recorders;
+            synchronized (RECORDERS) {
+                recorders = RECORDERS.values().toArray(new TraceRecorder[RECORDERS.size()]);
+            }
+            for (TraceRecorder recorder : recorders) {
+                recorder.write(event);
+            }
+        }
+    }
+
+    private void write(OperationEvent event) {
+        String category;
+        String outcome;
+        switch (event.getType()) {
+            case OperationEvent.WAIT:
+                category = "wait";
+                outcome = event.isSuccessful() ? "found" : "timeout";
+                break;
+            case OperationEvent.ASYNC:
+                category = "async";
+                outcome = event.isSuccessful() ? "completed" : "failed";
+                break;
+            default:
+                category = "assert";
+                outcome = event.isSuccessful() ? "passed" : "failed";
+        }
+        long start = event.getStartTime();
+        complete(category, event.getName(), start, start + event.getDuration(TimeUnit.NANOSECONDS),
+                "target", event.getTargetAsString(),
+                "timeout", event.getTimeoutInMillis() >= 0 ? event.getTimeoutInMillis() : null,
+                "outcome", outcome);
+    }
+
+    void record(BundleEvent event) {
+        Bundle source = event.getBundle();
+        String name = bundleEventType(event.getType());
+        switch (event.getType()) {
+            case BundleEvent.STARTING:
+                async("b", "start", source.getBundleId(), "bundle", source.getSymbolicName());
+                break;
+            case BundleEvent.STARTED:
+                async("e", "start", source.getBundleId(), "event", name);
+                break;
+            case BundleEvent.STOPPING:
+                async("b", "stop", source.getBundleId(), "bundle", source.getSymbolicName());
+                break;
+            case BundleEvent.STOPPED:
+                async("e", "stop", source.getBundleId(), "event", name);
+                break;
+            default:
+                instant("bundle", name, "bundle", source.getSymbolicName(), "id", source.getBundleId());
+        }
+    }
+
+    void record(ServiceEvent event) {
+        ServiceReference reference = event.getServiceReference();
+        Object objectClass = reference.getProperty(Constants.OBJECTCLASS);
+        instant("service", serviceEventType(event.getType()),
+                "objectClass", objectClass instanceof String[] ? join((String[]) objectClass) : String.valueOf(objectClass),
+                "service.id", String.valueOf(reference.getProperty(Constants.SERVICE_ID)));
+    }
+
+    void record(FrameworkEvent event) {
+        Bundle source = event.getBundle();
+        Throwable throwable = event.getThrowable();
+        instant("framework", frameworkEventType(event.getType()),
+                "bundle", source != null ? source.getSymbolicName() : null,
+                "throwable", throwable != null ? throwable.toString() : null);
+    }
+
+    private void instant(String category, String name, Object... args) {
+        long now = System.nanoTime();
+        StringBuilder builder = begin(name, category, "i", now);
+        builder.append(",\"s\":\"p\"");
+        end(builder, args);
+    }
+
+    private void async(String phase, String name, long id, Object... args) {
+        long now = System.nanoTime();
+        StringBuilder builder = begin(name, "bundle", phase, now);
+        builder.append(",\"id\":").append(id);
+        end(builder, args);
+    }
+
+    private void complete(String category, String name, long start, long end, Object... args) {
+        StringBuilder builder = begin(name, category, "X", start);
+        builder.append(",\"dur\":");
+        appendMicros(builder, Math.max(0, end - Math.max(start, origin)));
+        end(builder, args);
+    }
+
+    private StringBuilder begin(String name, String category, String phase, long timestamp) {
+        Thread thread = Thread.currentThread();
+        nameThread(thread);
+        StringBuilder builder = new StringBuilder(160);
+        builder.append("{\"name\":");
+        quote(builder, name);
+        builder.append(",\"cat\":\"").append(category).append("\",\"ph\":\"").append(phase).append("\",\"ts\":");
+        appendMicros(builder, Math.max(0, timestamp - origin));
+        builder.append(",\"pid\":1,\"tid\":").append(thread.getId());
+        return builder;
+    }
+
+    private void end(StringBuilder builder, Object[] args) {
+        builder.append(",\"args\":{");
+        boolean first = true;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i + 1] == null) {
+                continue;
+            }
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+            quote(builder, String.valueOf(args[i]));
+            builder.append(':');
+            if (args[i + 1] instanceof Number) {
+                builder.append(args[i + 1]);
+            } else {
+                quote(builder, String.valueOf(args[i + 1]));
+            }
+        }
+        builder.append("}}");
+        write(builder.toString());
+    }
+
+    private void nameThread(Thread thread) {
+        synchronized (this) {
+            if (!threads.add(thread.getId())) {
+                return;
+            }
+        }
+        StringBuilder builder = new StringBuilder();
+        builder.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":").append(thread.getId());
+        builder.append(",\"args\":{\"name\":");
+        quote(builder, thread.getName());
+        builder.append("}}");
+        write(builder.toString());
+    }
+
+    private synchronized void write(String text) {
+        if (closed || error != null) {
+            return;
+        }
+        try {
+            if (count > 0) {
+                writer.write(",\n");
+            } else if (!"[".equals(text)) {
+                writer.write('\n');
+            }
+            writer.write(text);
+            if (!"[".equals(text)) {
+                count++;
+            }
+            long now = System.nanoTime();
+            if (now - flushed >= TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL)) {
+                writer.flush();
+                flushed = now;
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    private synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (error == null) {
+                writer.write("\n]\n");
+            }
+            writer.close();
+        } catch (IOException e) {
+            if (error == null) {
+                error = e;
+            }
+        }
+    }
+
+    private static void appendMicros(StringBuilder builder, long nanos) {
+        builder.append(nanos / 1000).append('.');
+        long fraction = nanos % 1000;
+        if (fraction < 100) {
+            builder.append('0');
+        }
+        if (fraction < 10) {
+            builder.append('0');
+        }
+        builder.append(fraction);
+    }
+
+    private static void quote(StringBuilder builder, String value) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        String hex = Integer.toHexString(c);
+                        builder.append("\\u");
+                        for (int j = hex.length(); j < 4; j++) {
+                            builder.append('0');
+                        }
+                        builder.append(hex);
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        builder.append('"');
+    }
+
+    private static String join(String[] values) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(values[i]);
+        }
+        return builder.toString();
+    }
+
+    private static String bundleEventType(int type) {
+        switch (type) {
+            case BundleEvent.INSTALLED:
+                return "INSTALLED";
+            case BundleEvent.STARTED:
+                return "STARTED";
+            case BundleEvent.STOPPED:
+                return "STOPPED";
+            case BundleEvent.UPDATED:
+                return "UPDATED";
+            case BundleEvent.UNINSTALLED:
+                return "UNINSTALLED";
+            case BundleEvent.RESOLVED:
+                return "RESOLVED";
+            case BundleEvent.UNRESOLVED:
+                return "UNRESOLVED";
+            case BundleEvent.STARTING:
+                return "STARTING";
+            case BundleEvent.STOPPING:
+                return "STOPPING";
+            case BundleEvent.LAZY_ACTIVATION:
+                return "LAZY_ACTIVATION";
+            default:
+                return "BundleEvent " + type;
+        }
+    }
+
+    private static String serviceEventType(int type) {
+        switch (type) {
+            case ServiceEvent.REGISTERED:
+                return "REGISTERED";
+            case ServiceEvent.MODIFIED:
+                return "MODIFIED";
+            case ServiceEvent.UNREGISTERING:
+                return "UNREGISTERING";
+            case ServiceEvent.MODIFIED_ENDMATCH:
+                return "MODIFIED_ENDMATCH";
+            default:
+                return "ServiceEvent " + type;
+        }
+    }
+
+    private static String frameworkEventType(int type) {
+        switch (type) {
+            case FrameworkEvent.STARTED:
+                return "STARTED";
+            case FrameworkEvent.ERROR:
+                return "ERROR";
+            case FrameworkEvent.PACKAGES_REFRESHED:
+                return "PACKAGES_REFRESHED";
+            case FrameworkEvent.STARTLEVEL_CHANGED:
+                return "STARTLEVEL_CHANGED";
+            case FrameworkEvent.WARNING:
+                return "WARNING";
+            case FrameworkEvent.INFO:
+                return "INFO";
+            case FrameworkEvent.STOPPED:
+                return "STOPPED";
+            case FrameworkEvent.STOPPED_UPDATE:
+                return "STOPPED_UPDATE";
+            case FrameworkEvent.STOPPED_BOOTCLASSPATH_MODIFIED:
+                return "STOPPED_BOOTCLASSPATH_MODIFIED";
+            case FrameworkEvent.WAIT_TIMEDOUT:
+                return "WAIT_TIMEDOUT";
+            default:
+                return "FrameworkEvent " + type;
+        }
+    }
+
+    /**
+     * ConfigurationListener of recorder. It is loaded only if ConfigurationAdmin API is available.
+     */
+    private static final class ConfigurationListenerImpl implements ConfigurationListener {
+        /**
+         * ConfigurationEvent type of ConfigurationAdmin 1.4 that is not available in the compiled API
+         */
+        private static final int CM_LOCATION_CHANGED = 3;
+
+        private final TraceRecorder recorder;
+
+        private ConfigurationListenerImpl(TraceRecorder recorder) {
+            this.recorder = recorder;
+        }
+
+        private static ServiceRegistration register(TraceRecorder recorder) {
+            return recorder.bc.registerService(ConfigurationListener.class.getName(), new ConfigurationListenerImpl(recorder), null);
+        }
+
+        public void configurationEvent(ConfigurationEvent event) {
+            recorder.instant("configuration", configurationEventName(event.getType()),
+                    "pid", event.getPid(), "factoryPid", event.getFactoryPid());
+        }
+
+        private static String configurationEventName(int type) {
+            switch (type) {
+                case ConfigurationEvent.CM_UPDATED:
+                    return "CM_UPDATED";
+                case ConfigurationEvent.CM_DELETED:
+                    return "CM_DELETED";
+                case CM_LOCATION_CHANGED:
+                    return "CM_LOCATION_CHANGED";
+                default:
+                    return "ConfigurationEvent " + type;
+            }
+        }
+    }
+
+    /**
+     * EventHandler of all topics. It is loaded only if EventAdmin API is available.
+     * Events of framework topics are skipped, they are recorded as framework events.
+     */
+    private static final class EventHandlerImpl implements EventHandler {
+        private final TraceRecorder recorder;
+
+        private EventHandlerImpl(TraceRecorder recorder) {
+            this.recorder = recorder;
+        }
+
+        private static ServiceRegistration register(TraceRecorder recorder) {
+            Hashtable<String, Object> properties = new Hashtable<String, Object>();
+            properties.put(EventConstants.EVENT_TOPIC, "*");
+            return recorder.bc.registerService(EventHandler.class.getName(), new EventHandlerImpl(recorder), properties);
+        }
+
+        public void handleEvent(Event event) {
+            String topic = event.getTopic();
+            if (!topic.startsWith("org/osgi/framework/")) {
+                recorder.instant("event", topic);
+            }
+        }
+    }
+}
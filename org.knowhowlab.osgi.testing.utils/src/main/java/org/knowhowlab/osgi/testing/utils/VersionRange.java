@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.Version;
+
+/**
+ * Version range as defined by OSGi Core specification, e.g. <code>[1.0,2.0)</code>.
+ * <p/>
+ * A single version <code>1.0</code> is an at-least range <code>[1.0,&infin;)</code>.
+ *
+ * @see BundleIndex
+ * @since 1.3
+ */
+public final class VersionRange {
+    private final Version left;
+    private final boolean leftClosed;
+    private final Version right;
+    private final boolean rightClosed;
+
+    /**
+     * Create version range
+     *
+     * @param left        left version
+     * @param leftClosed  <code>true</code> if left version is included
+     * @param right       right version
+     * @param rightClosed <code>true</code> if right version is included
+     * @throws NullPointerException If <code>left</code> or <code>right</code> are <code>null</code>
+     * @since 1.3
+     */
+    public VersionRange(Version left, boolean leftClosed, Version right, boolean rightClosed) {
+        if (left == null) {
+            throw new NullPointerException("left is null");
+        }
+        if (right == null) {
+            throw new NullPointerException("right is null");
+        }
+        this.left = left;
+        this.leftClosed = leftClosed;
+        this.right = right;
+        this.rightClosed = rightClosed;
+    }
+
+    /**
+     * Create at-least version range
+     *
+     * @param left minimal version
+     * @throws NullPointerException If <code>left</code> is <code>null</code>
+     * @since 1.3
+     */
+    public VersionRange(Version left) {
+        if (left == null) {
+            throw new NullPointerException("left is null");
+        }
+        this.left = left;
+        this.leftClosed = true;
+        this.right = null;
+        this.rightClosed = false;
+    }
+
+    /**
+     * Parse version range
+     *
+     * @param range version range, e.g. <code>[1.0,2.0)</code> or <code>1.0</code>
+     * @return version range
+     * @throws IllegalArgumentException If <code>range</code> is improperly formatted
+     * @throws NullPointerException     If <code>range</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static VersionRange parse(String range) {
+        String value = range.trim();
+        if (value.length() == 0) {
+            throw new IllegalArgumentException("Invalid version range: " + range);
+        }
+        char first = value.charAt(0);
+        if (first != '[' && first != '(') {
+            return new VersionRange(Version.parseVersion(value));
+        }
+        char last = value.charAt(value.length() - 1);
+        int comma = value.indexOf(',');
+        if ((last != ']' && last != ')') || comma < 0) {
+            throw new IllegalArgumentException("Invalid version range: " + range);
+        }
+        Version left = Version.parseVersion(value.substring(1, comma).trim());
+        Version right = Version.parseVersion(value.substring(comma + 1, value.length() - 1).trim());
+        return new VersionRange(left, first == '[', right, last == ']');
+    }
+
+    /**
+     * Get left version
+     *
+     * @return left version
+     * @since 1.3
+     */
+    public Version getLeft() {
+        return left;
+    }
+
+    /**
+     * Get right version
+     *
+     * @return right version or <code>null</code> for infinity
+     * @since 1.3
+     */
+    public Version getRight() {
+        return right;
+    }
+
+    /**
+     * Check if version is in range
+     *
+     * @param version version
+     * @return <code>true</code> if version is in range, otherwise <code>false</code>
+     * @throws NullPointerException If <code>version</code> is <code>null</code>
+     * @since 1.3
+     */
+    public boolean includes(Version version) {
+        int compareLeft = left.compareTo(version);
+        if (compareLeft > 0 || (compareLeft == 0 && !leftClosed)) {
+            return false;
+        }
+        if (right == null) {
+            return true;
+        }
+        int compareRight = right.compareTo(version);
+        return compareRight > 0 || (compareRight == 0 && rightClosed);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        VersionRange that = (VersionRange) o;
+        return leftClosed == that.leftClosed && rightClosed == that.rightClosed && left.equals(that.left)
+                && (right != null ? right.equals(that.right) : that.right == null);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = left.hashCode();
+        result = 31 * result + (leftClosed ? 1 : 0);
+        result = 31 * result + (right != null ? right.hashCode() : 0);
+        result = 31 * result + (rightClosed ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        if (right == null) {
+            return left.toString();
+        }
+        return (leftClosed ? "[" : "(") + left + "," + right + (rightClosed ? "]" : ")");
+    }
+}
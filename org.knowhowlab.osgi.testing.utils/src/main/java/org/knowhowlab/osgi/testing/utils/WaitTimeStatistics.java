@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Statistics of time that timed operations actually waited against their allowed timeouts, per call site.
+ * <p/>
+ * Statistics is an {@link OperationListener}. By default it collects timed assertions, i.e. {@link OperationEvent#ASSERT}
+ * events with positive finite timeout. Call site is the name of operation and the first stack frame outside of the testing
+ * utilities and assertions, e.g. <code>ServiceAssert.assertServiceAvailable at org.example.ExampleIT.test(ExampleIT.java:42)</code>.
+ * Every call site keeps counters and a histogram of wait times with power of two buckets, so collecting costs
+ * a few atomic increments and one stack trace per timed operation.
+ * <pre>
+ * WaitTimeStatistics statistics = new WaitTimeStatistics();
+ * OperationProbe.addListener(statistics);
+ * statistics.reportAtShutdown(System.out, 10);
+ * </pre>
+ * The report lists call sites with the largest total wait time and call sites with the largest unused timeout slack,
+ * i.e. timeouts that could be lowered.
+ *
+ * @see OperationProbe
+ * @since 1.3
+ */
+public class WaitTimeStatistics implements OperationListener {
+    private static final int BUCKETS = 32;
+    private static final String[] INTERNAL_PACKAGES = new String[]{
+            "org.knowhowlab.osgi.testing.utils.", "org.knowhowlab.osgi.testing.assertions.", "java.", "sun.", "jdk."
+    };
+
+    private final int eventTypeMask;
+    private final ConcurrentMap<String, CallSite> callSites = new ConcurrentHashMap<String, CallSite>();
+
+    /**
+     * Create statistics of timed assertions
+     *
+     * @since 1.3
+     */
+    public WaitTimeStatistics() {
+        this(OperationEvent.ASSERT);
+    }
+
+    /**
+     * Create statistics of timed operations
+     *
+     * @param eventTypeMask mask of {@link OperationEvent#WAIT}, {@link OperationEvent#ASYNC}
+     *                      and {@link OperationEvent#ASSERT} types
+     * @since 1.3
+     */
+    public WaitTimeStatistics(int eventTypeMask) {
+        this.eventTypeMask = eventTypeMask;
+    }
+
+    public void operationCompleted(OperationEvent event) {
+        if ((event.getType() & eventTypeMask) == 0 || event.getTimeoutInMillis() <= 0
+                || event.getTimeoutInMillis() == Long.MAX_VALUE) {
+            return;
+        }
+        String name = event.getName() + " at " + findCallSite();
+        CallSite callSite = callSites.get(name);
+        if (callSite == null) {
+            CallSite created = new CallSite(name);
+            callSite = callSites.putIfAbsent(name, created);
+            if (callSite == null) {
+                callSite = created;
+            }
+        }
+        callSite.add(event.getDuration(NANOSECONDS), MILLISECONDS.toNanos(event.getTimeoutInMillis()), event.isSuccessful());
+    }
+
+    /**
+     * Get statistics of all call sites
+     *
+     * @return statistics of call sites
+     * @since 1.3
+     */
+    public List<CallSite> getCallSites() {
+        return new ArrayList<CallSite>(callSites.values());
+    }
+
+    /**
+     * Remove statistics of all call sites
+     *
+     * @since 1.3
+     */
+    public void reset() {
+        callSites.clear();
+    }
+
+    /**
+     * Print call sites with the largest total wait time and with the largest total unused slack
+     *
+     * @param out   print stream
+     * @param limit maximal number of call sites in every list
+     * @throws NullPointerException If <code>out</code> is <code>null</code>
+     * @since 1.3
+     */
+    public void report(PrintStream out, int limit) {
+        List<CallSite> all = getCallSites();
+        long count = 0;
+        long wait = 0;
+        for (CallSite callSite : all) {
+            count += callSite.getCount();
+            wait += callSite.getTotalWait(MILLISECONDS);
+        }
+        out.println(String.format("Wait time statistics: %s timed calls at %s call sites, total wait: %sms",
+                count, all.size(), wait));
+        out.println("Largest time spent:");
+        Collections.sort(all, new Comparator<CallSite>() {
+            public int compare(CallSite o1, CallSite o2) {
+                return compareDescending(o1.totalWait.get(), o2.totalWait.get());
+            }
+        });
+        print(out, all, limit);
+        out.println("Largest unused slack:");
+        Collections.sort(all, new Comparator<CallSite>() {
+            public int compare(CallSite o1, CallSite o2) {
+                return compareDescending(o1.totalSlack.get(), o2.totalSlack.get());
+            }
+        });
+        print(out, all, limit);
+        out.flush();
+    }
+
+    /**
+     * Print report when JVM shuts down
+     *
+     * @param out   print stream
+     * @param limit maximal number of call sites in every list
+     * @throws NullPointerException If <code>out</code> is <code>null</code>
+     * @see #report(PrintStream, int)
+     * @since 1.3
+     */
+    public void reportAtShutdown(final PrintStream out, final int limit) {
+        if (out == null) {
+            throw new NullPointerException("out is null");
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            public void run() {
+                report(out, limit);
+            }
+        }, "osgi-testing-wait-time-report"));
+    }
+
+    private static void print(PrintStream out, List<CallSite> callSites, int limit) {
+        for (int i = 0; i < callSites.size() && i < limit; i++) {
+            out.println("  " + callSites.get(i));
+        }
+    }
+
+    private static int compareDescending(long value1, long value2) {
+        return value1 < value2 ? 1 : (value1 == value2 ? 0 : -1);
+    }
+
+    private static String findCallSite() {
+        StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+        for (StackTraceElement element : stackTrace) {
+            if (!isInternal(element.getClassName())) {
+                return element.toString();
+            }
+        }
+        return "unknown";
+    }
+
+    private static boolean isInternal(String className) {
+        for (String name : INTERNAL_PACKAGES) {
+            if (className.startsWith(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Wait time statistics of one call site
+     *
+     * @since 1.3
+     */
+    public static final class CallSite {
+        private final String name;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong totalWait = new AtomicLong();
+        private final AtomicLong maxWait = new AtomicLong();
+        private final AtomicLong totalSlack = new AtomicLong();
+        private final AtomicLong maxTimeout = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        private CallSite(String name) {
+            this.name = name;
+        }
+
+        private void add(long waitInNanos, long timeoutInNanos, boolean successful) {
+            count.incrementAndGet();
+            if (!successful) {
+                failures.incrementAndGet();
+            }
+            totalWait.addAndGet(waitInNanos);
+            totalSlack.addAndGet(Math.max(0, timeoutInNanos - waitInNanos));
+            max(maxWait, waitInNanos);
+            max(maxTimeout, timeoutInNanos);
+            histogram.incrementAndGet(bucket(NANOSECONDS.toMillis(waitInNanos)));
+        }
+
+        private static void max(AtomicLong max, long value) {
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+
+        private static int bucket(long millis) {
+            return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+        }
+
+        /**
+         * Get name of call site: operation name and caller stack frame
+         *
+         * @return name of call site
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get number of timed calls
+         *
+         * @return number of timed calls
+         */
+        public long getCount() {
+            return count.get();
+        }
+
+        /**
+         * Get number of timed calls that failed
+         *
+         * @return number of failed calls
+         */
+        public long getFailures() {
+            return failures.get();
+        }
+
+        /**
+         * Get total time of all calls
+         *
+         * @param timeUnit time unit
+         * @return total wait time
+         */
+        public long getTotalWait(TimeUnit timeUnit) {
+            return timeUnit.convert(totalWait.get(), NANOSECONDS);
+        }
+
+        /**
+         * Get the longest call
+         *
+         * @param timeUnit time unit
+         * @return maximal wait time
+         */
+        public long getMaxWait(TimeUnit timeUnit) {
+            return timeUnit.convert(maxWait.get(), NANOSECONDS);
+        }
+
+        /**
+         * Get total unused slack, i.e. sum of differences between timeout and actual wait time of all calls
+         *
+         * @param timeUnit time unit
+         * @return total unused slack
+         */
+        public long getTotalSlack(TimeUnit timeUnit) {
+            return timeUnit.convert(totalSlack.get(), NANOSECONDS);
+        }
+
+        /**
+         * Get the longest allowed timeout
+         *
+         * @param timeUnit time unit
+         * @return maximal timeout
+         */
+        public long getMaxTimeout(TimeUnit timeUnit) {
+            return timeUnit.convert(maxTimeout.get(), NANOSECONDS);
+        }
+
+        /**
+         * Get histogram of wait times. Bucket <code>0</code> counts calls shorter than 1ms, bucket <code>i</code>
+         * counts calls from <code>2^(i-1)</code> till <code>2^i - 1</code> milliseconds.
+         *
+         * @return counts of buckets
+         */
+        public long[] getHistogram() {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram.get(i);
+            }
+            return counts;
+        }
+
+        /**
+         * Get upper bound of wait time of the given percentage of calls based on histogram
+         *
+         * @param percent percentage of calls, from 0 till 100
+         * @return upper bound of wait time in milliseconds
+         */
+        public long getPercentileInMillis(int percent) {
+            long[] counts = getHistogram();
+            long total = 0;
+            for (long value : counts) {
+                total += value;
+            }
+            long threshold = (total * percent + 99) / 100;
+            long sum = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                sum += counts[i];
+                if (sum >= threshold && sum > 0) {
+                    return (1L << i) - 1;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %s calls (%s failed), wait total: %sms, p50: <=%sms, max: %sms, timeout: %sms, unused slack: %sms",
+                    name, getCount(), getFailures(), getTotalWait(MILLISECONDS), getPercentileInMillis(50),
+                    getMaxWait(MILLISECONDS), getMaxTimeout(MILLISECONDS), getTotalSlack(MILLISECONDS));
+        }
+    }
+}
@@ -16,6 +16,10 @@
 
 package org.knowhowlab.osgi.testing.utils.cmpn;
 
+import org.knowhowlab.osgi.testing.utils.Deadline;
+import org.knowhowlab.osgi.testing.utils.OperationEvent;
+import org.knowhowlab.osgi.testing.utils.OperationProbe;
+import org.knowhowlab.osgi.testing.utils.Promise;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Filter;
 import org.osgi.framework.InvalidSyntaxException;
@@ -27,6 +31,9 @@ import java.util.*;
 import java.util.concurrent.*;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.knowhowlab.osgi.testing.utils.AsyncUtils.execute;
+import static org.knowhowlab.osgi.testing.utils.AsyncUtils.schedule;
+import static org.knowhowlab.osgi.testing.utils.LatchUtils.await;
 import static org.knowhowlab.osgi.testing.utils.FilterUtils.and;
 import static org.knowhowlab.osgi.testing.utils.FilterUtils.eq;
 import static org.knowhowlab.osgi.testing.utils.ServiceUtils.getService;
@@ -38,6 +45,9 @@ import static org.osgi.service.cm.ConfigurationPlugin.CM_TARGET;
 
 /**
  * OSGi ConfigurationAdmin utilities class
+ * <p/>
+ * Wait methods are served from {@link ConfigurationEventJournal} if it is started for the BundleContext,
+ * otherwise every wait registers its own ConfigurationListener.
  *
  * @author dpishchukhin
  * @see org.osgi.framework.Bundle
@@ -46,6 +56,7 @@ import static org.osgi.service.cm.ConfigurationPlugin.CM_TARGET;
  * @see org.osgi.service.cm.ConfigurationListener
  * @see org.osgi.service.cm.ConfigurationPlugin
  * @see org.osgi.service.cm.Configuration
+ * @see ConfigurationEventJournal
  */
 public class ConfigurationAdminUtils {
     /**
@@ -226,13 +237,13 @@ public class ConfigurationAdminUtils {
         if (configurationAdmin == null) {
             throw new NullPointerException("ConfigurationAdmin is null");
         }
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<Configuration>() {
+        return schedule(OperationProbe.wrap("ConfigurationAdminUtils.supplyConfiguration", pid, new Callable<Configuration>() {
             public Configuration call() throws Exception {
                 Configuration configuration = configurationAdmin.getConfiguration(pid);
-                configuration.update(properties);
+                update(configuration, properties);
                 return configuration;
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -268,13 +279,13 @@ public class ConfigurationAdminUtils {
         if (configurationAdmin == null) {
             throw new NullPointerException("ConfigurationAdmin is null");
         }
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<Configuration>() {
+        return schedule(OperationProbe.wrap("ConfigurationAdminUtils.supplyConfiguration", pid, new Callable<Configuration>() {
             public Configuration call() throws Exception {
                 Configuration configuration = configurationAdmin.getConfiguration(pid, location);
-                configuration.update(properties);
+                update(configuration, properties);
                 return configuration;
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -500,13 +511,13 @@ public class ConfigurationAdminUtils {
         if (configurationAdmin == null) {
             throw new NullPointerException("ConfigurationAdmin is null");
         }
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<Configuration>() {
+        return schedule(OperationProbe.wrap("ConfigurationAdminUtils.supplyFactoryConfiguration", factoryPid, new Callable<Configuration>() {
             public Configuration call() throws Exception {
                 Configuration configuration = configurationAdmin.createFactoryConfiguration(factoryPid);
-                configuration.update(properties);
+                update(configuration, properties);
                 return configuration;
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -542,13 +553,13 @@ public class ConfigurationAdminUtils {
         if (configurationAdmin == null) {
             throw new NullPointerException("ConfigurationAdmin is null");
         }
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<Configuration>() {
+        return schedule(OperationProbe.wrap("ConfigurationAdminUtils.supplyFactoryConfiguration", factoryPid, new Callable<Configuration>() {
             public Configuration call() throws Exception {
                 Configuration configuration = configurationAdmin.createFactoryConfiguration(factoryPid, location);
-                configuration.update(properties);
+                update(configuration, properties);
                 return configuration;
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -788,6 +799,20 @@ public class ConfigurationAdminUtils {
         return waitForConfigurationEvent(bc, eventTypeMask, null, null, null, timeout, timeUnit);
     }
 
+    /**
+     * Wait for ConfigurationEvent
+     *
+     * @param bc            BundleContext
+     * @param eventTypeMask ConfigurationEvent type mask
+     * @param deadline      deadline shared by consecutive waits
+     * @return ConfigurationEvent or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ConfigurationEvent waitForConfigurationEvent(BundleContext bc, int eventTypeMask, Deadline deadline) {
+        return waitForConfigurationEvent(bc, eventTypeMask, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Wait for ConfigurationEvent
      *
@@ -803,33 +828,172 @@ public class ConfigurationAdminUtils {
      * @since 1.0
      */
     public static ConfigurationEvent waitForConfigurationEvent(BundleContext bc, int eventTypeMask, String pid, String factoryPid, String location, long timeout, TimeUnit timeUnit) {
+        long timeoutInMillis = timeUnit.toMillis(timeout);
+        ConfigurationEventJournal journal = ConfigurationEventJournal.getJournal(bc);
+        if (journal != null) {
+            long start = System.nanoTime();
+            ConfigurationEvent event = journal.waitForConfigurationEvent(journal.mark(), eventTypeMask, pid, factoryPid, location, timeoutInMillis);
+            OperationProbe.record(bc, OperationEvent.WAIT, "ConfigurationAdminUtils.waitForConfigurationEvent",
+                    pid != null ? pid : factoryPid, timeoutInMillis, start, event != null);
+            return event;
+        }
         CountDownLatch latch = new CountDownLatch(1);
 
-        long timeoutInMillis = timeUnit.toMillis(timeout);
         ConfigurationListenerImpl listener = new ConfigurationListenerImpl(eventTypeMask, pid, factoryPid, location, latch);
         ServiceRegistration registration = bc.registerService(ConfigurationListener.class.getName(), listener, null);
 
+        long start = System.nanoTime();
+        ConfigurationEvent event = null;
         try {
-            return waitForConfigurationEvent(listener, timeoutInMillis, latch);
+            event = waitForConfigurationEvent(listener, timeoutInMillis, latch);
+            return event;
         } catch (InterruptedException e) {
             return null;
         } finally {
             registration.unregister();
+            OperationProbe.record(bc, OperationEvent.WAIT, "ConfigurationAdminUtils.waitForConfigurationEvent",
+                    pid != null ? pid : factoryPid, timeoutInMillis, start, event != null);
         }
     }
 
+    /**
+     * Wait for ConfigurationEvent
+     *
+     * @param bc            BundleContext
+     * @param eventTypeMask ConfigurationEvent type mask
+     * @param pid           PID
+     * @param factoryPid    FactoryPID
+     * @param location      bundle location
+     * @param deadline      deadline shared by consecutive waits
+     * @return ConfigurationEvent or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static ConfigurationEvent waitForConfigurationEvent(BundleContext bc, int eventTypeMask, String pid, String factoryPid, String location, Deadline deadline) {
+        return waitForConfigurationEvent(bc, eventTypeMask, pid, factoryPid, location, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     private static ConfigurationEvent waitForConfigurationEvent(ConfigurationListenerImpl listener, long timeoutInMillis, CountDownLatch latch)
             throws InterruptedException {
         if (timeoutInMillis < 0) {
             throw new IllegalArgumentException("timeout value is negative");
         }
-        if (latch.await(timeoutInMillis, MILLISECONDS)) {
+        if (await(latch, timeoutInMillis)) {
             return listener.getConfigurationEvent();
         } else {
             return null;
         }
     }
 
+    /**
+     * Get a promise of ConfigurationEvent.
+     * The promise is completed from a ConfigurationListener callback.
+     *
+     * @param bc            BundleContext
+     * @param eventTypeMask ConfigurationEvent type mask
+     * @param pid           PID
+     * @param factoryPid    FactoryPID
+     * @param location      bundle location
+     * @param timeout       time interval to wait. If zero, the promise never times out.
+     * @param timeUnit      time unit for the time interval
+     * @return A <code>Promise&lt;ConfigurationEvent&gt;</code> that fails with <code>TimeoutException</code> if no event is
+     *         received within timeout
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>bc</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Promise<ConfigurationEvent> whenConfigurationEvent(BundleContext bc, int eventTypeMask, String pid, String factoryPid, String location, long timeout, TimeUnit timeUnit) {
+        if (timeUnit == null) {
+            throw new NullPointerException("timeUnit is null");
+        }
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+        final Promise<ConfigurationEvent> promise = new Promise<ConfigurationEvent>();
+        ConfigurationListener listener = new PromiseConfigurationListener(eventTypeMask, pid, factoryPid, location, promise);
+        final ServiceRegistration registration = bc.registerService(ConfigurationListener.class.getName(), listener, null);
+        promise.whenComplete(new Promise.Callback<ConfigurationEvent>() {
+            public void completed(ConfigurationEvent value, Throwable failure) {
+                registration.unregister();
+            }
+        });
+        return promise.withTimeout(timeout, timeUnit);
+    }
+
+    /**
+     * Supply Configuration asynchronously
+     *
+     * @param configurationAdmin ConfigurationAdmin service
+     * @param pid                PID
+     * @param properties         configuration properties
+     * @return A <code>Promise&lt;Configuration&gt;</code> of the updated configuration
+     * @throws NullPointerException If <code>configurationAdmin</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static Promise<Configuration> supplyConfigurationPromise(final ConfigurationAdmin configurationAdmin, final String pid, final Dictionary properties) {
+        if (configurationAdmin == null) {
+            throw new NullPointerException("ConfigurationAdmin is null");
+        }
+        return execute(OperationProbe.wrap("ConfigurationAdminUtils.supplyConfigurationPromise", pid, new Callable<Configuration>() {
+            public Configuration call() throws Exception {
+                Configuration configuration = configurationAdmin.getConfiguration(pid);
+                update(configuration, properties);
+                return configuration;
+            }
+        }));
+    }
+
+    /**
+     * Supply Configuration asynchronously
+     *
+     * @param configurationAdmin ConfigurationAdmin service
+     * @param pid                PID
+     * @param location           bundle location
+     * @param properties         configuration properties
+     * @return A <code>Promise&lt;Configuration&gt;</code> of the updated configuration
+     * @throws NullPointerException If <code>configurationAdmin</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static Promise<Configuration> supplyConfigurationPromise(final ConfigurationAdmin configurationAdmin, final String pid, final String location, final Dictionary properties) {
+        if (configurationAdmin == null) {
+            throw new NullPointerException("ConfigurationAdmin is null");
+        }
+        return execute(OperationProbe.wrap("ConfigurationAdminUtils.supplyConfigurationPromise", pid, new Callable<Configuration>() {
+            public Configuration call() throws Exception {
+                Configuration configuration = configurationAdmin.getConfiguration(pid, location);
+                update(configuration, properties);
+                return configuration;
+            }
+        }));
+    }
+
+    /**
+     * Delete Configuration asynchronously
+     *
+     * @param configurationAdmin ConfigurationAdmin service
+     * @param pid                PID
+     * @return A <code>Promise&lt;String&gt;</code> of the deleted Configuration PID
+     * @throws NullPointerException If <code>configurationAdmin</code> or <code>pid</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Promise<String> deleteConfigurationPromise(final ConfigurationAdmin configurationAdmin, final String pid) {
+        if (configurationAdmin == null) {
+            throw new NullPointerException("ConfigurationAdmin is null");
+        }
+        if (pid == null) {
+            throw new NullPointerException("service.pid is null");
+        }
+        return execute(OperationProbe.wrap("ConfigurationAdminUtils.deleteConfigurationPromise", pid, new Callable<String>() {
+            public String call() throws Exception {
+                Configuration configuration = getConfiguration(configurationAdmin, pid);
+                if (configuration != null) {
+                    delete(configuration);
+                }
+                return pid;
+            }
+        }));
+    }
+
     // delete config
 
     /**
@@ -936,15 +1100,15 @@ public class ConfigurationAdminUtils {
         if (pid == null) {
             throw new NullPointerException("service.pid is null");
         }
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<String>() {
+        return schedule(OperationProbe.wrap("ConfigurationAdminUtils.deleteConfiguration", pid, new Callable<String>() {
             public String call() throws Exception {
                 Configuration configuration = getConfiguration(configurationAdmin, pid);
                 if (configuration != null) {
-                    configuration.delete();
+                    delete(configuration);
                 }
                 return pid;
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -966,15 +1130,15 @@ public class ConfigurationAdminUtils {
         if (pid == null) {
             throw new NullPointerException("service.pid is null");
         }
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<String>() {
+        return schedule(OperationProbe.wrap("ConfigurationAdminUtils.deleteConfiguration", pid, new Callable<String>() {
             public String call() throws Exception {
                 Configuration configuration = getConfiguration(configurationAdmin, pid, location);
                 if (configuration != null) {
-                    configuration.delete();
+                    delete(configuration);
                 }
                 return pid;
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -992,7 +1156,7 @@ public class ConfigurationAdminUtils {
         if (configurationAdmin == null) {
             throw new NullPointerException("ConfigurationAdmin is null");
         }
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<String[]>() {
+        return schedule(OperationProbe.wrap("ConfigurationAdminUtils.deleteConfigurations", filter, new Callable<String[]>() {
             public String[] call() throws Exception {
                 Configuration[] configurations = listConfigurations(configurationAdmin, filter);
                 String[] result = null;
@@ -1001,7 +1165,7 @@ public class ConfigurationAdminUtils {
                     for (Configuration configuration : configurations) {
                         String pid = configuration.getPid();
                         try {
-                            configuration.delete();
+                            delete(configuration);
                             deletedPids.add(pid);
                         } catch (IOException e) {
                             // unable to remove configuration
@@ -1011,7 +1175,7 @@ public class ConfigurationAdminUtils {
                 }
                 return result;
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -1093,6 +1257,41 @@ public class ConfigurationAdminUtils {
         return bc.registerService(ConfigurationPlugin.class.getName(), plugin, props);
     }
 
+    private static void update(Configuration configuration, Dictionary properties) throws IOException {
+        String pid = configuration.getPid();
+        long timestamp = ConfigurationEventJournal.requested(pid, ConfigurationEvent.CM_UPDATED);
+        boolean updated = false;
+        try {
+            configuration.update(properties);
+            updated = true;
+        } finally {
+            if (!updated) {
+                ConfigurationEventJournal.failed(pid, ConfigurationEvent.CM_UPDATED, timestamp);
+            }
+        }
+    }
+
+    private static void delete(Configuration configuration) throws IOException {
+        String pid = configuration.getPid();
+        long timestamp = ConfigurationEventJournal.requested(pid, ConfigurationEvent.CM_DELETED);
+        boolean deleted = false;
+        try {
+            configuration.delete();
+            deleted = true;
+        } finally {
+            if (!deleted) {
+                ConfigurationEventJournal.failed(pid, ConfigurationEvent.CM_DELETED, timestamp);
+            }
+        }
+    }
+
+    static boolean matches(ConfigurationEvent event, int eventTypeMask, String pid, String factoryPid, String location) {
+        return (pid == null || pid.equals(event.getPid()))
+                && (factoryPid == null || factoryPid.equals(event.getFactoryPid()))
+                && (location == null || event.getReference().getBundle().getLocation().equals(location))
+                && (eventTypeMask & event.getType()) != 0;
+    }
+
     private static Dictionary toDictionary(Map properties) {
         if (properties == null) {
             return null;
@@ -1107,7 +1306,7 @@ public class ConfigurationAdminUtils {
         private String location;
         private CountDownLatch latch;
 
-        private ConfigurationEvent event;
+        private volatile ConfigurationEvent event;
 
         public ConfigurationListenerImpl(int eventTypeMask, String pid, String factoryPid, String location, CountDownLatch latch) {
             this.eventTypeMask = eventTypeMask;
@@ -1124,11 +1323,8 @@ public class ConfigurationAdminUtils {
             }
         }
 
-        private boolean match(ConfigurationEvent event) {
-            return (pid == null || event.getPid().equals(pid))
-                    && (factoryPid == null || event.getFactoryPid().equals(factoryPid))
-                    && (location == null || event.getReference().getBundle().getLocation().equals(location))
-                    && (eventTypeMask & event.getType()) != 0;
+        protected boolean match(ConfigurationEvent event) {
+            return matches(event, eventTypeMask, pid, factoryPid, location);
         }
 
         public ConfigurationEvent getConfigurationEvent() {
@@ -1137,4 +1333,19 @@ public class ConfigurationAdminUtils {
 
     }
 
+    private static class PromiseConfigurationListener extends ConfigurationListenerImpl {
+        private final Promise<ConfigurationEvent> promise;
+
+        public PromiseConfigurationListener(int eventTypeMask, String pid, String factoryPid, String location, Promise<ConfigurationEvent> promise) {
+            super(eventTypeMask, pid, factoryPid, location, new CountDownLatch(1));
+            this.promise = promise;
+        }
+
+        @Override
+        public void configurationEvent(ConfigurationEvent event) {
+            if (match(event)) {
+                promise.resolve(event);
+            }
+        }
+    }
 }
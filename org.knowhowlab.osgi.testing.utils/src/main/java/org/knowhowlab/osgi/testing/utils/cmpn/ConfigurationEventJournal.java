@@ -0,0 +1,478 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils.cmpn;
+
+import org.knowhowlab.osgi.testing.utils.Deadline;
+import org.osgi.framework.*;
+import org.osgi.service.cm.ConfigurationEvent;
+import org.osgi.service.cm.ConfigurationListener;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Journal of ConfigurationEvents of one BundleContext.
+ * <p/>
+ * Only one long-lived <code>ConfigurationListener</code> is registered per BundleContext. Every event
+ * (<code>CM_UPDATED</code>, <code>CM_DELETED</code> and <code>CM_LOCATION_CHANGED</code> of newer
+ * ConfigurationAdmin implementations) is recorded with a <code>System.nanoTime()</code> timestamp
+ * into a bounded journal.
+ * <p/>
+ * Configuration updates and deletes of <code>ConfigurationAdminUtils</code> are correlated with
+ * the events they cause, so journal reports configuration propagation latency per PID.
+ * Updates and deletes that failed are not correlated, pending ones without event are expired
+ * after {@link #PENDING_REQUEST_TIMEOUT}:
+ * <pre>
+ * ConfigurationEventJournal journal = ConfigurationEventJournal.start(bc);
+ * ConfigurationAdminUtils.supplyConfiguration(bc, "org.example", properties, 0);
+ * ...
+ * long p50 = journal.getLatency("org.example", 50, TimeUnit.MILLISECONDS);
+ * long p99 = journal.getLatency("org.example", 99, TimeUnit.MILLISECONDS);
+ * </pre>
+ * If journal is started, <code>ConfigurationAdminUtils.waitForConfigurationEvent</code> methods are served from it.
+ * Journal is stopped automatically when the bundle of its BundleContext is stopping.
+ *
+ * @see ConfigurationAdminUtils
+ * @since 1.3
+ */
+public class ConfigurationEventJournal {
+    /**
+     * Default maximum number of recorded events
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+    /**
+     * Maximum number of latency samples per PID
+     */
+    public static final int MAX_SAMPLES = 1024;
+    /**
+     * Maximum number of pending updates or deletes per PID and event type that wait for their ConfigurationEvents
+     */
+    public static final int MAX_PENDING_REQUESTS = 64;
+    /**
+     * Time in milliseconds after which a pending update or delete without ConfigurationEvent is expired
+     */
+    public static final long PENDING_REQUEST_TIMEOUT = 60000;
+
+    private static final Map<BundleContext, ConfigurationEventJournal> JOURNALS = new HashMap<BundleContext, ConfigurationEventJournal>();
+
+    private final BundleContext bc;
+    private final Bundle bundle;
+    private final int capacity;
+    private final LinkedList<Record> records = new LinkedList<Record>();
+    private final Map<String, LinkedList<Long>> requests = new HashMap<String, LinkedList<Long>>();
+    private final Map<String, Samples> latencies = new TreeMap<String, Samples>();
+    private long sequence;
+    private ServiceRegistration registration;
+
+    private final ConfigurationListener configurationListener = new ConfigurationListener() {
+        public void configurationEvent(ConfigurationEvent event) {
+            record(event, System.nanoTime());
+        }
+    };
+
+    private final SynchronousBundleListener bundleListener = new SynchronousBundleListener() {
+        public void bundleChanged(BundleEvent event) {
+            if (event.getType() == BundleEvent.STOPPING && bundle.equals(event.getBundle())) {
+                stop(bc);
+            }
+        }
+    };
+
+    private ConfigurationEventJournal(BundleContext bc, int capacity) {
+        this.bc = bc;
+        this.bundle = bc.getBundle();
+        this.capacity = capacity;
+    }
+
+    /**
+     * Start journal of BundleContext with default capacity
+     *
+     * @param bc BundleContext
+     * @return journal
+     * @throws NullPointerException  If <code>bc</code> is <code>null</code>
+     * @throws IllegalStateException If <code>bc</code> is no longer valid
+     * @since 1.3
+     */
+    public static ConfigurationEventJournal start(BundleContext bc) {
+        return start(bc, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Start journal of BundleContext. If journal is already started, existing journal is returned.
+     *
+     * @param bc       BundleContext
+     * @param capacity maximum number of recorded events
+     * @return journal
+     * @throws IllegalArgumentException If the value of capacity is not positive
+     * @throws NullPointerException     If <code>bc</code> is <code>null</code>
+     * @throws IllegalStateException    If <code>bc</code> is no longer valid
+     * @since 1.3
+     */
+    public static ConfigurationEventJournal start(BundleContext bc, int capacity) {
+        if (bc == null) {
+            throw new NullPointerException("bc is null");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity value is not positive");
+        }
+        synchronized (JOURNALS) {
+            ConfigurationEventJournal journal = JOURNALS.get(bc);
+            if (journal == null) {
+                journal = new ConfigurationEventJournal(bc, capacity);
+                bc.addBundleListener(journal.bundleListener);
+                journal.registration = bc.registerService(ConfigurationListener.class.getName(), journal.configurationListener, null);
+                JOURNALS.put(bc, journal);
+            }
+            return journal;
+        }
+    }
+
+    /**
+     * Get started journal of BundleContext
+     *
+     * @param bc BundleContext
+     * @return journal or <code>null</code> if journal is not started
+     * @since 1.3
+     */
+    public static ConfigurationEventJournal getJournal(BundleContext bc) {
+        synchronized (JOURNALS) {
+            return JOURNALS.isEmpty() ? null : JOURNALS.get(bc);
+        }
+    }
+
+    /**
+     * Stop journal of BundleContext and unregister its ConfigurationListener
+     *
+     * @param bc BundleContext
+     * @since 1.3
+     */
+    public static void stop(BundleContext bc) {
+        ConfigurationEventJournal journal;
+        synchronized (JOURNALS) {
+            journal = JOURNALS.remove(bc);
+        }
+        if (journal != null) {
+            try {
+                if (journal.registration != null) {
+                    journal.registration.unregister();
+                }
+                bc.removeBundleListener(journal.bundleListener);
+            } catch (IllegalStateException e) {
+                // BundleContext is no longer valid
+            }
+        }
+    }
+
+    /**
+     * Get mark of the current end of journal. Events recorded later have sequence equal or greater than mark.
+     *
+     * @return mark
+     * @since 1.3
+     */
+    public synchronized long mark() {
+        return sequence;
+    }
+
+    /**
+     * Find first ConfigurationEvent from mark
+     *
+     * @param mark          mark
+     * @param eventTypeMask ConfigurationEvent type mask
+     * @param pid           PID (could be null)
+     * @param factoryPid    FactoryPID (could be null)
+     * @param location      bundle location (could be null)
+     * @return ConfigurationEvent or <code>null</code>
+     * @since 1.3
+     */
+    public synchronized ConfigurationEvent findConfigurationEvent(long mark, int eventTypeMask, String pid, String factoryPid, String location) {
+        if (records.isEmpty() || records.getLast().sequence < mark) {
+            return null;
+        }
+        for (Record record : records) {
+            if (record.sequence >= mark && ConfigurationAdminUtils.matches(record.event, eventTypeMask, pid, factoryPid, location)) {
+                return record.event;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Wait for ConfigurationEvent from mark
+     *
+     * @param mark            mark
+     * @param eventTypeMask   ConfigurationEvent type mask
+     * @param pid             PID (could be null)
+     * @param factoryPid      FactoryPID (could be null)
+     * @param location        bundle location (could be null)
+     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
+     * @return ConfigurationEvent or <code>null</code>
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @since 1.3
+     */
+    public ConfigurationEvent waitForConfigurationEvent(long mark, int eventTypeMask, String pid, String factoryPid, String location, long timeoutInMillis) {
+        return waitForConfigurationEvent(mark, eventTypeMask, pid, factoryPid, location, timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Wait for ConfigurationEvent from mark. Events recorded after mark and before the call
+     * are returned without waiting.
+     *
+     * @param mark          mark
+     * @param eventTypeMask ConfigurationEvent type mask
+     * @param pid           PID (could be null)
+     * @param factoryPid    FactoryPID (could be null)
+     * @param location      bundle location (could be null)
+     * @param timeout       time interval to wait. If zero, the method will wait indefinitely.
+     * @param timeUnit      time unit for the time interval
+     * @return ConfigurationEvent or <code>null</code>
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>timeUnit</code> is <code>null</code>
+     * @since 1.3
+     */
+    public synchronized ConfigurationEvent waitForConfigurationEvent(long mark, int eventTypeMask, String pid, String factoryPid, String location,
+                                                                     long timeout, TimeUnit timeUnit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+        long timeoutInNanos = timeUnit.toNanos(timeout);
+        long start = System.nanoTime();
+        try {
+            while (true) {
+                ConfigurationEvent event = findConfigurationEvent(mark, eventTypeMask, pid, factoryPid, location);
+                if (event != null) {
+                    return event;
+                }
+                if (timeoutInNanos == 0) {
+                    wait();
+                } else {
+                    long remaining = timeoutInNanos - (System.nanoTime() - start);
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                    NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+        } catch (InterruptedException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Wait for ConfigurationEvent from mark
+     *
+     * @param mark          mark
+     * @param eventTypeMask ConfigurationEvent type mask
+     * @param pid           PID (could be null)
+     * @param factoryPid    FactoryPID (could be null)
+     * @param location      bundle location (could be null)
+     * @param deadline      deadline shared by consecutive waits
+     * @return ConfigurationEvent or <code>null</code>
+     * @throws NullPointerException If <code>deadline</code> is <code>null</code>
+     * @since 1.3
+     */
+    public ConfigurationEvent waitForConfigurationEvent(long mark, int eventTypeMask, String pid, String factoryPid, String location, Deadline deadline) {
+        return waitForConfigurationEvent(mark, eventTypeMask, pid, factoryPid, location, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Get PIDs with recorded propagation latencies
+     *
+     * @return sorted set of PIDs
+     * @since 1.3
+     */
+    public synchronized Set<String> getPids() {
+        return new TreeSet<String>(latencies.keySet());
+    }
+
+    /**
+     * Get number of propagation latency samples of PID
+     *
+     * @param pid PID
+     * @return number of samples, at most {@link #MAX_SAMPLES}
+     * @since 1.3
+     */
+    public synchronized int getSampleCount(String pid) {
+        Samples samples = latencies.get(pid);
+        return samples != null ? samples.size() : 0;
+    }
+
+    /**
+     * Get percentile of propagation latency of PID, i.e. time from an update or delete call
+     * of <code>ConfigurationAdminUtils</code> to the ConfigurationEvent it caused
+     *
+     * @param pid        PID
+     * @param percentile percentile, e.g. 50 or 99
+     * @param timeUnit   time unit of result
+     * @return latency or <code>-1</code> if no latency is recorded for PID
+     * @throws IllegalArgumentException If the value of percentile is not in range (0, 100]
+     * @throws NullPointerException     If <code>timeUnit</code> is <code>null</code>
+     * @since 1.3
+     */
+    public synchronized long getLatency(String pid, double percentile, TimeUnit timeUnit) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile value is out of range");
+        }
+        Samples samples = latencies.get(pid);
+        if (samples == null) {
+            return -1;
+        }
+        return timeUnit.convert(samples.percentile(percentile), NANOSECONDS);
+    }
+
+    /**
+     * Get report of p50 and p99 propagation latencies of all PIDs
+     *
+     * @return report, one line per PID
+     */
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Samples> entry : latencies.entrySet()) {
+            builder.append(String.format("%s: p50=%sms p99=%sms samples=%s%n", entry.getKey(),
+                    MILLISECONDS.convert(entry.getValue().percentile(50), NANOSECONDS),
+                    MILLISECONDS.convert(entry.getValue().percentile(99), NANOSECONDS),
+                    entry.getValue().size()));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Notify started journals about configuration update or delete that will cause ConfigurationEvent
+     *
+     * @param pid  PID
+     * @param type expected ConfigurationEvent type
+     * @return timestamp of request
+     */
+    static long requested(String pid, int type) {
+        long timestamp = System.nanoTime();
+        for (ConfigurationEventJournal journal : getJournals()) {
+            journal.request(pid, type, timestamp);
+        }
+        return timestamp;
+    }
+
+    /**
+     * Notify started journals that configuration update or delete failed and will cause no ConfigurationEvent
+     *
+     * @param pid       PID
+     * @param type      expected ConfigurationEvent type
+     * @param timestamp timestamp of request
+     */
+    static void failed(String pid, int type, long timestamp) {
+        for (ConfigurationEventJournal journal : getJournals()) {
+            journal.cancel(pid, type, timestamp);
+        }
+    }
+
+    private static ConfigurationEventJournal[] getJournals() {
+        synchronized (JOURNALS) {
+            return JOURNALS.values().toArray(new ConfigurationEventJournal[JOURNALS.size()]);
+        }
+    }
+
+    synchronized void request(String pid, int type, long timestamp) {
+        String key = key(pid, type);
+        LinkedList<Long> pending = requests.get(key);
+        if (pending == null) {
+            pending = new LinkedList<Long>();
+            requests.put(key, pending);
+        } else if (pending.size() >= MAX_PENDING_REQUESTS) {
+            pending.removeFirst();
+        }
+        pending.addLast(timestamp);
+    }
+
+    synchronized void cancel(String pid, int type, long timestamp) {
+        String key = key(pid, type);
+        LinkedList<Long> pending = requests.get(key);
+        if (pending != null) {
+            pending.remove(Long.valueOf(timestamp));
+            if (pending.isEmpty()) {
+                requests.remove(key);
+            }
+        }
+    }
+
+    synchronized void record(ConfigurationEvent event, long timestamp) {
+        records.addLast(new Record(sequence++, event));
+        if (records.size() > capacity) {
+            records.removeFirst();
+        }
+        String key = key(event.getPid(), event.getType());
+        LinkedList<Long> pending = requests.get(key);
+        if (pending != null) {
+            long expired = timestamp - MILLISECONDS.toNanos(PENDING_REQUEST_TIMEOUT);
+            while (!pending.isEmpty() && pending.getFirst() - expired < 0) {
+                pending.removeFirst();
+            }
+            if (!pending.isEmpty()) {
+                Long requested = pending.removeFirst();
+                Samples samples = latencies.get(event.getPid());
+                if (samples == null) {
+                    samples = new Samples();
+                    latencies.put(event.getPid(), samples);
+                }
+                samples.add(timestamp - requested);
+            }
+            if (pending.isEmpty()) {
+                requests.remove(key);
+            }
+        }
+        notifyAll();
+    }
+
+    private static String key(String pid, int type) {
+        return type + ":" + pid;
+    }
+
+    private static final class Record {
+        private final long sequence;
+        private final ConfigurationEvent event;
+
+        private Record(long sequence, ConfigurationEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+
+    /**
+     * Bounded ring of latency samples in nanos
+     */
+    private static final class Samples {
+        private final long[] values = new long[MAX_SAMPLES];
+        private int count;
+
+        private void add(long value) {
+            values[count++ % values.length] = value;
+        }
+
+        private int size() {
+            return Math.min(count, values.length);
+        }
+
+        private long percentile(double percentile) {
+            long[] sorted = new long[size()];
+            System.arraycopy(values, 0, sorted, 0, sorted.length);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+            return sorted[Math.max(rank, 1) - 1];
+        }
+    }
+}
@@ -16,6 +16,10 @@
 
 package org.knowhowlab.osgi.testing.utils.cmpn;
 
+import org.knowhowlab.osgi.testing.utils.Deadline;
+import org.knowhowlab.osgi.testing.utils.OperationEvent;
+import org.knowhowlab.osgi.testing.utils.OperationProbe;
+import org.knowhowlab.osgi.testing.utils.Promise;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Filter;
 import org.osgi.framework.ServiceRegistration;
@@ -29,12 +33,18 @@ import java.util.Map;
 import java.util.concurrent.*;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.knowhowlab.osgi.testing.utils.AsyncUtils.execute;
+import static org.knowhowlab.osgi.testing.utils.AsyncUtils.schedule;
+import static org.knowhowlab.osgi.testing.utils.LatchUtils.await;
 import static org.knowhowlab.osgi.testing.utils.ServiceUtils.getService;
 import static org.osgi.service.event.EventConstants.EVENT_FILTER;
 import static org.osgi.service.event.EventConstants.EVENT_TOPIC;
 
 /**
  * OSGi EventAdmin utilities class
+ * <p/>
+ * Wait methods are served from {@link EventJournal} if it is started for the BundleContext,
+ * otherwise every wait registers its own EventHandler.
  *
  * @author dpishchukhin
  * @see org.osgi.framework.Bundle
@@ -42,6 +52,7 @@ import static org.osgi.service.event.EventConstants.EVENT_TOPIC;
  * @see org.osgi.service.event.Event
  * @see org.osgi.service.event.EventConstants
  * @see org.osgi.service.event.EventHandler
+ * @see EventJournal
  */
 public class EventAdminUtils {
     /**
@@ -274,12 +285,12 @@ public class EventAdminUtils {
         if (eventAdmin == null) {
             throw new NullPointerException("EventAdmin is null");
         }
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<Object>() {
+        return schedule(OperationProbe.wrap("EventAdminUtils.postEvent", event, new Callable<Object>() {
             public Object call() throws Exception {
                 eventAdmin.postEvent(event);
                 return null;
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -506,12 +517,12 @@ public class EventAdminUtils {
         if (eventAdmin == null) {
             throw new NullPointerException("EventAdmin is null");
         }
-        return Executors.newSingleThreadScheduledExecutor().schedule(new Callable<Object>() {
+        return schedule(OperationProbe.wrap("EventAdminUtils.sendEvent", event, new Callable<Object>() {
             public Object call() throws Exception {
                 eventAdmin.sendEvent(event);
                 return null;
             }
-        }, delay, timeUnit);
+        }), delay, timeUnit);
     }
 
     /**
@@ -587,6 +598,20 @@ public class EventAdminUtils {
         return waitForEvent(bc, topic, null, timeout, timeUnit);
     }
 
+    /**
+     * Wait for Event with topic
+     *
+     * @param bc       BundleContext
+     * @param topic    topic
+     * @param deadline deadline shared by consecutive waits
+     * @return Event or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Event waitForEvent(BundleContext bc, String topic, Deadline deadline) {
+        return waitForEvent(bc, topic, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Wait for Event with topic and filter
      *
@@ -600,9 +625,16 @@ public class EventAdminUtils {
      * @since 1.0
      */
     public static Event waitForEvent(BundleContext bc, String topic, Filter filter, long timeout, TimeUnit timeUnit) {
+        long timeoutInMillis = timeUnit.toMillis(timeout);
+        EventJournal journal = EventJournal.getJournal(bc);
+        if (journal != null && topic != null) {
+            long start = System.nanoTime();
+            Event event = journal.waitForEvent(journal.mark(), topic, filter, timeoutInMillis, MILLISECONDS);
+            OperationProbe.record(bc, OperationEvent.WAIT, "EventAdminUtils.waitForEvent", topic, timeoutInMillis, start, event != null);
+            return event;
+        }
         CountDownLatch latch = new CountDownLatch(1);
 
-        long timeoutInMillis = timeUnit.toMillis(timeout);
         EventHandlerImpl handler = new EventHandlerImpl(latch);
         Dictionary<String, Object> props = new Hashtable<String, Object>();
         if (topic != null) {
@@ -613,15 +645,34 @@ public class EventAdminUtils {
         }
         ServiceRegistration registration = bc.registerService(EventHandler.class.getName(), handler, props);
 
+        long start = System.nanoTime();
+        Event event = null;
         try {
-            return waitForEvent(handler, timeoutInMillis, latch);
+            event = waitForEvent(handler, timeoutInMillis, latch);
+            return event;
         } catch (InterruptedException e) {
             return null;
         } finally {
             registration.unregister();
+            OperationProbe.record(bc, OperationEvent.WAIT, "EventAdminUtils.waitForEvent", topic, timeoutInMillis, start, event != null);
         }
     }
 
+    /**
+     * Wait for Event with topic and filter
+     *
+     * @param bc       BundleContext
+     * @param topic    topic
+     * @param filter   filter
+     * @param deadline deadline shared by consecutive waits
+     * @return Event or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Event waitForEvent(BundleContext bc, String topic, Filter filter, Deadline deadline) {
+        return waitForEvent(bc, topic, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Wait for Event with topics
      *
@@ -637,6 +688,20 @@ public class EventAdminUtils {
         return waitForEvent(bc, topics, null, timeout, timeUnit);
     }
 
+    /**
+     * Wait for Event with topics
+     *
+     * @param bc       BundleContext
+     * @param topics   topics
+     * @param deadline deadline shared by consecutive waits
+     * @return Event or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Event waitForEvent(BundleContext bc, String[] topics, Deadline deadline) {
+        return waitForEvent(bc, topics, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
     /**
      * Wait for Event with topics and filter
      *
@@ -650,9 +715,16 @@ public class EventAdminUtils {
      * @since 1.0
      */
     public static Event waitForEvent(BundleContext bc, String[] topics, Filter filter, long timeout, TimeUnit timeUnit) {
+        long timeoutInMillis = timeUnit.toMillis(timeout);
+        EventJournal journal = EventJournal.getJournal(bc);
+        if (journal != null && topics != null) {
+            long start = System.nanoTime();
+            Event event = journal.waitForEvent(journal.mark(), topics, filter, timeoutInMillis, MILLISECONDS);
+            OperationProbe.record(bc, OperationEvent.WAIT, "EventAdminUtils.waitForEvent", topics, timeoutInMillis, start, event != null);
+            return event;
+        }
         CountDownLatch latch = new CountDownLatch(1);
 
-        long timeoutInMillis = timeUnit.toMillis(timeout);
         EventHandlerImpl handler = new EventHandlerImpl(latch);
         Dictionary<String, Object> props = new Hashtable<String, Object>();
         if (topics != null) {
@@ -663,21 +735,119 @@ public class EventAdminUtils {
         }
         ServiceRegistration registration = bc.registerService(EventHandler.class.getName(), handler, props);
 
+        long start = System.nanoTime();
+        Event event = null;
         try {
-            return waitForEvent(handler, timeoutInMillis, latch);
+            event = waitForEvent(handler, timeoutInMillis, latch);
+            return event;
         } catch (InterruptedException e) {
             return null;
         } finally {
             registration.unregister();
+            OperationProbe.record(bc, OperationEvent.WAIT, "EventAdminUtils.waitForEvent", topics, timeoutInMillis, start, event != null);
         }
     }
 
+    /**
+     * Wait for Event with topics and filter
+     *
+     * @param bc       BundleContext
+     * @param topics   topics
+     * @param filter   filter
+     * @param deadline deadline shared by consecutive waits
+     * @return Event or <code>null</code>
+     * @throws NullPointerException If <code>bc</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Event waitForEvent(BundleContext bc, String[] topics, Filter filter, Deadline deadline) {
+        return waitForEvent(bc, topics, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Send an Event asynchronously
+     *
+     * @param eventAdmin EventAdmin
+     * @param event      event
+     * @return A <code>Promise&lt;Event&gt;</code> that is resolved with the event after its delivery.
+     * @throws NullPointerException If <code>eventAdmin</code> is <code>null</code>
+     * @since 1.3
+     */
+    public static Promise<Event> sendEventPromise(final EventAdmin eventAdmin, final Event event) {
+        if (eventAdmin == null) {
+            throw new NullPointerException("EventAdmin is null");
+        }
+        return execute(OperationProbe.wrap("EventAdminUtils.sendEventPromise", event, new Callable<Event>() {
+            public Event call() throws Exception {
+                eventAdmin.sendEvent(event);
+                return event;
+            }
+        }));
+    }
+
+    /**
+     * Get a promise of Event with topic.
+     * The promise is completed from an EventHandler callback.
+     *
+     * @param bc       BundleContext
+     * @param topic    topic
+     * @param filter   filter (could be null)
+     * @param timeout  time interval to wait. If zero, the promise never times out.
+     * @param timeUnit time unit for the time interval
+     * @return A <code>Promise&lt;Event&gt;</code> that fails with <code>TimeoutException</code> if no event is
+     *         received within timeout
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>bc</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Promise<Event> whenEvent(BundleContext bc, String topic, Filter filter, long timeout, TimeUnit timeUnit) {
+        return whenEvent(bc, topic != null ? new String[]{topic} : null, filter, timeout, timeUnit);
+    }
+
+    /**
+     * Get a promise of Event with topics.
+     * The promise is completed from an EventHandler callback.
+     *
+     * @param bc       BundleContext
+     * @param topics   topics
+     * @param filter   filter (could be null)
+     * @param timeout  time interval to wait. If zero, the promise never times out.
+     * @param timeUnit time unit for the time interval
+     * @return A <code>Promise&lt;Event&gt;</code> that fails with <code>TimeoutException</code> if no event is
+     *         received within timeout
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>bc</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public static Promise<Event> whenEvent(BundleContext bc, String[] topics, Filter filter, long timeout, TimeUnit timeUnit) {
+        if (timeUnit == null) {
+            throw new NullPointerException("timeUnit is null");
+        }
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+        final Promise<Event> promise = new Promise<Event>();
+        Dictionary<String, Object> props = new Hashtable<String, Object>();
+        if (topics != null) {
+            props.put(EVENT_TOPIC, topics);
+        }
+        if (filter != null) {
+            props.put(EVENT_FILTER, filter.toString());
+        }
+        final ServiceRegistration registration = bc.registerService(EventHandler.class.getName(), new PromiseEventHandler(promise), props);
+        promise.whenComplete(new Promise.Callback<Event>() {
+            public void completed(Event value, Throwable failure) {
+                registration.unregister();
+            }
+        });
+        return promise.withTimeout(timeout, timeUnit);
+    }
+
     private static Event waitForEvent(EventHandlerImpl handler, long timeoutInMillis, CountDownLatch latch)
             throws InterruptedException {
         if (timeoutInMillis < 0) {
             throw new IllegalArgumentException("timeout value is negative");
         }
-        if (latch.await(timeoutInMillis, MILLISECONDS)) {
+        if (await(latch, timeoutInMillis)) {
             return handler.getEvent();
         } else {
             return null;
@@ -702,4 +872,16 @@ public class EventAdminUtils {
             return event;
         }
     }
+
+    private static class PromiseEventHandler implements EventHandler {
+        private final Promise<Event> promise;
+
+        public PromiseEventHandler(Promise<Event> promise) {
+            this.promise = promise;
+        }
+
+        public void handleEvent(Event event) {
+            promise.resolve(event);
+        }
+    }
 }
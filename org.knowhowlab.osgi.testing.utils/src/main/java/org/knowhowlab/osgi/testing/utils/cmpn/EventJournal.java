@@ -0,0 +1,454 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils.cmpn;
+
+import org.knowhowlab.osgi.testing.utils.Deadline;
+import org.osgi.framework.*;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventHandler;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.osgi.service.event.EventConstants.EVENT_TOPIC;
+
+/**
+ * Journal of all EventAdmin events received by one BundleContext.
+ * <p/>
+ * Only one long-lived <code>EventHandler</code> on topic <code>*</code> is registered per BundleContext,
+ * so waiting for events does not register and unregister handler services, which makes EventAdmin
+ * implementations rebuild their handler caches. Events are appended into a buffer bounded by size and age
+ * and indexed by a trie of topic segments, so a wait scans only events of matching topics.
+ * <pre>
+ * EventJournal journal = EventJournal.start(bc);
+ * long mark = journal.mark();
+ * ...
+ * Event event = journal.waitForEvent(mark, "org/example/*", filter, 5, TimeUnit.SECONDS);
+ * </pre>
+ * If journal is started, <code>EventAdminUtils.waitForEvent</code> methods are served from it.
+ * Journal is stopped automatically when the bundle of its BundleContext is stopping.
+ *
+ * @see EventAdminUtils
+ * @since 1.3
+ */
+public class EventJournal {
+    /**
+     * Default maximum number of recorded events
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+    /**
+     * Default maximum age of recorded events in millis
+     */
+    public static final long DEFAULT_MAX_AGE_IN_MILLIS = 60000;
+
+    private static final String WILDCARD = "*";
+
+    private static final Map<BundleContext, EventJournal> JOURNALS = new HashMap<BundleContext, EventJournal>();
+
+    private final BundleContext bc;
+    private final Bundle bundle;
+    private final int maxSize;
+    private final long maxAgeInNanos;
+    private final LinkedList<Record> records = new LinkedList<Record>();
+    private final Node root = new Node();
+    private long sequence;
+    private ServiceRegistration registration;
+
+    private final EventHandler eventHandler = new EventHandler() {
+        public void handleEvent(Event event) {
+            record(event, System.nanoTime());
+        }
+    };
+
+    private final SynchronousBundleListener bundleListener = new SynchronousBundleListener() {
+        public void bundleChanged(BundleEvent event) {
+            if (event.getType() == BundleEvent.STOPPING && bundle.equals(event.getBundle())) {
+                stop(bc);
+            }
+        }
+    };
+
+    private EventJournal(BundleContext bc, int maxSize, long maxAgeInNanos) {
+        this.bc = bc;
+        this.bundle = bc.getBundle();
+        this.maxSize = maxSize;
+        this.maxAgeInNanos = maxAgeInNanos;
+    }
+
+    /**
+     * Start journal of BundleContext with default maximum size and age
+     *
+     * @param bc BundleContext
+     * @return journal
+     * @throws NullPointerException  If <code>bc</code> is <code>null</code>
+     * @throws IllegalStateException If <code>bc</code> is no longer valid
+     * @since 1.3
+     */
+    public static EventJournal start(BundleContext bc) {
+        return start(bc, DEFAULT_MAX_SIZE, DEFAULT_MAX_AGE_IN_MILLIS, MILLISECONDS);
+    }
+
+    /**
+     * Start journal of BundleContext. If journal is already started, existing journal is returned.
+     *
+     * @param bc       BundleContext
+     * @param maxSize  maximum number of recorded events
+     * @param maxAge   maximum age of recorded events. If zero, events never expire.
+     * @param timeUnit time unit for maximum age
+     * @return journal
+     * @throws IllegalArgumentException If the value of maxSize is not positive or the value of maxAge is negative
+     * @throws NullPointerException     If <code>bc</code> or <code>timeUnit</code> are <code>null</code>
+     * @throws IllegalStateException    If <code>bc</code> is no longer valid
+     * @since 1.3
+     */
+    public static EventJournal start(BundleContext bc, int maxSize, long maxAge, TimeUnit timeUnit) {
+        if (bc == null) {
+            throw new NullPointerException("bc is null");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize value is not positive");
+        }
+        if (maxAge < 0) {
+            throw new IllegalArgumentException("maxAge value is negative");
+        }
+        long maxAgeInNanos = timeUnit.toNanos(maxAge);
+        synchronized (JOURNALS) {
+            EventJournal journal = JOURNALS.get(bc);
+            if (journal == null) {
+                journal = new EventJournal(bc, maxSize, maxAgeInNanos);
+                Dictionary<String, Object> props = new Hashtable<String, Object>();
+                props.put(EVENT_TOPIC, WILDCARD);
+                bc.addBundleListener(journal.bundleListener);
+                journal.registration = bc.registerService(EventHandler.class.getName(), journal.eventHandler, props);
+                JOURNALS.put(bc, journal);
+            }
+            return journal;
+        }
+    }
+
+    /**
+     * Get started journal of BundleContext
+     *
+     * @param bc BundleContext
+     * @return journal or <code>null</code> if journal is not started
+     * @since 1.3
+     */
+    public static EventJournal getJournal(BundleContext bc) {
+        synchronized (JOURNALS) {
+            return JOURNALS.isEmpty() ? null : JOURNALS.get(bc);
+        }
+    }
+
+    /**
+     * Stop journal of BundleContext and unregister its EventHandler
+     *
+     * @param bc BundleContext
+     * @since 1.3
+     */
+    public static void stop(BundleContext bc) {
+        EventJournal journal;
+        synchronized (JOURNALS) {
+            journal = JOURNALS.remove(bc);
+        }
+        if (journal != null) {
+            try {
+                if (journal.registration != null) {
+                    journal.registration.unregister();
+                }
+                bc.removeBundleListener(journal.bundleListener);
+            } catch (IllegalStateException e) {
+                // BundleContext is no longer valid
+            }
+        }
+    }
+
+    /**
+     * Get mark of the current end of journal. Events recorded later have sequence equal or greater than mark.
+     *
+     * @return mark
+     * @since 1.3
+     */
+    public synchronized long mark() {
+        return sequence;
+    }
+
+    /**
+     * Get number of recorded events
+     *
+     * @return number of recorded events
+     * @since 1.3
+     */
+    public synchronized int size() {
+        evictExpired(System.nanoTime());
+        return records.size();
+    }
+
+    /**
+     * Find first Event from mark with topic and filter
+     *
+     * @param mark   mark
+     * @param topic  topic or topic pattern with trailing <code>*</code>
+     * @param filter filter (could be null)
+     * @return Event or <code>null</code>
+     * @throws NullPointerException If <code>topic</code> is <code>null</code>
+     * @since 1.3
+     */
+    public synchronized Event findEvent(long mark, String topic, Filter filter) {
+        return findEvent(mark, new String[]{topic}, filter);
+    }
+
+    /**
+     * Find first Event from mark with topics and filter
+     *
+     * @param mark   mark
+     * @param topics topics or topic patterns with trailing <code>*</code>
+     * @param filter filter (could be null)
+     * @return Event or <code>null</code>
+     * @throws NullPointerException If <code>topics</code> are <code>null</code>
+     * @since 1.3
+     */
+    public synchronized Event findEvent(long mark, String[] topics, Filter filter) {
+        evictExpired(System.nanoTime());
+        Record found = null;
+        for (String topic : topics) {
+            Node node = root.find(topic);
+            if (node != null) {
+                Record record = node.find(mark, filter, topic.endsWith(WILDCARD));
+                if (record != null && (found == null || record.sequence < found.sequence)) {
+                    found = record;
+                }
+            }
+        }
+        return found != null ? found.event : null;
+    }
+
+    /**
+     * Wait for Event from mark with topic and filter
+     *
+     * @param mark     mark
+     * @param topic    topic or topic pattern with trailing <code>*</code>
+     * @param filter   filter (could be null)
+     * @param timeout  time interval to wait. If zero, the method will wait indefinitely.
+     * @param timeUnit time unit for the time interval
+     * @return Event or <code>null</code>
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>topic</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public Event waitForEvent(long mark, String topic, Filter filter, long timeout, TimeUnit timeUnit) {
+        return waitForEvent(mark, new String[]{topic}, filter, timeout, timeUnit);
+    }
+
+    /**
+     * Wait for Event from mark with topic and filter
+     *
+     * @param mark     mark
+     * @param topic    topic or topic pattern with trailing <code>*</code>
+     * @param filter   filter (could be null)
+     * @param deadline deadline shared by consecutive waits
+     * @return Event or <code>null</code>
+     * @throws NullPointerException If <code>topic</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public Event waitForEvent(long mark, String topic, Filter filter, Deadline deadline) {
+        return waitForEvent(mark, topic, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Wait for Event from mark with topics and filter
+     *
+     * @param mark            mark
+     * @param topics          topics or topic patterns with trailing <code>*</code>
+     * @param filter          filter (could be null)
+     * @param timeoutInMillis time interval in millis to wait. If zero, the method will wait indefinitely.
+     * @return Event or <code>null</code>
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>topics</code> are <code>null</code>
+     * @since 1.3
+     */
+    public Event waitForEvent(long mark, String[] topics, Filter filter, long timeoutInMillis) {
+        return waitForEvent(mark, topics, filter, timeoutInMillis, MILLISECONDS);
+    }
+
+    /**
+     * Wait for Event from mark with topics and filter. Events recorded after mark and before the call
+     * are returned without waiting.
+     *
+     * @param mark     mark
+     * @param topics   topics or topic patterns with trailing <code>*</code>
+     * @param filter   filter (could be null)
+     * @param timeout  time interval to wait. If zero, the method will wait indefinitely.
+     * @param timeUnit time unit for the time interval
+     * @return Event or <code>null</code>
+     * @throws IllegalArgumentException If the value of timeout is negative
+     * @throws NullPointerException     If <code>topics</code> or <code>timeUnit</code> are <code>null</code>
+     * @since 1.3
+     */
+    public synchronized Event waitForEvent(long mark, String[] topics, Filter filter, long timeout, TimeUnit timeUnit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout value is negative");
+        }
+        long timeoutInNanos = timeUnit.toNanos(timeout);
+        long start = System.nanoTime();
+        try {
+            while (true) {
+                Event event = findEvent(mark, topics, filter);
+                if (event != null) {
+                    return event;
+                }
+                if (timeoutInNanos == 0) {
+                    wait();
+                } else {
+                    long remaining = timeoutInNanos - (System.nanoTime() - start);
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                    NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+        } catch (InterruptedException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Wait for Event from mark with topics and filter
+     *
+     * @param mark     mark
+     * @param topics   topics or topic patterns with trailing <code>*</code>
+     * @param filter   filter (could be null)
+     * @param deadline deadline shared by consecutive waits
+     * @return Event or <code>null</code>
+     * @throws NullPointerException If <code>topics</code> or <code>deadline</code> are <code>null</code>
+     * @since 1.3
+     */
+    public Event waitForEvent(long mark, String[] topics, Filter filter, Deadline deadline) {
+        return waitForEvent(mark, topics, filter, deadline.getTimeoutInMillis(), MILLISECONDS);
+    }
+
+    synchronized void record(Event event, long timestamp) {
+        Record record = new Record(sequence++, timestamp, event);
+        Node node = root.getOrCreate(event.getTopic());
+        records.addLast(record);
+        node.records.addLast(record);
+        record.node = node;
+        while (records.size() > maxSize) {
+            evict();
+        }
+        evictExpired(timestamp);
+        notifyAll();
+    }
+
+    private void evictExpired(long now) {
+        if (maxAgeInNanos > 0) {
+            while (!records.isEmpty() && now - records.getFirst().timestamp > maxAgeInNanos) {
+                evict();
+            }
+        }
+    }
+
+    private void evict() {
+        Record record = records.removeFirst();
+        // journal and topic lists have the same order, so the oldest record is the first one of its topic
+        record.node.records.removeFirst();
+    }
+
+    private static final class Record {
+        private final long sequence;
+        private final long timestamp;
+        private final Event event;
+        private Node node;
+
+        private Record(long sequence, long timestamp, Event event) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.event = event;
+        }
+    }
+
+    /**
+     * Trie node of one topic segment
+     */
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<String, Node>();
+        private final LinkedList<Record> records = new LinkedList<Record>();
+
+        private Node getOrCreate(String topic) {
+            Node node = this;
+            for (String segment : topic.split("/")) {
+                Node child = node.children.get(segment);
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(segment, child);
+                }
+                node = child;
+            }
+            return node;
+        }
+
+        private Node find(String topic) {
+            if (WILDCARD.equals(topic)) {
+                return this;
+            }
+            String path = topic.endsWith("/" + WILDCARD) ? topic.substring(0, topic.length() - 2) : topic;
+            Node node = this;
+            for (String segment : path.split("/")) {
+                node = node.children.get(segment);
+                if (node == null) {
+                    return null;
+                }
+            }
+            return node;
+        }
+
+        /**
+         * Find first record from mark of this node or, if <code>subtree</code> is true, of its descendants
+         */
+        private Record find(long mark, Filter filter, boolean subtree) {
+            Record found = null;
+            if (!subtree) {
+                found = first(mark, filter);
+            } else {
+                for (Node child : children.values()) {
+                    Record record = child.first(mark, filter);
+                    Record descendant = child.find(mark, filter, true);
+                    if (descendant != null && (record == null || descendant.sequence < record.sequence)) {
+                        record = descendant;
+                    }
+                    if (record != null && (found == null || record.sequence < found.sequence)) {
+                        found = record;
+                    }
+                }
+            }
+            return found;
+        }
+
+        private Record first(long mark, Filter filter) {
+            if (records.isEmpty() || records.getLast().sequence < mark) {
+                return null;
+            }
+            for (Record record : records) {
+                if (record.sequence >= mark && (filter == null || record.event.matches(filter))) {
+                    return record;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2010-2013 Dmytro Pishchukhin (http://knowhowlab.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.knowhowlab.osgi.testing.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.Timespan;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDK Flight Recorder support of {@link OperationProbe}.
+ * <p/>
+ * If <code>jdk.jfr</code> module is present, a listener that commits one JFR event per completed operation
+ * is registered in {@link OperationProbe} while a recording is running. Without running recordings
+ * the listener is unregistered, so the probe keeps its cost of one check per operation.
+ *
+ * @see OperationProbe
+ * @since 1.3
+ */
+final class FlightRecorderSupport {
+    private static final OperationListener LISTENER = new OperationListener() {
+        public void operationCompleted(OperationEvent event) {
+            OperationRecord record;
+            switch (event.getType()) {
+                case OperationEvent.WAIT:
+                    record = new WaitRecord();
+                    break;
+                case OperationEvent.ASYNC:
+                    record = new AsyncRecord();
+                    break;
+                default:
+                    record = new AssertRecord();
+            }
+            if (record.isEnabled()) {
+                record.operation = event.getName();
+                record.target = event.getTargetAsString();
+                record.timeout = event.getTimeoutInMillis();
+                record.waitTime = event.getDuration(TimeUnit.NANOSECONDS);
+                record.successful = event.isSuccessful();
+                record.commit();
+            }
+        }
+    };
+
+    /**
+     * Utility class. Only static methods are available.
+     */
+    private FlightRecorderSupport() {
+    }
+
+    /**
+     * Install JDK Flight Recorder listener of completed operations
+     */
+    static void install() {
+        try {
+            FlightRecorder.addListener(new FlightRecorderListener() {
+                @Override
+                public void recorderInitialized(FlightRecorder recorder) {
+                    update(recorder);
+                }
+
+                @Override
+                public void recordingStateChanged(Recording recording) {
+                    update(FlightRecorder.getFlightRecorder());
+                }
+            });
+        } catch (LinkageError e) {
+            // jdk.jfr module is not available or not visible to bundle
+        } catch (SecurityException e) {
+            // access to flight recorder is denied
+        }
+    }
+
+    private static void update(FlightRecorder recorder) {
+        for (Recording recording : recorder.getRecordings()) {
+            if (recording.getState() == RecordingState.RUNNING) {
+                OperationProbe.addListener(LISTENER);
+                return;
+            }
+        }
+        OperationProbe.removeListener(LISTENER);
+    }
+
+    @Category("OSGi Testing")
+    abstract static class OperationRecord extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Target")
+        @Description("Filter, class name, symbolic name, bundle, topic or PID")
+        String target;
+
+        @Label("Timeout")
+        @Description("Requested timeout, zero for infinite wait or negative value if operation has no timeout")
+        @Timespan(Timespan.MILLISECONDS)
+        long timeout;
+
+        @Label("Wait Time")
+        @Description("Actual duration of operation")
+        @Timespan(Timespan.NANOSECONDS)
+        long waitTime;
+
+        @Label("Successful")
+        boolean successful;
+    }
+
+    @Name("org.knowhowlab.osgi.testing.Wait")
+    @Label("Wait")
+    @Description("Completed wait method of testing utilities")
+    static final class WaitRecord extends OperationRecord {
+    }
+
+    @Name("org.knowhowlab.osgi.testing.Async")
+    @Label("Async Operation")
+    @Description("Completed async operation of testing utilities")
+    static final class AsyncRecord extends OperationRecord {
+    }
+
+    @Name("org.knowhowlab.osgi.testing.Assert")
+    @Label("Assertion")
+    @Description("Completed assertion")
+    static final class AssertRecord extends OperationRecord {
+    }
+}
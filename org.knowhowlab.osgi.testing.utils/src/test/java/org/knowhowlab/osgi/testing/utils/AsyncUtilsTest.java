@@ -0,0 +1,88 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.*;
+
+public class AsyncUtilsTest {
+    @After
+    public void tearDown() {
+        AsyncUtils.shutdown();
+        AsyncUtils.setAsyncExecutor(null);
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        Promise<String> promise = AsyncUtils.execute(new Callable<String>() {
+            public String call() throws Exception {
+                return "done";
+            }
+        });
+        Assert.assertEquals("done", promise.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testQueuedTaskIsCancelledOnShutdown() throws Exception {
+        AsyncUtils.setAsyncExecutor(new DefaultAsyncExecutor(1));
+        final CountDownLatch started = new CountDownLatch(1);
+        Promise<String> running = AsyncUtils.execute(new Callable<String>() {
+            public String call() throws Exception {
+                started.countDown();
+                Thread.sleep(10000);
+                return "running";
+            }
+        });
+        Promise<String> queued = AsyncUtils.execute(new Callable<String>() {
+            public String call() throws Exception {
+                return "queued";
+            }
+        });
+        Assert.assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        AsyncUtils.shutdown();
+        try {
+            running.get(1, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof InterruptedException);
+        }
+        try {
+            queued.get(1, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (CancellationException e) {
+            Assert.assertTrue(queued.isCancelled());
+        }
+    }
+
+    @Test
+    public void testRejectedTaskFailsPromise() throws Exception {
+        DefaultAsyncExecutor executor = new DefaultAsyncExecutor(1);
+        executor.shutdown();
+        AsyncUtils.setAsyncExecutor(executor);
+        Promise<String> promise = AsyncUtils.execute(new Callable<String>() {
+            public String call() throws Exception {
+                return "rejected";
+            }
+        });
+        try {
+            promise.get(1, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Test
+    public void testQueuedFutureIsCancelledOnShutdown() throws Exception {
+        DefaultAsyncExecutor executor = new DefaultAsyncExecutor(1);
+        Future<String> future = executor.schedule(new Callable<String>() {
+            public String call() throws Exception {
+                return "delayed";
+            }
+        }, 1, TimeUnit.HOURS);
+        executor.shutdown();
+        Assert.assertTrue(future.isCancelled());
+    }
+}
@@ -0,0 +1,81 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class BundleEventJournalTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private BundleContext bc;
+    private BundleEventJournal journal;
+
+    @Before
+    public void setUp() {
+        bc = TestProxies.bundleContext();
+        journal = BundleEventJournal.start(bc, 8);
+    }
+
+    @After
+    public void tearDown() {
+        BundleEventJournal.stop(bc);
+    }
+
+    @Test
+    public void testTransitionTime() {
+        journal.record(1, "a", BundleEvent.INSTALLED, 0);
+        journal.record(1, "a", BundleEvent.RESOLVED, 10 * MS);
+        journal.record(1, "a", BundleEvent.STARTING, 20 * MS);
+        journal.record(1, "a", BundleEvent.STARTED, 620 * MS);
+        Assert.assertEquals(620, journal.getTransitionTime(1, BundleEvent.INSTALLED, BundleEvent.STARTED, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(600, journal.getTransitionTime(1, BundleEvent.STARTING, BundleEvent.STARTED, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(-1, journal.getTransitionTime(2, BundleEvent.STARTING, BundleEvent.STARTED, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(4, journal.getEventTypes(1).length);
+    }
+
+    @Test
+    public void testSlowTransitions() {
+        journal.record(1, "a", BundleEvent.STARTING, 0);
+        journal.record(2, "b", BundleEvent.STARTING, 0);
+        journal.record(3, "c", BundleEvent.STARTING, 0);
+        journal.record(1, "a", BundleEvent.STARTED, 700 * MS);
+        journal.record(2, "b", BundleEvent.STARTED, 100 * MS);
+        journal.record(3, "c", BundleEvent.STARTED, 900 * MS);
+        List<BundleEventJournal.Transition> slow = journal.getSlowTransitions(BundleEvent.STARTING, BundleEvent.STARTED, 500, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(2, slow.size());
+        Assert.assertEquals("c", slow.get(0).getSymbolicName());
+        Assert.assertEquals(700, slow.get(1).getDuration(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testOverwrite() {
+        for (int i = 0; i < 10; i++) {
+            journal.record(i, "b" + i, BundleEvent.INSTALLED, i);
+        }
+        Assert.assertEquals(8, journal.size());
+        Assert.assertEquals(0, journal.getEventTypes(1).length);
+        Assert.assertEquals(1, journal.getEventTypes(2).length);
+    }
+
+    @Test
+    public void testWaitFromMark() throws Exception {
+        long mark = journal.mark();
+        journal.record(5, "e", BundleEvent.STARTED, System.nanoTime());
+        Assert.assertTrue(journal.waitForBundleEvent(mark, 5, BundleEvent.STARTED, 1, TimeUnit.SECONDS));
+        Assert.assertFalse(journal.waitForBundleEvent(journal.mark(), 5, BundleEvent.STARTED, 20));
+        final long next = journal.mark();
+        new Thread() {
+            @Override
+            public void run() {
+                journal.record(5, "e", BundleEvent.STOPPED, System.nanoTime());
+            }
+        }.start();
+        Assert.assertTrue(journal.waitForBundleEvent(next, 5, BundleEvent.STOPPED, 5, TimeUnit.SECONDS));
+    }
+}
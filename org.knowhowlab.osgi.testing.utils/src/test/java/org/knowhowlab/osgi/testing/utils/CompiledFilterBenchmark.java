@@ -0,0 +1,56 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.Filter;
+import org.osgi.framework.FrameworkUtil;
+
+import java.util.Dictionary;
+import java.util.Hashtable;
+
+/**
+ * Compares CompiledFilter with the framework filter implementation on event-like property sets.
+ * Run with <code>main</code>, it is not a unit test.
+ */
+public class CompiledFilterBenchmark {
+    private static final String FILTER = "(&(event.topics=org/example/*)(priority>=5)(|(source=sensor)(source=timer))(!(debug=true)))";
+    private static final int PROPERTY_SETS = 1024;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1000;
+
+    private static long matched;
+
+    public static void main(String[] args) throws Exception {
+        Dictionary[] events = new Dictionary[PROPERTY_SETS];
+        for (int i = 0; i < events.length; i++) {
+            Dictionary<String, Object> properties = new Hashtable<String, Object>();
+            properties.put("event.topics", (i % 3 == 0 ? "org/other/" : "org/example/") + i);
+            properties.put("priority", i % 10);
+            properties.put("source", i % 2 == 0 ? "sensor" : "timer");
+            properties.put("debug", i % 7 == 0);
+            events[i] = properties;
+        }
+        Filter framework = FrameworkUtil.createFilter(FILTER);
+        CompiledFilter compiled = FilterUtils.compile(FILTER);
+        run(framework, events, WARMUP);
+        run(compiled, events, WARMUP);
+        long frameworkTime = run(framework, events, ITERATIONS);
+        long compiledTime = run(compiled, events, ITERATIONS);
+        long matches = ITERATIONS * (long) PROPERTY_SETS;
+        System.out.println(String.format("framework %6.1f ns/match, compiled %6.1f ns/match, matched %d",
+                frameworkTime / (double) matches, compiledTime / (double) matches, matched));
+    }
+
+    private static long run(Filter filter, Dictionary[] events, int iterations) {
+        int count = 0;
+        long start = System.nanoTime();
+        for (int n = 0; n < iterations; n++) {
+            for (Dictionary event : events) {
+                if (filter.match(event)) {
+                    count++;
+                }
+            }
+        }
+        long time = System.nanoTime() - start;
+        matched += count;
+        return time;
+    }
+}
@@ -0,0 +1,160 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.osgi.framework.Filter;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.Version;
+
+import java.util.*;
+
+public class CompiledFilterTest {
+    private static final String[] FILTERS = new String[]{
+            "(name=test)",
+            "(NAME=test)",
+            "(name~=T E S T)",
+            "(name=te*)",
+            "(name=*es*)",
+            "(name=*st)",
+            "(name=t*s*t)",
+            "(name=*)",
+            "(missing=*)",
+            "(count>=10)",
+            "(count<=10)",
+            "(count=12)",
+            "(ratio>=0.5)",
+            "(big=12345678901234567890)",
+            "(flag=true)",
+            "(letter=x)",
+            "(letter~=X)",
+            "(version>=1.2)",
+            "(tags=b)",
+            "(tags=z)",
+            "(list=2)",
+            "(ints=3)",
+            "(ints>=4)",
+            "(longs<=-5)",
+            "(longs=6)",
+            "(shorts>=3)",
+            "(bytes=2)",
+            "(doubles>=2.5)",
+            "(floats<=0.5)",
+            "(chars=b)",
+            "(chars~=C)",
+            "(booleans=true)",
+            "(booleans=x)",
+            "(ints=*)",
+            "(ints=1*)",
+            "(&(name=test)(count>=10))",
+            "(|(name=other)(count<=5))",
+            "(!(name=test))",
+            "(&(name=test)(|(flag=false)(tags=a))(!(missing=*)))",
+            "(escaped=a\\(b\\)\\*)",
+    };
+
+    @Test
+    public void testMatchesFrameworkFilter() throws Exception {
+        Dictionary<String, Object> properties = properties();
+        for (String filter : FILTERS) {
+            boolean expected = FrameworkUtil.createFilter(filter).match(properties);
+            Assert.assertEquals(filter, expected, CompiledFilter.compile(filter).match(properties));
+        }
+    }
+
+    @Test
+    public void testMatchesMap() throws Exception {
+        Map<String, Object> map = new HashMap<String, Object>();
+        Dictionary<String, Object> properties = properties();
+        for (Enumeration<String> keys = properties.keys(); keys.hasMoreElements(); ) {
+            String key = keys.nextElement();
+            map.put(key, properties.get(key));
+        }
+        for (String filter : FILTERS) {
+            CompiledFilter compiled = CompiledFilter.compile(filter);
+            Assert.assertEquals(filter, compiled.match(properties), compiled.matches(map));
+        }
+    }
+
+    @Test
+    public void testCoercionPerType() throws Exception {
+        CompiledFilter filter = CompiledFilter.compile("(value>=10)");
+        Assert.assertTrue(filter.matches(Collections.singletonMap("value", 11)));
+        Assert.assertTrue(filter.matches(Collections.singletonMap("value", 10L)));
+        Assert.assertFalse(filter.matches(Collections.singletonMap("value", 9.5d)));
+        Assert.assertTrue(filter.matches(Collections.singletonMap("value", "2")));
+        Assert.assertTrue(filter.matches(Collections.singletonMap("value", 11)));
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(filter.matches(Collections.singletonMap("value", 10)));
+            Assert.assertFalse(filter.matches(Collections.singletonMap("value", 9L)));
+            Assert.assertTrue(filter.matches(Collections.singletonMap("value", new int[]{1, 10})));
+            Assert.assertFalse(filter.matches(Collections.singletonMap("value", new long[]{1L, 9L})));
+        }
+    }
+
+    @Test
+    public void testInvalidValueDoesNotMatch() throws Exception {
+        CompiledFilter filter = CompiledFilter.compile("(count=abc)");
+        Assert.assertFalse(filter.matches(Collections.singletonMap("count", 12)));
+        Assert.assertFalse(filter.matches(Collections.singletonMap("count", 12)));
+    }
+
+    @Test
+    public void testMatchCase() throws Exception {
+        Dictionary<String, Object> properties = new Hashtable<String, Object>();
+        properties.put("Name", "test");
+        CompiledFilter filter = CompiledFilter.compile("(name=test)");
+        Assert.assertTrue(filter.match(properties));
+        Assert.assertFalse(filter.matchCase(properties));
+    }
+
+    @Test
+    public void testNullProperties() throws Exception {
+        Assert.assertFalse(CompiledFilter.compile("(name=*)").matches(null));
+        Assert.assertTrue(CompiledFilter.compile("(!(name=*))").match((Dictionary) null));
+    }
+
+    @Test
+    public void testToString() throws Exception {
+        Assert.assertEquals("(&(a=1)(b=x\\*y*)(c=*))", CompiledFilter.compile(" ( & (a=1) (b=x\\*y*) (c=*) ) ").toString());
+        Filter filter = FilterUtils.and(FilterUtils.eq("a", "b(c)"), FilterUtils.present("d"));
+        Assert.assertEquals(filter.toString(), FilterUtils.compile(filter).toString());
+        Assert.assertEquals(FilterUtils.compile(filter), FilterUtils.compile(filter.toString()));
+    }
+
+    @Test
+    public void testInvalidSyntax() throws Exception {
+        String[] invalid = new String[]{"", "name=test", "(name=test", "(=test)", "(name<test)", "(&)", "(a=b)(c=d)", "(a=b(c)"};
+        for (String filter : invalid) {
+            try {
+                CompiledFilter.compile(filter);
+                Assert.fail(filter);
+            } catch (InvalidSyntaxException e) {
+                Assert.assertEquals(filter, e.getFilter());
+            }
+        }
+    }
+
+    private static Dictionary<String, Object> properties() {
+        Dictionary<String, Object> properties = new Hashtable<String, Object>();
+        properties.put("name", "test");
+        properties.put("count", 12);
+        properties.put("ratio", 0.75f);
+        properties.put("big", new java.math.BigInteger("12345678901234567890"));
+        properties.put("flag", Boolean.TRUE);
+        properties.put("letter", 'x');
+        properties.put("version", new Version(1, 3, 0));
+        properties.put("tags", new String[]{"a", "b", "c"});
+        properties.put("list", Arrays.asList(1, 2, 3));
+        properties.put("ints", new int[]{1, 2, 3});
+        properties.put("longs", new long[]{6L, 7L});
+        properties.put("shorts", new short[]{1, 2});
+        properties.put("bytes", new byte[]{1, 2});
+        properties.put("doubles", new double[]{1.5d, 2.5d});
+        properties.put("floats", new float[]{0.75f});
+        properties.put("chars", new char[]{'a', 'b', 'c'});
+        properties.put("booleans", new boolean[]{false});
+        properties.put("escaped", "a(b)*");
+        return properties;
+    }
+}
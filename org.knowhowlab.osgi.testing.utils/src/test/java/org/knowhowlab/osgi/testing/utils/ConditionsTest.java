@@ -0,0 +1,47 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+
+import java.util.concurrent.TimeUnit;
+
+public class ConditionsTest {
+    @Test
+    public void testAllOfReturnsOnFirstFailure() {
+        Conditions conditions = Conditions.allOf(TestProxies.bundleContext())
+                .add(condition(new Promise<Object>()))
+                .add(condition(Promise.failed(new IllegalStateException())));
+        long start = System.nanoTime();
+        Assert.assertFalse(conditions.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        Assert.assertEquals(2, conditions.getUnsatisfied().size());
+    }
+
+    @Test
+    public void testAnyOfReturnsWhenAllFailed() {
+        Conditions conditions = Conditions.anyOf(TestProxies.bundleContext())
+                .add(condition(Promise.failed(new IllegalStateException())))
+                .add(condition(Promise.failed(new IllegalStateException())));
+        long start = System.nanoTime();
+        Assert.assertFalse(conditions.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testAllOfResolved() {
+        Conditions conditions = Conditions.allOf(TestProxies.bundleContext())
+                .add(condition(Promise.resolved(1)))
+                .add(condition(Promise.resolved(2)));
+        Assert.assertTrue(conditions.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(conditions.getUnsatisfied().isEmpty());
+    }
+
+    private static Conditions.Condition condition(final Promise<?> promise) {
+        return new Conditions.Condition() {
+            public Promise<?> start(BundleContext bc) {
+                return promise;
+            }
+        };
+    }
+}
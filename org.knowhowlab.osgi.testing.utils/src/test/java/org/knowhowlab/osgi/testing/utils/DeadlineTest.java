@@ -0,0 +1,39 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class DeadlineTest {
+    @Test
+    public void testRemaining() throws Exception {
+        Deadline deadline = Deadline.after(10, TimeUnit.SECONDS);
+        Assert.assertFalse(deadline.isExpired());
+        Assert.assertTrue(deadline.remaining(TimeUnit.MILLISECONDS) <= 10000);
+        Assert.assertTrue(deadline.getTimeoutInMillis() > 9000);
+    }
+
+    @Test
+    public void testExpired() throws Exception {
+        Deadline deadline = Deadline.after(1, TimeUnit.MILLISECONDS);
+        Thread.sleep(5);
+        Assert.assertTrue(deadline.isExpired());
+        Assert.assertEquals(0, deadline.remaining(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(1, deadline.getTimeoutInMillis());
+    }
+
+    @Test
+    public void testIndefinite() throws Exception {
+        Deadline deadline = Deadline.after(0);
+        Assert.assertTrue(deadline.isIndefinite());
+        Assert.assertFalse(deadline.isExpired());
+        Assert.assertEquals(Long.MAX_VALUE, deadline.getTimeoutInMillis());
+        Assert.assertEquals(Long.MAX_VALUE, Deadline.indefinite().remaining(TimeUnit.MILLISECONDS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTimeout() throws Exception {
+        Deadline.after(-1);
+    }
+}
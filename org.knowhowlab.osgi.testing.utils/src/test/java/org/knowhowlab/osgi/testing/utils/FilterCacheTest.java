@@ -0,0 +1,36 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.osgi.framework.Filter;
+
+public class FilterCacheTest {
+    @Test
+    public void testHitMiss() throws Exception {
+        FilterCache.clear();
+        Filter filter = FilterUtils.create(Runnable.class);
+        Assert.assertEquals("(objectClass=java.lang.Runnable)", filter.toString());
+        Assert.assertEquals(0, FilterCache.getHitCount());
+        Assert.assertEquals(1, FilterCache.getMissCount());
+
+        Assert.assertSame(filter, FilterUtils.create(Runnable.class));
+        Assert.assertSame(filter, FilterUtils.create(Runnable.class.getName()));
+        Assert.assertEquals(2, FilterCache.getHitCount());
+        Assert.assertEquals(1, FilterCache.getMissCount());
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        FilterCache.clear();
+        for (int i = 0; i < FilterCache.MAX_SIZE * 2; i++) {
+            FilterCache.getObjectClassFilter("org.example.Service" + i);
+        }
+        Assert.assertEquals(0, FilterCache.getHitCount());
+        Assert.assertEquals(FilterCache.MAX_SIZE * 2, FilterCache.getMissCount());
+
+        String last = "org.example.Service" + (FilterCache.MAX_SIZE * 2 - 1);
+        Assert.assertEquals("(objectClass=" + last + ")", FilterCache.getObjectClassFilter(last).toString());
+        Assert.assertEquals(1, FilterCache.getHitCount());
+        Assert.assertEquals(FilterCache.MAX_SIZE * 2, FilterCache.getMissCount());
+    }
+}
@@ -0,0 +1,79 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares FilterIndex with a linear scan of compiled filters for many registered filters.
+ * Run with <code>main</code>, it is not a unit test.
+ */
+public class FilterIndexBenchmark {
+    private static final int[] FILTERS = new int[]{10, 100, 1000};
+    private static final int EVENTS = 1000;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 50;
+
+    public static void main(String[] args) throws Exception {
+        for (int filters : FILTERS) {
+            CompiledFilter[] scan = new CompiledFilter[filters];
+            FilterIndex<Integer> index = new FilterIndex<Integer>();
+            for (int i = 0; i < filters; i++) {
+                String filter = String.format("(&(event.topics=org/example/%s)(priority>=%s))", i, i % 10);
+                scan[i] = CompiledFilter.compile(filter);
+                index.add(filter, i);
+            }
+            Map[] events = new Map[EVENTS];
+            for (int i = 0; i < events.length; i++) {
+                Map<String, Object> properties = new HashMap<String, Object>();
+                properties.put("event.topics", "org/example/" + (i % filters));
+                properties.put("priority", i % 10);
+                events[i] = properties;
+            }
+            scan(scan, events, WARMUP);
+            index(index, events, WARMUP);
+            index.resetStatistics();
+            long scanTime = scan(scan, events, ITERATIONS);
+            long indexTime = index(index, events, ITERATIONS);
+            long matches = ITERATIONS * (long) EVENTS;
+            System.out.println(String.format("%4d filters: scan %8.1f ns/event, index %8.1f ns/event, pruned %d of %d",
+                    filters, scanTime / (double) matches, indexTime / (double) matches,
+                    index.getPrunedCount(), index.getPrunedCount() + index.getEvaluatedCount()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long scan(CompiledFilter[] filters, Map[] events, int iterations) {
+        int matched = 0;
+        long start = System.nanoTime();
+        for (int n = 0; n < iterations; n++) {
+            for (Map event : events) {
+                for (CompiledFilter filter : filters) {
+                    if (filter.matches(event)) {
+                        matched++;
+                    }
+                }
+            }
+        }
+        long time = System.nanoTime() - start;
+        if (matched < 0) {
+            System.out.println(matched);
+        }
+        return time;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long index(FilterIndex<Integer> index, Map[] events, int iterations) {
+        int matched = 0;
+        long start = System.nanoTime();
+        for (int n = 0; n < iterations; n++) {
+            for (Map event : events) {
+                matched += index.match(event).size();
+            }
+        }
+        long time = System.nanoTime() - start;
+        if (matched < 0) {
+            System.out.println(matched);
+        }
+        return time;
+    }
+}
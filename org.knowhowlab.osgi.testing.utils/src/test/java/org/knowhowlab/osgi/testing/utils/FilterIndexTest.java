@@ -0,0 +1,84 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class FilterIndexTest {
+    @Test
+    public void testMatchPrunesCandidates() throws Exception {
+        FilterIndex<String> index = new FilterIndex<String>();
+        index.add("(&(topic=a)(priority>=5))", "a5");
+        index.add("(topic=b)", "b");
+        index.add("(TOPIC=c)", "c");
+        index.add("(debug=*)", "debug");
+        index.add("(|(topic=a)(topic=b))", "ab");
+        Assert.assertEquals(5, index.size());
+
+        Map<String, Object> properties = new HashMap<String, Object>();
+        properties.put("topic", "a");
+        properties.put("priority", 7);
+        Assert.assertEquals(set("a5", "ab"), new HashSet<String>(index.match(properties)));
+        Assert.assertEquals(2, index.getEvaluatedCount());
+        Assert.assertEquals(3, index.getPrunedCount());
+
+        properties.put("Topic", "c");
+        properties.remove("topic");
+        properties.put("debug", true);
+        Assert.assertEquals(set("c", "debug"), new HashSet<String>(index.match(properties)));
+    }
+
+    @Test
+    public void testArrayAndNonStringValues() throws Exception {
+        FilterIndex<String> index = new FilterIndex<String>();
+        index.add("(objectClass=x)", "x");
+        index.add("(objectClass=y)", "y");
+        index.add("(count=12)", "12");
+        index.add("(count=13)", "13");
+
+        Dictionary<String, Object> properties = new Hashtable<String, Object>();
+        properties.put("objectClass", new String[]{"x", "x", "z"});
+        properties.put("count", 12);
+        Assert.assertEquals(Arrays.asList("x", "12"), sorted(index.match(properties)));
+        Assert.assertEquals(3, index.getEvaluatedCount());
+        Assert.assertEquals(1, index.getPrunedCount());
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        FilterIndex<String> index = new FilterIndex<String>();
+        index.add("(topic=a)", "a");
+        index.add(FilterUtils.present("topic"), "a");
+        index.add("(topic=a)", "other");
+        Assert.assertTrue(index.remove("a"));
+        Assert.assertFalse(index.remove("a"));
+        Assert.assertEquals(1, index.size());
+        Assert.assertEquals(Collections.singletonList("other"), index.match(Collections.singletonMap("topic", "a")));
+        Assert.assertTrue(index.remove("other"));
+        Assert.assertTrue(index.match(Collections.singletonMap("topic", "a")).isEmpty());
+    }
+
+    @Test
+    public void testValueWithSeveralMatchingFiltersIsReturnedOnce() throws Exception {
+        FilterIndex<String> index = new FilterIndex<String>();
+        index.add("(topic=a)", "a");
+        index.add("(priority=*)", "a");
+        index.add("(topic=a)", "other");
+
+        Map<String, Object> properties = new HashMap<String, Object>();
+        properties.put("topic", "a");
+        properties.put("priority", 7);
+        Assert.assertEquals(set("a", "other"), new HashSet<String>(index.match(properties)));
+        Assert.assertEquals(2, index.match(properties).size());
+    }
+
+    private static Set<String> set(String... values) {
+        return new HashSet<String>(Arrays.asList(values));
+    }
+
+    private static List<String> sorted(List<String> values) {
+        Collections.sort(values, Collections.reverseOrder());
+        return values;
+    }
+}
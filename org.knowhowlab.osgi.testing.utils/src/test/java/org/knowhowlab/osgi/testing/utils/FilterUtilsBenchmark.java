@@ -0,0 +1,47 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.Filter;
+
+/**
+ * Compares pairwise folded AND composition with flat n-ary composition of FilterUtils.
+ * Run with <code>main</code>, it is not a unit test.
+ */
+public class FilterUtilsBenchmark {
+    private static final int[] CLAUSES = new int[]{2, 8, 64};
+    private static final int WARMUP = 2000;
+    private static final int ITERATIONS = 5000;
+
+    public static void main(String[] args) throws Exception {
+        for (int clauses : CLAUSES) {
+            Filter[] filters = new Filter[clauses];
+            for (int i = 0; i < clauses; i++) {
+                filters[i] = FilterUtils.eq("key" + i, "value" + i);
+            }
+            pairwise(filters, WARMUP);
+            run(filters, WARMUP);
+            long pairwise = pairwise(filters, ITERATIONS);
+            long flat = run(filters, ITERATIONS);
+            System.out.println(String.format("%3d clauses: pairwise %8.2f us/op, flat %8.2f us/op",
+                    clauses, pairwise / 1000.0 / ITERATIONS, flat / 1000.0 / ITERATIONS));
+        }
+    }
+
+    private static long pairwise(Filter[] filters, int iterations) throws Exception {
+        long start = System.nanoTime();
+        for (int n = 0; n < iterations; n++) {
+            Filter filter = filters[0];
+            for (int i = 1; i < filters.length; i++) {
+                filter = FilterUtils.and(filter, filters[i]);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long run(Filter[] filters, int iterations) throws Exception {
+        long start = System.nanoTime();
+        for (int n = 0; n < iterations; n++) {
+            FilterUtils.and(filters);
+        }
+        return System.nanoTime() - start;
+    }
+}
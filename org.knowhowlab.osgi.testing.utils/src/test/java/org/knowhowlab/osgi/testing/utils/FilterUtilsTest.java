@@ -0,0 +1,43 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.osgi.framework.Filter;
+
+public class FilterUtilsTest {
+    @Test
+    public void testAndFlat() throws Exception {
+        Filter filter = FilterUtils.and(FilterUtils.eq("a", 1), FilterUtils.eq("b", 2), FilterUtils.eq("c", 3));
+        Assert.assertEquals("(&(a=1)(b=2)(c=3))", filter.toString());
+    }
+
+    @Test
+    public void testOrFlat() throws Exception {
+        Filter filter = FilterUtils.or("(a=1)", "(b=2)", "(c=3)");
+        Assert.assertEquals("(|(a=1)(b=2)(c=3))", filter.toString());
+    }
+
+    @Test
+    public void testSingle() throws Exception {
+        Assert.assertEquals("(a=1)", FilterUtils.and("(a=1)").toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmpty() throws Exception {
+        FilterUtils.or(new Filter[0]);
+    }
+
+    @Test
+    public void testEscape() throws Exception {
+        Filter filter = FilterUtils.eq("key", "a(b)*c\\");
+        Assert.assertEquals("(key=a\\(b\\)\\*c\\\\)", filter.toString());
+    }
+
+    @Test
+    public void testBuilder() throws Exception {
+        FilterBuilder builder = FilterBuilder.and(FilterBuilder.eq("a", 1),
+                FilterBuilder.not(FilterBuilder.or(FilterBuilder.present("b"), FilterBuilder.ge("c", 2))));
+        Assert.assertEquals("(&(a=1)(!(|(b=*)(c>=2))))", builder.toString());
+        Assert.assertEquals(builder.toString(), builder.build().toString());
+    }
+}
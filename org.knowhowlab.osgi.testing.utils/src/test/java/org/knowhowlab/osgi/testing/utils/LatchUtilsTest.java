@@ -0,0 +1,43 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+public class LatchUtilsTest {
+    @Test
+    public void testZeroTimeoutWaitsIndefinitely() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+                latch.countDown();
+            }
+        });
+        long start = System.currentTimeMillis();
+        thread.start();
+        Assert.assertTrue(LatchUtils.await(latch, 0));
+        Assert.assertTrue(System.currentTimeMillis() - start >= 90);
+        Assert.assertEquals(0, latch.getCount());
+    }
+
+    @Test
+    public void testTimeoutElapsed() throws Exception {
+        Assert.assertFalse(LatchUtils.await(new CountDownLatch(1), 10));
+    }
+
+    @Test
+    public void testCountedDown() throws Exception {
+        Assert.assertTrue(LatchUtils.await(new CountDownLatch(0), 10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTimeout() throws Exception {
+        LatchUtils.await(new CountDownLatch(0), -1);
+    }
+}
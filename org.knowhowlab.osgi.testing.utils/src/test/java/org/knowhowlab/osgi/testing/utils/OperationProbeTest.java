@@ -0,0 +1,97 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+public class OperationProbeTest {
+    private final List<OperationEvent> events = new ArrayList<OperationEvent>();
+    private final OperationListener listener = new OperationListener() {
+        public void operationCompleted(OperationEvent event) {
+            events.add(event);
+        }
+    };
+
+    @After
+    public void tearDown() {
+        OperationProbe.removeListener(listener);
+    }
+
+    @Test
+    public void testDisabled() {
+        Assert.assertFalse(OperationProbe.isEnabled());
+        Callable<String> task = task("a");
+        Assert.assertSame(task, OperationProbe.wrap("test", null, task));
+        OperationProbe.record(null, OperationEvent.WAIT, "test", null, 0, System.nanoTime(), true);
+        Assert.assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testRecord() {
+        OperationProbe.addListener(listener);
+        OperationProbe.addListener(listener);
+        Assert.assertTrue(OperationProbe.isEnabled());
+        long start = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(20);
+        OperationProbe.record(null, OperationEvent.WAIT, "ServiceUtils.getService", new String[]{"a", "b"}, 100, start, false);
+
+        Assert.assertEquals(1, events.size());
+        OperationEvent event = events.get(0);
+        Assert.assertEquals(OperationEvent.WAIT, event.getType());
+        Assert.assertEquals("ServiceUtils.getService", event.getName());
+        Assert.assertEquals("[a, b]", event.getTargetAsString());
+        Assert.assertEquals(100, event.getTimeoutInMillis());
+        Assert.assertEquals(start, event.getStartTime());
+        Assert.assertTrue(event.getDuration(TimeUnit.MILLISECONDS) >= 20);
+        Assert.assertFalse(event.isSuccessful());
+    }
+
+    @Test
+    public void testWrap() throws Exception {
+        OperationProbe.addListener(listener);
+        Assert.assertEquals("a", OperationProbe.wrap("test", String.class, task("a")).call());
+        try {
+            OperationProbe.wrap("test", null, task(null)).call();
+            Assert.fail("task failure is expected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertEquals(2, events.size());
+        Assert.assertEquals(OperationEvent.ASYNC, events.get(0).getType());
+        Assert.assertEquals("java.lang.String", events.get(0).getTargetAsString());
+        Assert.assertTrue(events.get(0).isSuccessful());
+        Assert.assertFalse(events.get(1).isSuccessful());
+    }
+
+    @Test
+    public void testListenerFailureIsIgnored() {
+        OperationListener failing = new OperationListener() {
+            public void operationCompleted(OperationEvent event) {
+                throw new IllegalStateException();
+            }
+        };
+        OperationProbe.addListener(failing);
+        OperationProbe.addListener(listener);
+        try {
+            OperationProbe.record(null, OperationEvent.ASSERT, "test", null, -1, System.nanoTime(), true);
+        } finally {
+            OperationProbe.removeListener(failing);
+        }
+        Assert.assertEquals(1, events.size());
+    }
+
+    private static Callable<String> task(final String result) {
+        return new Callable<String>() {
+            public String call() throws Exception {
+                if (result == null) {
+                    throw new IllegalStateException();
+                }
+                return result;
+            }
+        };
+    }
+}
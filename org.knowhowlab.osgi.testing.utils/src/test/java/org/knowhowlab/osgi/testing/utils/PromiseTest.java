@@ -0,0 +1,92 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class PromiseTest {
+    @Test
+    public void testThenApply() throws Exception {
+        Promise<Integer> promise = new Promise<Integer>();
+        Promise<String> result = promise.thenApply(new Promise.Function<Integer, String>() {
+            public String apply(Integer value) throws Exception {
+                return "value" + value;
+            }
+        });
+        Assert.assertFalse(result.isDone());
+        promise.resolve(1);
+        Assert.assertEquals("value1", result.get());
+    }
+
+    @Test
+    public void testThenCompose() throws Exception {
+        final Promise<String> next = new Promise<String>();
+        Promise<String> result = Promise.resolved(1).thenCompose(new Promise.Function<Integer, Promise<String>>() {
+            public Promise<String> apply(Integer value) throws Exception {
+                return next;
+            }
+        });
+        Assert.assertFalse(result.isDone());
+        next.resolve("done");
+        Assert.assertEquals("done", result.get());
+    }
+
+    @Test
+    public void testFailurePropagation() throws Exception {
+        Promise<String> result = Promise.<Integer>failed(new IllegalStateException()).thenApply(new Promise.Function<Integer, String>() {
+            public String apply(Integer value) throws Exception {
+                return "unexpected";
+            }
+        });
+        try {
+            result.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testCancellationPropagation() throws Exception {
+        Promise<Integer> source = new Promise<Integer>();
+        Promise<String> result = source.thenApply(new Promise.Function<Integer, String>() {
+            public String apply(Integer value) throws Exception {
+                return "unexpected";
+            }
+        });
+        Assert.assertTrue(result.cancel(false));
+        Assert.assertTrue(source.isCancelled());
+
+        final Promise<String> next = new Promise<String>();
+        result = Promise.resolved(1).thenCompose(new Promise.Function<Integer, Promise<String>>() {
+            public Promise<String> apply(Integer value) throws Exception {
+                return next;
+            }
+        });
+        Assert.assertTrue(result.cancel(false));
+        Assert.assertTrue(next.isCancelled());
+    }
+
+    @Test
+    public void testCompleteOnce() throws Exception {
+        Promise<Integer> promise = new Promise<Integer>();
+        Assert.assertTrue(promise.resolve(1));
+        Assert.assertFalse(promise.resolve(2));
+        Assert.assertFalse(promise.fail(new Exception()));
+        Assert.assertEquals(Integer.valueOf(1), promise.get());
+    }
+
+    @Test
+    public void testWithTimeout() throws Exception {
+        Promise<Integer> promise = new Promise<Integer>().withTimeout(10, TimeUnit.MILLISECONDS);
+        try {
+            promise.get(5, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+}
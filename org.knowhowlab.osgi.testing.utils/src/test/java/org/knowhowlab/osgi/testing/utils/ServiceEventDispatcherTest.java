@@ -0,0 +1,27 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+
+public class ServiceEventDispatcherTest {
+    private static final ServiceListener LISTENER = new ServiceListener() {
+        public void serviceChanged(ServiceEvent event) {
+        }
+    };
+
+    @Test
+    public void testAddToDisposedDispatcher() {
+        BundleContext bc = TestProxies.bundleContext();
+        ServiceEventDispatcher dispatcher = ServiceEventDispatcher.getDispatcher(bc);
+        ServiceEventDispatcher.dispose(bc);
+        Assert.assertFalse(dispatcher.addServiceListener(LISTENER, null, ServiceEvent.REGISTERED, false));
+
+        ServiceEventDispatcher fresh = ServiceEventDispatcher.addServiceListener(bc, LISTENER, null, ServiceEvent.REGISTERED, false);
+        Assert.assertNotSame(dispatcher, fresh);
+        Assert.assertSame(fresh, ServiceEventDispatcher.getDispatcher(bc));
+        ServiceEventDispatcher.dispose(bc);
+    }
+}
@@ -0,0 +1,107 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.*;
+
+import java.util.Hashtable;
+import java.util.concurrent.TimeUnit;
+
+public class ServiceEventJournalTest {
+    private BundleContext bc;
+    private ServiceEventJournal journal;
+
+    @Before
+    public void setUp() {
+        bc = TestProxies.bundleContext();
+        journal = ServiceEventJournal.start(bc, 6);
+    }
+
+    @After
+    public void tearDown() {
+        ServiceEventJournal.stop(bc);
+    }
+
+    @Test
+    public void testStart() {
+        Assert.assertSame(journal, ServiceEventJournal.start(bc));
+        Assert.assertSame(journal, ServiceEventJournal.getJournal(bc));
+        Assert.assertEquals(8, journal.getCapacity());
+    }
+
+    @Test
+    public void testFindFromMark() throws Exception {
+        journal.record(event(ServiceEvent.REGISTERED, "a"));
+        long mark = journal.mark();
+        journal.record(event(ServiceEvent.MODIFIED, "a"));
+        journal.record(event(ServiceEvent.REGISTERED, "b"));
+
+        Filter filter = FilterUtils.create("a");
+        Assert.assertNull(journal.findServiceEvent(mark, filter, ServiceEvent.REGISTERED));
+        Assert.assertEquals(ServiceEvent.MODIFIED, journal.findServiceEvent(mark, filter, ServiceEvent.MODIFIED | ServiceEvent.REGISTERED).getType());
+        Assert.assertNotNull(journal.findServiceEvent(0, filter, ServiceEvent.REGISTERED));
+        Assert.assertEquals(2, journal.getRecords(mark).size());
+        Assert.assertEquals(mark, journal.getRecords(mark).get(0).getSequence());
+    }
+
+    @Test
+    public void testWaitReturnsRecordedEventWithoutBlocking() throws Exception {
+        long mark = journal.mark();
+        journal.record(event(ServiceEvent.REGISTERED, "a"));
+        long start = System.nanoTime();
+        Assert.assertNotNull(journal.waitForServiceEvent(mark, FilterUtils.create("a"), ServiceEvent.REGISTERED, 5, TimeUnit.SECONDS));
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testWaitForLaterEvent() throws Exception {
+        long mark = journal.mark();
+        new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                journal.record(event(ServiceEvent.REGISTERED, "b"));
+                journal.record(event(ServiceEvent.REGISTERED, "a"));
+            }
+        }.start();
+        ServiceEvent event = journal.waitForServiceEvent(mark, FilterUtils.create("a"), ServiceEvent.REGISTERED, 5, TimeUnit.SECONDS);
+        Assert.assertNotNull(event);
+        Assert.assertNull(journal.waitForServiceEvent(mark, FilterUtils.create("c"), ServiceEvent.REGISTERED, 50));
+    }
+
+    @Test
+    public void testServiceUtilsWaitFromMark() throws Exception {
+        long mark = journal.mark();
+        journal.record(event(ServiceEvent.REGISTERED, "a"));
+        Assert.assertNotNull(ServiceUtils.waitForServiceEvent(bc, mark, FilterUtils.create("a"), ServiceEvent.REGISTERED, 5, TimeUnit.SECONDS));
+        Assert.assertNull(ServiceUtils.waitForServiceEvent(bc, journal.mark(), FilterUtils.create("a"), ServiceEvent.REGISTERED, 20, TimeUnit.MILLISECONDS));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testServiceUtilsWaitFromMarkWithoutJournal() throws Exception {
+        ServiceUtils.waitForServiceEvent(TestProxies.bundleContext(), 0, null, ServiceEvent.REGISTERED, 20, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testOverwrite() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            journal.record(event(ServiceEvent.REGISTERED, "a" + i));
+        }
+        Assert.assertEquals(2, journal.getDroppedCount());
+        Assert.assertEquals(8, journal.getRecords(0).size());
+        Assert.assertNull(journal.findServiceEvent(0, FilterUtils.create("a1"), ServiceEvent.REGISTERED));
+        Assert.assertNotNull(journal.findServiceEvent(0, FilterUtils.create("a2"), ServiceEvent.REGISTERED));
+    }
+
+    private static ServiceEvent event(int type, String className) {
+        Hashtable<String, Object> properties = new Hashtable<String, Object>();
+        properties.put(Constants.OBJECTCLASS, new String[]{className});
+        return new ServiceEvent(type, TestProxies.serviceReference(properties));
+    }
+}
@@ -0,0 +1,41 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+
+public class ServiceLookupCacheTest {
+    private BundleContext bc;
+    private ServiceLookupCache cache;
+
+    @Before
+    public void setUp() {
+        bc = TestProxies.bundleContext();
+        cache = ServiceLookupCache.enable(bc, 2);
+    }
+
+    @After
+    public void tearDown() {
+        ServiceLookupCache.disable(bc);
+    }
+
+    @Test
+    public void testTrackerReuse() {
+        Assert.assertNull(cache.getServiceReference("a"));
+        Assert.assertNull(cache.getServiceReference("a"));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedTrackerIsClosed() {
+        cache.getServiceReference("a");
+        cache.getServiceReference("b");
+        cache.getServiceReference("a");
+        cache.getServiceReference("c");
+        Assert.assertEquals(2, cache.size());
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+    }
+}
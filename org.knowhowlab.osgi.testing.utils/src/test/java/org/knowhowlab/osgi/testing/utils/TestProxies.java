@@ -0,0 +1,103 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fake OSGi objects for tests that do not need a running framework
+ */
+public final class TestProxies {
+    private TestProxies() {
+    }
+
+    public static BundleContext bundleContext() {
+        return bundleContext(null);
+    }
+
+    /**
+     * @param registeredServices list that collects service objects registered with the BundleContext
+     */
+    public static BundleContext bundleContext(final List<Object> registeredServices) {
+        return proxy(BundleContext.class, new Answers() {
+            @Override
+            Object answer(Method method, Object[] args) {
+                if ("registerService".equals(method.getName())) {
+                    if (registeredServices != null) {
+                        registeredServices.add(args[1]);
+                    }
+                    return proxy(ServiceRegistration.class, new Answers());
+                }
+                return super.answer(method, args);
+            }
+        });
+    }
+
+    public static Bundle bundle(long bundleId, String symbolicName) {
+        Map<String, Object> results = new HashMap<String, Object>();
+        results.put("getBundleId", bundleId);
+        results.put("getSymbolicName", symbolicName);
+        return proxy(Bundle.class, new Answers(results));
+    }
+
+    public static ServiceReference serviceReference(Hashtable<String, Object> properties) {
+        return proxy(ServiceReference.class, new PropertyAnswers(properties));
+    }
+
+    private static <T> T proxy(Class<T> type, final Answers answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class[]{type}, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("equals".equals(method.getName())) {
+                    return proxy == args[0];
+                } else if ("hashCode".equals(method.getName())) {
+                    return System.identityHashCode(proxy);
+                }
+                return answers.answer(method, args);
+            }
+        }));
+    }
+
+    private static class Answers {
+        private final Map<String, Object> results;
+
+        Answers() {
+            this(Collections.<String, Object>emptyMap());
+        }
+
+        Answers(Map<String, Object> results) {
+            this.results = results;
+        }
+
+        Object answer(Method method, Object[] args) {
+            return results.get(method.getName());
+        }
+    }
+
+    private static class PropertyAnswers extends Answers {
+        private final Hashtable<String, Object> properties;
+
+        PropertyAnswers(Hashtable<String, Object> properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        Object answer(Method method, Object[] args) {
+            if ("getProperty".equals(method.getName())) {
+                return properties.get(args[0]);
+            } else if ("getPropertyKeys".equals(method.getName())) {
+                return properties.keySet().toArray(new String[properties.size()]);
+            }
+            return super.answer(method, args);
+        }
+    }
+}
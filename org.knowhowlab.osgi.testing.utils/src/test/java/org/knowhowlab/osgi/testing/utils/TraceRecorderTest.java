@@ -0,0 +1,116 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.*;
+import org.osgi.service.cm.ConfigurationEvent;
+import org.osgi.service.cm.ConfigurationListener;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+
+public class TraceRecorderTest {
+    private BundleContext bc;
+    private List<Object> services;
+    private StringWriter writer;
+    private TraceRecorder recorder;
+
+    @Before
+    public void setUp() {
+        services = new ArrayList<Object>();
+        bc = TestProxies.bundleContext(services);
+        writer = new StringWriter();
+        recorder = TraceRecorder.start(bc, writer);
+    }
+
+    @After
+    public void tearDown() {
+        TraceRecorder.stop(bc);
+    }
+
+    @Test
+    public void testStart() {
+        Assert.assertSame(recorder, TraceRecorder.getRecorder(bc));
+        try {
+            TraceRecorder.start(bc, new StringWriter());
+            Assert.fail("recorder is already started");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testEventsAreStreamed() {
+        Hashtable<String, Object> properties = new Hashtable<String, Object>();
+        properties.put(Constants.OBJECTCLASS, new String[]{"a.B"});
+        properties.put(Constants.SERVICE_ID, 7L);
+        recorder.record(new ServiceEvent(ServiceEvent.REGISTERED, TestProxies.serviceReference(properties)));
+        Assert.assertTrue(writer.toString().contains("\"name\":\"REGISTERED\",\"cat\":\"service\",\"ph\":\"i\""));
+        Assert.assertTrue(writer.toString().contains("\"args\":{\"objectClass\":\"a.B\",\"service.id\":\"7\"}}"));
+        Assert.assertTrue(writer.toString().contains("\"name\":\"thread_name\""));
+    }
+
+    @Test
+    public void testBundleStartIsSpan() {
+        Bundle bundle = TestProxies.bundle(5, "org.example");
+        recorder.record(new BundleEvent(BundleEvent.STARTING, bundle));
+        recorder.record(new BundleEvent(BundleEvent.STARTED, bundle));
+        recorder.record(new BundleEvent(BundleEvent.RESOLVED, bundle));
+        String trace = writer.toString();
+        Assert.assertTrue(trace.contains("\"name\":\"start\",\"cat\":\"bundle\",\"ph\":\"b\""));
+        Assert.assertTrue(trace.contains("\"name\":\"start\",\"cat\":\"bundle\",\"ph\":\"e\""));
+        Assert.assertTrue(trace.contains("\"id\":5,"));
+        Assert.assertTrue(trace.contains("\"name\":\"RESOLVED\",\"cat\":\"bundle\",\"ph\":\"i\""));
+    }
+
+    @Test
+    public void testWaitIsCompleteEvent() {
+        long start = System.nanoTime() - 2000000;
+        OperationProbe.record(bc, OperationEvent.WAIT, "ServiceUtils.getService", "(objectClass=\"a\")", 100, start, false);
+        OperationProbe.record(TestProxies.bundleContext(), OperationEvent.WAIT, "ServiceUtils.getService", "b", 100, start, true);
+        String trace = writer.toString();
+        Assert.assertTrue(trace.contains("\"name\":\"ServiceUtils.getService\",\"cat\":\"wait\",\"ph\":\"X\""));
+        Assert.assertTrue(trace.contains("\"target\":\"(objectClass=\\\"a\\\")\",\"timeout\":100,\"outcome\":\"timeout\""));
+        Assert.assertFalse(trace.contains("\"found\""));
+    }
+
+    @Test
+    public void testConfigurationEventNames() {
+        ConfigurationListener listener = null;
+        for (Object service : services) {
+            if (service instanceof ConfigurationListener) {
+                listener = (ConfigurationListener) service;
+            }
+        }
+        ServiceReference reference = TestProxies.serviceReference(new Hashtable<String, Object>());
+        listener.configurationEvent(new ConfigurationEvent(reference, ConfigurationEvent.CM_DELETED, null, "a"));
+        listener.configurationEvent(new ConfigurationEvent(reference, 3, null, "b"));
+        listener.configurationEvent(new ConfigurationEvent(reference, 7, null, "c"));
+        String trace = writer.toString();
+        Assert.assertTrue(trace.contains("\"name\":\"CM_DELETED\",\"cat\":\"configuration\""));
+        Assert.assertTrue(trace.contains("\"name\":\"CM_LOCATION_CHANGED\",\"cat\":\"configuration\""));
+        Assert.assertTrue(trace.contains("\"name\":\"ConfigurationEvent 7\",\"cat\":\"configuration\""));
+        Assert.assertFalse(trace.contains("CM_UPDATED"));
+    }
+
+    @Test
+    public void testStopCompletesTrace() {
+        recorder.record(new FrameworkEvent(FrameworkEvent.ERROR, TestProxies.bundle(5, "org.example"), new Exception("a\nb")));
+        long count = recorder.getEventCount();
+        TraceRecorder.stop(bc);
+        Assert.assertNull(TraceRecorder.getRecorder(bc));
+        recorder.record(new FrameworkEvent(FrameworkEvent.INFO, TestProxies.bundle(5, "org.example"), null));
+        Assert.assertEquals(count, recorder.getEventCount());
+        Assert.assertNull(recorder.getError());
+
+        String trace = writer.toString();
+        Assert.assertTrue(trace.startsWith("[\n{"));
+        Assert.assertTrue(trace.endsWith("}\n]\n"));
+        Assert.assertTrue(trace.contains("\"throwable\":\"java.lang.Exception: a\\nb\""));
+        Assert.assertFalse(trace.contains("INFO"));
+    }
+}
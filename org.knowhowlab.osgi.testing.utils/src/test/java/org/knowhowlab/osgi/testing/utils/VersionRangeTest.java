@@ -0,0 +1,34 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.osgi.framework.Version;
+
+public class VersionRangeTest {
+    @Test
+    public void testAtLeast() throws Exception {
+        VersionRange range = VersionRange.parse("1.2");
+        Assert.assertFalse(range.includes(new Version("1.1.9")));
+        Assert.assertTrue(range.includes(new Version("1.2")));
+        Assert.assertTrue(range.includes(new Version("99")));
+        Assert.assertEquals("1.2.0", range.toString());
+    }
+
+    @Test
+    public void testInterval() throws Exception {
+        VersionRange range = VersionRange.parse("[1.0,2.0)");
+        Assert.assertTrue(range.includes(new Version("1.0")));
+        Assert.assertTrue(range.includes(new Version("1.9.9")));
+        Assert.assertFalse(range.includes(new Version("2.0")));
+        Assert.assertEquals("[1.0.0,2.0.0)", range.toString());
+
+        range = VersionRange.parse("(1.0,2.0]");
+        Assert.assertFalse(range.includes(new Version("1.0")));
+        Assert.assertTrue(range.includes(new Version("2.0")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalid() throws Exception {
+        VersionRange.parse("[1.0");
+    }
+}
@@ -0,0 +1,77 @@
+package org.knowhowlab.osgi.testing.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class WaitTimeStatisticsTest {
+    @Test
+    public void testTimedAssertions() {
+        WaitTimeStatistics statistics = new WaitTimeStatistics();
+        statistics.operationCompleted(event(OperationEvent.ASSERT, "ServiceAssert.assertServiceAvailable", 1000, 10, true));
+        statistics.operationCompleted(event(OperationEvent.ASSERT, "ServiceAssert.assertServiceAvailable", 1000, 30, true));
+        statistics.operationCompleted(event(OperationEvent.ASSERT, "ServiceAssert.assertServiceAvailable", 100, 100, false));
+
+        List<WaitTimeStatistics.CallSite> callSites = statistics.getCallSites();
+        Assert.assertEquals(1, callSites.size());
+        WaitTimeStatistics.CallSite callSite = callSites.get(0);
+        Assert.assertTrue(callSite.getName().startsWith("ServiceAssert.assertServiceAvailable at "));
+        Assert.assertEquals(3, callSite.getCount());
+        Assert.assertEquals(1, callSite.getFailures());
+        Assert.assertEquals(140, callSite.getTotalWait(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(100, callSite.getMaxWait(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(1960, callSite.getTotalSlack(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(1000, callSite.getMaxTimeout(TimeUnit.MILLISECONDS));
+
+        long[] histogram = callSite.getHistogram();
+        Assert.assertEquals(1, histogram[4]);
+        Assert.assertEquals(1, histogram[5]);
+        Assert.assertEquals(1, histogram[7]);
+        Assert.assertEquals(31, callSite.getPercentileInMillis(50));
+        Assert.assertEquals(127, callSite.getPercentileInMillis(100));
+    }
+
+    @Test
+    public void testIgnoredOperations() {
+        WaitTimeStatistics statistics = new WaitTimeStatistics();
+        statistics.operationCompleted(event(OperationEvent.ASSERT, "BundleAssert.assertBundleState", -1, 10, true));
+        statistics.operationCompleted(event(OperationEvent.ASSERT, "BundleAssert.assertBundleState", 0, 10, true));
+        statistics.operationCompleted(event(OperationEvent.WAIT, "BundleUtils.findBundle", 100, 10, true));
+        Assert.assertTrue(statistics.getCallSites().isEmpty());
+
+        statistics = new WaitTimeStatistics(OperationEvent.WAIT | OperationEvent.ASSERT);
+        statistics.operationCompleted(event(OperationEvent.WAIT, "BundleUtils.findBundle", 100, 10, true));
+        Assert.assertEquals(1, statistics.getCallSites().size());
+        statistics.reset();
+        Assert.assertTrue(statistics.getCallSites().isEmpty());
+    }
+
+    @Test
+    public void testReport() {
+        WaitTimeStatistics statistics = new WaitTimeStatistics();
+        statistics.operationCompleted(event(OperationEvent.ASSERT, "ServiceAssert.assertServiceAvailable", 5000, 10, true));
+        statistics.operationCompleted(event(OperationEvent.ASSERT, "BundleAssert.assertBundleState", 1000, 900, true));
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        statistics.report(new PrintStream(buffer), 1);
+        String[] lines = buffer.toString().split("\n");
+
+        Assert.assertEquals(5, lines.length);
+        Assert.assertEquals("Wait time statistics: 2 timed calls at 2 call sites, total wait: 910ms", lines[0]);
+        Assert.assertEquals("Largest time spent:", lines[1]);
+        Assert.assertTrue(lines[2].startsWith("  BundleAssert.assertBundleState at "));
+        Assert.assertEquals("Largest unused slack:", lines[3]);
+        Assert.assertTrue(lines[4].startsWith("  ServiceAssert.assertServiceAvailable at "));
+        Assert.assertTrue(lines[4].endsWith("timeout: 5000ms, unused slack: 4990ms"));
+    }
+
+    private static OperationEvent event(int type, String name, long timeoutInMillis, long durationInMillis, boolean successful) {
+        long start = System.nanoTime();
+        return new OperationEvent(null, type, name, null, timeoutInMillis, start,
+                start + TimeUnit.MILLISECONDS.toNanos(durationInMillis), successful);
+    }
+}
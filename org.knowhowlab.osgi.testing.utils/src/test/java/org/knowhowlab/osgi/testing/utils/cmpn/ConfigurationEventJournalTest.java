@@ -0,0 +1,92 @@
+package org.knowhowlab.osgi.testing.utils.cmpn;
+
+import junit.framework.Assert;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knowhowlab.osgi.testing.utils.TestProxies;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.cm.ConfigurationEvent;
+
+import java.util.Hashtable;
+import java.util.concurrent.TimeUnit;
+
+public class ConfigurationEventJournalTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private BundleContext bc;
+    private ServiceReference reference;
+    private ConfigurationEventJournal journal;
+
+    @Before
+    public void setUp() {
+        bc = TestProxies.bundleContext();
+        reference = TestProxies.serviceReference(new Hashtable<String, Object>());
+        journal = ConfigurationEventJournal.start(bc, 4);
+    }
+
+    @After
+    public void tearDown() {
+        ConfigurationEventJournal.stop(bc);
+    }
+
+    @Test
+    public void testLatencyPercentiles() {
+        for (int i = 1; i <= 100; i++) {
+            journal.request("a", ConfigurationEvent.CM_UPDATED, 0);
+            journal.record(new ConfigurationEvent(reference, ConfigurationEvent.CM_UPDATED, null, "a"), i * MS);
+        }
+        journal.request("b", ConfigurationEvent.CM_DELETED, 0);
+        journal.record(new ConfigurationEvent(reference, ConfigurationEvent.CM_UPDATED, null, "b"), 5 * MS);
+        journal.record(new ConfigurationEvent(reference, ConfigurationEvent.CM_DELETED, null, "b"), 7 * MS);
+
+        Assert.assertEquals(50, journal.getLatency("a", 50, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(99, journal.getLatency("a", 99, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(100, journal.getSampleCount("a"));
+        Assert.assertEquals(7, journal.getLatency("b", 50, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(1, journal.getSampleCount("b"));
+        Assert.assertEquals(-1, journal.getLatency("c", 50, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(2, journal.getPids().size());
+    }
+
+    @Test
+    public void testRequestedNotifiesStartedJournals() {
+        ConfigurationEventJournal.requested("a", ConfigurationEvent.CM_UPDATED);
+        journal.record(new ConfigurationEvent(reference, ConfigurationEvent.CM_UPDATED, null, "a"), System.nanoTime());
+        Assert.assertEquals(1, journal.getSampleCount("a"));
+    }
+
+    @Test
+    public void testFailedRequestIsNotCorrelated() {
+        long timestamp = ConfigurationEventJournal.requested("a", ConfigurationEvent.CM_UPDATED);
+        ConfigurationEventJournal.failed("a", ConfigurationEvent.CM_UPDATED, timestamp);
+        journal.record(new ConfigurationEvent(reference, ConfigurationEvent.CM_UPDATED, null, "a"), System.nanoTime());
+        Assert.assertEquals(0, journal.getSampleCount("a"));
+    }
+
+    @Test
+    public void testPendingRequestsAreBoundedAndExpired() {
+        for (int i = 0; i < ConfigurationEventJournal.MAX_PENDING_REQUESTS + 1; i++) {
+            journal.request("a", ConfigurationEvent.CM_UPDATED, i * MS);
+        }
+        journal.record(new ConfigurationEvent(reference, ConfigurationEvent.CM_UPDATED, null, "a"), 100 * MS);
+        Assert.assertEquals(99, journal.getLatency("a", 50, TimeUnit.MILLISECONDS));
+
+        journal.request("b", ConfigurationEvent.CM_UPDATED, 0);
+        long expired = TimeUnit.MILLISECONDS.toNanos(ConfigurationEventJournal.PENDING_REQUEST_TIMEOUT) + MS;
+        journal.record(new ConfigurationEvent(reference, ConfigurationEvent.CM_UPDATED, null, "b"), expired);
+        Assert.assertEquals(0, journal.getSampleCount("b"));
+    }
+
+    @Test
+    public void testWaitFromMark() throws Exception {
+        long mark = journal.mark();
+        journal.record(new ConfigurationEvent(reference, ConfigurationEvent.CM_UPDATED, "f", "f.1"), System.nanoTime());
+        Assert.assertNotNull(journal.waitForConfigurationEvent(mark, ConfigurationEvent.CM_UPDATED, null, "f", null, 1, TimeUnit.SECONDS));
+        Assert.assertNull(journal.findConfigurationEvent(mark, ConfigurationEvent.CM_DELETED, null, null, null));
+        Assert.assertNull(journal.findConfigurationEvent(journal.mark(), ConfigurationEvent.CM_UPDATED, null, null, null));
+        // served from journal without ConfigurationListener registration
+        Assert.assertNull(ConfigurationAdminUtils.waitForConfigurationEvent(bc, ConfigurationEvent.CM_DELETED, 20));
+    }
+}
@@ -0,0 +1,126 @@
+package org.knowhowlab.osgi.testing.utils.cmpn;
+
+import junit.framework.Assert;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knowhowlab.osgi.testing.utils.TestProxies;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventHandler;
+
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class EventJournalTest {
+    private BundleContext bc;
+    private EventJournal journal;
+
+    @Before
+    public void setUp() {
+        bc = TestProxies.bundleContext();
+        journal = EventJournal.start(bc, 4, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @After
+    public void tearDown() {
+        EventJournal.stop(bc);
+    }
+
+    @Test
+    public void testFindByTopicPattern() throws Exception {
+        journal.record(event("org/example/a", 1), System.nanoTime());
+        long mark = journal.mark();
+        journal.record(event("org/example/b/c", 2), System.nanoTime());
+        journal.record(event("org/example/a", 3), System.nanoTime());
+        journal.record(event("org/other", 4), System.nanoTime());
+
+        Assert.assertEquals(3, journal.findEvent(mark, "org/example/a", null).getProperty("id"));
+        Assert.assertEquals(1, journal.findEvent(0, "org/example/a", null).getProperty("id"));
+        Assert.assertEquals(2, journal.findEvent(mark, "org/example/*", null).getProperty("id"));
+        Assert.assertEquals(2, journal.findEvent(mark, "*", null).getProperty("id"));
+        Assert.assertEquals(4, journal.findEvent(mark, new String[]{"org/other", "org/example/a"}, FrameworkUtil.createFilter("(id>=4)")).getProperty("id"));
+        Assert.assertNull(journal.findEvent(mark, "org/*", FrameworkUtil.createFilter("(id=1)")));
+        Assert.assertNull(journal.findEvent(0, "org/example", null));
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            journal.record(event("topic/" + (i % 2), i), System.nanoTime());
+        }
+        Assert.assertEquals(4, journal.size());
+        Assert.assertEquals(2, journal.findEvent(0, "topic/0", null).getProperty("id"));
+        Assert.assertEquals(3, journal.findEvent(0, "topic/1", null).getProperty("id"));
+    }
+
+    @Test
+    public void testMaxAge() throws Exception {
+        EventJournal.stop(bc);
+        journal = EventJournal.start(bc, 4, 1, TimeUnit.SECONDS);
+        long now = System.nanoTime();
+        journal.record(event("topic", 1), now - TimeUnit.SECONDS.toNanos(5));
+        journal.record(event("topic", 2), now);
+        Assert.assertEquals(1, journal.size());
+        Assert.assertEquals(2, journal.findEvent(0, "topic", null).getProperty("id"));
+    }
+
+    @Test
+    public void testWaitForEvent() throws Exception {
+        final long mark = journal.mark();
+        new Thread() {
+            @Override
+            public void run() {
+                journal.record(event("org/example/a", 1), System.nanoTime());
+            }
+        }.start();
+        Assert.assertNotNull(journal.waitForEvent(mark, "org/example/*", null, 5, TimeUnit.SECONDS));
+        Assert.assertNull(journal.waitForEvent(journal.mark(), new String[]{"org/example/*"}, null, 20));
+        // served from journal without EventHandler registration
+        Assert.assertNull(EventAdminUtils.waitForEvent(bc, "org/example/a", null, 20, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testZeroTimeoutWaitsUntilEventInBothPaths() throws Exception {
+        new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                journal.record(event("org/example/a", 1), System.nanoTime());
+            }
+        }.start();
+        Assert.assertNotNull(EventAdminUtils.waitForEvent(bc, "org/example/a", null, 0, TimeUnit.MILLISECONDS));
+
+        final List<Object> handlers = new CopyOnWriteArrayList<Object>();
+        new Thread() {
+            @Override
+            public void run() {
+                try {
+                    while (handlers.isEmpty()) {
+                        Thread.sleep(10);
+                    }
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ((EventHandler) handlers.get(0)).handleEvent(event("org/example/a", 2));
+            }
+        }.start();
+        Event event = EventAdminUtils.waitForEvent(TestProxies.bundleContext(handlers), "org/example/a", null, 0, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(2, event.getProperty("id"));
+    }
+
+    private static Event event(String topic, int id) {
+        Hashtable<String, Object> properties = new Hashtable<String, Object>();
+        properties.put("id", id);
+        return new Event(topic, (Dictionary) properties);
+    }
+}